@@ -0,0 +1,271 @@
+package com.ejemplo.agenda.carga;
+
+import com.ejemplo.agenda.model.Contacto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga de lazo abierto: lanza las peticiones a la tasa objetivo sin esperar a las anteriores
+ * y mide la latencia desde el instante en que la petición debía salir. Así un servicio lento no frena al
+ * generador y las colas se ven en los percentiles altos (sin omisión coordinada).
+ */
+class GeneradorCarga {
+    
+    private static final long LATENCIA_MAXIMA_NS = TimeUnit.MINUTES.toNanos(2);
+    
+    private final URI base;
+    private final double tasa;
+    private final Duration duracion;
+    private final Duration calentamiento;
+    private final Map<OperacionCarga, Integer> mezcla;
+    private final int maximoEnVuelo;
+    private final long semilla;
+    
+    private final HttpClient cliente;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<OperacionCarga, Recorder> latencias = new EnumMap<>(OperacionCarga.class);
+    private final Map<OperacionCarga, LongAdder> errores = new EnumMap<>(OperacionCarga.class);
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private final LongAdder descartadas = new LongAdder();
+    
+    private long maximoId;
+    private String[] categorias = new String[0];
+    
+    GeneradorCarga(URI base, double tasa, Duration duracion, Duration calentamiento,
+                   Map<OperacionCarga, Integer> mezcla, int conexiones, int maximoEnVuelo, long semilla) {
+        this.base = base;
+        this.tasa = tasa;
+        this.duracion = duracion;
+        this.calentamiento = calentamiento;
+        this.mezcla = mezcla;
+        this.maximoEnVuelo = maximoEnVuelo;
+        this.semilla = semilla;
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(conexiones))
+                .build();
+        for (OperacionCarga operacion : OperacionCarga.values()) {
+            latencias.put(operacion, new Recorder(LATENCIA_MAXIMA_NS, 3));
+            errores.put(operacion, new LongAdder());
+        }
+    }
+    
+    /**
+     * Consulta el servicio para conocer el rango de ids y las categorías existentes.
+     */
+    void sondear() throws IOException, InterruptedException {
+        // Con los datos del generador los ids son consecutivos; los huecos solo producen algún 404
+        JsonNode pagina = objectMapper.readTree(get("/api/contactos?pagina=0&" + OperacionCarga.TAMAÑO + "1"));
+        maximoId = pagina.path("totalElements").asLong();
+        List<String> nombres = new ArrayList<>();
+        for (JsonNode categoria : objectMapper.readTree(get("/api/categorias"))) {
+            nombres.add(categoria.path("nombre").asText());
+        }
+        categorias = nombres.toArray(new String[0]);
+        System.out.printf("Servicio %s: ~%d contactos, %d categorías%n", base, maximoId, categorias.length);
+    }
+    
+    Map<OperacionCarga, Histogram> ejecutar() {
+        OperacionCarga[] ruleta = ruleta();
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        GeneradorDatos datos = new GeneradorDatos(semilla);
+        long intervalo = (long) (1_000_000_000L / tasa);
+        long inicio = System.nanoTime();
+        long finCalentamiento = inicio + calentamiento.toNanos();
+        long fin = finCalentamiento + duracion.toNanos();
+        boolean midiendo = calentamiento.isZero();
+        long siguienteInforme = inicio + TimeUnit.SECONDS.toNanos(5);
+        
+        for (long i = 0; ; i++) {
+            long previsto = inicio + i * intervalo;
+            if (previsto >= fin) {
+                break;
+            }
+            long espera = previsto - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            if (!midiendo && previsto >= finCalentamiento) {
+                latencias.values().forEach(Recorder::reset);
+                errores.values().forEach(LongAdder::reset);
+                descartadas.reset();
+                midiendo = true;
+                System.out.println("Calentamiento terminado; empieza la medición");
+            }
+            if (System.nanoTime() >= siguienteInforme) {
+                System.out.printf("  %ds, %d peticiones en vuelo%n",
+                        TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - inicio), enVuelo.get());
+                siguienteInforme += TimeUnit.SECONDS.toNanos(5);
+            }
+            if (enVuelo.get() >= maximoEnVuelo) {
+                descartadas.increment();
+                continue;
+            }
+            OperacionCarga operacion = ruleta[aleatorio.nextInt(ruleta.length)];
+            enviar(operacion, peticion(operacion, aleatorio, datos), previsto);
+        }
+        
+        // Se espera a las respuestas pendientes antes de cerrar los histogramas
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (enVuelo.get() > 0 && System.nanoTime() < limite) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        Map<OperacionCarga, Histogram> resultado = new EnumMap<>(OperacionCarga.class);
+        latencias.forEach((operacion, recorder) -> resultado.put(operacion, recorder.getIntervalHistogram()));
+        return resultado;
+    }
+    
+    void informar(Map<OperacionCarga, Histogram> resultado, Path directorio, PrintStream salida) throws IOException {
+        Histogram total = new Histogram(LATENCIA_MAXIMA_NS, 3);
+        double segundos = duracion.toMillis() / 1000.0;
+        ObjectNode resumen = objectMapper.createObjectNode();
+        ObjectNode operaciones = resumen.putObject("operaciones");
+        
+        salida.printf("%n%-14s %9s %8s %10s %10s %10s %10s %10s%n",
+                "Operación", "Peticiones", "Errores", "p50 ms", "p99 ms", "p999 ms", "max ms", "req/s");
+        for (Map.Entry<OperacionCarga, Histogram> entrada : resultado.entrySet()) {
+            Histogram histograma = entrada.getValue();
+            if (histograma.getTotalCount() == 0) {
+                continue;
+            }
+            total.add(histograma);
+            long numErrores = errores.get(entrada.getKey()).sum();
+            salida.printf("%-14s %9d %8d %10.2f %10.2f %10.2f %10.2f %10.1f%n", entrada.getKey(),
+                    histograma.getTotalCount(), numErrores, ms(histograma, 50), ms(histograma, 99), ms(histograma, 99.9),
+                    histograma.getMaxValue() / 1e6, histograma.getTotalCount() / segundos);
+            ObjectNode nodo = operaciones.putObject(entrada.getKey().name());
+            escribir(nodo, histograma, segundos);
+            nodo.put("errores", numErrores);
+        }
+        long totalErrores = errores.values().stream().mapToLong(LongAdder::sum).sum();
+        salida.printf("%-14s %9d %8d %10.2f %10.2f %10.2f %10.2f %10.1f%n", "TOTAL", total.getTotalCount(), totalErrores,
+                ms(total, 50), ms(total, 99), ms(total, 99.9), total.getMaxValue() / 1e6, total.getTotalCount() / segundos);
+        if (descartadas.sum() > 0) {
+            salida.printf("%d peticiones no se enviaron por superar %d en vuelo: el servicio no sostiene %.0f req/s%n",
+                    descartadas.sum(), maximoEnVuelo, tasa);
+        }
+        
+        resumen.put("tasaObjetivo", tasa);
+        resumen.put("duracionSegundos", segundos);
+        resumen.put("descartadas", descartadas.sum());
+        resumen.put("errores", totalErrores);
+        escribir(resumen.putObject("total"), total, segundos);
+        Files.createDirectories(directorio);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(directorio.resolve("resumen.json").toFile(), resumen);
+        try (PrintStream hgrm = new PrintStream(directorio.resolve("latencias.hgrm").toFile(), StandardCharsets.UTF_8)) {
+            total.outputPercentileDistribution(hgrm, 1e6);
+        }
+        salida.println("\nResumen en " + directorio.resolve("resumen.json") + " y distribución en "
+                + directorio.resolve("latencias.hgrm"));
+    }
+    
+    private void enviar(OperacionCarga operacion, HttpRequest peticion, long previsto) {
+        enVuelo.incrementAndGet();
+        cliente.sendAsync(peticion, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((respuesta, error) -> {
+                    long latencia = Math.min(System.nanoTime() - previsto, LATENCIA_MAXIMA_NS);
+                    latencias.get(operacion).recordValue(latencia);
+                    // Un 404 por id inexistente es una respuesta válida del servicio
+                    if (error != null || respuesta.statusCode() >= 500 || respuesta.statusCode() == 400) {
+                        errores.get(operacion).increment();
+                    }
+                    enVuelo.decrementAndGet();
+                });
+    }
+    
+    private HttpRequest peticion(OperacionCarga operacion, SplittableRandom aleatorio, GeneradorDatos datos) {
+        HttpRequest.Builder peticion = HttpRequest.newBuilder(base.resolve(operacion.ruta(aleatorio, maximoId, categorias)))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        switch (operacion) {
+            case CREAR:
+            case ACTUALIZAR:
+                Contacto contacto = datos.contacto(maximoId + 1 + aleatorio.nextInt(1_000_000), List.of());
+                return peticion.header("Content-Type", "application/json")
+                        .method(operacion.getMetodo(), HttpRequest.BodyPublishers.ofString(json(contacto)))
+                        .build();
+            case FAVORITO:
+                return peticion.header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"favorito\":" + aleatorio.nextBoolean() + "}"))
+                        .build();
+            default:
+                return peticion.GET().build();
+        }
+    }
+    
+    private String json(Contacto contacto) {
+        ObjectNode nodo = objectMapper.createObjectNode();
+        nodo.put("nombre", contacto.getNombre());
+        nodo.put("apellido", contacto.getApellido());
+        nodo.put("telefono", contacto.getTelefono());
+        nodo.put("email", contacto.getEmail());
+        nodo.put("direccion", contacto.getDireccion());
+        nodo.put("notas", contacto.getNotas());
+        nodo.put("favorito", contacto.isFavorito());
+        if (contacto.getFechaNacimiento() != null) {
+            nodo.put("fechaNacimiento", contacto.getFechaNacimiento().toString());
+        }
+        return nodo.toString();
+    }
+    
+    private OperacionCarga[] ruleta() {
+        List<OperacionCarga> ruleta = new ArrayList<>();
+        mezcla.forEach((operacion, peso) -> {
+            for (int i = 0; i < peso; i++) {
+                ruleta.add(operacion);
+            }
+        });
+        if (ruleta.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla de operaciones está vacía");
+        }
+        return ruleta.toArray(new OperacionCarga[0]);
+    }
+    
+    private String get(String ruta) throws IOException, InterruptedException {
+        HttpResponse<String> respuesta = cliente.send(HttpRequest.newBuilder(base.resolve(ruta)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() != 200) {
+            throw new IOException("GET " + ruta + " devolvió " + respuesta.statusCode());
+        }
+        return respuesta.body();
+    }
+    
+    private static void escribir(ObjectNode nodo, Histogram histograma, double segundos) {
+        nodo.put("peticiones", histograma.getTotalCount());
+        nodo.put("porSegundo", histograma.getTotalCount() / segundos);
+        nodo.put("p50Ms", ms(histograma, 50));
+        nodo.put("p90Ms", ms(histograma, 90));
+        nodo.put("p99Ms", ms(histograma, 99));
+        nodo.put("p999Ms", ms(histograma, 99.9));
+        nodo.put("maxMs", histograma.getMaxValue() / 1e6);
+    }
+    
+    private static double ms(Histogram histograma, double percentil) {
+        return histograma.getValueAtPercentile(percentil) / 1e6;
+    }
+}
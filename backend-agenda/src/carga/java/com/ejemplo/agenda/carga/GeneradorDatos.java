@@ -0,0 +1,235 @@
+package com.ejemplo.agenda.carga;
+
+import com.ejemplo.agenda.model.Categoria;
+import com.ejemplo.agenda.model.Contacto;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.function.LongConsumer;
+
+/**
+ * Generador determinista de contactos realistas: nombres y apellidos españoles con tildes, teléfonos
+ * con formatos variados y una distribución de categorías sesgada (Zipf). El contacto n depende solo
+ * de la semilla y de n, así que dos ejecuciones con la misma semilla producen los mismos datos.
+ */
+public class GeneradorDatos {
+    
+    static final String[] NOMBRES = {
+        "Juan", "María", "José", "Lucía", "Carlos", "Ana", "Andrés", "Sofía", "Íñigo", "Begoña",
+        "Jesús", "Martina", "Álvaro", "Paula", "Raúl", "Inés", "Sergio", "Nuria", "Óscar", "Elena",
+        "Rubén", "Mónica", "Adrián", "Verónica", "Tomás", "Ángela", "Joaquín", "Rocío", "Ramón", "Pilar",
+        "Iván", "Sonia", "Hugo", "Noelia", "Víctor", "Aitana", "Germán", "Aurora", "Julián", "Lorena"
+    };
+    static final String[] APELLIDOS = {
+        "García", "Pérez", "López", "Martínez", "Sánchez", "Gómez", "Fernández", "Muñoz", "Rodríguez", "González",
+        "Hernández", "Díaz", "Álvarez", "Jiménez", "Romero", "Navarro", "Gutiérrez", "Ruiz", "Ibáñez", "Castaño",
+        "Peña", "Núñez", "Domínguez", "Vázquez", "Ramírez", "Morán", "Cañete", "Benítez", "Márquez", "Ortiz"
+    };
+    static final String[] CATEGORIAS = {
+        "Familia", "Trabajo", "Amigos", "Médicos", "Servicios", "Clientes", "Proveedores", "Vecinos",
+        "Gimnasio", "Colegio", "Universidad", "Club de pádel", "Asociación", "Técnicos", "Viajes", "Música"
+    };
+    private static final String[] COLORES = {"#FF6B6B", "#4ECDC4", "#45B7D1", "#96CEB4", "#FFEAA7", "#DDA0DD", "#F4A261", "#2A9D8F"};
+    private static final String[] VIAS = {"Calle", "Avenida", "Plaza", "Paseo", "Camino", "Ronda"};
+    private static final String[] CIUDADES = {
+        "Madrid", "Barcelona", "Sevilla", "Málaga", "Córdoba", "A Coruña", "León", "Cádiz", "Logroño", "Ávila"
+    };
+    private static final String[] DOMINIOS = {"gmail.com", "hotmail.es", "yahoo.es", "empresa.es", "correo.com"};
+    private static final String[] NOTAS = {
+        "Llamar por la tarde", "Cumpleaños en verano", "Conocido en el congreso", "Prefiere WhatsApp",
+        "Cliente desde 2019", "Compañero de la universidad", "Pedir presupuesto", "Vecino del tercero"
+    };
+    
+    private static final long MEZCLA = 0x9E3779B97F4A7C15L;
+    private static final double EXPONENTE_ZIPF = 1.1;
+    private static final int SIN_CATEGORIA_POR_MIL = 80;
+    private static final int LOTE = 5000;
+    
+    private static final String INSERTAR_CONTACTO = "INSERT INTO contactos (nombre, apellido, telefono, " +
+            "telefono_normalizado, telefono_invertido, email, direccion, fecha_nacimiento, notas, favorito, " +
+            "categoria_id, fecha_creacion, fecha_actualizacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final long semilla;
+    private final LocalDateTime referencia = LocalDateTime.of(2024, 1, 1, 12, 0);
+    
+    public GeneradorDatos(long semilla) {
+        this.semilla = semilla;
+    }
+    
+    /**
+     * Las primeras {@code cantidad} categorías de la lista (como máximo 16), con ids 1..n provisionales.
+     */
+    public List<Categoria> categorias(int cantidad) {
+        List<Categoria> categorias = new ArrayList<>();
+        for (int i = 0; i < Math.min(cantidad, CATEGORIAS.length); i++) {
+            Categoria categoria = new Categoria(CATEGORIAS[i], COLORES[i % COLORES.length], null);
+            categoria.setId((long) i + 1);
+            categorias.add(categoria);
+        }
+        return categorias;
+    }
+    
+    /**
+     * El contacto número {@code n} (desde 1). La categoría se elige entre {@code categorias} con sesgo Zipf.
+     */
+    public Contacto contacto(long n, List<Categoria> categorias) {
+        SplittableRandom aleatorio = new SplittableRandom(semilla + n * MEZCLA);
+        String nombre = elegir(aleatorio, NOMBRES);
+        String apellido = elegir(aleatorio, APELLIDOS) + (aleatorio.nextInt(3) > 0 ? " " + elegir(aleatorio, APELLIDOS) : "");
+        
+        Contacto contacto = new Contacto(nombre, telefono(aleatorio));
+        contacto.setApellido(apellido);
+        if (aleatorio.nextInt(10) < 8) {
+            contacto.setEmail(sinTildes(nombre + "." + apellido.split(" ")[0]) + n + "@" + elegir(aleatorio, DOMINIOS));
+        }
+        if (aleatorio.nextInt(10) < 6) {
+            contacto.setDireccion(elegir(aleatorio, VIAS) + " " + elegir(aleatorio, APELLIDOS) + " " + (1 + aleatorio.nextInt(150))
+                    + ", " + elegir(aleatorio, CIUDADES));
+        }
+        if (aleatorio.nextInt(10) < 7) {
+            contacto.setFechaNacimiento(LocalDate.of(1940, 1, 1).plusDays(aleatorio.nextInt(68 * 365)));
+        }
+        if (aleatorio.nextInt(4) == 0) {
+            contacto.setNotas(elegir(aleatorio, NOTAS));
+        }
+        contacto.setFavorito(aleatorio.nextInt(100) < 7);
+        if (!categorias.isEmpty() && aleatorio.nextInt(1000) >= SIN_CATEGORIA_POR_MIL) {
+            contacto.setCategoria(categorias.get(zipf(aleatorio, categorias.size())));
+        }
+        LocalDateTime creacion = referencia.minusMinutes(aleatorio.nextInt(5 * 365 * 24 * 60));
+        contacto.setFechaCreacion(creacion);
+        contacto.setFechaActualizacion(aleatorio.nextInt(5) == 0 ? creacion.plusDays(aleatorio.nextInt(365)) : creacion);
+        return contacto;
+    }
+    
+    /**
+     * Inserta (o reutiliza por nombre) las categorías y añade {@code contactos} contactos con lotes JDBC,
+     * confirmando cada lote. Devuelve el número de contactos insertados.
+     */
+    public long poblar(DataSource dataSource, int numeroCategorias, long contactos, LongConsumer progreso) throws SQLException {
+        try (Connection conexion = dataSource.getConnection()) {
+            conexion.setAutoCommit(false);
+            List<Categoria> categorias = guardarCategorias(conexion, categorias(numeroCategorias));
+            conexion.commit();
+            
+            long insertados = 0;
+            try (PreparedStatement sentencia = conexion.prepareStatement(INSERTAR_CONTACTO)) {
+                for (long n = 1; n <= contactos; n++) {
+                    añadir(sentencia, contacto(n, categorias));
+                    if (n % LOTE == 0 || n == contactos) {
+                        sentencia.executeBatch();
+                        conexion.commit();
+                        insertados = n;
+                        progreso.accept(insertados);
+                    }
+                }
+            }
+            return insertados;
+        }
+    }
+    
+    private List<Categoria> guardarCategorias(Connection conexion, List<Categoria> categorias) throws SQLException {
+        for (Categoria categoria : categorias) {
+            try (PreparedStatement consulta = conexion.prepareStatement("SELECT id FROM categorias WHERE nombre = ?")) {
+                consulta.setString(1, categoria.getNombre());
+                try (ResultSet fila = consulta.executeQuery()) {
+                    if (fila.next()) {
+                        categoria.setId(fila.getLong(1));
+                        continue;
+                    }
+                }
+            }
+            try (PreparedStatement insercion = conexion.prepareStatement(
+                    "INSERT INTO categorias (nombre, color) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+                insercion.setString(1, categoria.getNombre());
+                insercion.setString(2, categoria.getColor());
+                insercion.executeUpdate();
+                try (ResultSet claves = insercion.getGeneratedKeys()) {
+                    claves.next();
+                    categoria.setId(claves.getLong(1));
+                }
+            }
+        }
+        return categorias;
+    }
+    
+    private static void añadir(PreparedStatement sentencia, Contacto c) throws SQLException {
+        sentencia.setString(1, c.getNombre());
+        sentencia.setString(2, c.getApellido());
+        sentencia.setString(3, c.getTelefono());
+        sentencia.setString(4, c.getTelefonoNormalizado());
+        sentencia.setString(5, c.getTelefonoInvertido());
+        sentencia.setString(6, c.getEmail());
+        sentencia.setString(7, c.getDireccion());
+        if (c.getFechaNacimiento() != null) {
+            sentencia.setDate(8, Date.valueOf(c.getFechaNacimiento()));
+        } else {
+            sentencia.setNull(8, Types.DATE);
+        }
+        sentencia.setString(9, c.getNotas());
+        sentencia.setBoolean(10, c.isFavorito());
+        if (c.getCategoria() != null) {
+            sentencia.setLong(11, c.getCategoria().getId());
+        } else {
+            sentencia.setNull(11, Types.BIGINT);
+        }
+        sentencia.setTimestamp(12, Timestamp.valueOf(c.getFechaCreacion()));
+        sentencia.setTimestamp(13, Timestamp.valueOf(c.getFechaActualizacion()));
+        sentencia.addBatch();
+    }
+    
+    // Móviles y fijos españoles con la puntuación que escribe la gente; nunca más de 15 caracteres
+    private static String telefono(SplittableRandom aleatorio) {
+        String digitos = (aleatorio.nextBoolean() ? "6" : "9") + String.format("%08d", aleatorio.nextInt(100_000_000));
+        switch (aleatorio.nextInt(4)) {
+            case 0:
+                return digitos;
+            case 1:
+                return digitos.substring(0, 3) + " " + digitos.substring(3, 6) + " " + digitos.substring(6);
+            case 2:
+                return digitos.substring(0, 3) + "-" + digitos.substring(3, 6) + "-" + digitos.substring(6);
+            default:
+                return "+34 " + digitos;
+        }
+    }
+    
+    // El rango k (desde 0) sale con probabilidad proporcional a 1/(k+1)^s
+    private static int zipf(SplittableRandom aleatorio, int n) {
+        double total = 0;
+        for (int k = 1; k <= n; k++) {
+            total += 1 / Math.pow(k, EXPONENTE_ZIPF);
+        }
+        double objetivo = aleatorio.nextDouble() * total;
+        for (int k = 1; k <= n; k++) {
+            objetivo -= 1 / Math.pow(k, EXPONENTE_ZIPF);
+            if (objetivo <= 0) {
+                return k - 1;
+            }
+        }
+        return n - 1;
+    }
+    
+    private static String elegir(SplittableRandom aleatorio, String[] opciones) {
+        return opciones[aleatorio.nextInt(opciones.length)];
+    }
+    
+    private static String sinTildes(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,154 @@
+package com.ejemplo.agenda.carga;
+
+import com.ejemplo.agenda.model.Contacto;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Herramientas de carga locales.
+ *
+ * <pre>
+ *   generar  --contactos N [--categorias 12] [--semilla 42] [--perfil mysql | --url jdbc:... --usuario sa --clave password]
+ *   disparar [--base http://localhost:8080] [--tasa 200] [--duracion 60] [--calentamiento 10]
+ *            [--mezcla listar=15,buscar=15,...] [--conexiones 32] [--en-vuelo 5000] [--salida target/carga]
+ *   planes   [--contactos 50000] [--semilla 42]
+ * </pre>
+ */
+public final class HerramientaCarga {
+    
+    private HerramientaCarga() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Uso: generar | disparar | planes (ver README-Carga.md)");
+            System.exit(1);
+        }
+        Map<String, String> opciones = opciones(args);
+        // DevTools está en el classpath de exec:exec y relanzaría main con los argumentos de Spring
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        switch (args[0]) {
+            case "generar":
+                generar(opciones);
+                break;
+            case "disparar":
+                disparar(opciones);
+                break;
+            case "planes":
+                planes(opciones);
+                break;
+            default:
+                System.err.println("Comando desconocido: " + args[0]);
+                System.exit(1);
+        }
+    }
+    
+    /**
+     * Arranca solo la capa JPA (sin controladores ni servicios), con las migraciones de esquema pero sin los
+     * datos de ejemplo, y después inserta los datos con JDBC.
+     */
+    private static void generar(Map<String, String> opciones) throws Exception {
+        long contactos = Long.parseLong(opciones.getOrDefault("contactos", "100000"));
+        int categorias = Integer.parseInt(opciones.getOrDefault("categorias", "12"));
+        long semilla = Long.parseLong(opciones.getOrDefault("semilla", "42"));
+        
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--spring.flyway.locations=classpath:db/migration/{vendor}",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        if (opciones.containsKey("perfil")) {
+            argumentos.add("--spring.profiles.active=" + opciones.get("perfil"));
+        }
+        if (opciones.containsKey("url")) {
+            argumentos.add("--spring.datasource.url=" + opciones.get("url"));
+            argumentos.add("--spring.datasource.username=" + opciones.getOrDefault("usuario", "sa"));
+            argumentos.add("--spring.datasource.password=" + opciones.getOrDefault("clave", "password"));
+        }
+        
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(Esquema.class)
+                .web(WebApplicationType.NONE)
+                .run(argumentos.toArray(new String[0]))) {
+            long inicio = System.nanoTime();
+            long insertados = new GeneradorDatos(semilla).poblar(contexto.getBean(DataSource.class), categorias, contactos,
+                    n -> {
+                        if (n % 100_000 == 0 || n == contactos) {
+                            double segundos = (System.nanoTime() - inicio) / 1e9;
+                            System.out.printf("  %,d contactos (%.0f filas/s)%n", n, n / segundos);
+                        }
+                    });
+            System.out.printf("Generados %,d contactos en %.1f s con la semilla %d%n",
+                    insertados, (System.nanoTime() - inicio) / 1e9, semilla);
+        }
+    }
+    
+    private static void disparar(Map<String, String> opciones) throws Exception {
+        Map<OperacionCarga, Integer> mezcla = new EnumMap<>(OperacionCarga.class);
+        if (opciones.containsKey("mezcla")) {
+            for (String parte : opciones.get("mezcla").split(",")) {
+                String[] claveValor = parte.split("=");
+                mezcla.put(OperacionCarga.resolver(claveValor[0].trim()), Integer.parseInt(claveValor[1].trim()));
+            }
+        } else {
+            for (OperacionCarga operacion : OperacionCarga.values()) {
+                mezcla.put(operacion, operacion.getPesoPorDefecto());
+            }
+        }
+        
+        GeneradorCarga generador = new GeneradorCarga(
+                URI.create(opciones.getOrDefault("base", "http://localhost:8080")),
+                Double.parseDouble(opciones.getOrDefault("tasa", "200")),
+                Duration.ofSeconds(Long.parseLong(opciones.getOrDefault("duracion", "60"))),
+                Duration.ofSeconds(Long.parseLong(opciones.getOrDefault("calentamiento", "10"))),
+                mezcla,
+                Integer.parseInt(opciones.getOrDefault("conexiones", "32")),
+                Integer.parseInt(opciones.getOrDefault("en-vuelo", "5000")),
+                Long.parseLong(opciones.getOrDefault("semilla", "42")));
+        generador.sondear();
+        System.out.println("Mezcla: " + mezcla);
+        Map<OperacionCarga, Histogram> resultado = generador.ejecutar();
+        generador.informar(resultado, Paths.get(opciones.getOrDefault("salida", "target/carga")), System.out);
+        System.exit(0);
+    }
+    
+    // Sale con 1 si algún plan no coincide, para usarlo como paso de CI
+    private static void planes(Map<String, String> opciones) throws Exception {
+        boolean correctos = new VerificadorPlanes().verificar(
+                Long.parseLong(opciones.getOrDefault("contactos", "50000")),
+                Long.parseLong(opciones.getOrDefault("semilla", "42")));
+        System.exit(correctos ? 0 : 1);
+    }
+    
+    private static Map<String, String> opciones(String[] args) {
+        Map<String, String> opciones = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Opción sin valor: " + args[i]);
+            }
+            opciones.put(args[i].substring(2), args[++i]);
+        }
+        return opciones;
+    }
+    
+    // Solo DataSource, Flyway y JPA: el esquema es el mismo que crea la aplicación
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Contacto.class)
+    static class Esquema {
+    }
+}
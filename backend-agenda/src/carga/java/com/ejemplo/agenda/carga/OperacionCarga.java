@@ -0,0 +1,93 @@
+package com.ejemplo.agenda.carga;
+
+import com.ejemplo.agenda.service.Cursor;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * Operaciones que puede reproducir el generador de carga, con su peso por defecto en la mezcla.
+ */
+enum OperacionCarga {
+    LISTAR(15, "GET"),
+    CURSOR(15, "GET"),
+    POR_ID(20, "GET"),
+    BUSCAR(15, "GET"),
+    TELEFONO(10, "GET"),
+    FAVORITOS(5, "GET"),
+    CATEGORIA(5, "GET"),
+    ESTADISTICAS(3, "GET"),
+    CATEGORIAS(4, "GET"),
+    CREAR(3, "POST"),
+    ACTUALIZAR(3, "PUT"),
+    FAVORITO(2, "PATCH");
+    
+    // Parámetro "tamaño" ya codificado para la URL
+    static final String TAMAÑO = "tama%C3%B1o=";
+    
+    private final int pesoPorDefecto;
+    private final String metodo;
+    
+    OperacionCarga(int pesoPorDefecto, String metodo) {
+        this.pesoPorDefecto = pesoPorDefecto;
+        this.metodo = metodo;
+    }
+    
+    int getPesoPorDefecto() {
+        return pesoPorDefecto;
+    }
+    
+    String getMetodo() {
+        return metodo;
+    }
+    
+    static OperacionCarga resolver(String nombre) {
+        for (OperacionCarga operacion : values()) {
+            if (operacion.name().replace("_", "").equalsIgnoreCase(nombre.replace("_", "").replace("-", ""))) {
+                return operacion;
+            }
+        }
+        throw new IllegalArgumentException("Operación desconocida: " + nombre);
+    }
+    
+    /**
+     * Ruta (con consulta) de la petición; {@code maximoId} y {@code categorias} salen del sondeo inicial.
+     */
+    String ruta(SplittableRandom aleatorio, long maximoId, String[] categorias) {
+        long id = 1 + aleatorio.nextLong(Math.max(1, maximoId));
+        switch (this) {
+            case LISTAR:
+                return "/api/contactos?pagina=" + aleatorio.nextInt(50) + "&" + TAMAÑO + "20";
+            case CURSOR:
+                return "/api/contactos?" + TAMAÑO + "20&after=" + new Cursor(null, id).codificar();
+            case POR_ID:
+            case ACTUALIZAR:
+                return "/api/contactos/" + id;
+            case FAVORITO:
+                return "/api/contactos/" + id + "/favorito";
+            case BUSCAR:
+                String termino = aleatorio.nextBoolean()
+                        ? GeneradorDatos.APELLIDOS[aleatorio.nextInt(GeneradorDatos.APELLIDOS.length)]
+                        : GeneradorDatos.NOMBRES[aleatorio.nextInt(GeneradorDatos.NOMBRES.length)].substring(0, 3);
+                return "/api/contactos/buscar?termino=" + codificar(termino);
+            case TELEFONO:
+                return "/api/contactos/telefono/" + String.format("%04d", aleatorio.nextInt(10_000));
+            case FAVORITOS:
+                return "/api/contactos/favoritos?after=&" + TAMAÑO + "20";
+            case CATEGORIA:
+                String categoria = categorias.length > 0 ? categorias[aleatorio.nextInt(categorias.length)] : "Familia";
+                return "/api/contactos/categoria/" + codificar(categoria).replace("+", "%20") + "?after=&" + TAMAÑO + "20";
+            case ESTADISTICAS:
+                return "/api/contactos/estadisticas";
+            case CATEGORIAS:
+                return "/api/categorias";
+            default:
+                return "/api/contactos";
+        }
+    }
+    
+    private static String codificar(String texto) {
+        return URLEncoder.encode(texto, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,485 @@
+package com.ejemplo.agenda.carga;
+
+import com.ejemplo.agenda.model.Categoria;
+import com.ejemplo.agenda.model.Contacto;
+import com.ejemplo.agenda.model.enums.CampoContacto;
+import com.ejemplo.agenda.repository.CategoriaRepository;
+import com.ejemplo.agenda.repository.ContactoEliminadoRepository;
+import com.ejemplo.agenda.repository.ContactoEspecificaciones;
+import com.ejemplo.agenda.repository.ContactoRepository;
+import com.ejemplo.agenda.repository.ContactoRepositoryCustom;
+import com.ejemplo.agenda.repository.PlanEsperado;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Comando {@code planes}: comprueba que cada consulta de los repositorios de contactos conserva el plan de
+ * ejecución declarado con {@link PlanEsperado}.
+ *
+ * <p>Arranca la capa JPA sobre una base de datos H2 en memoria con las migraciones de esquema, la puebla con
+ * {@link GeneradorDatos} y ejecuta cada método con argumentos representativos, grabando el SQL y los parámetros
+ * que genera Hibernate. Cada sentencia grabada se repite con {@code EXPLAIN ANALYZE} (o {@code EXPLAIN} si escribe)
+ * y se compara el acceso a {@code contactos} y {@code contactos_eliminados} con lo declarado. Las escrituras se
+ * ejecutan en transacciones que se deshacen.</p>
+ *
+ * <p>Un método declarado en los repositorios sin {@code @PlanEsperado} o sin caso aquí también es un fallo: una
+ * consulta nueva no puede quedarse sin comprobar.</p>
+ */
+final class VerificadorPlanes {
+    
+    private static final List<Class<?>> REPOSITORIOS = List.of(ContactoRepository.class, ContactoRepositoryCustom.class,
+            CategoriaRepository.class, ContactoEliminadoRepository.class);
+    private static final Set<String> TABLAS_VIGILADAS = Set.of("CONTACTOS", "CONTACTOS_ELIMINADOS");
+    
+    // En el plan de H2 cada tabla va seguida del acceso elegido: /* PUBLIC.IDX_...: ... */ o /* PUBLIC.T.tableScan */
+    private static final Pattern ACCESO = Pattern.compile(
+            "\"PUBLIC\"\\.\"(\\w+)\"(?: \"?\\w+\"?)?\\s*\\n\\s*/\\* PUBLIC\\.([\\w.]+)");
+    private static final Pattern FILAS = Pattern.compile("/\\* scanCount: (\\d+) \\*/");
+    private static final String RECORRIDO = ".tableScan";
+    
+    private final Map<String, Function<Muestras, Object>> casos = new LinkedHashMap<>();
+    private final List<String> fallos = new ArrayList<>();
+    
+    VerificadorPlanes() {
+        Set<CampoContacto> campos = EnumSet.of(CampoContacto.NOMBRE, CampoContacto.TELEFONO);
+        Set<CampoContacto> conCategoria = EnumSet.of(CampoContacto.NOMBRE, CampoContacto.CATEGORIA);
+        Pageable limite = PageRequest.of(0, 51);
+        Pageable porId = PageRequest.of(0, 51, Sort.by("id"));
+        
+        caso("ContactoRepository.findAll", m -> m.contactos.findAll(PageRequest.of(0, 20)));
+        caso("ContactoRepository.findByNombreContainingIgnoreCase",
+                m -> m.contactos.findByNombreContainingIgnoreCase("ía"));
+        caso("ContactoRepository.findByApellidoContainingIgnoreCase",
+                m -> m.contactos.findByApellidoContainingIgnoreCase("ez"));
+        caso("ContactoRepository.findByTelefonoContaining", m -> m.contactos.findByTelefonoContaining("555"));
+        caso("ContactoRepository.findByEmailContainingIgnoreCase",
+                m -> m.contactos.findByEmailContainingIgnoreCase("empresa"));
+        caso("ContactoRepository.findByCategoriaNombre",
+                m -> m.contactos.findByCategoriaNombre(m.categoria.getNombre()));
+        caso("ContactoRepository.findByFavorito", m -> m.contactos.findByFavorito(true));
+        caso("ContactoRepository.buscarPorTermino", m -> m.contactos.buscarPorTermino("garcía"));
+        caso("ContactoRepository.countByFavorito", m -> m.contactos.countByFavorito(true));
+        caso("ContactoRepository.contarEstadisticas", m -> m.contactos.contarEstadisticas());
+        caso("ContactoRepository.findRecientes", m -> m.contactos.findRecientes(PageRequest.of(0, 10)));
+        caso("ContactoRepository.findAllResponses", m -> m.contactos.findAllResponses(porId));
+        caso("ContactoRepository.findResponseById", m -> m.contactos.findResponseById(m.id));
+        caso("ContactoRepository.findResponsesByTelefonoNormalizado",
+                m -> m.contactos.findResponsesByTelefonoNormalizado(m.telefono, limite));
+        caso("ContactoRepository.findResponsesByTelefonoNormalizadoEntre",
+                m -> m.contactos.findResponsesByTelefonoNormalizadoEntre(m.prefijo, m.prefijo + ':', limite));
+        caso("ContactoRepository.findResponsesByTelefonoInvertidoEntre",
+                m -> m.contactos.findResponsesByTelefonoInvertidoEntre(m.sufijo, m.sufijo + ':', limite));
+        caso("ContactoRepository.findIdsPorCategoria", m -> m.contactos.findIdsPorCategoria(m.categoria.getId()));
+        caso("ContactoRepository.findIdsPorFavorito", m -> m.contactos.findIdsPorFavorito(true));
+        caso("ContactoRepository.findIdsPorCategoriaYFavorito",
+                m -> m.contactos.findIdsPorCategoriaYFavorito(m.categoria.getId(), true));
+        caso("ContactoRepository.actualizarFavorito",
+                m -> m.contactos.actualizarFavorito(m.ids, true, LocalDateTime.now(), 1));
+        caso("ContactoRepository.actualizarCategoria",
+                m -> m.contactos.actualizarCategoria(m.ids, m.categoria, LocalDateTime.now(), 1));
+        caso("ContactoRepository.quitarCategoria", m -> m.contactos.quitarCategoria(m.ids, LocalDateTime.now(), 1));
+        caso("ContactoRepository.marcarCambioPorCategoria",
+                m -> m.contactos.marcarCambioPorCategoria(m.categoria.getId(), 1));
+        caso("ContactoRepository.findClavesCambiosEnSecuencia",
+                m -> m.contactos.findClavesCambiosEnSecuencia(0, m.id, limite));
+        caso("ContactoRepository.findClavesCambios", m -> m.contactos.findClavesCambios(1, 1, limite));
+        caso("ContactoRepository.findMaxSecuenciaCambio", m -> m.contactos.findMaxSecuenciaCambio());
+        caso("ContactoRepository.eliminarPorIds", m -> m.contactos.eliminarPorIds(m.ids));
+        caso("ContactoRepository.findVersionById", m -> m.contactos.findVersionById(m.id));
+        caso("ContactoRepository.findResponsesByNombre", m -> m.contactos.findResponsesByNombre("ía"));
+        caso("ContactoRepository.findResponsesByIdIn", m -> m.contactos.findResponsesByIdIn(m.ids));
+        caso("ContactoRepository.findResponsesByCategoriaNombre",
+                m -> m.contactos.findResponsesByCategoriaNombre(m.categoria.getNombre()));
+        caso("ContactoRepository.findResponsesByFavorito", m -> m.contactos.findResponsesByFavorito(true));
+        caso("ContactoRepository.findResponsesPorCumpleanos", m -> m.contactos.findResponsesPorCumpleanos(1224, 1231));
+        caso("ContactoRepository.findResponsesDespuesDe", m -> m.contactos.findResponsesDespuesDe(m.id, limite));
+        caso("ContactoRepository.findResponsesPorNombreDespuesDe",
+                m -> m.contactos.findResponsesPorNombreDespuesDe(m.nombre, m.id, limite));
+        caso("ContactoRepository.findResponsesByCategoriaNombreDespuesDe",
+                m -> m.contactos.findResponsesByCategoriaNombreDespuesDe(m.categoria.getNombre(), m.id, limite));
+        caso("ContactoRepository.findResponsesByFavoritoDespuesDe",
+                m -> m.contactos.findResponsesByFavoritoDespuesDe(true, m.id, limite));
+        caso("ContactoRepository.countByCategoriaNombre",
+                m -> m.contactos.countByCategoriaNombre(m.categoria.getNombre()));
+        caso("ContactoRepository.streamAllResponses", m -> m.contactos.streamAllResponses());
+        
+        caso("ContactoRepositoryCustom.findCampos/pagina",
+                m -> m.contactos.findCampos(campos, null, PageRequest.of(2, 20, Sort.by("id"))));
+        caso("ContactoRepositoryCustom.findCampos/id",
+                m -> m.contactos.findCampos(conCategoria, ContactoEspecificaciones.porId(m.id), Pageable.unpaged()));
+        caso("ContactoRepositoryCustom.findCampos/ids",
+                m -> m.contactos.findCampos(campos, ContactoEspecificaciones.porIds(m.ids), Pageable.unpaged()));
+        caso("ContactoRepositoryCustom.findCampos/telefono",
+                m -> m.contactos.findCampos(campos, ContactoEspecificaciones.telefonoNormalizado(m.telefono), porId));
+        caso("ContactoRepositoryCustom.findCampos/prefijo", m -> m.contactos.findCampos(campos,
+                ContactoEspecificaciones.telefonoNormalizadoEntre(m.prefijo, m.prefijo + ':'), porId));
+        caso("ContactoRepositoryCustom.findCampos/sufijo", m -> m.contactos.findCampos(campos,
+                ContactoEspecificaciones.telefonoInvertidoEntre(m.sufijo, m.sufijo + ':'), porId));
+        caso("ContactoRepositoryCustom.findCampos/despues-de",
+                m -> m.contactos.findCampos(campos, ContactoEspecificaciones.idMayorQue(m.id), porId));
+        caso("ContactoRepositoryCustom.findCampos/nombre-despues-de", m -> m.contactos.findCampos(campos,
+                ContactoEspecificaciones.nombreDespuesDe(m.nombre, m.id),
+                PageRequest.of(0, 51, Sort.by("nombre", "id"))));
+        caso("ContactoRepositoryCustom.findCampos/categoria-despues-de", m -> m.contactos.findCampos(conCategoria,
+                ContactoEspecificaciones.deCategoria(m.categoria.getNombre())
+                        .and(ContactoEspecificaciones.idMayorQue(m.id)),
+                PageRequest.of(0, 51, Sort.by("categoria", "id"))));
+        caso("ContactoRepositoryCustom.findCampos/favorito-despues-de", m -> m.contactos.findCampos(campos,
+                ContactoEspecificaciones.favorito(true).and(ContactoEspecificaciones.idMayorQue(m.id)),
+                PageRequest.of(0, 51, Sort.by("favorito", "id"))));
+        caso("ContactoRepositoryCustom.findCampos/categoria", m -> m.contactos.findCampos(conCategoria,
+                ContactoEspecificaciones.deCategoria(m.categoria.getNombre()),
+                PageRequest.of(0, Integer.MAX_VALUE, Sort.by("categoria", "id"))));
+        caso("ContactoRepositoryCustom.findCampos/favorito", m -> m.contactos.findCampos(campos,
+                ContactoEspecificaciones.favorito(true),
+                PageRequest.of(0, Integer.MAX_VALUE, Sort.by("favorito", "id"))));
+        caso("ContactoRepositoryCustom.actualizarCampos", m -> m.contactos.actualizarCampos(m.id,
+                Map.of("favorito", true), 0L, true, LocalDateTime.now(), 1));
+        
+        caso("CategoriaRepository.findByNombre", m -> m.categorias.findByNombre(m.categoria.getNombre()));
+        caso("CategoriaRepository.existsByNombre", m -> m.categorias.existsByNombre(m.categoria.getNombre()));
+        caso("CategoriaRepository.findByNombreContainingIgnoreCase",
+                m -> m.categorias.findByNombreContainingIgnoreCase("ami"));
+        caso("CategoriaRepository.buscarPorTermino", m -> m.categorias.buscarPorTermino("ami"));
+        caso("CategoriaRepository.findAllOrderByNombre", m -> m.categorias.findAllOrderByNombre());
+        
+        caso("ContactoEliminadoRepository.findCambiosEnSecuencia",
+                m -> m.eliminados.findCambiosEnSecuencia(0, m.id, limite));
+        caso("ContactoEliminadoRepository.findCambios", m -> m.eliminados.findCambios(1, 1, limite));
+        caso("ContactoEliminadoRepository.registrarBajas",
+                m -> m.eliminados.registrarBajas(m.ids, 1, LocalDateTime.now()));
+        caso("ContactoEliminadoRepository.findMaxSecuenciaCambio", m -> m.eliminados.findMaxSecuenciaCambio());
+    }
+    
+    private void caso(String clave, Function<Muestras, Object> invocacion) {
+        casos.put(clave, invocacion);
+    }
+    
+    /**
+     * Devuelve {@code true} si todas las consultas conservan su plan.
+     */
+    boolean verificar(long contactos, long semilla) throws Exception {
+        Map<String, PlanEsperado> planes = planesDeclarados();
+        for (String clave : casos.keySet()) {
+            if (!planes.containsKey(clave)) {
+                fallos.add(clave + ": hay caso pero no @PlanEsperado");
+            }
+        }
+        
+        List<String> argumentos = List.of(
+                "--spring.datasource.url=jdbc:h2:mem:planes;DB_CLOSE_DELAY=-1",
+                "--spring.flyway.locations=classpath:db/migration/{vendor}",
+                "--spring.flyway.out-of-order=false",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN");
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(Repositorios.class)
+                .web(WebApplicationType.NONE)
+                .run(argumentos.toArray(new String[0]))) {
+            Grabadora grabadora = contexto.getBean(Grabadora.class);
+            DataSource directo = grabadora.getTargetDataSource();
+            new GeneradorDatos(semilla).poblar(directo, 12, contactos, n -> { });
+            try (Connection conexion = directo.getConnection(); Statement sentencia = conexion.createStatement()) {
+                sentencia.execute("ANALYZE");
+            }
+            Muestras muestras = new Muestras(contexto, directo);
+            TransactionTemplate transaccion =
+                    new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+            
+            System.out.printf("Planes de consulta con %,d contactos%n", contactos);
+            for (Map.Entry<String, PlanEsperado> plan : planes.entrySet()) {
+                Function<Muestras, Object> invocacion = casos.get(plan.getKey());
+                if (invocacion == null) {
+                    fallos.add(plan.getKey() + ": sin caso en VerificadorPlanes");
+                    continue;
+                }
+                List<Grabadora.Sentencia> sentencias = grabadora.grabar(() ->
+                        transaccion.executeWithoutResult(estado -> {
+                            estado.setRollbackOnly();
+                            consumir(invocacion.apply(muestras));
+                        }));
+                comprobar(plan.getKey(), plan.getValue(), sentencias, directo);
+            }
+        }
+        
+        if (fallos.isEmpty()) {
+            System.out.println("Todos los planes coinciden con @PlanEsperado");
+            return true;
+        }
+        System.out.printf("%n%d fallos:%n", fallos.size());
+        fallos.forEach(fallo -> System.out.println("  " + fallo));
+        return false;
+    }
+    
+    // Clave "Repositorio.metodo" o "Repositorio.metodo/caso" de cada método declarado
+    private Map<String, PlanEsperado> planesDeclarados() {
+        Map<String, PlanEsperado> planes = new TreeMap<>();
+        for (Class<?> repositorio : REPOSITORIOS) {
+            for (Method metodo : repositorio.getDeclaredMethods()) {
+                String clave = repositorio.getSimpleName() + "." + metodo.getName();
+                PlanEsperado[] declarados = metodo.getAnnotationsByType(PlanEsperado.class);
+                if (declarados.length == 0) {
+                    fallos.add(clave + ": sin @PlanEsperado");
+                }
+                for (PlanEsperado plan : declarados) {
+                    planes.put(plan.caso().isEmpty() ? clave : clave + "/" + plan.caso(), plan);
+                }
+            }
+        }
+        return planes;
+    }
+    
+    private void comprobar(String clave, PlanEsperado plan, List<Grabadora.Sentencia> sentencias, DataSource directo)
+            throws SQLException {
+        List<String> problemas = new ArrayList<>();
+        List<String> accesos = new ArrayList<>();
+        List<String> explicados = new ArrayList<>();
+        long filas = 0;
+        for (Grabadora.Sentencia sentencia : sentencias) {
+            String explicado = explicar(sentencia, directo);
+            explicados.add(explicado);
+            Matcher acceso = ACCESO.matcher(explicado);
+            while (acceso.find()) {
+                if (!TABLAS_VIGILADAS.contains(acceso.group(1))) {
+                    continue;
+                }
+                String indice = acceso.group(2);
+                accesos.add(indice);
+                if (!admitido(plan, indice)) {
+                    problemas.add(acceso.group(1) + " con " + indice);
+                }
+            }
+            Matcher leidas = FILAS.matcher(explicado);
+            while (leidas.find()) {
+                filas += Long.parseLong(leidas.group(1));
+            }
+        }
+        if (sentencias.isEmpty()) {
+            problemas.add("no ha ejecutado ninguna sentencia");
+        }
+        if (plan.maximoFilas() >= 0 && filas > plan.maximoFilas()) {
+            problemas.add(String.format("%,d filas leídas (máximo %,d)", filas, plan.maximoFilas()));
+        }
+        
+        System.out.printf("  %-6s %-62s %,10d  %s%n", problemas.isEmpty() ? "OK" : "FALLO", clave, filas,
+                String.join(", ", accesos));
+        if (!problemas.isEmpty()) {
+            fallos.add(clave + ": " + String.join("; ", problemas));
+            explicados.forEach(explicado -> System.out.println(explicado.replaceAll("(?m)^", "         | ")));
+        }
+    }
+    
+    private static boolean admitido(PlanEsperado plan, String acceso) {
+        if (plan.recorrido()) {
+            return true;
+        }
+        if (acceso.endsWith(RECORRIDO)) {
+            return false;
+        }
+        for (String indice : plan.indices()) {
+            if (acceso.toUpperCase(Locale.ROOT).startsWith(indice.toUpperCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Las lecturas se ejecutan de nuevo para contar filas; las escrituras solo se explican
+    private static String explicar(Grabadora.Sentencia sentencia, DataSource directo) throws SQLException {
+        String sql = sentencia.sql.trim();
+        String prefijo = sql.regionMatches(true, 0, "select", 0, 6) ? "EXPLAIN ANALYZE " : "EXPLAIN ";
+        try (Connection conexion = directo.getConnection();
+             PreparedStatement explicacion = conexion.prepareStatement(prefijo + sql)) {
+            for (Map.Entry<Integer, Object> parametro : sentencia.parametros.entrySet()) {
+                explicacion.setObject(parametro.getKey(), parametro.getValue());
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultado = explicacion.executeQuery()) {
+                while (resultado.next()) {
+                    plan.append(resultado.getString(1));
+                }
+            }
+            return plan.toString();
+        }
+    }
+    
+    // Un Stream de Hibernate solo lanza la consulta al recorrerlo
+    private static void consumir(Object resultado) {
+        if (resultado instanceof Stream) {
+            try (Stream<?> stream = (Stream<?>) resultado) {
+                stream.findFirst();
+            }
+        }
+    }
+    
+    /**
+     * Argumentos de los casos tomados de los datos generados: un contacto de la mitad de la tabla y la categoría
+     * más numerosa, que es el peor caso de la distribución.
+     */
+    private static final class Muestras {
+        private final ContactoRepository contactos;
+        private final CategoriaRepository categorias;
+        private final ContactoEliminadoRepository eliminados;
+        private final Categoria categoria;
+        private final long id;
+        private final List<Long> ids;
+        private final String nombre;
+        private final String telefono;
+        private final String prefijo;
+        private final String sufijo;
+        
+        private Muestras(ConfigurableApplicationContext contexto, DataSource directo) throws SQLException {
+            this.contactos = contexto.getBean(ContactoRepository.class);
+            this.categorias = contexto.getBean(CategoriaRepository.class);
+            this.eliminados = contexto.getBean(ContactoEliminadoRepository.class);
+            this.categoria = categorias.findByNombre(GeneradorDatos.CATEGORIAS[0]).orElseThrow();
+            try (Connection conexion = directo.getConnection();
+                 Statement sentencia = conexion.createStatement();
+                 ResultSet fila = sentencia.executeQuery("SELECT id, nombre, telefono_normalizado, " +
+                         "telefono_invertido FROM contactos WHERE id >= (SELECT MAX(id) / 2 FROM contactos) " +
+                         "ORDER BY id LIMIT 1")) {
+                fila.next();
+                this.id = fila.getLong(1);
+                this.nombre = fila.getString(2);
+                this.telefono = fila.getString(3);
+                this.prefijo = telefono.substring(0, Math.min(4, telefono.length()));
+                this.sufijo = fila.getString(4).substring(0, 4);
+            }
+            this.ids = List.of(id, id + 1, id + 2, id + 3, id + 4);
+        }
+    }
+    
+    /**
+     * DataSource que, mientras graba, anota el SQL y los parámetros de cada {@link PreparedStatement} ejecutado.
+     * Solo se usa desde un hilo.
+     */
+    static final class Grabadora extends DelegatingDataSource {
+        
+        private List<Sentencia> grabadas;
+        
+        Grabadora(DataSource destino) {
+            super(destino);
+        }
+        
+        List<Sentencia> grabar(Runnable tarea) {
+            grabadas = new ArrayList<>();
+            try {
+                tarea.run();
+                return grabadas;
+            } finally {
+                grabadas = null;
+            }
+        }
+        
+        @Override
+        public Connection getConnection() throws SQLException {
+            return conexion(super.getConnection());
+        }
+        
+        @Override
+        public Connection getConnection(String usuario, String clave) throws SQLException {
+            return conexion(super.getConnection(usuario, clave));
+        }
+        
+        private Connection conexion(Connection destino) {
+            return proxy(Connection.class, (proxy, metodo, args) -> {
+                Object resultado = invocar(destino, metodo, args);
+                if (grabadas != null && metodo.getName().equals("prepareStatement")) {
+                    return sentencia((PreparedStatement) resultado, (String) args[0]);
+                }
+                return resultado;
+            });
+        }
+        
+        private PreparedStatement sentencia(PreparedStatement destino, String sql) {
+            Map<Integer, Object> parametros = new TreeMap<>();
+            return proxy(PreparedStatement.class, (proxy, metodo, args) -> {
+                String nombre = metodo.getName();
+                if (nombre.equals("setNull")) {
+                    parametros.put((Integer) args[0], null);
+                } else if (nombre.startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer) {
+                    parametros.put((Integer) args[0], args[1]);
+                } else if (nombre.startsWith("execute") && grabadas != null) {
+                    grabadas.add(new Sentencia(sql, new TreeMap<>(parametros)));
+                }
+                return invocar(destino, metodo, args);
+            });
+        }
+        
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> tipo, InvocationHandler manejador) {
+            return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] {tipo}, manejador);
+        }
+        
+        private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+            try {
+                return metodo.invoke(destino, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+        
+        static final class Sentencia {
+            private final String sql;
+            private final Map<Integer, Object> parametros;
+            
+            private Sentencia(String sql, Map<Integer, Object> parametros) {
+                this.sql = sql;
+                this.parametros = parametros;
+            }
+        }
+    }
+    
+    // Solo la capa JPA, con la conexión pasando por la grabadora
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Contacto.class)
+    @EnableJpaRepositories(basePackageClasses = ContactoRepository.class)
+    static class Repositorios {
+        
+        @Bean
+        Grabadora dataSource(Environment entorno) {
+            return new Grabadora(new DriverManagerDataSource(entorno.getRequiredProperty("spring.datasource.url"),
+                    "sa", "password"));
+        }
+    }
+}
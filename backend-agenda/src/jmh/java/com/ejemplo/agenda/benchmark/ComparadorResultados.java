@@ -0,0 +1,72 @@
+package com.ejemplo.agenda.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara dos ficheros de resultados JSON de JMH y señala los benchmarks que empeoran más del umbral.
+ * En modo throughput una puntuación menor es peor; en el resto de modos (tiempos) lo es una mayor.
+ */
+final class ComparadorResultados {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    /**
+     * Devuelve las regresiones encontradas (vacío si no hay ninguna) tras imprimir la tabla comparativa.
+     */
+    List<String> comparar(Path base, Path actual, double umbralPorcentaje) throws IOException {
+        Map<String, JsonNode> anteriores = leer(base);
+        Map<String, JsonNode> nuevos = leer(actual);
+        List<String> regresiones = new ArrayList<>();
+        
+        System.out.printf("%n%-70s %14s %14s %9s%n", "Benchmark", "Base", "Actual", "Cambio");
+        for (Map.Entry<String, JsonNode> entrada : nuevos.entrySet()) {
+            JsonNode anterior = anteriores.get(entrada.getKey());
+            double puntuacion = entrada.getValue().path("primaryMetric").path("score").asDouble();
+            String unidad = entrada.getValue().path("primaryMetric").path("scoreUnit").asText();
+            if (anterior == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  (nuevo, %s)%n", entrada.getKey(), "-", puntuacion, "-", unidad);
+                continue;
+            }
+            double puntuacionBase = anterior.path("primaryMetric").path("score").asDouble();
+            double cambio = (puntuacion - puntuacionBase) / puntuacionBase * 100;
+            boolean mayorEsMejor = "thrpt".equals(entrada.getValue().path("mode").asText());
+            double empeora = mayorEsMejor ? -cambio : cambio;
+            String marca = empeora > umbralPorcentaje ? "  REGRESIÓN" : "";
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%%s%n",
+                    entrada.getKey(), puntuacionBase, puntuacion, cambio, marca);
+            if (!marca.isEmpty()) {
+                regresiones.add(String.format("%s: %.3f -> %.3f %s (%+.1f%%)",
+                        entrada.getKey(), puntuacionBase, puntuacion, unidad, cambio));
+            }
+        }
+        return regresiones;
+    }
+    
+    // Clave estable: nombre del benchmark más sus parámetros ordenados
+    private Map<String, JsonNode> leer(Path ruta) throws IOException {
+        Map<String, JsonNode> resultados = new LinkedHashMap<>();
+        for (JsonNode resultado : objectMapper.readTree(ruta.toFile())) {
+            StringBuilder clave = new StringBuilder(resultado.path("benchmark").asText()
+                    .replace("com.ejemplo.agenda.", ""));
+            Map<String, String> parametros = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> campos = resultado.path("params").fields();
+            while (campos.hasNext()) {
+                Map.Entry<String, JsonNode> campo = campos.next();
+                parametros.put(campo.getKey(), campo.getValue().asText());
+            }
+            parametros.forEach((nombre, valor) -> clave.append(' ').append(nombre).append('=').append(valor));
+            resultados.put(clave.toString(), resultado);
+        }
+        return resultados;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ejemplo.agenda.benchmark;
+
+import com.ejemplo.agenda.carga.GeneradorDatos;
+import com.ejemplo.agenda.model.Categoria;
+import com.ejemplo.agenda.model.Contacto;
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos de los benchmarks, tomados del generador determinista de src/carga: la misma semilla produce
+ * siempre los mismos contactos.
+ */
+final class DatosBenchmark {
+    
+    private static final long SEMILLA = 42L;
+    private static final int CATEGORIAS = 5;
+    
+    private DatosBenchmark() {
+    }
+    
+    static List<ContactoResponse> respuestas(int cantidad) {
+        GeneradorDatos generador = new GeneradorDatos(SEMILLA);
+        List<Categoria> categorias = generador.categorias(CATEGORIAS);
+        List<ContactoResponse> respuestas = new ArrayList<>(cantidad);
+        for (long n = 1; n <= cantidad; n++) {
+            Contacto c = generador.contacto(n, categorias);
+            respuestas.add(new ContactoResponse(n, c.getNombre(), c.getApellido(), c.getTelefono(), c.getEmail(),
+                    c.getDireccion(), c.getFechaNacimiento(), c.getNotas(), c.isFavorito(),
+                    c.getCategoria() != null ? c.getCategoria().getNombre() : null,
+                    c.getFechaCreacion(), c.getFechaActualizacion()));
+        }
+        return respuestas;
+    }
+    
+    static void poblar(DataSource dataSource, int filas) throws SQLException {
+        new GeneradorDatos(SEMILLA).poblar(dataSource, CATEGORIAS, filas, n -> { });
+    }
+}
@@ -0,0 +1,106 @@
+package com.ejemplo.agenda.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Punto de entrada de los benchmarks. Ejecuta JMH, guarda los resultados en JSON y, opcionalmente,
+ * los compara con una línea base o los convierte en la nueva línea base.
+ *
+ * <pre>
+ *   --comparar [ruta]     compara con la línea base (por defecto benchmarks/linea-base.json); sale con 2 si hay regresiones
+ *   --guardar-base [ruta] copia los resultados como nueva línea base
+ *   --umbral N            porcentaje de empeoramiento tolerado (por defecto 10)
+ *   --resultados ruta     fichero JSON de salida (por defecto target/jmh/resultados.json)
+ *   --solo-comparar       no ejecuta JMH; compara el fichero de resultados existente
+ * </pre>
+ * El resto de argumentos se pasan tal cual a JMH (expresión de benchmarks, -p filas=10000, -wi, -i, -f...).
+ */
+public final class EjecutorBenchmarks {
+    
+    private static final Path LINEA_BASE = Paths.get("benchmarks", "linea-base.json");
+    
+    private EjecutorBenchmarks() {
+    }
+    
+    public static void main(String[] args) throws IOException, RunnerException, CommandLineOptionException {
+        Path resultados = Paths.get("target", "jmh", "resultados.json");
+        Path comparar = null;
+        Path guardarBase = null;
+        double umbral = 10;
+        boolean soloComparar = false;
+        List<String> argumentosJmh = new ArrayList<>();
+        
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--comparar":
+                    comparar = siguienteRuta(args, i) != null ? Paths.get(args[++i]) : LINEA_BASE;
+                    break;
+                case "--guardar-base":
+                    guardarBase = siguienteRuta(args, i) != null ? Paths.get(args[++i]) : LINEA_BASE;
+                    break;
+                case "--umbral":
+                    umbral = Double.parseDouble(args[++i]);
+                    break;
+                case "--resultados":
+                    resultados = Paths.get(args[++i]);
+                    break;
+                case "--solo-comparar":
+                    soloComparar = true;
+                    break;
+                default:
+                    argumentosJmh.add(args[i]);
+            }
+        }
+        
+        if (!soloComparar) {
+            Files.createDirectories(resultados.toAbsolutePath().getParent());
+            Options opciones = new OptionsBuilder()
+                    .parent(new CommandLineOptions(argumentosJmh.toArray(new String[0])))
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultados.toString())
+                    .build();
+            new Runner(opciones).run();
+            System.out.println("Resultados guardados en " + resultados.toAbsolutePath());
+        }
+        
+        if (comparar != null) {
+            if (!Files.exists(comparar)) {
+                System.out.println("No existe la línea base " + comparar + "; use --guardar-base para crearla");
+            } else {
+                List<String> regresiones = new ComparadorResultados().comparar(comparar, resultados, umbral);
+                if (!regresiones.isEmpty()) {
+                    System.out.println("\nRegresiones por encima del " + umbral + "%:");
+                    regresiones.forEach(r -> System.out.println("  " + r));
+                    System.exit(2);
+                }
+                System.out.println("\nSin regresiones por encima del " + umbral + "%");
+            }
+        }
+        
+        if (guardarBase != null) {
+            if (guardarBase.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(guardarBase.toAbsolutePath().getParent());
+            }
+            Files.copy(resultados, guardarBase, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Línea base actualizada en " + guardarBase.toAbsolutePath());
+        }
+    }
+    
+    private static String siguienteRuta(String[] args, int i) {
+        return i + 1 < args.length && !args[i + 1].startsWith("-") ? args[i + 1] : null;
+    }
+}
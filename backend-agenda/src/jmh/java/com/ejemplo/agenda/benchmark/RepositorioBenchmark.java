@@ -0,0 +1,116 @@
+package com.ejemplo.agenda.benchmark;
+
+import com.ejemplo.agenda.AgendaApplication;
+import com.ejemplo.agenda.busqueda.InicializadorIndice;
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+import com.ejemplo.agenda.model.enums.CoincidenciaTelefono;
+import com.ejemplo.agenda.repository.ContactoRepository;
+import com.ejemplo.agenda.service.ContactoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.util.FileSystemUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas del camino de lectura contra H2 en memoria con 10k, 100k o 1M contactos.
+ * Cada tamaño arranca su propio contexto de Spring y reconstruye el índice de búsqueda.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dfile.encoding=UTF-8"})
+public class RepositorioBenchmark {
+    
+    private static final int TAMAÑO_PAGINA = 20;
+    
+    @Param({"10000", "100000", "1000000"})
+    private int filas;
+    
+    private ConfigurableApplicationContext contexto;
+    private ContactoRepository contactoRepository;
+    private ContactoService contactoService;
+    private Path directorioIndice;
+    private long idMedio;
+    
+    @Setup(Level.Trial)
+    public void arrancar() throws IOException, SQLException {
+        directorioIndice = Files.createTempDirectory("agenda-jmh");
+        // Como argumentos para que prevalezcan sobre application.properties; Security necesita el contexto MVC
+        contexto = new SpringApplicationBuilder(AgendaApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.flyway.locations=classpath:db/migration/{vendor}",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.devtools.restart.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--agenda.busqueda.directorio=" + directorioIndice);
+        DatosBenchmark.poblar(contexto.getBean(DataSource.class), filas);
+        contexto.getBean(InicializadorIndice.class).run(null);
+        contactoRepository = contexto.getBean(ContactoRepository.class);
+        contactoService = contexto.getBean(ContactoService.class);
+        idMedio = filas / 2;
+    }
+    
+    @TearDown(Level.Trial)
+    public void detener() throws IOException {
+        contexto.close();
+        FileSystemUtils.deleteRecursively(directorioIndice);
+    }
+    
+    @Benchmark
+    public Page<ContactoResponse> paginaOffsetMedia() {
+        return contactoRepository.findAllResponses(PageRequest.of(filas / TAMAÑO_PAGINA / 2, TAMAÑO_PAGINA));
+    }
+    
+    @Benchmark
+    public List<ContactoResponse> paginaCursorMedia() {
+        return contactoRepository.findResponsesDespuesDe(idMedio, PageRequest.of(0, TAMAÑO_PAGINA));
+    }
+    
+    @Benchmark
+    public Object contactoPorId() {
+        return contactoRepository.findResponseById(idMedio);
+    }
+    
+    @Benchmark
+    public List<ContactoResponse> buscarPorTermino() {
+        return contactoService.buscarPorTermino("garcía mar", 0, TAMAÑO_PAGINA);
+    }
+    
+    @Benchmark
+    public List<ContactoResponse> buscarPorTelefono() {
+        return contactoService.buscarPorTelefono("500", CoincidenciaTelefono.SUFIJO, TAMAÑO_PAGINA);
+    }
+    
+    @Benchmark
+    public List<ContactoResponse> favoritos() {
+        return contactoRepository.findResponsesByFavoritoDespuesDe(true, 0L, PageRequest.of(0, TAMAÑO_PAGINA));
+    }
+}
@@ -0,0 +1,56 @@
+package com.ejemplo.agenda.benchmark;
+
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de páginas de {@link ContactoResponse} con un ObjectMapper equivalente al de Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionBenchmark {
+    
+    @Param({"10", "100", "1000"})
+    private int elementos;
+    
+    private ObjectMapper objectMapper;
+    private Page<ContactoResponse> pagina;
+    
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        pagina = new PageImpl<>(DatosBenchmark.respuestas(elementos), PageRequest.of(0, elementos), 100_000);
+    }
+    
+    @Benchmark
+    public byte[] serializarPagina() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+    
+    @Benchmark
+    public byte[] serializarLista() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagina.getContent());
+    }
+}
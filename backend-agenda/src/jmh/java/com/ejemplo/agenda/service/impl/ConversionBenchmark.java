@@ -0,0 +1,62 @@
+package com.ejemplo.agenda.service.impl;
+
+import com.ejemplo.agenda.model.Categoria;
+import com.ejemplo.agenda.model.Contacto;
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión entidad → DTO del camino de escritura frente al constructor que usan las proyecciones JPQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+    
+    private ContactoServiceImpl servicio;
+    private Contacto contacto;
+    
+    @Setup
+    public void preparar() {
+        servicio = new ContactoServiceImpl();
+        Categoria categoria = new Categoria();
+        categoria.setId(2L);
+        categoria.setNombre("Trabajo");
+        contacto = new Contacto("María", "555-0102");
+        contacto.setId(2L);
+        contacto.setApellido("García");
+        contacto.setEmail("maria.garcia@trabajo.com");
+        contacto.setDireccion("Oficina Central 456");
+        contacto.setFechaNacimiento(LocalDate.of(1990, 7, 22));
+        contacto.setNotas("Jefa de proyecto");
+        contacto.setCategoria(categoria);
+    }
+    
+    @Benchmark
+    public ContactoResponse convertirAResponse() {
+        return servicio.convertirAResponse(contacto);
+    }
+    
+    @Benchmark
+    public ContactoResponse constructorProyeccion() {
+        Contacto c = contacto;
+        return new ContactoResponse(c.getId(), c.getNombre(), c.getApellido(), c.getTelefono(), c.getEmail(),
+                c.getDireccion(), c.getFechaNacimiento(), c.getNotas(), c.isFavorito(), c.getCategoria().getNombre(),
+                c.getFechaCreacion(), c.getFechaActualizacion());
+    }
+}
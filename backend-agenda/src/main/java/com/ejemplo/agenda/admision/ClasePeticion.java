@@ -0,0 +1,43 @@
+package com.ejemplo.agenda.admision;
+
+import java.util.regex.Pattern;
+
+/**
+ * Clases de peticiones de la API para el control de admisión. El orden es la prioridad: cuando se agota la
+ * concurrencia total, las lecturas puntuales pasan antes que las consultas y estas antes que las pesadas.
+ */
+public enum ClasePeticion {
+    // GET de un contacto o una categoría concretos
+    PUNTUAL("puntual"),
+    // Altas, modificaciones y bajas individuales
+    ESCRITURA("escritura"),
+    // Listados, búsquedas y recorridos por teléfono o categoría
+    CONSULTA("consulta"),
+    // Estadísticas, importación, exportación y operaciones masivas
+    PESADA("pesada");
+    
+    private static final Pattern PESADAS =
+            Pattern.compile("^/api/contactos/(estadisticas|exportar|importar|lote/.*)$");
+    private static final Pattern PUNTUALES =
+            Pattern.compile("^/api/(contactos/\\d+|categorias/\\d+|categorias/(nombre|existe)/[^/]+)$");
+    
+    private final String nombre;
+    
+    ClasePeticion(String nombre) {
+        this.nombre = nombre;
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+    
+    public static ClasePeticion de(String metodo, String ruta) {
+        if (PESADAS.matcher(ruta).matches()) {
+            return PESADA;
+        }
+        if (!"GET".equals(metodo) && !"HEAD".equals(metodo)) {
+            return ESCRITURA;
+        }
+        return PUNTUALES.matcher(ruta).matches() ? PUNTUAL : CONSULTA;
+    }
+}
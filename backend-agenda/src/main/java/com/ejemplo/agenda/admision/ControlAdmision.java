@@ -0,0 +1,244 @@
+package com.ejemplo.agenda.admision;
+
+import com.ejemplo.agenda.config.AdmisionProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Admisión de peticiones por delante del pool de conexiones.
+ *
+ * <p>Cada {@link ClasePeticion} tiene su propio {@link LimiteAdaptativo} y además todas comparten
+ * {@code maximo-en-curso}. Una petición que no cabe espera en una cola ordenada por prioridad de clase y
+ * llegada; al terminar otra se admite la primera de la cola que quepa en su clase. Si la cola de su clase está
+ * llena o la espera se agota, {@link #adquirir} devuelve {@code null} y la petición se rechaza.</p>
+ */
+public class ControlAdmision implements MeterBinder {
+    
+    public static final String MOTIVO_COLA_LLENA = "cola-llena";
+    public static final String MOTIVO_ESPERA_AGOTADA = "espera-agotada";
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeSet<Espera> cola = new TreeSet<>(
+            Comparator.comparing((Espera espera) -> espera.clase).thenComparingLong(espera -> espera.orden));
+    private final Map<ClasePeticion, Estado> estados = new EnumMap<>(ClasePeticion.class);
+    private final int maximoEnCurso;
+    private int enCursoTotal;
+    private long llegadas;
+    
+    public ControlAdmision(AdmisionProperties propiedades) {
+        this.maximoEnCurso = propiedades.getMaximoEnCurso();
+        for (ClasePeticion clase : ClasePeticion.values()) {
+            estados.put(clase, new Estado(propiedades.clase(clase)));
+        }
+    }
+    
+    /**
+     * Espera turno como mucho {@code maxima-espera} de la clase. Devuelve {@code null} si la petición debe
+     * rechazarse; si no, el permiso que hay que liberar al terminar.
+     */
+    public Permiso adquirir(ClasePeticion clase) throws InterruptedException {
+        Estado estado = estados.get(clase);
+        long llegada = System.nanoTime();
+        lock.lock();
+        try {
+            if (cabe(estado)) {
+                enCursoTotal++;
+                estado.enCurso++;
+                return admitir(clase, estado, llegada);
+            }
+            if (estado.enCola >= estado.configuracion.getMaximaCola()) {
+                estado.rechazadasColaLlena.incrementAndGet();
+                return null;
+            }
+            
+            Espera espera = new Espera(clase, llegadas++, lock.newCondition());
+            cola.add(espera);
+            estado.enCola++;
+            long restante = estado.configuracion.getMaximaEspera().toNanos();
+            try {
+                while (!espera.admitida && restante > 0) {
+                    restante = espera.turno.awaitNanos(restante);
+                }
+            } catch (InterruptedException e) {
+                if (espera.admitida) {
+                    devolverPlaza(estado);
+                }
+                throw e;
+            } finally {
+                if (!espera.admitida) {
+                    cola.remove(espera);
+                    estado.enCola--;
+                }
+            }
+            if (!espera.admitida) {
+                estado.rechazadasEsperaAgotada.incrementAndGet();
+                return null;
+            }
+            // despertar() ya le ha reservado la plaza
+            return admitir(clase, estado, llegada);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Con el lock tomado
+    private boolean cabe(Estado estado) {
+        return enCursoTotal < maximoEnCurso && estado.enCurso < estado.limite.getLimite();
+    }
+    
+    // Con el lock tomado y la plaza ya contada en enCurso
+    private Permiso admitir(ClasePeticion clase, Estado estado, long llegada) {
+        long ahora = System.nanoTime();
+        if (estado.espera != null) {
+            estado.espera.record(ahora - llegada, TimeUnit.NANOSECONDS);
+        }
+        return new Permiso(clase, estado, estado.enCurso, ahora);
+    }
+    
+    private void liberar(Permiso permiso, boolean error) {
+        long rtt = System.nanoTime() - permiso.inicio;
+        permiso.estado.limite.muestra(rtt, permiso.enCursoAlAdmitir, error);
+        lock.lock();
+        try {
+            devolverPlaza(permiso.estado);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Con el lock tomado
+    private void devolverPlaza(Estado estado) {
+        enCursoTotal--;
+        estado.enCurso--;
+        despertar();
+    }
+    
+    // Con el lock tomado: reparte los huecos libres por orden de prioridad y llegada
+    private void despertar() {
+        Iterator<Espera> esperas = cola.iterator();
+        while (enCursoTotal < maximoEnCurso && esperas.hasNext()) {
+            Espera espera = esperas.next();
+            Estado estado = estados.get(espera.clase);
+            if (estado.enCurso < estado.limite.getLimite()) {
+                esperas.remove();
+                estado.enCola--;
+                estado.enCurso++;
+                enCursoTotal++;
+                espera.admitida = true;
+                espera.turno.signal();
+            }
+        }
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Map.Entry<ClasePeticion, Estado> entrada : estados.entrySet()) {
+            String clase = entrada.getKey().getNombre();
+            Estado estado = entrada.getValue();
+            medidor(registry, "agenda.admision.limite", "Límite de concurrencia adaptativo de la clase",
+                    clase, estado, e -> e.limite.getLimite());
+            medidor(registry, "agenda.admision.en.curso", "Peticiones admitidas en curso", clase, estado,
+                    e -> e.enCurso);
+            medidor(registry, "agenda.admision.cola", "Peticiones esperando turno", clase, estado, e -> e.enCola);
+            FunctionCounter.builder("agenda.admision.rechazos", estado.rechazadasColaLlena, AtomicLong::get)
+                    .description("Peticiones rechazadas con 503")
+                    .tags("clase", clase, "motivo", MOTIVO_COLA_LLENA)
+                    .register(registry);
+            FunctionCounter.builder("agenda.admision.rechazos", estado.rechazadasEsperaAgotada, AtomicLong::get)
+                    .description("Peticiones rechazadas con 503")
+                    .tags("clase", clase, "motivo", MOTIVO_ESPERA_AGOTADA)
+                    .register(registry);
+            estado.espera = Timer.builder("agenda.admision.espera")
+                    .description("Tiempo en cola de las peticiones admitidas")
+                    .tag("clase", clase)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry);
+        }
+    }
+    
+    private void medidor(MeterRegistry registry, String nombre, String descripcion, String clase, Estado estado,
+                         ToDoubleFunction<Estado> valor) {
+        Gauge.builder(nombre, estado, e -> {
+                    lock.lock();
+                    try {
+                        return valor.applyAsDouble(e);
+                    } finally {
+                        lock.unlock();
+                    }
+                })
+                .description(descripcion)
+                .tag("clase", clase)
+                .register(registry);
+    }
+    
+    /** Plaza ocupada por una petición admitida; se libera una sola vez al terminar la petición. */
+    public final class Permiso {
+        private final ClasePeticion clase;
+        private final Estado estado;
+        private final int enCursoAlAdmitir;
+        private final long inicio;
+        private boolean liberado;
+        
+        private Permiso(ClasePeticion clase, Estado estado, int enCursoAlAdmitir, long inicio) {
+            this.clase = clase;
+            this.estado = estado;
+            this.enCursoAlAdmitir = enCursoAlAdmitir;
+            this.inicio = inicio;
+        }
+        
+        public ClasePeticion getClase() {
+            return clase;
+        }
+        
+        // error: la petición terminó con 5xx o con una excepción
+        public synchronized void liberar(boolean error) {
+            if (!liberado) {
+                liberado = true;
+                ControlAdmision.this.liberar(this, error);
+            }
+        }
+    }
+    
+    private static final class Estado {
+        private final AdmisionProperties.Clase configuracion;
+        private final LimiteAdaptativo limite;
+        private final AtomicLong rechazadasColaLlena = new AtomicLong();
+        private final AtomicLong rechazadasEsperaAgotada = new AtomicLong();
+        private int enCurso;
+        private int enCola;
+        private volatile Timer espera;
+        
+        private Estado(AdmisionProperties.Clase configuracion) {
+            this.configuracion = configuracion;
+            this.limite = new LimiteAdaptativo(configuracion.getLimiteInicial(), configuracion.getLimiteMinimo(),
+                    configuracion.getLimiteMaximo());
+        }
+    }
+    
+    private static final class Espera {
+        private final ClasePeticion clase;
+        private final long orden;
+        private final Condition turno;
+        private boolean admitida;
+        
+        private Espera(ClasePeticion clase, long orden, Condition turno) {
+            this.clase = clase;
+            this.orden = orden;
+            this.turno = turno;
+        }
+    }
+}
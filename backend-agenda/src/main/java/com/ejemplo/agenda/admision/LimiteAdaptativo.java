@@ -0,0 +1,108 @@
+package com.ejemplo.agenda.admision;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Límite de concurrencia que se ajusta con el gradiente de latencia, al estilo de Gradient2 (Netflix
+ * concurrency-limits).
+ *
+ * <p>Compara la latencia media de cada ventana de muestras con una media larga que hace de latencia sin carga.
+ * Mientras se mantienen parecidas, el límite crece en raíz cuadrada del límite por ventana. Cuando la latencia
+ * corta supera la larga en más de la tolerancia, el límite se reduce en proporción, hasta la mitad por ventana.
+ * Si la concurrencia observada no llega a la mitad del límite, la carga no lo está poniendo a prueba y no se toca.</p>
+ */
+public class LimiteAdaptativo {
+    
+    private static final double TOLERANCIA = 1.5;
+    private static final double SUAVIZADO = 0.2;
+    private static final double REDUCCION_POR_ERRORES = 0.9;
+    
+    // La media larga cubre unas 600 ventanas; las 10 primeras se promedian sin ponderar
+    private static final int VENTANA_LARGA = 600;
+    private static final int CALENTAMIENTO = 10;
+    
+    private static final int MUESTRAS_POR_VENTANA = 10;
+    private static final long DURACION_MINIMA_VENTANA = TimeUnit.MILLISECONDS.toNanos(100);
+    
+    private final int minimo;
+    private final int maximo;
+    private final LongSupplier reloj;
+    private double limite;
+    
+    private double rttLargo;
+    private long ventanasLargas;
+    
+    private long inicioVentana;
+    private long sumaRtt;
+    private int muestras;
+    private int maximoEnCurso;
+    private boolean errores;
+    
+    public LimiteAdaptativo(int inicial, int minimo, int maximo) {
+        this(inicial, minimo, maximo, System::nanoTime);
+    }
+    
+    // Con un reloj en nanosegundos propio, las pruebas cierran ventanas sin esperar su duración mínima
+    LimiteAdaptativo(int inicial, int minimo, int maximo, LongSupplier reloj) {
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.reloj = reloj;
+        this.limite = Math.max(minimo, Math.min(maximo, inicial));
+        this.inicioVentana = reloj.getAsLong();
+    }
+    
+    public synchronized int getLimite() {
+        return (int) limite;
+    }
+    
+    /**
+     * Registra una petición terminada. {@code enCurso} es la concurrencia de su clase al admitirla y
+     * {@code error} indica que falló por el servidor (5xx), lo que reduce el límite sin esperar a la latencia.
+     * Devuelve {@code true} si el límite ha cambiado.
+     */
+    public synchronized boolean muestra(long rttNanos, int enCurso, boolean error) {
+        sumaRtt += rttNanos;
+        muestras++;
+        maximoEnCurso = Math.max(maximoEnCurso, enCurso);
+        errores |= error;
+        
+        long ahora = reloj.getAsLong();
+        if (muestras < MUESTRAS_POR_VENTANA || ahora - inicioVentana < DURACION_MINIMA_VENTANA) {
+            return false;
+        }
+        double anterior = limite;
+        actualizar((double) sumaRtt / muestras, maximoEnCurso, errores);
+        inicioVentana = ahora;
+        sumaRtt = 0;
+        muestras = 0;
+        maximoEnCurso = 0;
+        errores = false;
+        return (int) anterior != (int) limite;
+    }
+    
+    private void actualizar(double rttCorto, int enCurso, boolean conErrores) {
+        ventanasLargas++;
+        if (ventanasLargas <= CALENTAMIENTO) {
+            rttLargo += (rttCorto - rttLargo) / ventanasLargas;
+        } else {
+            rttLargo += (rttCorto - rttLargo) * 2 / (VENTANA_LARGA + 1);
+        }
+        // Tras un pico largo la media larga queda inflada: se acerca más deprisa a la latencia actual
+        if (rttLargo > 2 * rttCorto) {
+            rttLargo *= 0.95;
+        }
+        
+        if (conErrores) {
+            limite = Math.max(minimo, limite * REDUCCION_POR_ERRORES);
+            return;
+        }
+        if (enCurso < limite / 2) {
+            return;
+        }
+        double gradiente = Math.max(0.5, Math.min(1.0, TOLERANCIA * rttLargo / rttCorto));
+        double nuevo = limite * gradiente + Math.sqrt(limite);
+        nuevo = limite * (1 - SUAVIZADO) + nuevo * SUAVIZADO;
+        limite = Math.max(minimo, Math.min(maximo, nuevo));
+    }
+}
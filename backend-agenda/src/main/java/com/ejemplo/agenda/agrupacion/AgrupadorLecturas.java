@@ -0,0 +1,198 @@
+package com.ejemplo.agenda.agrupacion;
+
+import com.ejemplo.agenda.datos.LecturaPropia;
+import com.ejemplo.agenda.service.VersionesDatos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agrupa llamadas simultáneas e idénticas (mismo método y argumentos) a los métodos {@link LecturaAgrupada}: la
+ * primera ejecuta la lectura y las que llegan mientras tanto esperan su {@link CompletableFuture} y reciben el
+ * mismo resultado o la misma excepción.
+ *
+ * <ul>
+ *   <li>La clave incluye la versión de {@link VersionesDatos}: una llamada posterior a una escritura confirmada
+ *       nunca se une a una lectura empezada antes.</li>
+ *   <li>Se aplica por fuera de {@code @Transactional} y {@code @Cacheable}, así que quien espera no ocupa conexión.
+ *       Dentro de una transacción no se agrupa, porque la lectura podría ver cambios aún sin confirmar.</li>
+ *   <li>Con réplicas, las lecturas que deben ir a la primaria (lectura propia) se agrupan aparte.</li>
+ *   <li>{@code agenda.agrupacion.ventana} mantiene el resultado ya terminado para las llamadas idénticas que lleguen
+ *       durante ese tiempo, mientras no haya escrituras. Por defecto es 0: solo se comparte la lectura en curso.</li>
+ * </ul>
+ */
+@Aspect
+@Component
+@Profile("!reactivo")
+@ConditionalOnProperty(prefix = "agenda.agrupacion", name = "habilitada", matchIfMissing = true)
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class AgrupadorLecturas {
+    
+    private final Map<Clave, Vuelo> vuelos = new ConcurrentHashMap<>();
+    private final Map<Method, Counter[]> contadores = new ConcurrentHashMap<>();
+    
+    private final VersionesDatos versionesDatos;
+    private final MeterRegistry registry;
+    private final long ventana;
+    
+    // Solo existe con réplicas de lectura configuradas (DatosConfig)
+    @Autowired(required = false)
+    private LecturaPropia lecturaPropia;
+    
+    public AgrupadorLecturas(VersionesDatos versionesDatos, MeterRegistry registry,
+                             @Value("${agenda.agrupacion.ventana:0ms}") Duration ventana) {
+        this.versionesDatos = versionesDatos;
+        this.registry = registry;
+        this.ventana = ventana.toNanos();
+    }
+    
+    @Around("@annotation(com.ejemplo.agenda.agrupacion.LecturaAgrupada)")
+    public Object agrupar(ProceedingJoinPoint llamada) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return llamada.proceed();
+        }
+        Method metodo = ((MethodSignature) llamada.getSignature()).getMethod();
+        Clave clave = new Clave(metodo, llamada.getArgs(), versionesDatos.versionDatos(),
+                lecturaPropia != null && lecturaPropia.requierePrimaria());
+        
+        Vuelo propio = new Vuelo();
+        Vuelo vuelo = vuelos.compute(clave, (k, actual) -> actual == null || actual.caducado() ? propio : actual);
+        Counter[] contador = contadores.computeIfAbsent(metodo, this::contadores);
+        if (vuelo != propio) {
+            contador[1].increment();
+            return esperar(vuelo);
+        }
+        
+        contador[0].increment();
+        try {
+            Object resultado = llamada.proceed();
+            propio.terminar(resultado, leidaDeReplicaAtrasada());
+            return resultado;
+        } catch (Throwable e) {
+            propio.resultado.completeExceptionally(e);
+            throw e;
+        } finally {
+            if (ventana == 0 || propio.resultado.isCompletedExceptionally()) {
+                vuelos.remove(clave, propio);
+            } else {
+                propio.caduca = System.nanoTime() + ventana;
+                CompletableFuture.delayedExecutor(ventana, TimeUnit.NANOSECONDS)
+                        .execute(() -> vuelos.remove(clave, propio));
+            }
+        }
+    }
+    
+    private Object esperar(Vuelo vuelo) throws Throwable {
+        try {
+            Object resultado = vuelo.resultado.join();
+            if (vuelo.replicaAtrasada) {
+                marcarReplicaAtrasada();
+            }
+            return resultado;
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+    
+    // Si la lectura compartida salió de una réplica dentro de la ventana de lectura propia, todas las peticiones
+    // que la reciben deben evitar la caché de respuestas igual que la primera (RespuestasCondicionalesFilter)
+    private static boolean leidaDeReplicaAtrasada() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        return atributos != null
+                && atributos.getAttribute(LecturaPropia.POSIBLEMENTE_ATRASADA, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+    
+    private static void marcarReplicaAtrasada() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos != null) {
+            atributos.setAttribute(LecturaPropia.POSIBLEMENTE_ATRASADA, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+    
+    private Counter[] contadores(Method metodo) {
+        String nombre = metodo.getDeclaringClass().getSimpleName() + "." + metodo.getName();
+        return new Counter[] {
+                Counter.builder("agenda.agrupacion.lecturas")
+                        .description("Lecturas agrupables: ejecutadas o recibidas de otra llamada idéntica en curso")
+                        .tags("metodo", nombre, "resultado", "ejecutada")
+                        .register(registry),
+                Counter.builder("agenda.agrupacion.lecturas")
+                        .description("Lecturas agrupables: ejecutadas o recibidas de otra llamada idéntica en curso")
+                        .tags("metodo", nombre, "resultado", "compartida")
+                        .register(registry)
+        };
+    }
+    
+    private static final class Vuelo {
+        private final CompletableFuture<Object> resultado = new CompletableFuture<>();
+        private volatile boolean replicaAtrasada;
+        // Fin de la ventana tras terminar; mientras la lectura está en curso no caduca
+        private volatile long caduca = Long.MAX_VALUE;
+        
+        private void terminar(Object valor, boolean deReplicaAtrasada) {
+            replicaAtrasada = deReplicaAtrasada;
+            resultado.complete(valor);
+        }
+        
+        private boolean caducado() {
+            return resultado.isDone() && System.nanoTime() - caduca >= 0;
+        }
+    }
+    
+    private static final class Clave {
+        private final Method metodo;
+        private final Object[] argumentos;
+        private final String version;
+        private final boolean primaria;
+        private final int hash;
+        
+        private Clave(Method metodo, Object[] argumentos, String version, boolean primaria) {
+            this.metodo = metodo;
+            this.argumentos = argumentos;
+            this.version = version;
+            this.primaria = primaria;
+            this.hash = Objects.hash(metodo, Arrays.hashCode(argumentos), version, primaria);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Clave)) {
+                return false;
+            }
+            Clave otra = (Clave) o;
+            return hash == otra.hash && primaria == otra.primaria && metodo.equals(otra.metodo)
+                    && version.equals(otra.version) && Arrays.equals(argumentos, otra.argumentos);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
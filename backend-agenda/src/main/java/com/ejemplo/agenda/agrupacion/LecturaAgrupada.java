@@ -0,0 +1,18 @@
+package com.ejemplo.agenda.agrupacion;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lectura de servicio que puede compartirse entre llamadas simultáneas con los mismos argumentos
+ * ({@link AgrupadorLecturas}). El método no debe depender de nada más que de sus argumentos y de la base de datos,
+ * y su resultado no debe modificarse después de devolverlo.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LecturaAgrupada {
+}
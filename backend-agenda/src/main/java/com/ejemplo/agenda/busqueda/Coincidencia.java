@@ -0,0 +1,22 @@
+package com.ejemplo.agenda.busqueda;
+
+/**
+ * Resultado de una búsqueda: id del contacto y su puntuación BM25.
+ */
+public final class Coincidencia {
+    private final long id;
+    private final double puntuacion;
+    
+    public Coincidencia(long id, double puntuacion) {
+        this.id = id;
+        this.puntuacion = puntuacion;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public double getPuntuacion() {
+        return puntuacion;
+    }
+}
@@ -0,0 +1,463 @@
+package com.ejemplo.agenda.busqueda;
+
+import com.ejemplo.agenda.model.Contacto;
+import com.ejemplo.agenda.model.dto.ContactoRequest;
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Índice invertido de contactos con ranking BM25.
+ *
+ * <p>Los documentos viven en un segmento base mapeado en memoria más un segmento en memoria
+ * con los cambios recientes. Cada cambio se anota en un diario para sobrevivir a reinicios;
+ * cuando el diario supera el umbral configurado se compacta todo en un nuevo segmento base.</p>
+ */
+@Component
+public class IndiceContactos {
+    
+    private static final Logger log = LoggerFactory.getLogger(IndiceContactos.class);
+    
+    private static final String ARCHIVO_SEGMENTO = "segmento.idx";
+    private static final String ARCHIVO_DIARIO = "diario.log";
+    private static final byte OP_INDEXAR = 1;
+    private static final byte OP_ELIMINAR = 2;
+    
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    
+    // Mayor puntuación primero; a igual puntuación, menor id primero
+    private static final Comparator<Coincidencia> ORDEN = Comparator
+            .comparingDouble(Coincidencia::getPuntuacion).reversed()
+            .thenComparingLong(Coincidencia::getId);
+    
+    @Value("${agenda.busqueda.directorio:./data/indice}")
+    private String directorio;
+    
+    @Value("${agenda.busqueda.umbral-compactacion:5000}")
+    private int umbralCompactacion;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private SegmentoIndice base = SegmentoIndice.vacio();
+    private final Set<Long> eliminadosBase = new HashSet<>();
+    private final Map<Long, Map<String, Integer>> memoria = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Integer>> terminosMemoria = new TreeMap<>();
+    private int documentos;
+    private long longitudTotal;
+    private boolean segmentoEnDisco;
+    private DataOutputStream diario;
+    
+    @PostConstruct
+    public void abrir() throws IOException {
+        Path ruta = Paths.get(directorio);
+        Files.createDirectories(ruta);
+        Path segmento = ruta.resolve(ARCHIVO_SEGMENTO);
+        segmentoEnDisco = Files.exists(segmento);
+        if (segmentoEnDisco) {
+            base = SegmentoIndice.abrir(segmento);
+        }
+        documentos = base.numDocs();
+        longitudTotal = base.longitudTotal();
+        reproducirDiario(ruta.resolve(ARCHIVO_DIARIO));
+        diario = abrirDiario(false);
+        log.info("Índice de contactos abierto en {} con {} documentos", ruta.toAbsolutePath(), documentos);
+    }
+    
+    @PreDestroy
+    public void cerrar() throws IOException {
+        lock.writeLock().lock();
+        try {
+            diario.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Indica si existe un segmento persistido en disco.
+     */
+    public boolean estaPersistido() {
+        return segmentoEnDisco;
+    }
+    
+    public int documentos() {
+        lock.readLock().lock();
+        try {
+            return documentos;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public void indexar(Contacto contacto) {
+        indexar(contacto.getId(), Tokenizador.frecuencias(contacto.getNombre(), contacto.getApellido(),
+                contacto.getEmail(), contacto.getTelefono(), contacto.getDireccion(), contacto.getNotas()));
+    }
+    
+    public void indexar(ContactoResponse contacto) {
+        indexar(contacto.getId(), Tokenizador.frecuencias(contacto.getNombre(), contacto.getApellido(),
+                contacto.getEmail(), contacto.getTelefono(), contacto.getDireccion(), contacto.getNotas()));
+    }
+    
+    /**
+     * Indexa un lote de contactos nuevos con un solo bloqueo y una sola escritura del diario.
+     */
+    public void indexarLote(Map<Long, ContactoRequest> contactos) {
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, ContactoRequest> entrada : contactos.entrySet()) {
+                ContactoRequest contacto = entrada.getValue();
+                Map<String, Integer> frecuencias = Tokenizador.frecuencias(contacto.getNombre(), contacto.getApellido(),
+                        contacto.getEmail(), contacto.getTelefono(), contacto.getDireccion(), contacto.getNotas());
+                quitar(entrada.getKey());
+                agregarEnMemoria(entrada.getKey(), frecuencias);
+                escribirEnDiario(OP_INDEXAR, entrada.getKey(), frecuencias);
+            }
+            vaciarDiario();
+            if (debeCompactar()) {
+                compactar();
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo anotar el lote de {} contactos en el diario del índice", contactos.size(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void eliminar(Long id) {
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+            anotar(OP_ELIMINAR, id, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void eliminarLote(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                quitar(id);
+                escribirEnDiario(OP_ELIMINAR, id, null);
+            }
+            vaciarDiario();
+            if (debeCompactar()) {
+                compactar();
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo anotar la baja de {} contactos en el diario del índice", ids.size(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Devuelve los ids de la página pedida ordenados por relevancia BM25. El último término
+     * de la consulta se trata como prefijo para poder buscar mientras se escribe.
+     */
+    public List<Long> buscar(String consulta, int pagina, int tamaño) {
+        long hasta = (long) (pagina + 1) * tamaño;
+        return mejores(puntuar(consulta), null, (int) Math.min(hasta, Integer.MAX_VALUE))
+                .stream()
+                .skip((long) pagina * tamaño)
+                .map(Coincidencia::getId)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Igual que {@link #buscar(String, int, int)} pero continuando tras la coincidencia
+     * (puntuación, id) dada en lugar de saltar un número de resultados.
+     */
+    public List<Coincidencia> buscarDespuesDe(String consulta, Coincidencia ultima, int tamaño) {
+        return mejores(puntuar(consulta), ultima, tamaño);
+    }
+    
+    /**
+     * Sustituye todo el contenido del índice por los documentos dados.
+     */
+    void reconstruir(Map<Long, Map<String, Integer>> documentosNuevos) {
+        lock.writeLock().lock();
+        try {
+            publicarSegmento(documentosNuevos);
+            log.info("Índice de contactos reconstruido con {} documentos", documentos);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo reconstruir el índice de contactos", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    void indexar(Long id, Map<String, Integer> frecuencias) {
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+            agregarEnMemoria(id, frecuencias);
+            anotar(OP_INDEXAR, id, frecuencias);
+            if (debeCompactar()) {
+                compactar();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private Map<Long, Double> puntuar(String consulta) {
+        List<String> terminos = Tokenizador.tokenizar(consulta);
+        Map<Long, Double> puntuaciones = new HashMap<>();
+        if (terminos.isEmpty()) {
+            return puntuaciones;
+        }
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < terminos.size(); i++) {
+                Map<Long, Double> parcial = new HashMap<>();
+                puntuarTermino(terminos.get(i), i == terminos.size() - 1, parcial);
+                parcial.forEach((id, puntuacion) -> puntuaciones.merge(id, puntuacion, Double::sum));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return puntuaciones;
+    }
+    
+    /**
+     * Las {@code maximo} mejores coincidencias posteriores a {@code ultima}, en orden. Un montículo acotado cuya
+     * cima es la peor que se conserva: O(n log maximo) en lugar de ordenar todas las coincidencias de un
+     * término frecuente para devolver una página.
+     */
+    static List<Coincidencia> mejores(Map<Long, Double> puntuaciones, Coincidencia ultima, int maximo) {
+        if (maximo <= 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<Coincidencia> monticulo = new PriorityQueue<>(Math.min(maximo, puntuaciones.size()) + 1,
+                ORDEN.reversed());
+        for (Map.Entry<Long, Double> entrada : puntuaciones.entrySet()) {
+            Coincidencia coincidencia = new Coincidencia(entrada.getKey(), entrada.getValue());
+            if (ultima != null && ORDEN.compare(coincidencia, ultima) <= 0) {
+                continue;
+            }
+            if (monticulo.size() < maximo) {
+                monticulo.add(coincidencia);
+            } else if (ORDEN.compare(coincidencia, monticulo.peek()) < 0) {
+                monticulo.poll();
+                monticulo.add(coincidencia);
+            }
+        }
+        List<Coincidencia> resultado = new ArrayList<>(monticulo);
+        resultado.sort(ORDEN);
+        return resultado;
+    }
+    
+    private void puntuarTermino(String termino, boolean prefijo, Map<Long, Double> parcial) {
+        double n = Math.max(documentos, 1);
+        double longitudMedia = documentos > 0 ? (double) longitudTotal / documentos : 1.0;
+        
+        for (int i = base.primerTerminoDesde(termino); i < base.numTerminos(); i++) {
+            String actual = base.termino(i);
+            if (prefijo ? !actual.startsWith(termino) : !actual.equals(termino)) {
+                break;
+            }
+            Map<Long, Integer> enMemoria = terminosMemoria.get(actual);
+            double idf = idf(n, base.df(i) + (enMemoria != null ? enMemoria.size() : 0));
+            base.recorrerPostings(i, (ordinal, tf) -> {
+                long id = base.id(ordinal);
+                if (!eliminadosBase.contains(id)) {
+                    double puntuacion = bm25(idf, tf, base.longitud(ordinal), longitudMedia);
+                    parcial.merge(id, puntuacion, Math::max);
+                }
+            });
+        }
+        
+        for (Map.Entry<String, Map<Long, Integer>> entrada : terminosMemoria.tailMap(termino, true).entrySet()) {
+            String actual = entrada.getKey();
+            if (prefijo ? !actual.startsWith(termino) : !actual.equals(termino)) {
+                break;
+            }
+            double idf = idf(n, base.df(actual) + entrada.getValue().size());
+            entrada.getValue().forEach((id, tf) -> {
+                double puntuacion = bm25(idf, tf, longitudEnMemoria(id), longitudMedia);
+                parcial.merge(id, puntuacion, Math::max);
+            });
+        }
+    }
+    
+    private static double idf(double n, int df) {
+        return Math.log(1 + (n - df + 0.5) / (df + 0.5));
+    }
+    
+    private static double bm25(double idf, int tf, int longitud, double longitudMedia) {
+        return idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * longitud / longitudMedia));
+    }
+    
+    private int longitudEnMemoria(Long id) {
+        return memoria.get(id).values().stream().mapToInt(Integer::intValue).sum();
+    }
+    
+    private void quitar(Long id) {
+        Map<String, Integer> anterior = memoria.remove(id);
+        if (anterior != null) {
+            for (String termino : anterior.keySet()) {
+                Map<Long, Integer> postings = terminosMemoria.get(termino);
+                postings.remove(id);
+                if (postings.isEmpty()) {
+                    terminosMemoria.remove(termino);
+                }
+            }
+            documentos--;
+            longitudTotal -= anterior.values().stream().mapToInt(Integer::intValue).sum();
+            return;
+        }
+        int ordinal = base.ordinal(id);
+        if (ordinal >= 0 && eliminadosBase.add(id)) {
+            documentos--;
+            longitudTotal -= base.longitud(ordinal);
+        }
+    }
+    
+    private void agregarEnMemoria(Long id, Map<String, Integer> frecuencias) {
+        memoria.put(id, frecuencias);
+        frecuencias.forEach((termino, tf) -> terminosMemoria.computeIfAbsent(termino, t -> new HashMap<>()).put(id, tf));
+        documentos++;
+        longitudTotal += frecuencias.values().stream().mapToInt(Integer::intValue).sum();
+    }
+    
+    // Umbral geométrico: el coste amortizado de compactar se mantiene O(log n) por documento
+    private boolean debeCompactar() {
+        int pendientes = memoria.size() + eliminadosBase.size();
+        return pendientes >= umbralCompactacion && pendientes >= base.numDocs() / 2;
+    }
+    
+    private void compactar() {
+        Map<Long, Map<String, Integer>> vivos = new HashMap<>(memoria);
+        for (int i = 0; i < base.numTerminos(); i++) {
+            String termino = base.termino(i);
+            base.recorrerPostings(i, (ordinal, tf) -> {
+                long id = base.id(ordinal);
+                if (!eliminadosBase.contains(id)) {
+                    vivos.computeIfAbsent(id, k -> new HashMap<>()).put(termino, tf);
+                }
+            });
+        }
+        try {
+            publicarSegmento(vivos);
+            log.debug("Índice de contactos compactado con {} documentos", documentos);
+        } catch (IOException e) {
+            // El diario sigue siendo válido: se reintentará en la próxima escritura
+            log.warn("No se pudo compactar el índice de contactos", e);
+        }
+    }
+    
+    private void publicarSegmento(Map<Long, Map<String, Integer>> documentosNuevos) throws IOException {
+        Path ruta = Paths.get(directorio);
+        Path temporal = ruta.resolve(ARCHIVO_SEGMENTO + ".tmp");
+        SegmentoIndice.escribir(temporal, documentosNuevos);
+        Path segmento = Files.move(temporal, ruta.resolve(ARCHIVO_SEGMENTO),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        base = SegmentoIndice.abrir(segmento);
+        segmentoEnDisco = true;
+        eliminadosBase.clear();
+        memoria.clear();
+        terminosMemoria.clear();
+        documentos = base.numDocs();
+        longitudTotal = base.longitudTotal();
+        diario.close();
+        diario = abrirDiario(true);
+    }
+    
+    private DataOutputStream abrirDiario(boolean truncar) throws IOException {
+        Path archivo = Paths.get(directorio).resolve(ARCHIVO_DIARIO);
+        StandardOpenOption modo = truncar ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND;
+        return new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, modo)));
+    }
+    
+    private void anotar(byte operacion, Long id, Map<String, Integer> frecuencias) {
+        try {
+            escribirEnDiario(operacion, id, frecuencias);
+            vaciarDiario();
+        } catch (IOException e) {
+            // El índice en memoria sigue siendo correcto; el arranque lo reconstruirá si hace falta
+            log.warn("No se pudo anotar el cambio del contacto {} en el diario del índice", id, e);
+        }
+    }
+    
+    private void escribirEnDiario(byte operacion, Long id, Map<String, Integer> frecuencias) throws IOException {
+        diario.writeByte(operacion);
+        diario.writeLong(id);
+        if (frecuencias != null) {
+            diario.writeInt(frecuencias.size());
+            for (Map.Entry<String, Integer> entrada : frecuencias.entrySet()) {
+                diario.writeUTF(entrada.getKey());
+                diario.writeInt(entrada.getValue());
+            }
+        }
+    }
+    
+    private void vaciarDiario() throws IOException {
+        diario.flush();
+    }
+    
+    private void reproducirDiario(Path archivo) throws IOException {
+        if (!Files.exists(archivo)) {
+            return;
+        }
+        int operaciones = 0;
+        try (InputStream entradaArchivo = Files.newInputStream(archivo);
+             DataInputStream entrada = new DataInputStream(new BufferedInputStream(entradaArchivo))) {
+            while (true) {
+                byte operacion = entrada.readByte();
+                long id = entrada.readLong();
+                Map<String, Integer> frecuencias = null;
+                if (operacion == OP_INDEXAR) {
+                    int terminos = entrada.readInt();
+                    frecuencias = new HashMap<>(terminos * 2);
+                    for (int i = 0; i < terminos; i++) {
+                        frecuencias.put(entrada.readUTF(), entrada.readInt());
+                    }
+                }
+                quitar(id);
+                if (frecuencias != null) {
+                    agregarEnMemoria(id, frecuencias);
+                }
+                operaciones++;
+            }
+        } catch (EOFException e) {
+            // Fin del diario (o última entrada incompleta tras una caída)
+            log.debug("Reproducidas {} operaciones del diario del índice", operaciones);
+        }
+    }
+}
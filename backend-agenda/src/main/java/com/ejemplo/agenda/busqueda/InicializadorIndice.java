@@ -0,0 +1,58 @@
+package com.ejemplo.agenda.busqueda;
+
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+import com.ejemplo.agenda.repository.ContactoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reconstruye el índice de búsqueda al arrancar si no existe o si no coincide con la base de datos
+ * (por ejemplo, con H2 en memoria o tras cargar datos con JDBC).
+ */
+@Component
+public class InicializadorIndice implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(InicializadorIndice.class);
+    private static final int LOTE = 1000;
+    
+    @Autowired
+    private IndiceContactos indiceContactos;
+    
+    @Autowired
+    private ContactoRepository contactoRepository;
+    
+    // Con réplicas de lectura, la transacción (de lectura-escritura) hace que el índice se construya desde la primaria
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        long enBaseDeDatos = contactoRepository.count();
+        if (indiceContactos.estaPersistido() && indiceContactos.documentos() == enBaseDeDatos) {
+            return;
+        }
+        log.info("Reconstruyendo el índice de contactos ({} contactos)", enBaseDeDatos);
+        Map<Long, Map<String, Integer>> documentos = new HashMap<>();
+        Page<ContactoResponse> pagina = contactoRepository.findAllResponses(PageRequest.of(0, LOTE, Sort.by("id")));
+        while (true) {
+            for (ContactoResponse contacto : pagina) {
+                documentos.put(contacto.getId(), Tokenizador.frecuencias(contacto.getNombre(), contacto.getApellido(),
+                        contacto.getEmail(), contacto.getTelefono(), contacto.getDireccion(), contacto.getNotas()));
+            }
+            if (!pagina.hasNext()) {
+                break;
+            }
+            pagina = contactoRepository.findAllResponses(pagina.nextPageable());
+        }
+        indiceContactos.reconstruir(documentos);
+    }
+}
@@ -0,0 +1,213 @@
+package com.ejemplo.agenda.busqueda;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Segmento inmutable del índice invertido, leído mediante un {@link java.nio.MappedByteBuffer}.
+ *
+ * <pre>
+ * cabecera:  int magia, int numDocs, int numTerminos, long longitudTotal
+ * docs:      numDocs x (long id, int longitud)                ordenados por id
+ * terminos:  numTerminos x (int offsetTexto, int largoTexto, int offsetPostings, int df)
+ * texto:     términos en UTF-8, ordenados
+ * postings:  (int ordinalDoc, int tf) por cada documento del término
+ * </pre>
+ */
+final class SegmentoIndice {
+    
+    private static final int MAGIA = 0x41474931;
+    private static final int CABECERA = 20;
+    private static final int DOC = 12;
+    private static final int TERMINO = 16;
+    private static final int POSTING = 8;
+    
+    interface ConsumidorPosting {
+        void aceptar(int ordinal, int tf);
+    }
+    
+    private final ByteBuffer datos;
+    private final int numDocs;
+    private final int numTerminos;
+    private final long longitudTotal;
+    private final int offsetTerminos;
+    
+    private SegmentoIndice(ByteBuffer datos) {
+        this.datos = datos;
+        if (datos.getInt(0) != MAGIA) {
+            throw new IllegalStateException("Segmento de índice no válido");
+        }
+        this.numDocs = datos.getInt(4);
+        this.numTerminos = datos.getInt(8);
+        this.longitudTotal = datos.getLong(12);
+        this.offsetTerminos = CABECERA + numDocs * DOC;
+    }
+    
+    static SegmentoIndice vacio() {
+        ByteBuffer datos = ByteBuffer.allocate(CABECERA);
+        datos.putInt(0, MAGIA);
+        return new SegmentoIndice(datos);
+    }
+    
+    static SegmentoIndice abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            return new SegmentoIndice(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+    
+    /**
+     * Escribe un segmento con los documentos dados (id -> frecuencia por término).
+     */
+    static void escribir(Path archivo, Map<Long, Map<String, Integer>> documentos) throws IOException {
+        long[] ids = documentos.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        int[] longitudes = new int[ids.length];
+        TreeMap<String, List<int[]>> postings = new TreeMap<>();
+        long longitudTotal = 0;
+        for (int ordinal = 0; ordinal < ids.length; ordinal++) {
+            for (Map.Entry<String, Integer> entrada : documentos.get(ids[ordinal]).entrySet()) {
+                postings.computeIfAbsent(entrada.getKey(), k -> new ArrayList<>())
+                        .add(new int[] {ordinal, entrada.getValue()});
+                longitudes[ordinal] += entrada.getValue();
+            }
+            longitudTotal += longitudes[ordinal];
+        }
+        
+        List<byte[]> textos = new ArrayList<>(postings.size());
+        int largoTexto = 0;
+        for (String termino : postings.keySet()) {
+            byte[] texto = termino.getBytes(StandardCharsets.UTF_8);
+            textos.add(texto);
+            largoTexto += texto.length;
+        }
+        int offsetTexto = CABECERA + ids.length * DOC + postings.size() * TERMINO;
+        int offsetPostings = offsetTexto + largoTexto;
+        
+        try (OutputStream archivoSalida = Files.newOutputStream(archivo);
+             DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(archivoSalida, 1 << 16))) {
+            salida.writeInt(MAGIA);
+            salida.writeInt(ids.length);
+            salida.writeInt(postings.size());
+            salida.writeLong(longitudTotal);
+            for (int ordinal = 0; ordinal < ids.length; ordinal++) {
+                salida.writeLong(ids[ordinal]);
+                salida.writeInt(longitudes[ordinal]);
+            }
+            int i = 0;
+            for (List<int[]> lista : postings.values()) {
+                salida.writeInt(offsetTexto);
+                salida.writeInt(textos.get(i).length);
+                salida.writeInt(offsetPostings);
+                salida.writeInt(lista.size());
+                offsetTexto += textos.get(i).length;
+                offsetPostings += lista.size() * POSTING;
+                i++;
+            }
+            for (byte[] texto : textos) {
+                salida.write(texto);
+            }
+            for (List<int[]> lista : postings.values()) {
+                for (int[] posting : lista) {
+                    salida.writeInt(posting[0]);
+                    salida.writeInt(posting[1]);
+                }
+            }
+        }
+    }
+    
+    int numDocs() {
+        return numDocs;
+    }
+    
+    int numTerminos() {
+        return numTerminos;
+    }
+    
+    long longitudTotal() {
+        return longitudTotal;
+    }
+    
+    long id(int ordinal) {
+        return datos.getLong(CABECERA + ordinal * DOC);
+    }
+    
+    int longitud(int ordinal) {
+        return datos.getInt(CABECERA + ordinal * DOC + 8);
+    }
+    
+    /**
+     * Ordinal del documento con ese id, o -1 si no está en el segmento.
+     */
+    int ordinal(long id) {
+        int bajo = 0;
+        int alto = numDocs - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            long actual = id(medio);
+            if (actual < id) {
+                bajo = medio + 1;
+            } else if (actual > id) {
+                alto = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -1;
+    }
+    
+    String termino(int indice) {
+        int entrada = offsetTerminos + indice * TERMINO;
+        byte[] texto = new byte[datos.getInt(entrada + 4)];
+        ByteBuffer vista = datos.duplicate();
+        vista.position(datos.getInt(entrada));
+        vista.get(texto);
+        return new String(texto, StandardCharsets.UTF_8);
+    }
+    
+    int df(int indice) {
+        return datos.getInt(offsetTerminos + indice * TERMINO + 12);
+    }
+    
+    /**
+     * Índice del primer término mayor o igual que el dado (puede ser numTerminos).
+     */
+    int primerTerminoDesde(String termino) {
+        int bajo = 0;
+        int alto = numTerminos;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (termino(medio).compareTo(termino) < 0) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+    
+    int df(String termino) {
+        int indice = primerTerminoDesde(termino);
+        return indice < numTerminos && termino(indice).equals(termino) ? df(indice) : 0;
+    }
+    
+    void recorrerPostings(int indice, ConsumidorPosting consumidor) {
+        int entrada = offsetTerminos + indice * TERMINO;
+        int offset = datos.getInt(entrada + 8);
+        int df = datos.getInt(entrada + 12);
+        for (int i = 0; i < df; i++) {
+            int posicion = offset + i * POSTING;
+            consumidor.aceptar(datos.getInt(posicion), datos.getInt(posicion + 4));
+        }
+    }
+}
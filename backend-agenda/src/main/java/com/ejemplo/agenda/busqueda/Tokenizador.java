@@ -0,0 +1,68 @@
+package com.ejemplo.agenda.busqueda;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Normaliza texto (minúsculas, sin tildes) y lo divide en términos para el índice.
+ */
+final class Tokenizador {
+    
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    private static final Pattern NO_DIGITOS = Pattern.compile("\\D+");
+    
+    // Peso de cada campo en la frecuencia del término
+    private static final int PESO_NOMBRE = 3;
+    private static final int PESO_CONTACTO = 2;
+    private static final int PESO_TEXTO = 1;
+    
+    private Tokenizador() {}
+    
+    static List<String> tokenizar(String texto) {
+        List<String> tokens = new ArrayList<>();
+        if (texto == null || texto.isBlank()) {
+            return tokens;
+        }
+        String normalizado = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String token : SEPARADOR.split(normalizado)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+    
+    static Map<String, Integer> frecuencias(String nombre, String apellido, String email,
+                                            String telefono, String direccion, String notas) {
+        Map<String, Integer> frecuencias = new HashMap<>();
+        agregar(frecuencias, nombre, PESO_NOMBRE);
+        agregar(frecuencias, apellido, PESO_NOMBRE);
+        agregar(frecuencias, email, PESO_CONTACTO);
+        agregar(frecuencias, telefono, PESO_CONTACTO);
+        agregar(frecuencias, direccion, PESO_TEXTO);
+        agregar(frecuencias, notas, PESO_TEXTO);
+        
+        // El teléfono también se indexa solo con dígitos: "555-0101" -> "5550101"
+        if (telefono != null) {
+            String digitos = NO_DIGITOS.matcher(telefono).replaceAll("");
+            if (!digitos.isEmpty()) {
+                frecuencias.merge(digitos, PESO_CONTACTO, Integer::sum);
+            }
+        }
+        return frecuencias;
+    }
+    
+    private static void agregar(Map<String, Integer> frecuencias, String texto, int peso) {
+        for (String token : tokenizar(texto)) {
+            frecuencias.merge(token, peso, Integer::sum);
+        }
+    }
+}
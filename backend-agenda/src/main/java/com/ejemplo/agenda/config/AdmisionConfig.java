@@ -0,0 +1,24 @@
+package com.ejemplo.agenda.config;
+
+import com.ejemplo.agenda.admision.ControlAdmision;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Control de admisión de la API ({@link com.ejemplo.agenda.web.AdmisionFilter}). Se desactiva con
+ * {@code agenda.admision.habilitada=false}. Las métricas {@code agenda.admision.*} se publican por clase.
+ */
+@Configuration
+@Profile("!reactivo")
+@ConditionalOnProperty(prefix = "agenda.admision", name = "habilitada", matchIfMissing = true)
+@EnableConfigurationProperties(AdmisionProperties.class)
+public class AdmisionConfig {
+    
+    @Bean
+    public ControlAdmision controlAdmision(AdmisionProperties propiedades) {
+        return new ControlAdmision(propiedades);
+    }
+}
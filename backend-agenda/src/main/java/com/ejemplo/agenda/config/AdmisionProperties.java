@@ -0,0 +1,174 @@
+package com.ejemplo.agenda.config;
+
+import com.ejemplo.agenda.admision.ClasePeticion;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Control de admisión de la API: concurrencia por clase de petición y espera máxima antes de responder 503.
+ *
+ * <pre>
+ * agenda.admision.maximo-en-curso=20
+ * agenda.admision.consulta.limite-maximo=40
+ * agenda.admision.pesada.maxima-espera=50ms
+ * </pre>
+ *
+ * <p>El límite de cada clase se adapta a su latencia entre {@code limite-minimo} y {@code limite-maximo}.
+ * {@code maximo-en-curso} acota la suma de todas y conviene que ronde el doble del pool de conexiones.</p>
+ */
+@ConfigurationProperties(prefix = "agenda.admision")
+public class AdmisionProperties {
+    
+    private boolean habilitada = true;
+    
+    // Peticiones en curso entre todas las clases; al llenarse se admite por prioridad de clase
+    private int maximoEnCurso = 20;
+    
+    // Valor de Retry-After en las respuestas 503
+    private Duration reintentarTras = Duration.ofSeconds(1);
+    
+    private Clase puntual = new Clase(20, 4, 100, 100, Duration.ofMillis(200));
+    
+    private Clase escritura = new Clase(10, 2, 50, 50, Duration.ofMillis(200));
+    
+    private Clase consulta = new Clase(8, 2, 40, 20, Duration.ofMillis(100));
+    
+    private Clase pesada = new Clase(2, 1, 8, 4, Duration.ofMillis(50));
+    
+    public Clase clase(ClasePeticion clase) {
+        switch (clase) {
+            case PUNTUAL:
+                return puntual;
+            case ESCRITURA:
+                return escritura;
+            case CONSULTA:
+                return consulta;
+            default:
+                return pesada;
+        }
+    }
+    
+    // Getters y Setters
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+    
+    public void setHabilitada(boolean habilitada) {
+        this.habilitada = habilitada;
+    }
+    
+    public int getMaximoEnCurso() {
+        return maximoEnCurso;
+    }
+    
+    public void setMaximoEnCurso(int maximoEnCurso) {
+        this.maximoEnCurso = maximoEnCurso;
+    }
+    
+    public Duration getReintentarTras() {
+        return reintentarTras;
+    }
+    
+    public void setReintentarTras(Duration reintentarTras) {
+        this.reintentarTras = reintentarTras;
+    }
+    
+    public Clase getPuntual() {
+        return puntual;
+    }
+    
+    public void setPuntual(Clase puntual) {
+        this.puntual = puntual;
+    }
+    
+    public Clase getEscritura() {
+        return escritura;
+    }
+    
+    public void setEscritura(Clase escritura) {
+        this.escritura = escritura;
+    }
+    
+    public Clase getConsulta() {
+        return consulta;
+    }
+    
+    public void setConsulta(Clase consulta) {
+        this.consulta = consulta;
+    }
+    
+    public Clase getPesada() {
+        return pesada;
+    }
+    
+    public void setPesada(Clase pesada) {
+        this.pesada = pesada;
+    }
+    
+    public static class Clase {
+        
+        private int limiteInicial;
+        
+        private int limiteMinimo;
+        
+        private int limiteMaximo;
+        
+        // Peticiones que pueden esperar turno; con la cola llena se responde 503 sin esperar
+        private int maximaCola;
+        
+        private Duration maximaEspera;
+        
+        // Constructores
+        public Clase() {}
+        
+        public Clase(int limiteInicial, int limiteMinimo, int limiteMaximo, int maximaCola, Duration maximaEspera) {
+            this.limiteInicial = limiteInicial;
+            this.limiteMinimo = limiteMinimo;
+            this.limiteMaximo = limiteMaximo;
+            this.maximaCola = maximaCola;
+            this.maximaEspera = maximaEspera;
+        }
+        
+        // Getters y Setters
+        public int getLimiteInicial() {
+            return limiteInicial;
+        }
+        
+        public void setLimiteInicial(int limiteInicial) {
+            this.limiteInicial = limiteInicial;
+        }
+        
+        public int getLimiteMinimo() {
+            return limiteMinimo;
+        }
+        
+        public void setLimiteMinimo(int limiteMinimo) {
+            this.limiteMinimo = limiteMinimo;
+        }
+        
+        public int getLimiteMaximo() {
+            return limiteMaximo;
+        }
+        
+        public void setLimiteMaximo(int limiteMaximo) {
+            this.limiteMaximo = limiteMaximo;
+        }
+        
+        public int getMaximaCola() {
+            return maximaCola;
+        }
+        
+        public void setMaximaCola(int maximaCola) {
+            this.maximaCola = maximaCola;
+        }
+        
+        public Duration getMaximaEspera() {
+            return maximaEspera;
+        }
+        
+        public void setMaximaEspera(Duration maximaEspera) {
+            this.maximaEspera = maximaEspera;
+        }
+    }
+}
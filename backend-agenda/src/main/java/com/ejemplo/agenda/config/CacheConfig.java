@@ -0,0 +1,36 @@
+package com.ejemplo.agenda.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    public static final String CATEGORIAS = "categorias";
+    public static final String CATEGORIA_POR_ID = "categoriaPorId";
+    public static final String CATEGORIA_POR_NOMBRE = "categoriaPorNombre";
+    public static final String CATEGORIA_EXISTE = "categoriaExiste";
+    
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${agenda.cache.categorias.maximo:1000}") long maximo,
+            @Value("${agenda.cache.categorias.expiracion:PT10M}") Duration expiracion) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+                CATEGORIAS, CATEGORIA_POR_ID, CATEGORIA_POR_NOMBRE, CATEGORIA_EXISTE);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(expiracion)
+                .recordStats());
+        // Las invalidaciones se aplican tras el commit para no repoblar con datos sin confirmar
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
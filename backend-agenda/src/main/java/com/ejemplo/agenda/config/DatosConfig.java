@@ -0,0 +1,103 @@
+package com.ejemplo.agenda.config;
+
+import com.ejemplo.agenda.datos.DataSourceEnrutado;
+import com.ejemplo.agenda.datos.LecturaPropia;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Enrutamiento lectura/escritura: se activa al configurar al menos una réplica en {@code agenda.datos.replicas}.
+ *
+ * <p>Sustituye al {@code DataSource} de Spring Boot. La primaria conserva la configuración de
+ * {@code spring.datasource.*} (incluido {@code spring.datasource.hikari.*}) y cada réplica parte de ella.
+ * Los pools se publican en Micrometer como {@code primaria}, {@code replica-1}, {@code replica-2}...</p>
+ */
+@Configuration
+@Profile("!reactivo")
+@ConditionalOnProperty(prefix = "agenda.datos", name = "replicas[0].url")
+@EnableConfigurationProperties({DatosProperties.class, DataSourceProperties.class})
+public class DatosConfig {
+    
+    @Bean
+    public LecturaPropia lecturaPropia(DatosProperties propiedades) {
+        return new LecturaPropia(propiedades.getVentanaLecturaPropia());
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties fuente, DatosProperties propiedades, LecturaPropia lecturaPropia,
+                                 Environment entorno) {
+        HikariDataSource primaria = pool(fuente, entorno);
+        primaria.setPoolName(DataSourceEnrutado.PRIMARIA);
+        
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (DatosProperties.Replica replica : propiedades.getReplicas()) {
+            HikariDataSource pool = pool(fuente, entorno);
+            pool.setPoolName("replica-" + (replicas.size() + 1));
+            pool.setJdbcUrl(replica.getUrl());
+            if (replica.getUsername() != null) {
+                pool.setUsername(replica.getUsername());
+                pool.setPassword(replica.getPassword());
+            }
+            if (replica.getMaximoConexiones() != null) {
+                pool.setMaximumPoolSize(replica.getMaximoConexiones());
+            }
+            pool.setConnectionTimeout(propiedades.getTiempoConexionReplica().toMillis());
+            // Las réplicas se abren al primer uso: una réplica caída no impide arrancar
+            pool.setInitializationFailTimeout(-1);
+            pool.setReadOnly(true);
+            replicas.put(pool.getPoolName(), pool);
+        }
+        
+        DataSourceEnrutado enrutado = new DataSourceEnrutado(primaria, replicas, lecturaPropia,
+                propiedades.getEsperaTrasFallo());
+        return new LazyConnectionDataSourceProxy(enrutado);
+    }
+    
+    /**
+     * Con open-in-view la sesión de Hibernate dura toda la petición y, por defecto, conserva la conexión entre
+     * transacciones: una escritura tras una lectura seguiría en la réplica. Se libera al terminar cada una.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer conexionPorTransaccion() {
+        return propiedades -> propiedades.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+    
+    // Aparte del DataSource: el MeterRegistry depende de los binders de DataSource de Spring Boot
+    @Bean
+    public MeterBinder metricasDatos(DataSource dataSource) {
+        return registro -> {
+            try {
+                dataSource.unwrap(DataSourceEnrutado.class).bindTo(registro);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+    
+    private static HikariDataSource pool(DataSourceProperties fuente, Environment entorno) {
+        HikariDataSource pool = fuente.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(entorno).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        return pool;
+    }
+}
@@ -0,0 +1,112 @@
+package com.ejemplo.agenda.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de lectura. La primaria es la de {@code spring.datasource.*}.
+ *
+ * <pre>
+ * agenda.datos.replicas[0].url=jdbc:mysql://replica-1:3306/agenda
+ * agenda.datos.replicas[0].username=lector
+ * agenda.datos.replicas[0].password=secreto
+ * agenda.datos.ventana-lectura-propia=PT5S
+ * </pre>
+ *
+ * <p>Sin réplicas configuradas no se crea el enrutamiento y todo va a la primaria.</p>
+ */
+@ConfigurationProperties(prefix = "agenda.datos")
+public class DatosProperties {
+    
+    private List<Replica> replicas = new ArrayList<>();
+    
+    // Tiempo durante el que un cliente que acaba de escribir lee de la primaria (debe superar el retraso de las réplicas)
+    private Duration ventanaLecturaPropia = Duration.ofSeconds(5);
+    
+    // Tiempo que una réplica que ha fallado al dar una conexión queda fuera del reparto
+    private Duration esperaTrasFallo = Duration.ofSeconds(30);
+    
+    // Espera máxima por una conexión de réplica antes de leer de la primaria
+    private Duration tiempoConexionReplica = Duration.ofSeconds(2);
+    
+    // Getters y Setters
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+    
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+    
+    public Duration getVentanaLecturaPropia() {
+        return ventanaLecturaPropia;
+    }
+    
+    public void setVentanaLecturaPropia(Duration ventanaLecturaPropia) {
+        this.ventanaLecturaPropia = ventanaLecturaPropia;
+    }
+    
+    public Duration getEsperaTrasFallo() {
+        return esperaTrasFallo;
+    }
+    
+    public void setEsperaTrasFallo(Duration esperaTrasFallo) {
+        this.esperaTrasFallo = esperaTrasFallo;
+    }
+    
+    public Duration getTiempoConexionReplica() {
+        return tiempoConexionReplica;
+    }
+    
+    public void setTiempoConexionReplica(Duration tiempoConexionReplica) {
+        this.tiempoConexionReplica = tiempoConexionReplica;
+    }
+    
+    public static class Replica {
+        
+        private String url;
+        
+        private String username;
+        
+        private String password;
+        
+        // Si no se indica, el mismo tamaño que el pool de la primaria
+        private Integer maximoConexiones;
+        
+        // Getters y Setters
+        public String getUrl() {
+            return url;
+        }
+        
+        public void setUrl(String url) {
+            this.url = url;
+        }
+        
+        public String getUsername() {
+            return username;
+        }
+        
+        public void setUsername(String username) {
+            this.username = username;
+        }
+        
+        public String getPassword() {
+            return password;
+        }
+        
+        public void setPassword(String password) {
+            this.password = password;
+        }
+        
+        public Integer getMaximoConexiones() {
+            return maximoConexiones;
+        }
+        
+        public void setMaximoConexiones(Integer maximoConexiones) {
+            this.maximoConexiones = maximoConexiones;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ejemplo.agenda.config;
+
+import com.ejemplo.agenda.eventos.CanalCambios;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Canal de cambios ({@link com.ejemplo.agenda.controller.EventoController}). Los servicios publican en él tras
+ * cada commit; las métricas {@code agenda.eventos.*} cuentan suscriptores, eventos y desconexiones.
+ */
+@Configuration
+@EnableConfigurationProperties(EventosProperties.class)
+public class EventosConfig {
+    
+    @Bean(destroyMethod = "cerrar")
+    public CanalCambios canalCambios(EventosProperties propiedades) {
+        return new CanalCambios(propiedades);
+    }
+}
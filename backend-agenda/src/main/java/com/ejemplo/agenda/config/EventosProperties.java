@@ -0,0 +1,111 @@
+package com.ejemplo.agenda.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Canal de cambios por Server-Sent Events ({@code GET /api/eventos}).
+ *
+ * <pre>
+ * agenda.eventos.maximo-suscriptores=10000
+ * agenda.eventos.buffer-por-suscriptor=256
+ * agenda.eventos.latido=25s
+ * agenda.eventos.limite-envio=5s
+ * </pre>
+ *
+ * <p>Un suscriptor que acumula {@code buffer-por-suscriptor} eventos sin enviar se desconecta; al reconectar con
+ * {@code Last-Event-ID} recibe lo que siga en el historial o, si ya no está, un evento de recarga. También se
+ * desconecta si una escritura en su conexión dura más de {@code limite-envio}.</p>
+ */
+@ConfigurationProperties(prefix = "agenda.eventos")
+public class EventosProperties {
+    
+    // Al llegar al máximo las nuevas suscripciones reciben 503
+    private int maximoSuscriptores = 10000;
+    
+    private int bufferPorSuscriptor = 256;
+    
+    // Últimos eventos que se conservan para reenviar tras una reconexión
+    private int historial = 1000;
+    
+    // Comentario periódico que mantiene abiertas las conexiones inactivas a través de proxies
+    private Duration latido = Duration.ofSeconds(25);
+    
+    // Tras este tiempo la conexión se cierra y el navegador reconecta solo
+    private Duration duracion = Duration.ofMinutes(30);
+    
+    // Hilos que escriben en las conexiones; publicar nunca espera por ellos
+    private int hilosEnvio = 2;
+    
+    // Una escritura que tarda más deja su hilo bloqueado: el suscriptor se desconecta y otro hilo ocupa su lugar
+    private Duration limiteEnvio = Duration.ofSeconds(5);
+    
+    // Hilos de envío como máximo, contando los que sustituyen a escrituras bloqueadas
+    private int maximoHilosEnvio = 16;
+    
+    // Getters y Setters
+    public int getMaximoSuscriptores() {
+        return maximoSuscriptores;
+    }
+    
+    public void setMaximoSuscriptores(int maximoSuscriptores) {
+        this.maximoSuscriptores = maximoSuscriptores;
+    }
+    
+    public int getBufferPorSuscriptor() {
+        return bufferPorSuscriptor;
+    }
+    
+    public void setBufferPorSuscriptor(int bufferPorSuscriptor) {
+        this.bufferPorSuscriptor = bufferPorSuscriptor;
+    }
+    
+    public int getHistorial() {
+        return historial;
+    }
+    
+    public void setHistorial(int historial) {
+        this.historial = historial;
+    }
+    
+    public Duration getLatido() {
+        return latido;
+    }
+    
+    public void setLatido(Duration latido) {
+        this.latido = latido;
+    }
+    
+    public Duration getDuracion() {
+        return duracion;
+    }
+    
+    public void setDuracion(Duration duracion) {
+        this.duracion = duracion;
+    }
+    
+    public int getHilosEnvio() {
+        return hilosEnvio;
+    }
+    
+    public void setHilosEnvio(int hilosEnvio) {
+        this.hilosEnvio = hilosEnvio;
+    }
+    
+    public Duration getLimiteEnvio() {
+        return limiteEnvio;
+    }
+    
+    public void setLimiteEnvio(Duration limiteEnvio) {
+        this.limiteEnvio = limiteEnvio;
+    }
+    
+    public int getMaximoHilosEnvio() {
+        return maximoHilosEnvio;
+    }
+    
+    public void setMaximoHilosEnvio(int maximoHilosEnvio) {
+        this.maximoHilosEnvio = maximoHilosEnvio;
+    }
+}
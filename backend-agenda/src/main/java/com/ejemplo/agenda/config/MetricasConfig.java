@@ -0,0 +1,96 @@
+package com.ejemplo.agenda.config;
+
+import com.ejemplo.agenda.metricas.ContadorSentencias;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Métricas propias de la agenda sobre lo que ya publica Spring Boot (peticiones HTTP, métodos de
+ * repositorio, pool Hikari y estadísticas de Hibernate).
+ */
+@Configuration
+@EnableConfigurationProperties(MetricasProperties.class)
+public class MetricasConfig {
+    
+    public static final String RESPUESTA_BYTES = "agenda.http.respuesta.bytes";
+    public static final String SENTENCIAS_SQL = "agenda.sql.sentencias";
+    
+    private static final String PETICIONES = "http.server.requests";
+    private static final Set<String> POR_ENDPOINT = Set.of(PETICIONES, RESPUESTA_BYTES, SENTENCIAS_SQL);
+    
+    /** Etiqueta {@code metodo} con el método del controlador que atendió la petición. */
+    @Bean
+    public WebMvcTagsContributor metodoControladorTags() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response,
+                                         Object handler, Throwable exception) {
+                return Tags.of("metodo", metodoControlador(handler));
+            }
+            
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.of("metodo", metodoControlador(handler));
+            }
+        };
+    }
+    
+    /** Percentiles y SLO según {@code agenda.metricas}; se aplica después de los filtros de Spring Boot. */
+    @Bean
+    public MeterFilter distribucionPorEndpoint(MetricasProperties propiedades) {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!POR_ENDPOINT.contains(id.getName())) {
+                    return config;
+                }
+                MetricasProperties.Endpoint endpoint = propiedades.getEndpoints().get(id.getTag("uri"));
+                List<Double> percentiles = endpoint != null && endpoint.getPercentiles() != null
+                        ? endpoint.getPercentiles() : propiedades.getPercentiles();
+                DistributionStatisticConfig.Builder distribucion = DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .percentiles(percentiles.stream().mapToDouble(Double::doubleValue).toArray());
+                if (id.getType() == Meter.Type.TIMER) {
+                    List<Duration> slo = endpoint != null && endpoint.getSlo() != null
+                            ? endpoint.getSlo() : propiedades.getSlo();
+                    distribucion.serviceLevelObjectives(slo.stream().mapToDouble(Duration::toNanos).toArray());
+                } else if (RESPUESTA_BYTES.equals(id.getName())) {
+                    // Acota los buckets del histograma; sin límites un resumen genera casi 300 por serie
+                    distribucion.minimumExpectedValue(64.0).maximumExpectedValue(64.0 * 1024 * 1024);
+                } else {
+                    distribucion.minimumExpectedValue(1.0).maximumExpectedValue(1000.0);
+                }
+                return distribucion.build().merge(config);
+            }
+        };
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer contadorSentenciasHibernate() {
+        return propiedades -> propiedades.put("hibernate.session_factory.statement_inspector", new ContadorSentencias());
+    }
+    
+    private static String metodoControlador(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod metodo = (HandlerMethod) handler;
+            return metodo.getBeanType().getSimpleName() + "." + metodo.getMethod().getName();
+        }
+        // Respuestas servidas por los filtros (304, caché de respuestas) o recursos estáticos
+        return "ninguno";
+    }
+}
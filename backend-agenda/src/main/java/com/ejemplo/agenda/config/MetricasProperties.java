@@ -0,0 +1,120 @@
+package com.ejemplo.agenda.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Percentiles y buckets SLO de las métricas por endpoint ({@code http.server.requests},
+ * {@code agenda.http.respuesta.bytes} y {@code agenda.sql.sentencias}).
+ *
+ * <pre>
+ * agenda.metricas.percentiles=0.5,0.95,0.99
+ * agenda.metricas.slo=50ms,100ms,250ms,500ms,1s
+ * agenda.metricas.endpoints[/api/contactos/{id}].slo=5ms,10ms,25ms,50ms
+ * </pre>
+ *
+ * <p>La clave de {@code endpoints} es el patrón de la URI tal como aparece en la etiqueta {@code uri}.
+ * Lo que no se indica para un endpoint se toma de los valores generales.</p>
+ *
+ * <p>{@code presupuestos} controla qué pasa cuando una petición supera el número de sentencias SQL que declara su
+ * método de controlador con {@link com.ejemplo.agenda.metricas.PresupuestoSentencias}.</p>
+ */
+@ConfigurationProperties(prefix = "agenda.metricas")
+public class MetricasProperties {
+    
+    private List<Double> percentiles = new ArrayList<>(List.of(0.5, 0.95, 0.99));
+    
+    private List<Duration> slo = new ArrayList<>();
+    
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    
+    private Presupuestos presupuestos = new Presupuestos();
+    
+    // Getters y Setters
+    public List<Double> getPercentiles() {
+        return percentiles;
+    }
+    
+    public void setPercentiles(List<Double> percentiles) {
+        this.percentiles = percentiles;
+    }
+    
+    public List<Duration> getSlo() {
+        return slo;
+    }
+    
+    public void setSlo(List<Duration> slo) {
+        this.slo = slo;
+    }
+    
+    public Map<String, Endpoint> getEndpoints() {
+        return endpoints;
+    }
+    
+    public void setEndpoints(Map<String, Endpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+    
+    public Presupuestos getPresupuestos() {
+        return presupuestos;
+    }
+    
+    public void setPresupuestos(Presupuestos presupuestos) {
+        this.presupuestos = presupuestos;
+    }
+    
+    public static class Endpoint {
+        
+        private List<Double> percentiles;
+        
+        private List<Duration> slo;
+        
+        // Getters y Setters
+        public List<Double> getPercentiles() {
+            return percentiles;
+        }
+        
+        public void setPercentiles(List<Double> percentiles) {
+            this.percentiles = percentiles;
+        }
+        
+        public List<Duration> getSlo() {
+            return slo;
+        }
+        
+        public void setSlo(List<Duration> slo) {
+            this.slo = slo;
+        }
+    }
+    
+    public static class Presupuestos {
+        
+        // Falla la petición con SentenciasExcedidasException en lugar de solo registrarlo
+        private boolean estricto;
+        
+        // Cabecera X-Sentencias-Sql con las sentencias de cada petición, para las pruebas de integración
+        private boolean cabecera;
+        
+        // Getters y Setters
+        public boolean isEstricto() {
+            return estricto;
+        }
+        
+        public void setEstricto(boolean estricto) {
+            this.estricto = estricto;
+        }
+        
+        public boolean isCabecera() {
+            return cabecera;
+        }
+        
+        public void setCabecera(boolean cabecera) {
+            this.cabecera = cabecera;
+        }
+    }
+}
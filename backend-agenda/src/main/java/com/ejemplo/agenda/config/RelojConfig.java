@@ -0,0 +1,19 @@
+package com.ejemplo.agenda.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Reloj de los servicios que dependen de la fecha del día ({@link com.ejemplo.agenda.service.CumpleanosService}).
+ * Las pruebas lo sustituyen para fijar el día.
+ */
+@Configuration
+public class RelojConfig {
+    
+    @Bean
+    public Clock reloj() {
+        return Clock.systemDefaultZone();
+    }
+}
@@ -2,6 +2,7 @@ package com.ejemplo.agenda.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
@@ -10,12 +11,16 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 @EnableWebSecurity
+@Profile("!reactivo")
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
     
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http
             .csrf().disable()
+            // CORS en la cadena de seguridad: las respuestas servidas por RespuestasCondicionalesFilter no llegan a MVC
+            .cors()
+            .and()
             .authorizeRequests()
                 .antMatchers("/api/**").permitAll()
                 .antMatchers("/h2-console/**").permitAll()
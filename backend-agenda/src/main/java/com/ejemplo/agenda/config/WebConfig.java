@@ -1,12 +1,24 @@
 package com.ejemplo.agenda.config;
 
+import com.ejemplo.agenda.web.PresupuestoSentenciasInterceptor;
+import com.ejemplo.agenda.web.SentenciasAsincronasInterceptor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@Profile("!reactivo")
 public class WebConfig implements WebMvcConfigurer {
     
+    private final MetricasProperties metricasProperties;
+    
+    public WebConfig(MetricasProperties metricasProperties) {
+        this.metricasProperties = metricasProperties;
+    }
+    
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -15,4 +27,16 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .maxAge(3600);
     }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new PresupuestoSentenciasInterceptor(metricasProperties.getPresupuestos()))
+                .addPathPatterns("/api/**");
+    }
+    
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new SentenciasAsincronasInterceptor(
+                metricasProperties.getPresupuestos().isCabecera()));
+    }
 }
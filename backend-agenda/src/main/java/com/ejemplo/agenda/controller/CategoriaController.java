@@ -1,8 +1,10 @@
 package com.ejemplo.agenda.controller;
 
+import com.ejemplo.agenda.metricas.PresupuestoSentencias;
 import com.ejemplo.agenda.model.Categoria;
 import com.ejemplo.agenda.service.CategoriaService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,6 +14,7 @@ import java.util.List;
 
 
 @RestController
+@Profile("!reactivo")
 @RequestMapping("/api/categorias")
 @CrossOrigin(origins = "*")
 public class CategoriaController {
@@ -19,11 +22,13 @@ public class CategoriaController {
     @Autowired
     private CategoriaService categoriaService;
     
+    @PresupuestoSentencias(1)
     @GetMapping
     public ResponseEntity<List<Categoria>> obtenerTodasLasCategorias() {
         return ResponseEntity.ok(categoriaService.obtenerTodasLasCategorias());
     }
     
+    @PresupuestoSentencias(1)
     @GetMapping("/{id}")
     public ResponseEntity<Categoria> obtenerCategoriaPorId(@PathVariable Long id) {
         return categoriaService.obtenerCategoriaPorId(id)
@@ -31,6 +36,7 @@ public class CategoriaController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    @PresupuestoSentencias(1)
     @GetMapping("/nombre/{nombre}")
     public ResponseEntity<Categoria> obtenerCategoriaPorNombre(@PathVariable String nombre) {
         try {
@@ -41,6 +47,7 @@ public class CategoriaController {
         }
     }
     
+    @PresupuestoSentencias(2)
     @PostMapping
     public ResponseEntity<Categoria> crearCategoria(@Valid @RequestBody Categoria categoria) {
         try {
@@ -51,6 +58,7 @@ public class CategoriaController {
         }
     }
     
+    @PresupuestoSentencias(4)
     @PutMapping("/{id}")
     public ResponseEntity<Categoria> actualizarCategoria(
             @PathVariable Long id, 
@@ -63,6 +71,7 @@ public class CategoriaController {
         }
     }
     
+    @PresupuestoSentencias(4)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> eliminarCategoria(@PathVariable Long id) {
         try {
@@ -75,11 +84,13 @@ public class CategoriaController {
         }
     }
     
+    @PresupuestoSentencias(1)
     @GetMapping("/buscar")
     public ResponseEntity<List<Categoria>> buscarCategorias(@RequestParam String termino) {
         return ResponseEntity.ok(categoriaService.buscarCategoriasPorTermino(termino));
     }
     
+    @PresupuestoSentencias(1)
     @GetMapping("/existe/{nombre}")
     public ResponseEntity<Boolean> existeCategoriaPorNombre(@PathVariable String nombre) {
         return ResponseEntity.ok(categoriaService.existeCategoriaPorNombre(nombre));
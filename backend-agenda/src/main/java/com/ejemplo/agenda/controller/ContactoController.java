@@ -1,19 +1,45 @@
 package com.ejemplo.agenda.controller;
 
+import com.ejemplo.agenda.metricas.PresupuestoSentencias;
+import com.ejemplo.agenda.model.dto.CambiosContactos;
 import com.ejemplo.agenda.model.dto.ContactoRequest;
 import com.ejemplo.agenda.model.dto.ContactoResponse;
+import com.ejemplo.agenda.model.dto.Cumpleanos;
+import com.ejemplo.agenda.model.dto.OperacionLoteRequest;
+import com.ejemplo.agenda.model.dto.PaginaCursor;
+import com.ejemplo.agenda.model.dto.ResultadoImportacion;
+import com.ejemplo.agenda.model.dto.ResultadoLote;
+import com.ejemplo.agenda.model.enums.CampoContacto;
+import com.ejemplo.agenda.model.enums.CoincidenciaTelefono;
+import com.ejemplo.agenda.model.enums.FormatoContactos;
 import com.ejemplo.agenda.service.ContactoService;
+import com.ejemplo.agenda.service.CumpleanosService;
+import com.ejemplo.agenda.service.EstadisticasService;
+import com.ejemplo.agenda.service.ExportacionService;
+import com.ejemplo.agenda.service.ImportacionService;
+import com.ejemplo.agenda.service.OperacionLoteService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
+@Profile("!reactivo")
 @RequestMapping("/api/contactos")
 @CrossOrigin(origins = "*")
 public class ContactoController {
@@ -21,23 +47,91 @@ public class ContactoController {
     @Autowired
     private ContactoService contactoService;
     
+    @Autowired
+    private EstadisticasService estadisticasService;
+    
+    @Autowired
+    private ImportacionService importacionService;
+    
+    @Autowired
+    private ExportacionService exportacionService;
+    
+    @Autowired
+    private OperacionLoteService operacionLoteService;
+    
+    @Autowired
+    private CumpleanosService cumpleanosService;
+    
+    // Las lecturas aceptan fields=nombre,telefono,...: solo se consultan y serializan esas columnas (más el id)
+    @PresupuestoSentencias(2)
     @GetMapping
-    public ResponseEntity<Page<ContactoResponse>> obtenerTodosContactos(
+    public ResponseEntity<Page<?>> obtenerTodosContactos(
             @RequestParam(defaultValue = "0") int pagina,
-            @RequestParam(defaultValue = "10") int tamaño) {
+            @RequestParam(defaultValue = "10") int tamaño,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(contactoService.obtenerTodosContactos(pagina, tamaño, CampoContacto.resolver(fields)));
+        }
         return ResponseEntity.ok(contactoService.obtenerTodosContactos(pagina, tamaño));
     }
     
+    @PresupuestoSentencias(2)
+    @GetMapping(params = "after")
+    public ResponseEntity<PaginaCursor<?>> obtenerContactosDespuesDe(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int tamaño,
+            @RequestParam(defaultValue = "id") String orden,
+            @RequestParam(defaultValue = "false") boolean contar,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(contactoService.obtenerContactosDespuesDe(
+                    after, tamaño, orden, contar, CampoContacto.resolver(fields)));
+        }
+        return ResponseEntity.ok(contactoService.obtenerContactosDespuesDe(after, tamaño, orden, contar));
+    }
+    
+    // Sincronización incremental: el cliente guarda "siguiente" y lo envía como desde en la próxima llamada
+    @PresupuestoSentencias(5)
+    @GetMapping("/cambios")
+    public ResponseEntity<CambiosContactos> obtenerCambios(
+            @RequestParam(required = false) String desde,
+            @RequestParam(defaultValue = "500") int tamaño) {
+        return ResponseEntity.ok(contactoService.obtenerCambios(desde, tamaño));
+    }
+    
+    // Cumpleaños de hoy a dentro de "dias" días, del más cercano al más lejano
+    @PresupuestoSentencias(2)
+    @GetMapping("/cumpleanos")
+    public ResponseEntity<List<Cumpleanos>> obtenerProximosCumpleanos(@RequestParam(defaultValue = "30") int dias) {
+        return ResponseEntity.ok(cumpleanosService.obtenerProximos(dias));
+    }
+    
+    @PresupuestoSentencias(2)
     @GetMapping("/{id}")
-    public ResponseEntity<ContactoResponse> obtenerContactoPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(contactoService.obtenerContactoPorId(id));
+    public ResponseEntity<?> obtenerContactoPorId(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        // El ETag sale de la versión: un 304 no necesita cargar ni serializar el contacto
+        String etag = contactoService.obtenerEtagContacto(id);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(fields != null
+                        ? contactoService.obtenerContactoPorId(id, CampoContacto.resolver(fields))
+                        : contactoService.obtenerContactoPorId(id));
     }
     
+    @PresupuestoSentencias(2)
     @PostMapping
     public ResponseEntity<ContactoResponse> crearContacto(@Valid @RequestBody ContactoRequest contactoRequest) {
         return ResponseEntity.ok(contactoService.crearContacto(contactoRequest));
     }
     
+    @PresupuestoSentencias(4)
     @PutMapping("/{id}")
     public ResponseEntity<ContactoResponse> actualizarContacto(
             @PathVariable Long id, 
@@ -45,27 +139,128 @@ public class ContactoController {
         return ResponseEntity.ok(contactoService.actualizarContacto(id, contactoRequest));
     }
     
+    // JSON Merge Patch: solo se escriben los campos presentes (null borra el valor) en un único UPDATE
+    @PresupuestoSentencias(4)
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ContactoResponse> parchearContacto(
+            @PathVariable Long id,
+            @RequestBody Map<String, Object> parche,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        String etag = contactoService.parchearContacto(id, parche, ifMatch);
+        
+        // Con Prefer: return=minimal no se relee el contacto; el ETag nuevo solo se conoce si llegó If-Match
+        if (prefer != null && prefer.contains("return=minimal")) {
+            ResponseEntity.HeadersBuilder<?> respuesta = ResponseEntity.noContent()
+                    .header("Preference-Applied", "return=minimal");
+            if (etag != null) {
+                respuesta.eTag(etag);
+            }
+            return respuesta.build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag != null ? etag : contactoService.obtenerEtagContacto(id))
+                .body(contactoService.obtenerContactoPorId(id));
+    }
+    
+    @PresupuestoSentencias(5)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> eliminarContacto(@PathVariable Long id) {
         contactoService.eliminarContacto(id);
         return ResponseEntity.noContent().build();
     }
     
+    @PresupuestoSentencias(1)
     @GetMapping("/buscar")
-    public ResponseEntity<List<ContactoResponse>> buscarContactos(@RequestParam String termino) {
-        return ResponseEntity.ok(contactoService.buscarPorTermino(termino));
+    public ResponseEntity<List<?>> buscarContactos(
+            @RequestParam String termino,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamaño,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(contactoService.buscarPorTermino(termino, pagina, tamaño, CampoContacto.resolver(fields)));
+        }
+        return ResponseEntity.ok(contactoService.buscarPorTermino(termino, pagina, tamaño));
+    }
+    
+    @PresupuestoSentencias(1)
+    @GetMapping(value = "/buscar", params = "after")
+    public ResponseEntity<PaginaCursor<?>> buscarContactosDespuesDe(
+            @RequestParam String termino,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int tamaño,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(contactoService.buscarPorTerminoDespuesDe(
+                    termino, after, tamaño, CampoContacto.resolver(fields)));
+        }
+        return ResponseEntity.ok(contactoService.buscarPorTerminoDespuesDe(termino, after, tamaño));
     }
     
+    @PresupuestoSentencias(1)
     @GetMapping("/categoria/{categoria}")
-    public ResponseEntity<List<ContactoResponse>> obtenerContactosPorCategoria(@PathVariable String categoria) {
+    public ResponseEntity<List<?>> obtenerContactosPorCategoria(
+            @PathVariable String categoria,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(contactoService.obtenerContactosPorCategoria(categoria, CampoContacto.resolver(fields)));
+        }
         return ResponseEntity.ok(contactoService.obtenerContactosPorCategoria(categoria));
     }
     
+    @PresupuestoSentencias(2)
+    @GetMapping(value = "/categoria/{categoria}", params = "after")
+    public ResponseEntity<PaginaCursor<?>> obtenerContactosPorCategoriaDespuesDe(
+            @PathVariable String categoria,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int tamaño,
+            @RequestParam(defaultValue = "false") boolean contar,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(contactoService.obtenerContactosPorCategoriaDespuesDe(
+                    categoria, after, tamaño, contar, CampoContacto.resolver(fields)));
+        }
+        return ResponseEntity.ok(contactoService.obtenerContactosPorCategoriaDespuesDe(categoria, after, tamaño, contar));
+    }
+    
+    @PresupuestoSentencias(1)
+    @GetMapping("/telefono/{telefono}")
+    public ResponseEntity<List<?>> buscarPorTelefono(
+            @PathVariable String telefono,
+            @RequestParam(defaultValue = "sufijo") String coincidencia,
+            @RequestParam(defaultValue = "20") int limite,
+            @RequestParam(required = false) String fields) {
+        CoincidenciaTelefono tipo = CoincidenciaTelefono.resolver(coincidencia);
+        if (fields != null) {
+            return ResponseEntity.ok(contactoService.buscarPorTelefono(telefono, tipo, limite, CampoContacto.resolver(fields)));
+        }
+        return ResponseEntity.ok(contactoService.buscarPorTelefono(telefono, tipo, limite));
+    }
+    
+    @PresupuestoSentencias(1)
     @GetMapping("/favoritos")
-    public ResponseEntity<List<ContactoResponse>> obtenerContactosFavoritos() {
+    public ResponseEntity<List<?>> obtenerContactosFavoritos(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(contactoService.obtenerContactosFavoritos(CampoContacto.resolver(fields)));
+        }
         return ResponseEntity.ok(contactoService.obtenerContactosFavoritos());
     }
     
+    @PresupuestoSentencias(2)
+    @GetMapping(value = "/favoritos", params = "after")
+    public ResponseEntity<PaginaCursor<?>> obtenerContactosFavoritosDespuesDe(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int tamaño,
+            @RequestParam(defaultValue = "false") boolean contar,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(contactoService.obtenerContactosFavoritosDespuesDe(
+                    after, tamaño, contar, CampoContacto.resolver(fields)));
+        }
+        return ResponseEntity.ok(contactoService.obtenerContactosFavoritosDespuesDe(after, tamaño, contar));
+    }
+    
+    @PresupuestoSentencias(2)
     @PatchMapping("/{id}/favorito")
     public ResponseEntity<ContactoResponse> toggleFavorito(
             @PathVariable Long id, 
@@ -74,34 +269,68 @@ public class ContactoController {
         return ResponseEntity.ok(contactoService.toggleFavorito(id, favorito));
     }
     
+    // Operaciones masivas: seleccionan por "ids" o por "filtro" y devuelven el número de filas afectadas
+    @PatchMapping("/lote/favorito")
+    public ResponseEntity<ResultadoLote> marcarFavoritos(@RequestBody OperacionLoteRequest request) {
+        return ResponseEntity.ok(operacionLoteService.marcarFavoritos(request));
+    }
+    
+    @PatchMapping("/lote/categoria")
+    public ResponseEntity<ResultadoLote> moverACategoria(@RequestBody OperacionLoteRequest request) {
+        return ResponseEntity.ok(operacionLoteService.moverACategoria(request));
+    }
+    
+    @PostMapping("/lote/eliminar")
+    public ResponseEntity<ResultadoLote> eliminarContactos(@RequestBody OperacionLoteRequest request) {
+        return ResponseEntity.ok(operacionLoteService.eliminarContactos(request));
+    }
+    
+    @PostMapping("/importar")
+    public ResponseEntity<ResultadoImportacion> importarContactos(
+            @RequestParam(required = false) String formato,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String tipoContenido,
+            InputStream cuerpo) throws IOException {
+        FormatoContactos formatoContactos = FormatoContactos.resolver(formato, tipoContenido);
+        return ResponseEntity.ok(importacionService.importarContactos(cuerpo, formatoContactos));
+    }
+    
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarContactos(
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String codificaciones) {
+        FormatoContactos formatoContactos = FormatoContactos.resolver(formato, null);
+        boolean gzip = codificaciones != null && codificaciones.contains("gzip");
+        
+        // Se comprime al vuelo: nunca se materializa el archivo completo
+        StreamingResponseBody cuerpo = salida -> {
+            if (gzip) {
+                GZIPOutputStream comprimida = new GZIPOutputStream(salida, 1 << 16);
+                exportacionService.exportarContactos(formatoContactos, comprimida);
+                comprimida.finish();
+            } else {
+                exportacionService.exportarContactos(formatoContactos, salida);
+            }
+        };
+        
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatoContactos.getTipoMime() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("contactos." + formatoContactos.getExtension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta.body(cuerpo);
+    }
+    
+    @PresupuestoSentencias(6)
     @GetMapping("/estadisticas")
     public ResponseEntity<Map<String, Object>> obtenerEstadisticas() {
         try {
-            Map<String, Object> estadisticas = new HashMap<>();
-            
-            // Obtener estadísticas básicas
-            List<ContactoResponse> todosContactos = contactoService.obtenerTodosContactos(0, Integer.MAX_VALUE).getContent();
-            List<ContactoResponse> favoritos = contactoService.obtenerContactosFavoritos();
-            
-            estadisticas.put("totalContactos", todosContactos.size());
-            estadisticas.put("totalFavoritos", favoritos.size());
-            estadisticas.put("contactosConEmail", todosContactos.stream().filter(c -> c.getEmail() != null && !c.getEmail().isEmpty()).count());
-            estadisticas.put("contactosConTelefono", todosContactos.stream().filter(c -> c.getTelefono() != null && !c.getTelefono().isEmpty()).count());
-            
-            // Estadísticas por categoría
-            Map<String, Long> porCategoria = todosContactos.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                    c -> c.getCategoria() != null ? c.getCategoria() : "Sin categoría",
-                    java.util.stream.Collectors.counting()
-                ));
-            estadisticas.put("porCategoria", porCategoria);
+            Map<String, Object> estadisticas = estadisticasService.obtenerContadores();
             
             // Contactos recientes (últimos 5)
-            List<ContactoResponse> recientes = todosContactos.stream()
-                .sorted((c1, c2) -> c2.getFechaCreacion().compareTo(c1.getFechaCreacion()))
-                .limit(5)
-                .collect(java.util.stream.Collectors.toList());
-            estadisticas.put("contactosRecientes", recientes);
+            estadisticas.put("contactosRecientes", contactoService.obtenerContactosRecientes(5));
             
             return ResponseEntity.ok(estadisticas);
         } catch (Exception e) {
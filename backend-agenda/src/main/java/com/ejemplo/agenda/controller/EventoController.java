@@ -0,0 +1,50 @@
+package com.ejemplo.agenda.controller;
+
+import com.ejemplo.agenda.eventos.CanalCambios;
+import com.ejemplo.agenda.metricas.PresupuestoSentencias;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Canal de cambios de contactos y categorías por Server-Sent Events, para que los clientes actualicen sus
+ * listados sin volver a pedirlos periódicamente.
+ */
+@RestController
+@Profile("!reactivo")
+@RequestMapping("/api/eventos")
+@CrossOrigin(origins = "*")
+public class EventoController {
+    
+    @Autowired
+    private CanalCambios canalCambios;
+    
+    @PresupuestoSentencias(0)
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> suscribir(
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEvento) throws IOException {
+        SseEmitter emisor = canalCambios.suscribir(ultimoEvento);
+        if (emisor == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "10")
+                    .build();
+        }
+        // X-Accel-Buffering: que nginx no retenga los eventos
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no")
+                .body(emisor);
+    }
+}
@@ -0,0 +1,130 @@
+package com.ejemplo.agenda.datos;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Envía las transacciones {@code readOnly} a las réplicas (por turnos) y el resto a la primaria.
+ *
+ * <p>La decisión se toma al pedir la conexión, así que debe usarse detrás de un
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: el gestor de transacciones
+ * abre la conexión antes de marcar la transacción como de solo lectura.</p>
+ *
+ * <p>Si una réplica no da conexión (o el pool no llega a arrancar), la lectura se hace en la primaria y la réplica queda fuera del
+ * reparto durante {@code esperaTrasFallo}.</p>
+ *
+ * <p>Como {@link MeterBinder} publica {@code agenda.datos.conexiones} por destino y las métricas de los
+ * pools Hikari, que Spring Boot no ve al no ser beans.</p>
+ */
+public class DataSourceEnrutado extends AbstractRoutingDataSource implements MeterBinder {
+    
+    public static final String PRIMARIA = "primaria";
+    
+    private static final Logger log = LoggerFactory.getLogger(DataSourceEnrutado.class);
+    
+    private final DataSource primaria;
+    private final List<String> nombres;
+    private final List<DataSource> replicas;
+    private final AtomicLongArray caidaHasta;
+    private final AtomicInteger turno = new AtomicInteger();
+    private final long esperaTrasFallo;
+    private final LecturaPropia lecturaPropia;
+    private volatile Map<String, Counter> conexiones = Map.of();
+    
+    public DataSourceEnrutado(DataSource primaria, Map<String, DataSource> replicas, LecturaPropia lecturaPropia,
+                              Duration esperaTrasFallo) {
+        this.primaria = primaria;
+        this.nombres = new ArrayList<>(replicas.keySet());
+        this.replicas = new ArrayList<>(replicas.values());
+        this.caidaHasta = new AtomicLongArray(replicas.size());
+        this.lecturaPropia = lecturaPropia;
+        this.esperaTrasFallo = esperaTrasFallo.toMillis();
+        
+        Map<Object, Object> destinos = new LinkedHashMap<>(replicas);
+        destinos.put(PRIMARIA, primaria);
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primaria);
+        afterPropertiesSet();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        Map<String, Counter> contadores = new HashMap<>();
+        getResolvedDataSources().forEach((destino, dataSource) -> {
+            contadores.put((String) destino, Counter.builder("agenda.datos.conexiones")
+                    .description("Conexiones entregadas por destino del enrutamiento de lecturas")
+                    .tag("destino", (String) destino)
+                    .register(registro));
+            if (dataSource instanceof HikariDataSource && ((HikariDataSource) dataSource).getMetricsTrackerFactory() == null) {
+                ((HikariDataSource) dataSource).setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registro));
+            }
+        });
+        conexiones = contadores;
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || lecturaPropia.requierePrimaria()) {
+            return PRIMARIA;
+        }
+        int indice = replicaDisponible();
+        return indice < 0 ? PRIMARIA : nombres.get(indice);
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object destino = determineCurrentLookupKey();
+        if (!PRIMARIA.equals(destino)) {
+            int indice = nombres.indexOf(destino);
+            try {
+                Connection conexion = replicas.get(indice).getConnection();
+                contar(destino);
+                lecturaPropia.lecturaEnReplica();
+                return conexion;
+            } catch (SQLException | RuntimeException e) {
+                caidaHasta.set(indice, System.currentTimeMillis() + esperaTrasFallo);
+                log.warn("La réplica {} no está disponible, se lee de la primaria: {}", destino, e.getMessage());
+            }
+        }
+        contar(PRIMARIA);
+        return primaria.getConnection();
+    }
+    
+    private void contar(Object destino) {
+        Counter contador = conexiones.get(destino);
+        if (contador != null) {
+            contador.increment();
+        }
+    }
+    
+    private int replicaDisponible() {
+        long ahora = System.currentTimeMillis();
+        int inicio = Math.floorMod(turno.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int indice = (inicio + i) % replicas.size();
+            if (caidaHasta.get(indice) <= ahora) {
+                return indice;
+            }
+        }
+        return -1;
+    }
+}
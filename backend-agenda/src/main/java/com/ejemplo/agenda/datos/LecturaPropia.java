@@ -0,0 +1,102 @@
+package com.ejemplo.agenda.datos;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lectura de las propias escrituras frente al retraso de las réplicas.
+ *
+ * <p>Al confirmar una escritura se envía al cliente la cookie {@value #COOKIE} con el instante del commit.
+ * Mientras no haya pasado la ventana configurada, sus lecturas (y las que queden en la misma petición)
+ * van a la primaria. Funciona igual con varias instancias detrás de un balanceador, ya que el estado
+ * viaja con el cliente.</p>
+ */
+public class LecturaPropia {
+    
+    public static final String COOKIE = "agenda-escritura";
+    
+    /**
+     * Atributo de petición presente cuando la respuesta se ha leído de una réplica poco después de una
+     * escritura (de cualquier cliente) y puede no reflejarla todavía.
+     */
+    public static final String POSIBLEMENTE_ATRASADA = LecturaPropia.class.getName() + ".atrasada";
+    
+    private static final String ESCRITURA = LecturaPropia.class.getName() + ".escritura";
+    
+    private final long ventana;
+    private final AtomicLong ultimaEscritura = new AtomicLong();
+    
+    public LecturaPropia(Duration ventana) {
+        this.ventana = ventana.toMillis();
+    }
+    
+    /**
+     * Se invoca tras confirmar una escritura (lo hace {@link com.ejemplo.agenda.service.VersionesDatos}).
+     */
+    public void registrarEscritura() {
+        long ahora = System.currentTimeMillis();
+        ultimaEscritura.accumulateAndGet(ahora, Math::max);
+        ServletRequestAttributes atributos = atributosPeticion();
+        if (atributos == null) {
+            return;
+        }
+        atributos.setAttribute(ESCRITURA, ahora, RequestAttributes.SCOPE_REQUEST);
+        HttpServletResponse response = atributos.getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(ahora));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (ventana + 999) / 1000));
+            response.addCookie(cookie);
+        }
+    }
+    
+    public boolean requierePrimaria() {
+        ServletRequestAttributes atributos = atributosPeticion();
+        if (atributos == null) {
+            return false;
+        }
+        Long escritura = (Long) atributos.getAttribute(ESCRITURA, RequestAttributes.SCOPE_REQUEST);
+        if (escritura == null) {
+            escritura = escrituraDeCookie(atributos.getRequest());
+        }
+        return escritura != null && System.currentTimeMillis() - escritura < ventana;
+    }
+    
+    void lecturaEnReplica() {
+        ServletRequestAttributes atributos = atributosPeticion();
+        if (atributos != null && System.currentTimeMillis() - ultimaEscritura.get() < ventana) {
+            atributos.setAttribute(POSIBLEMENTE_ATRASADA, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+    
+    private static Long escrituraDeCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+    
+    // Fuera de una petición (tareas de arranque, hilos propios) no hay cliente al que garantizar nada
+    private static ServletRequestAttributes atributosPeticion() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        return atributos instanceof ServletRequestAttributes ? (ServletRequestAttributes) atributos : null;
+    }
+}
@@ -0,0 +1,466 @@
+package com.ejemplo.agenda.eventos;
+
+import com.ejemplo.agenda.config.EventosProperties;
+import com.ejemplo.agenda.model.dto.EventoCambio;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reparto de {@link EventoCambio} a los suscriptores de {@code GET /api/eventos}.
+ *
+ * <p>Un suscriptor inactivo es solo una petición asíncrona abierta y una cola acotada: no ocupa hilo.
+ * {@link #publicar} encola el evento en cada suscriptor y vuelve sin escribir en ninguna conexión; un pequeño
+ * grupo de hilos vacía las colas. Si la cola de un suscriptor se llena porque no lee al ritmo de los cambios,
+ * se le desconecta en lugar de frenar a los demás o acumular memoria.</p>
+ *
+ * <p>Escribir en la conexión bloquea el hilo de envío hasta que el cliente acepta los datos, o hasta el tiempo de
+ * escritura del contenedor. Si una escritura supera {@code limite-envio}, su suscriptor se desconecta y el grupo
+ * crece en un hilo mientras ese sigue bloqueado, hasta {@code maximo-hilos-envio}: unos pocos clientes atascados no
+ * dejan sin enviar al resto.</p>
+ *
+ * <p>Los identificadores de evento son {@code <época>-<secuencia>} y los últimos eventos se conservan para
+ * reenviarlos a quien reconecta con {@code Last-Event-ID}. Si lo pedido ya no está en el historial, o es de
+ * antes de un reinicio, se envía un evento {@code recarga} por recurso. Como los contadores de
+ * {@link com.ejemplo.agenda.service.VersionesDatos}, el canal es local a la instancia.</p>
+ *
+ * <p>En el modo reactivo cada suscriptor es un {@link Flux}: la tarea de envío solo entrega lo que el cliente ya
+ * ha pedido y nunca se bloquea; cuando el cliente pide más, se vuelve a programar.</p>
+ */
+public class CanalCambios implements MeterBinder {
+    
+    private static final long REINTENTO_MS = 3000;
+    
+    // Marcador que se encola junto a los eventos
+    private static final Object LATIDO = new Object();
+    
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+    private final AtomicLong publicados = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong rechazados = new AtomicLong();
+    private final AtomicLong bloqueados = new AtomicLong();
+    
+    // Suscriptores con una escritura en curso, también los que ya se han desconectado
+    private final Set<Suscriptor> escribiendo = ConcurrentHashMap.newKeySet();
+    
+    // Historial y secuencia se modifican juntos y en el mismo orden en que se encolan los eventos
+    private final ArrayDeque<Enviado> historial = new ArrayDeque<>();
+    private long secuencia;
+    
+    private final EventosProperties propiedades;
+    private final ThreadPoolExecutor envio;
+    private final ScheduledExecutorService latidos;
+    
+    public CanalCambios(EventosProperties propiedades) {
+        this.propiedades = propiedades;
+        this.envio = new ThreadPoolExecutor(propiedades.getHilosEnvio(), propiedades.getHilosEnvio(), 0L,
+                TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), hilos("agenda-eventos-"));
+        this.latidos = Executors.newSingleThreadScheduledExecutor(hilos("agenda-eventos-latido-"));
+        long latido = propiedades.getLatido().toMillis();
+        latidos.scheduleAtFixedRate(() -> suscriptores.forEach(Suscriptor::latido), latido, latido,
+                TimeUnit.MILLISECONDS);
+        // Se revisa cuatro veces por límite: una escritura bloqueada se detecta antes de 1,25 veces el límite
+        long revision = Math.max(10, propiedades.getLimiteEnvio().toMillis() / 4);
+        latidos.scheduleAtFixedRate(this::revisarEscrituras, revision, revision, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Abre una suscripción. {@code ultimoEvento} es la cabecera {@code Last-Event-ID} de una reconexión.
+     * Devuelve {@code null} si se ha alcanzado {@code maximo-suscriptores}.
+     */
+    public SseEmitter suscribir(String ultimoEvento) throws IOException {
+        if (suscriptores.size() >= propiedades.getMaximoSuscriptores()) {
+            rechazados.incrementAndGet();
+            return null;
+        }
+        SseEmitter emisor = new SseEmitter(propiedades.getDuracion().toMillis());
+        suscribir(emisor, ultimoEvento);
+        return emisor;
+    }
+    
+    // Visible en el paquete para probar el reparto con emisores que no escriben en una conexión real
+    void suscribir(SseEmitter emisor, String ultimoEvento) throws IOException {
+        Suscriptor suscriptor = new Suscriptor(new Salida() {
+            @Override
+            public void enviar(Object elemento) throws IOException {
+                emisor.send(construir(elemento));
+            }
+            
+            @Override
+            public void completar() {
+                emisor.complete();
+            }
+            
+            @Override
+            public boolean puedeEnviar() {
+                return true;
+            }
+        }, propiedades.getBufferPorSuscriptor());
+        emisor.onCompletion(suscriptor::terminado);
+        emisor.onError(error -> suscriptor.terminado());
+        emisor.onTimeout(() -> {
+            suscriptor.terminado();
+            emisor.complete();
+        });
+        
+        // El primer envío confirma la respuesta: debe hacerse en el hilo de la petición (Spring lo retiene hasta
+        // que el controlador devuelve el emisor) y no en uno de envío mientras Tomcat aún la está procesando
+        emisor.send(SseEmitter.event().reconnectTime(REINTENTO_MS).comment("conectado"));
+        
+        synchronized (historial) {
+            pendientes(ultimoEvento, propiedades.getBufferPorSuscriptor()).forEach(suscriptor::encolar);
+            suscriptores.add(suscriptor);
+        }
+    }
+    
+    /**
+     * Suscripción del modo reactivo, con las mismas reglas que {@link #suscribir(String)}. Devuelve {@code null}
+     * si se ha alcanzado {@code maximo-suscriptores}.
+     */
+    public Flux<ServerSentEvent<EventoCambio>> suscribirFlujo(String ultimoEvento) {
+        if (suscriptores.size() >= propiedades.getMaximoSuscriptores()) {
+            rechazados.incrementAndGet();
+            return null;
+        }
+        Flux<ServerSentEvent<EventoCambio>> flujo = Flux.create(sink -> {
+            Suscriptor suscriptor = new Suscriptor(new Salida() {
+                @Override
+                public void enviar(Object elemento) {
+                    sink.next(evento(elemento));
+                }
+                
+                @Override
+                public void completar() {
+                    sink.complete();
+                }
+                
+                @Override
+                public boolean puedeEnviar() {
+                    return sink.requestedFromDownstream() > 0;
+                }
+            }, propiedades.getBufferPorSuscriptor());
+            sink.onRequest(pedidos -> suscriptor.programar());
+            sink.onDispose(suscriptor::terminado);
+            
+            sink.next(ServerSentEvent.<EventoCambio>builder()
+                    .comment("conectado")
+                    .retry(Duration.ofMillis(REINTENTO_MS))
+                    .build());
+            
+            synchronized (historial) {
+                pendientes(ultimoEvento, propiedades.getBufferPorSuscriptor()).forEach(suscriptor::encolar);
+                suscriptores.add(suscriptor);
+            }
+        });
+        return flujo.take(propiedades.getDuracion());
+    }
+    
+    /**
+     * Envía el evento a todos los suscriptores. Se invoca tras confirmar la transacción del cambio.
+     */
+    public void publicar(EventoCambio evento) {
+        synchronized (historial) {
+            Enviado enviado = new Enviado(++secuencia, evento);
+            historial.addLast(enviado);
+            while (historial.size() > propiedades.getHistorial()) {
+                historial.removeFirst();
+            }
+            publicados.incrementAndGet();
+            for (Suscriptor suscriptor : suscriptores) {
+                suscriptor.encolar(enviado);
+            }
+        }
+    }
+    
+    private void revisarEscrituras() {
+        long limite = System.nanoTime() - propiedades.getLimiteEnvio().toNanos();
+        escribiendo.forEach(suscriptor -> suscriptor.revisarEscritura(limite));
+    }
+    
+    // Un hilo más mientras otro sigue en una escritura bloqueada; false si ya se ha llegado a maximo-hilos-envio
+    private boolean añadirHiloEnvio() {
+        synchronized (envio) {
+            int hilos = envio.getMaximumPoolSize();
+            if (hilos >= propiedades.getMaximoHilosEnvio()) {
+                return false;
+            }
+            envio.setMaximumPoolSize(hilos + 1);
+            envio.setCorePoolSize(hilos + 1);
+            return true;
+        }
+    }
+    
+    // La escritura bloqueada ha terminado: el hilo que sobra acaba en cuanto queda libre
+    private void quitarHiloEnvio() {
+        synchronized (envio) {
+            int hilos = envio.getCorePoolSize() - 1;
+            envio.setCorePoolSize(hilos);
+            envio.setMaximumPoolSize(hilos);
+        }
+    }
+    
+    // Con el lock del historial tomado
+    private List<Enviado> pendientes(String ultimoEvento, int maximo) {
+        List<Enviado> pendientes = new ArrayList<>();
+        if (ultimoEvento == null || ultimoEvento.isBlank()) {
+            return pendientes;
+        }
+        long ultimo = secuenciaDe(ultimoEvento.trim());
+        long primero = historial.isEmpty() ? secuencia + 1 : historial.getFirst().secuencia;
+        if (ultimo < 0 || ultimo > secuencia || ultimo + 1 < primero || secuencia - ultimo > maximo) {
+            // No se puede reconstruir lo que se ha perdido: el cliente vuelve a cargarlo todo
+            pendientes.add(new Enviado(secuencia, EventoCambio.recarga(EventoCambio.CONTACTO)));
+            pendientes.add(new Enviado(secuencia, EventoCambio.recarga(EventoCambio.CATEGORIA)));
+            return pendientes;
+        }
+        for (Enviado enviado : historial) {
+            if (enviado.secuencia > ultimo) {
+                pendientes.add(enviado);
+            }
+        }
+        return pendientes;
+    }
+    
+    // -1 si el identificador no es de esta ejecución
+    private long secuenciaDe(String identificador) {
+        int guion = identificador.lastIndexOf('-');
+        if (guion < 0 || !identificador.substring(0, guion).equals(epoca)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(identificador.substring(guion + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    public void cerrar() throws InterruptedException {
+        latidos.shutdownNow();
+        suscriptores.forEach(Suscriptor::desconectar);
+        envio.shutdown();
+        envio.awaitTermination(1, TimeUnit.SECONDS);
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("agenda.eventos.suscriptores", suscriptores, Set::size)
+                .description("Conexiones abiertas a /api/eventos")
+                .register(registry);
+        FunctionCounter.builder("agenda.eventos.publicados", publicados, AtomicLong::get)
+                .description("Eventos de cambio publicados")
+                .register(registry);
+        FunctionCounter.builder("agenda.eventos.descartados", descartados, AtomicLong::get)
+                .description("Suscriptores desconectados por no leer al ritmo de los eventos")
+                .register(registry);
+        FunctionCounter.builder("agenda.eventos.rechazados", rechazados, AtomicLong::get)
+                .description("Suscripciones rechazadas con 503 por haber alcanzado el máximo")
+                .register(registry);
+        FunctionCounter.builder("agenda.eventos.bloqueados", bloqueados, AtomicLong::get)
+                .description("Suscriptores desconectados por una escritura que superó el límite de envío")
+                .register(registry);
+    }
+    
+    private SseEmitter.SseEventBuilder construir(Object elemento) {
+        if (elemento == LATIDO) {
+            return SseEmitter.event().comment("latido");
+        }
+        Enviado enviado = (Enviado) elemento;
+        return SseEmitter.event()
+                .id(epoca + "-" + enviado.secuencia)
+                .name(enviado.evento.getRecurso())
+                .data(enviado.evento, MediaType.APPLICATION_JSON);
+    }
+    
+    private ServerSentEvent<EventoCambio> evento(Object elemento) {
+        if (elemento == LATIDO) {
+            return ServerSentEvent.<EventoCambio>builder().comment("latido").build();
+        }
+        Enviado enviado = (Enviado) elemento;
+        return ServerSentEvent.builder(enviado.evento)
+                .id(epoca + "-" + enviado.secuencia)
+                .event(enviado.evento.getRecurso())
+                .build();
+    }
+    
+    private static ThreadFactory hilos(String prefijo) {
+        AtomicInteger contador = new AtomicInteger();
+        return tarea -> {
+            Thread hilo = new Thread(tarea, prefijo + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+    
+    private static final class Enviado {
+        private final long secuencia;
+        private final EventoCambio evento;
+        
+        private Enviado(long secuencia, EventoCambio evento) {
+            this.secuencia = secuencia;
+            this.evento = evento;
+        }
+    }
+    
+    // Conexión de un suscriptor: un SseEmitter en el modo servlet o el FluxSink de la respuesta en el reactivo
+    private interface Salida {
+        
+        void enviar(Object elemento) throws IOException;
+        
+        void completar();
+        
+        // El FluxSink solo acepta lo que el cliente ha pedido; el SseEmitter escribe siempre, aunque se bloquee
+        boolean puedeEnviar();
+    }
+    
+    /**
+     * Cola de un suscriptor. Como mucho una tarea de envío por suscriptor está programada a la vez, así que los
+     * eventos salen en orden y nadie más escribe en la salida salvo los callbacks del contenedor.
+     */
+    private final class Suscriptor {
+        private final Salida salida;
+        private final BlockingQueue<Object> cola;
+        private final AtomicBoolean programado = new AtomicBoolean();
+        private volatile boolean cerrado;
+        // La salida ya está completada, por la tarea de envío o por el contenedor
+        private volatile boolean completado;
+        
+        // Escritura en curso y si, por bloqueada, el grupo de envío tiene un hilo más por ella; con el lock del suscriptor
+        private boolean enEscritura;
+        private long inicioEscritura;
+        private boolean sustituido;
+        
+        private Suscriptor(Salida salida, int capacidad) {
+            this.salida = salida;
+            this.cola = new ArrayBlockingQueue<>(capacidad);
+        }
+        
+        private void encolar(Object elemento) {
+            if (cerrado) {
+                return;
+            }
+            if (!cola.offer(elemento)) {
+                descartados.incrementAndGet();
+                desconectar();
+                return;
+            }
+            programar();
+        }
+        
+        // Solo si no hay nada pendiente: un suscriptor atascado no debe llenar la cola con latidos
+        private void latido() {
+            if (cola.isEmpty()) {
+                encolar(LATIDO);
+            }
+        }
+        
+        // La tarea de envío completa la salida: nunca se escribe en la conexión desde quien publica
+        private void desconectar() {
+            cerrado = true;
+            suscriptores.remove(this);
+            cola.clear();
+            programar();
+        }
+        
+        // El contenedor ya ha cerrado la petición (fin, error o tiempo agotado)
+        private void terminado() {
+            cerrado = true;
+            completado = true;
+            suscriptores.remove(this);
+            cola.clear();
+        }
+        
+        private void programar() {
+            if (programado.compareAndSet(false, true)) {
+                try {
+                    envio.execute(this::vaciar);
+                } catch (RejectedExecutionException e) {
+                    programado.set(false);
+                }
+            }
+        }
+        
+        private void vaciar() {
+            try {
+                Object elemento;
+                while (!cerrado && salida.puedeEnviar() && (elemento = cola.poll()) != null) {
+                    escribir(elemento);
+                }
+                if (cerrado && !completado) {
+                    completado = true;
+                    salida.completar();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // El cliente se ha ido: el contenedor avisará con onError/onCompletion
+                cerrado = true;
+                completado = true;
+                suscriptores.remove(this);
+                cola.clear();
+            } finally {
+                programado.set(false);
+                // Si el cliente reactivo pide más después de esta comprobación, onRequest vuelve a programar
+                if (cerrado ? !completado : !cola.isEmpty() && salida.puedeEnviar()) {
+                    programar();
+                }
+            }
+        }
+        
+        private void escribir(Object elemento) throws IOException {
+            synchronized (this) {
+                enEscritura = true;
+                inicioEscritura = System.nanoTime();
+            }
+            escribiendo.add(this);
+            try {
+                salida.enviar(elemento);
+            } finally {
+                escribiendo.remove(this);
+                synchronized (this) {
+                    enEscritura = false;
+                    if (sustituido) {
+                        sustituido = false;
+                        quitarHiloEnvio();
+                    }
+                }
+            }
+        }
+        
+        // Desde la revisión periódica: la escritura empezó antes de limite y sigue en curso. Si el grupo ya estaba
+        // en su máximo, se vuelve a intentar añadir el hilo en la revisión siguiente
+        private synchronized void revisarEscritura(long limite) {
+            if (!enEscritura || sustituido || inicioEscritura - limite > 0) {
+                return;
+            }
+            if (!cerrado) {
+                bloqueados.incrementAndGet();
+                desconectar();
+            }
+            sustituido = añadirHiloEnvio();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.ejemplo.agenda.formatos;
+
+import com.ejemplo.agenda.model.dto.ContactoRequest;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Nombres canónicos de las columnas de intercambio y conversión de texto a {@link ContactoRequest}.
+ */
+final class CamposContacto {
+    
+    static final String NOMBRE = "nombre";
+    static final String APELLIDO = "apellido";
+    static final String TELEFONO = "telefono";
+    static final String EMAIL = "email";
+    static final String DIRECCION = "direccion";
+    static final String FECHA_NACIMIENTO = "fechaNacimiento";
+    static final String NOTAS = "notas";
+    static final String FAVORITO = "favorito";
+    static final String CATEGORIA = "categoria";
+    static final String CATEGORIA_ID = "categoriaId";
+    
+    private CamposContacto() {}
+    
+    /**
+     * Traduce una cabecera libre ("Fecha_Nacimiento", "categoria_id"...) a su nombre canónico.
+     */
+    static String canonico(String cabecera) {
+        String clave = cabecera.trim().replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT);
+        switch (clave) {
+            case "fechanacimiento":
+                return FECHA_NACIMIENTO;
+            case "categoriaid":
+                return CATEGORIA_ID;
+            case "teléfono":
+                return TELEFONO;
+            case "dirección":
+                return DIRECCION;
+            default:
+                return clave;
+        }
+    }
+    
+    static ContactoRequest aRequest(Map<String, String> campos) {
+        ContactoRequest request = new ContactoRequest();
+        request.setNombre(vacioANulo(campos.get(NOMBRE)));
+        request.setApellido(vacioANulo(campos.get(APELLIDO)));
+        request.setTelefono(vacioANulo(campos.get(TELEFONO)));
+        request.setEmail(vacioANulo(campos.get(EMAIL)));
+        request.setDireccion(vacioANulo(campos.get(DIRECCION)));
+        request.setNotas(vacioANulo(campos.get(NOTAS)));
+        request.setFavorito(esVerdadero(campos.get(FAVORITO)));
+        
+        String fecha = vacioANulo(campos.get(FECHA_NACIMIENTO));
+        if (fecha != null) {
+            try {
+                request.setFechaNacimiento(LocalDate.parse(fecha));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Fecha de nacimiento no válida: " + fecha, e);
+            }
+        }
+        String categoriaId = vacioANulo(campos.get(CATEGORIA_ID));
+        if (categoriaId != null) {
+            try {
+                request.setCategoriaId(Long.valueOf(categoriaId));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Id de categoría no válido: " + categoriaId, e);
+            }
+        }
+        return request;
+    }
+    
+    static String vacioANulo(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        String recortado = valor.trim();
+        return recortado.isEmpty() ? null : recortado;
+    }
+    
+    private static boolean esVerdadero(String valor) {
+        if (valor == null) {
+            return false;
+        }
+        switch (valor.trim().toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "1":
+            case "si":
+            case "sí":
+            case "yes":
+            case "x":
+                return true;
+            default:
+                return false;
+        }
+    }
+}
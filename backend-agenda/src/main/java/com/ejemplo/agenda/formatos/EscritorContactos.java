@@ -0,0 +1,41 @@
+package com.ejemplo.agenda.formatos;
+
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+import com.ejemplo.agenda.model.enums.FormatoContactos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escribe contactos uno a uno sobre un flujo de salida, sin acumularlos en memoria.
+ */
+public interface EscritorContactos {
+    
+    void escribir(ContactoResponse contacto) throws IOException;
+    
+    /**
+     * Vacía los búferes sin cerrar el flujo subyacente.
+     */
+    void terminar() throws IOException;
+    
+    static EscritorContactos para(FormatoContactos formato, OutputStream salida, ObjectMapper objectMapper) throws IOException {
+        switch (formato) {
+            case CSV:
+                return new EscritorCsv(escritor(salida));
+            case NDJSON:
+                return new EscritorNdjson(salida, objectMapper);
+            case VCARD:
+                return new EscritorVcard(escritor(salida));
+            default:
+                throw new IllegalArgumentException("Formato no soportado: " + formato);
+        }
+    }
+    
+    private static BufferedWriter escritor(OutputStream salida) {
+        return new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 1 << 16);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ejemplo.agenda.formatos;
+
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escritor CSV con cabecera; el resultado se puede volver a importar tal cual.
+ */
+class EscritorCsv implements EscritorContactos {
+    
+    private static final String CABECERA = "id,nombre,apellido,telefono,email,direccion,fechaNacimiento," +
+            "notas,favorito,categoria,fechaCreacion,fechaActualizacion\r\n";
+    
+    private final Writer salida;
+    
+    EscritorCsv(Writer salida) throws IOException {
+        this.salida = salida;
+        salida.write(CABECERA);
+    }
+    
+    @Override
+    public void escribir(ContactoResponse contacto) throws IOException {
+        salida.write(String.valueOf(contacto.getId()));
+        campo(contacto.getNombre());
+        campo(contacto.getApellido());
+        campo(contacto.getTelefono());
+        campo(contacto.getEmail());
+        campo(contacto.getDireccion());
+        campo(contacto.getFechaNacimiento() != null ? contacto.getFechaNacimiento().toString() : null);
+        campo(contacto.getNotas());
+        campo(String.valueOf(contacto.isFavorito()));
+        campo(contacto.getCategoria());
+        campo(contacto.getFechaCreacion() != null ? contacto.getFechaCreacion().toString() : null);
+        campo(contacto.getFechaActualizacion() != null ? contacto.getFechaActualizacion().toString() : null);
+        salida.write("\r\n");
+    }
+    
+    private void campo(String valor) throws IOException {
+        salida.write(',');
+        if (valor == null) {
+            return;
+        }
+        boolean entreComillas = valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0
+                || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0;
+        if (entreComillas) {
+            salida.write('"');
+            salida.write(valor.replace("\"", "\"\""));
+            salida.write('"');
+        } else {
+            salida.write(valor);
+        }
+    }
+    
+    @Override
+    public void terminar() throws IOException {
+        salida.flush();
+    }
+}
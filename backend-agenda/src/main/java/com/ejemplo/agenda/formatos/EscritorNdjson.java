@@ -0,0 +1,36 @@
+package com.ejemplo.agenda.formatos;
+
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Escritor NDJSON sobre un único {@link JsonGenerator}: un objeto por línea.
+ */
+class EscritorNdjson implements EscritorContactos {
+    
+    private final JsonGenerator generador;
+    private final ObjectMapper objectMapper;
+    
+    EscritorNdjson(OutputStream salida, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.generador = objectMapper.getFactory().createGenerator(salida);
+        // Sin separador entre valores raíz: el salto de línea se escribe a mano
+        this.generador.setRootValueSeparator(null);
+        this.generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+    
+    @Override
+    public void escribir(ContactoResponse contacto) throws IOException {
+        objectMapper.writeValue(generador, contacto);
+        generador.writeRaw('\n');
+    }
+    
+    @Override
+    public void terminar() throws IOException {
+        generador.flush();
+    }
+}
@@ -0,0 +1,67 @@
+package com.ejemplo.agenda.formatos;
+
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escritor vCard 3.0 con plegado de líneas a 75 caracteres.
+ */
+class EscritorVcard implements EscritorContactos {
+    
+    private static final int LARGO_LINEA = 75;
+    
+    private final Writer salida;
+    
+    EscritorVcard(Writer salida) {
+        this.salida = salida;
+    }
+    
+    @Override
+    public void escribir(ContactoResponse contacto) throws IOException {
+        linea("BEGIN:VCARD");
+        linea("VERSION:3.0");
+        String apellido = contacto.getApellido() != null ? contacto.getApellido() : "";
+        linea("N:" + escapar(apellido) + ";" + escapar(contacto.getNombre()) + ";;;");
+        linea("FN:" + escapar((contacto.getNombre() + " " + apellido).trim()));
+        propiedad("TEL", contacto.getTelefono());
+        propiedad("EMAIL", contacto.getEmail());
+        if (contacto.getDireccion() != null && !contacto.getDireccion().isEmpty()) {
+            linea("ADR:;;" + escapar(contacto.getDireccion()) + ";;;;");
+        }
+        if (contacto.getFechaNacimiento() != null) {
+            linea("BDAY:" + contacto.getFechaNacimiento());
+        }
+        propiedad("NOTE", contacto.getNotas());
+        propiedad("CATEGORIES", contacto.getCategoria());
+        linea("END:VCARD");
+    }
+    
+    private void propiedad(String nombre, String valor) throws IOException {
+        if (valor != null && !valor.isEmpty()) {
+            linea(nombre + ":" + escapar(valor));
+        }
+    }
+    
+    private void linea(String texto) throws IOException {
+        int inicio = 0;
+        while (texto.length() - inicio > LARGO_LINEA) {
+            salida.write(texto, inicio, LARGO_LINEA);
+            salida.write("\r\n ");
+            inicio += LARGO_LINEA;
+        }
+        salida.write(texto, inicio, texto.length() - inicio);
+        salida.write("\r\n");
+    }
+    
+    private static String escapar(String valor) {
+        return valor.replace("\\", "\\\\").replace(",", "\\,").replace(";", "\\;")
+                .replace("\r\n", "\\n").replace("\n", "\\n");
+    }
+    
+    @Override
+    public void terminar() throws IOException {
+        salida.flush();
+    }
+}
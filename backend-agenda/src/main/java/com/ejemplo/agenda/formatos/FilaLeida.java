@@ -0,0 +1,45 @@
+package com.ejemplo.agenda.formatos;
+
+import com.ejemplo.agenda.model.dto.ContactoRequest;
+
+/**
+ * Una fila del archivo de entrada: el contacto leído o el motivo por el que no se pudo leer.
+ * La categoría puede venir por id (en el request) o por nombre.
+ */
+public final class FilaLeida {
+    private final long numero;
+    private final ContactoRequest request;
+    private final String categoria;
+    private final String error;
+    
+    private FilaLeida(long numero, ContactoRequest request, String categoria, String error) {
+        this.numero = numero;
+        this.request = request;
+        this.categoria = categoria;
+        this.error = error;
+    }
+    
+    static FilaLeida valida(long numero, ContactoRequest request, String categoria) {
+        return new FilaLeida(numero, request, categoria, null);
+    }
+    
+    static FilaLeida invalida(long numero, String error) {
+        return new FilaLeida(numero, null, null, error);
+    }
+    
+    public long getNumero() {
+        return numero;
+    }
+    
+    public ContactoRequest getRequest() {
+        return request;
+    }
+    
+    public String getCategoria() {
+        return categoria;
+    }
+    
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,34 @@
+package com.ejemplo.agenda.formatos;
+
+import com.ejemplo.agenda.model.enums.FormatoContactos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lee contactos de forma incremental: nunca mantiene en memoria más de una fila.
+ */
+public interface LectorContactos extends Closeable {
+    
+    /**
+     * Devuelve la siguiente fila o {@code null} al llegar al final de la entrada.
+     */
+    FilaLeida leer() throws IOException;
+    
+    static LectorContactos para(FormatoContactos formato, Reader entrada, ObjectMapper objectMapper) throws IOException {
+        BufferedReader lector = new BufferedReader(entrada, 1 << 16);
+        switch (formato) {
+            case CSV:
+                return new LectorCsv(lector);
+            case NDJSON:
+                return new LectorNdjson(lector, objectMapper);
+            case VCARD:
+                return new LectorVcard(lector);
+            default:
+                throw new IllegalArgumentException("Formato no soportado: " + formato);
+        }
+    }
+}
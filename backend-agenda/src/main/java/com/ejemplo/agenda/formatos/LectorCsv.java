@@ -0,0 +1,105 @@
+package com.ejemplo.agenda.formatos;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lector CSV (RFC 4180) con cabecera. Admite campos entre comillas con saltos de línea y
+ * detecta ';' como separador cuando la cabecera no contiene comas.
+ */
+class LectorCsv implements LectorContactos {
+    
+    private final BufferedReader entrada;
+    private final List<String> cabeceras = new ArrayList<>();
+    private char separador = ',';
+    private long fila;
+    
+    LectorCsv(BufferedReader entrada) throws IOException {
+        this.entrada = entrada;
+        String primeraLinea = entrada.readLine();
+        if (primeraLinea == null) {
+            return;
+        }
+        if (!primeraLinea.isEmpty() && primeraLinea.charAt(0) == '\uFEFF') {
+            primeraLinea = primeraLinea.substring(1);
+        }
+        if (primeraLinea.indexOf(',') < 0 && primeraLinea.indexOf(';') >= 0) {
+            separador = ';';
+        }
+        for (String cabecera : primeraLinea.split(String.valueOf(separador), -1)) {
+            cabeceras.add(CamposContacto.canonico(cabecera.replace("\"", "")));
+        }
+    }
+    
+    @Override
+    public FilaLeida leer() throws IOException {
+        List<String> valores = leerRegistro();
+        while (valores != null && valores.size() == 1 && valores.get(0).isEmpty()) {
+            valores = leerRegistro();
+        }
+        if (valores == null) {
+            return null;
+        }
+        fila++;
+        if (valores.size() > cabeceras.size()) {
+            return FilaLeida.invalida(fila, "La fila tiene " + valores.size() + " columnas y la cabecera " + cabeceras.size());
+        }
+        Map<String, String> campos = new HashMap<>();
+        for (int i = 0; i < valores.size(); i++) {
+            campos.put(cabeceras.get(i), valores.get(i));
+        }
+        try {
+            return FilaLeida.valida(fila, CamposContacto.aRequest(campos),
+                    CamposContacto.vacioANulo(campos.get(CamposContacto.CATEGORIA)));
+        } catch (IllegalArgumentException e) {
+            return FilaLeida.invalida(fila, e.getMessage());
+        }
+    }
+    
+    private List<String> leerRegistro() throws IOException {
+        int c = entrada.read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> valores = new ArrayList<>();
+        StringBuilder valor = new StringBuilder();
+        boolean entreComillas = false;
+        while (c >= 0) {
+            char caracter = (char) c;
+            if (entreComillas) {
+                if (caracter == '"') {
+                    entrada.mark(1);
+                    if (entrada.read() == '"') {
+                        valor.append('"');
+                    } else {
+                        entrada.reset();
+                        entreComillas = false;
+                    }
+                } else {
+                    valor.append(caracter);
+                }
+            } else if (caracter == '"') {
+                entreComillas = true;
+            } else if (caracter == separador) {
+                valores.add(valor.toString());
+                valor.setLength(0);
+            } else if (caracter == '\n') {
+                break;
+            } else if (caracter != '\r') {
+                valor.append(caracter);
+            }
+            c = entrada.read();
+        }
+        valores.add(valor.toString());
+        return valores;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+}
@@ -0,0 +1,51 @@
+package com.ejemplo.agenda.formatos;
+
+import com.ejemplo.agenda.model.dto.ContactoRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Lector NDJSON: un objeto JSON por línea con los mismos campos que {@link ContactoRequest}
+ * y, opcionalmente, "categoria" con el nombre de la categoría.
+ */
+class LectorNdjson implements LectorContactos {
+    
+    private final BufferedReader entrada;
+    private final ObjectMapper objectMapper;
+    private long fila;
+    
+    LectorNdjson(BufferedReader entrada, ObjectMapper objectMapper) {
+        this.entrada = entrada;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public FilaLeida leer() throws IOException {
+        String linea = entrada.readLine();
+        while (linea != null && linea.isBlank()) {
+            linea = entrada.readLine();
+        }
+        if (linea == null) {
+            return null;
+        }
+        fila++;
+        try {
+            JsonNode nodo = objectMapper.readTree(linea);
+            ContactoRequest request = objectMapper.treeToValue(nodo, ContactoRequest.class);
+            JsonNode categoria = nodo.get(CamposContacto.CATEGORIA);
+            return FilaLeida.valida(fila, request,
+                    categoria != null && categoria.isTextual() ? CamposContacto.vacioANulo(categoria.asText()) : null);
+        } catch (JsonProcessingException e) {
+            return FilaLeida.invalida(fila, "JSON no válido: " + e.getOriginalMessage());
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+}
@@ -0,0 +1,153 @@
+package com.ejemplo.agenda.formatos;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lector vCard (3.0/4.0). Cada bloque BEGIN:VCARD ... END:VCARD es una fila; se usan
+ * N/FN, TEL, EMAIL, ADR, BDAY, NOTE y la primera de CATEGORIES.
+ */
+class LectorVcard implements LectorContactos {
+    
+    private final BufferedReader entrada;
+    private String pendiente;
+    private long fila;
+    
+    LectorVcard(BufferedReader entrada) throws IOException {
+        this.entrada = entrada;
+        this.pendiente = entrada.readLine();
+    }
+    
+    @Override
+    public FilaLeida leer() throws IOException {
+        String linea = siguienteLinea();
+        while (linea != null && !linea.equalsIgnoreCase("BEGIN:VCARD")) {
+            linea = siguienteLinea();
+        }
+        if (linea == null) {
+            return null;
+        }
+        fila++;
+        Map<String, String> campos = new HashMap<>();
+        String nombreCompleto = null;
+        while ((linea = siguienteLinea()) != null && !linea.equalsIgnoreCase("END:VCARD")) {
+            int dosPuntos = linea.indexOf(':');
+            if (dosPuntos < 0) {
+                continue;
+            }
+            String propiedad = linea.substring(0, dosPuntos);
+            int parametros = propiedad.indexOf(';');
+            String nombre = (parametros >= 0 ? propiedad.substring(0, parametros) : propiedad).toUpperCase(Locale.ROOT);
+            // Las propiedades agrupadas ("item1.TEL") se tratan igual que las simples
+            nombre = nombre.substring(nombre.lastIndexOf('.') + 1);
+            String valor = linea.substring(dosPuntos + 1);
+            switch (nombre) {
+                case "N":
+                    List<String> partes = componentes(valor, ';');
+                    campos.put(CamposContacto.APELLIDO, partes.get(0));
+                    campos.put(CamposContacto.NOMBRE, partes.size() > 1 ? partes.get(1) : "");
+                    break;
+                case "FN":
+                    nombreCompleto = desescapar(valor);
+                    break;
+                case "TEL":
+                    campos.putIfAbsent(CamposContacto.TELEFONO, desescapar(valor).replaceFirst("^tel:", ""));
+                    break;
+                case "EMAIL":
+                    campos.putIfAbsent(CamposContacto.EMAIL, desescapar(valor));
+                    break;
+                case "ADR":
+                    campos.putIfAbsent(CamposContacto.DIRECCION, String.join(", ", noVacios(componentes(valor, ';'))));
+                    break;
+                case "BDAY":
+                    campos.put(CamposContacto.FECHA_NACIMIENTO, fecha(valor));
+                    break;
+                case "NOTE":
+                    campos.put(CamposContacto.NOTAS, desescapar(valor));
+                    break;
+                case "CATEGORIES":
+                    campos.put(CamposContacto.CATEGORIA, componentes(valor, ',').get(0));
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (CamposContacto.vacioANulo(campos.get(CamposContacto.NOMBRE)) == null && nombreCompleto != null) {
+            campos.put(CamposContacto.NOMBRE, nombreCompleto);
+            campos.remove(CamposContacto.APELLIDO);
+        }
+        try {
+            return FilaLeida.valida(fila, CamposContacto.aRequest(campos),
+                    CamposContacto.vacioANulo(campos.get(CamposContacto.CATEGORIA)));
+        } catch (IllegalArgumentException e) {
+            return FilaLeida.invalida(fila, e.getMessage());
+        }
+    }
+    
+    // Une las líneas plegadas (las que empiezan por espacio o tabulador continúan la anterior)
+    private String siguienteLinea() throws IOException {
+        if (pendiente == null) {
+            return null;
+        }
+        StringBuilder linea = new StringBuilder(pendiente);
+        pendiente = entrada.readLine();
+        while (pendiente != null && !pendiente.isEmpty()
+                && (pendiente.charAt(0) == ' ' || pendiente.charAt(0) == '\t')) {
+            linea.append(pendiente, 1, pendiente.length());
+            pendiente = entrada.readLine();
+        }
+        return linea.toString().trim();
+    }
+    
+    private static List<String> componentes(String valor, char separador) {
+        List<String> partes = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '\\' && i + 1 < valor.length()) {
+                actual.append(c).append(valor.charAt(++i));
+            } else if (c == separador) {
+                partes.add(desescapar(actual.toString()));
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        partes.add(desescapar(actual.toString()));
+        return partes;
+    }
+    
+    private static List<String> noVacios(List<String> partes) {
+        List<String> resultado = new ArrayList<>();
+        for (String parte : partes) {
+            if (!parte.isBlank()) {
+                resultado.add(parte.trim());
+            }
+        }
+        return resultado;
+    }
+    
+    private static String desescapar(String valor) {
+        return valor.replace("\\n", "\n").replace("\\N", "\n")
+                .replace("\\,", ",").replace("\\;", ";").replace("\\\\", "\\");
+    }
+    
+    // BDAY puede venir como 19850315 o 1985-03-15
+    private static String fecha(String valor) {
+        String fecha = valor.trim();
+        if (fecha.matches("\\d{8}")) {
+            return fecha.substring(0, 4) + "-" + fecha.substring(4, 6) + "-" + fecha.substring(6, 8);
+        }
+        return fecha.length() > 10 ? fecha.substring(0, 10) : fecha;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+}
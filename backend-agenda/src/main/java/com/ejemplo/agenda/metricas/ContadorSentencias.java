@@ -0,0 +1,129 @@
+package com.ejemplo.agenda.metricas;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en el hilo actual entre {@link #iniciar()} y
+ * {@link #terminar()}. Se registra como {@code hibernate.session_factory.statement_inspector};
+ * las sentencias lanzadas con {@code JdbcTemplate} (importación, backfills) no pasan por aquí.
+ *
+ * <p>Cada petición HTTP es una medición ({@code MetricasPeticionFilter}) y puede llevar el presupuesto que declara
+ * su método de controlador con {@link PresupuestoSentencias}. Si el presupuesto es estricto, la sentencia que lo
+ * supera no llega a ejecutarse: {@link #inspect} lanza {@link SentenciasExcedidasException}.</p>
+ *
+ * <p>La medición es del hilo: una petición que sigue en otro hilo (una descarga con {@code StreamingResponseBody})
+ * la continúa allí con {@link #continuar(Medicion)}, y sus sentencias se suman a las de la petición.</p>
+ *
+ * <p>Las pruebas pueden medir un bloque con {@link #contar(Runnable)}, o una petición completa con la cabecera
+ * {@code X-Sentencias-Sql} ({@code agenda.metricas.presupuestos.cabecera=true}).</p>
+ */
+public class ContadorSentencias implements StatementInspector {
+    
+    private static final ThreadLocal<Medicion> MEDICION = new ThreadLocal<>();
+    
+    public static void iniciar() {
+        MEDICION.set(new Medicion());
+    }
+    
+    /**
+     * Fija el presupuesto de la medición en curso. Con {@code estricto}, la sentencia número {@code maximo + 1}
+     * lanza {@link SentenciasExcedidasException} en lugar de ejecutarse.
+     */
+    public static void presupuesto(int maximo, boolean estricto) {
+        Medicion medicion = MEDICION.get();
+        if (medicion != null) {
+            medicion.maximo = maximo;
+            medicion.estricto = estricto;
+        }
+    }
+    
+    /** Presupuesto de la medición en curso, o -1 si no tiene. */
+    public static int presupuesto() {
+        Medicion medicion = MEDICION.get();
+        return medicion != null ? medicion.maximo : -1;
+    }
+    
+    /** Sentencias contadas desde {@link #iniciar()}, o -1 si no se estaba contando en este hilo. */
+    public static int actuales() {
+        Medicion medicion = MEDICION.get();
+        return medicion != null ? medicion.getSentencias() : -1;
+    }
+    
+    /** Medición en curso en este hilo, o {@code null}. */
+    public static Medicion actual() {
+        return MEDICION.get();
+    }
+    
+    /**
+     * Cuenta en este hilo para {@code medicion}, con su presupuesto, hasta {@link #soltar()}. Los dos hilos no deben
+     * preparar sentencias a la vez: el segundo empieza cuando el primero ha terminado con la petición.
+     */
+    public static void continuar(Medicion medicion) {
+        MEDICION.set(medicion);
+    }
+    
+    /** Deja de contar en este hilo sin terminar la medición, que sigue abierta para quien la empezó. */
+    public static void soltar() {
+        MEDICION.remove();
+    }
+    
+    public static int terminar() {
+        int sentencias = actuales();
+        MEDICION.remove();
+        return sentencias;
+    }
+    
+    /**
+     * Sentencias que prepara {@code tarea} en este hilo. Se suman también a la medición en curso, si la hay,
+     * pero sin su presupuesto: el bloque se mide completo.
+     */
+    public static int contar(Runnable tarea) {
+        Medicion exterior = MEDICION.get();
+        Medicion medicion = new Medicion();
+        MEDICION.set(medicion);
+        try {
+            tarea.run();
+            return medicion.getSentencias();
+        } finally {
+            if (exterior != null) {
+                exterior.sentencias.addAndGet(medicion.getSentencias());
+                MEDICION.set(exterior);
+            } else {
+                MEDICION.remove();
+            }
+        }
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        Medicion medicion = MEDICION.get();
+        if (medicion != null && medicion.sentencias.incrementAndGet() > medicion.maximo && medicion.maximo >= 0
+                && medicion.estricto) {
+            throw new SentenciasExcedidasException(medicion.maximo, sql);
+        }
+        return sql;
+    }
+    
+    /**
+     * Sentencias y presupuesto de una medición. Se lee desde el hilo que la empezó mientras otro la continúa.
+     */
+    public static final class Medicion {
+        private final AtomicInteger sentencias = new AtomicInteger();
+        private volatile int maximo = -1;
+        private volatile boolean estricto;
+        
+        private Medicion() {
+        }
+        
+        public int getSentencias() {
+            return sentencias.get();
+        }
+        
+        /** Presupuesto de la medición, o -1 si no tiene. */
+        public int getMaximo() {
+            return maximo;
+        }
+    }
+}
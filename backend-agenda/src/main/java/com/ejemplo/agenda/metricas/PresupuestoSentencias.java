@@ -0,0 +1,25 @@
+package com.ejemplo.agenda.metricas;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Máximo de sentencias SQL de Hibernate que puede lanzar una petición atendida por este método de controlador,
+ * contando las cargas perezosas de la serialización. Se cuenta con el caso peor: cachés frías y todos los
+ * parámetros opcionales que añaden consultas.
+ *
+ * <p>Superarlo se registra en el log y en {@code agenda.sql.presupuesto.excedido}; con
+ * {@code agenda.metricas.presupuestos.estricto=true} la petición falla con {@link SentenciasExcedidasException}.
+ * Es lo que delata un N+1 nuevo, por ejemplo recorrer {@code Categoria.getContactos()} o leer
+ * {@code Contacto.getCategoria()} de cada fila de un listado.</p>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PresupuestoSentencias {
+    
+    int value();
+}
@@ -0,0 +1,25 @@
+package com.ejemplo.agenda.metricas;
+
+/**
+ * Una petición con presupuesto estricto ({@code agenda.metricas.presupuestos.estricto=true}) ha intentado preparar
+ * más sentencias SQL de las que declara {@link PresupuestoSentencias}. Lleva la sentencia que lo ha superado.
+ */
+public class SentenciasExcedidasException extends RuntimeException {
+    
+    private final int presupuesto;
+    private final String sql;
+    
+    public SentenciasExcedidasException(int presupuesto, String sql) {
+        super("Superado el presupuesto de " + presupuesto + " sentencias SQL por petición: " + sql);
+        this.presupuesto = presupuesto;
+        this.sql = sql;
+    }
+    
+    public int getPresupuesto() {
+        return presupuesto;
+    }
+    
+    public String getSql() {
+        return sql;
+    }
+}
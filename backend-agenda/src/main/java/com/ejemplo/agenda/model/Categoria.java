@@ -1,6 +1,9 @@
 package com.ejemplo.agenda.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
@@ -9,7 +12,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "categorias")
-@JsonIgnoreProperties({"contactos"})
+@JsonIgnoreProperties({"contactos", "cantidadContactos"})
 public class Categoria {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,7 +29,9 @@ public class Categoria {
     @Size(max = 200, message = "La descripción no puede exceder 200 caracteres")
     private String descripcion;
     
+    // EXTRA: size() e isEmpty() se resuelven con un COUNT en lugar de cargar todos los contactos
     @OneToMany(mappedBy = "categoria", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @LazyCollection(LazyCollectionOption.EXTRA)
     private List<Contacto> contactos = new ArrayList<>();
     
     // Constructores
@@ -105,7 +110,6 @@ public class Categoria {
                 ", nombre='" + nombre + '\'' +
                 ", color='" + color + '\'' +
                 ", descripcion='" + descripcion + '\'' +
-                ", cantidadContactos=" + getCantidadContactos() +
                 '}';
     }
     
@@ -10,9 +10,10 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+// Esquema e índices en las migraciones de db/migration
 @Entity
 @Table(name = "contactos")
-@JsonIgnoreProperties({"categoria"})
+@JsonIgnoreProperties({"categoria", "telefonoNormalizado", "telefonoInvertido", "version", "secuenciaCambio"})
 public class Contacto {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,6 +32,13 @@ public class Contacto {
     @Column(nullable = false)
     private String telefono;
     
+    // Solo dígitos, mantenidas por setTelefono: prefijo sobre la normal y "termina en" sobre la invertida
+    @Column(name = "telefono_normalizado", length = 15)
+    private String telefonoNormalizado;
+    
+    @Column(name = "telefono_invertido", length = 15)
+    private String telefonoInvertido;
+    
     @Email(message = "El formato del email no es válido")
     @Size(max = 100, message = "El email no puede exceder 100 caracteres")
     private String email;
@@ -40,6 +48,11 @@ public class Contacto {
     
     private LocalDate fechaNacimiento;
     
+    // Mes y día del cumpleaños (MMDD): columna calculada por la base de datos (V4) que solo se usa en las consultas;
+    // en una entidad recién escrita no se actualiza
+    @Column(name = "dia_cumpleanos", insertable = false, updatable = false)
+    private Integer diaCumpleanos;
+    
     @Size(max = 500, message = "Las notas no pueden exceder 500 caracteres")
     private String notas;
     
@@ -55,6 +68,16 @@ public class Contacto {
     @Column(name = "fecha_actualizacion")
     private LocalDateTime fechaActualizacion;
     
+    // Bloqueo optimista: la incrementa cada UPDATE, también las sentencias de ContactoRepository, y forma el ETag
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
+    
+    // Posición del último cambio en la sincronización incremental (SecuenciaCambios); la asignan los servicios
+    // y las sentencias masivas de ContactoRepository
+    @Column(name = "secuencia_cambio", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long secuenciaCambio;
+    
     // Constructores
     public Contacto() {
         this.fechaCreacion = LocalDateTime.now();
@@ -65,7 +88,7 @@ public class Contacto {
     public Contacto(String nombre, String telefono) {
         this();
         this.nombre = nombre;
-        this.telefono = telefono;
+        setTelefono(telefono);
     }
     
     // Getters y Setters
@@ -99,6 +122,16 @@ public class Contacto {
     
     public void setTelefono(String telefono) {
         this.telefono = telefono;
+        this.telefonoNormalizado = normalizarTelefono(telefono);
+        this.telefonoInvertido = invertir(telefonoNormalizado);
+    }
+    
+    public String getTelefonoNormalizado() {
+        return telefonoNormalizado;
+    }
+    
+    public String getTelefonoInvertido() {
+        return telefonoInvertido;
     }
     
     public String getEmail() {
@@ -165,12 +198,45 @@ public class Contacto {
         this.fechaActualizacion = fechaActualizacion;
     }
     
+    public long getVersion() {
+        return version;
+    }
+    
+    public long getSecuenciaCambio() {
+        return secuenciaCambio;
+    }
+    
+    public void setSecuenciaCambio(long secuenciaCambio) {
+        this.secuenciaCambio = secuenciaCambio;
+    }
+    
     // Métodos de utilidad
     @PreUpdate
     public void preUpdate() {
         this.fechaActualizacion = LocalDateTime.now();
     }
     
+    /**
+     * Deja solo los dígitos del teléfono ("555-0101" y "(555) 0101" quedan como "5550101").
+     */
+    public static String normalizarTelefono(String telefono) {
+        if (telefono == null) {
+            return null;
+        }
+        StringBuilder digitos = new StringBuilder(telefono.length());
+        for (int i = 0; i < telefono.length(); i++) {
+            char c = telefono.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            }
+        }
+        return digitos.toString();
+    }
+    
+    public static String invertir(String digitos) {
+        return digitos == null ? null : new StringBuilder(digitos).reverse().toString();
+    }
+    
     @Override
     public String toString() {
         return "Contacto{" +
@@ -0,0 +1,59 @@
+package com.ejemplo.agenda.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Baja de un contacto para la sincronización incremental ({@code GET /api/contactos/cambios}). Solo guarda el id
+ * y la posición del cambio: una fila por contacto eliminado, ya que los ids no se reutilizan.
+ */
+@Entity
+@Table(name = "contactos_eliminados")
+public class ContactoEliminado {
+    @Id
+    @Column(name = "contacto_id")
+    private Long contactoId;
+    
+    @Column(name = "secuencia_cambio", nullable = false)
+    private long secuenciaCambio;
+    
+    @Column(name = "fecha_eliminacion", nullable = false)
+    private LocalDateTime fechaEliminacion;
+    
+    // Constructores
+    public ContactoEliminado() {}
+    
+    public ContactoEliminado(Long contactoId, long secuenciaCambio, LocalDateTime fechaEliminacion) {
+        this.contactoId = contactoId;
+        this.secuenciaCambio = secuenciaCambio;
+        this.fechaEliminacion = fechaEliminacion;
+    }
+    
+    // Getters y Setters
+    public Long getContactoId() {
+        return contactoId;
+    }
+    
+    public void setContactoId(Long contactoId) {
+        this.contactoId = contactoId;
+    }
+    
+    public long getSecuenciaCambio() {
+        return secuenciaCambio;
+    }
+    
+    public void setSecuenciaCambio(long secuenciaCambio) {
+        this.secuenciaCambio = secuenciaCambio;
+    }
+    
+    public LocalDateTime getFechaEliminacion() {
+        return fechaEliminacion;
+    }
+    
+    public void setFechaEliminacion(LocalDateTime fechaEliminacion) {
+        this.fechaEliminacion = fechaEliminacion;
+    }
+}
@@ -0,0 +1,63 @@
+package com.ejemplo.agenda.model.dto;
+
+import java.util.List;
+
+public class CambiosContactos {
+    private List<ContactoResponse> contactos;
+    private List<Long> eliminados;
+    private String siguiente;
+    private boolean hayMas;
+    
+    // Constructores
+    public CambiosContactos() {}
+    
+    public CambiosContactos(List<ContactoResponse> contactos, List<Long> eliminados, String siguiente, boolean hayMas) {
+        this.contactos = contactos;
+        this.eliminados = eliminados;
+        this.siguiente = siguiente;
+        this.hayMas = hayMas;
+    }
+    
+    // Getters y Setters
+    public List<ContactoResponse> getContactos() {
+        return contactos;
+    }
+    
+    public void setContactos(List<ContactoResponse> contactos) {
+        this.contactos = contactos;
+    }
+    
+    public List<Long> getEliminados() {
+        return eliminados;
+    }
+    
+    public void setEliminados(List<Long> eliminados) {
+        this.eliminados = eliminados;
+    }
+    
+    public String getSiguiente() {
+        return siguiente;
+    }
+    
+    public void setSiguiente(String siguiente) {
+        this.siguiente = siguiente;
+    }
+    
+    public boolean isHayMas() {
+        return hayMas;
+    }
+    
+    public void setHayMas(boolean hayMas) {
+        this.hayMas = hayMas;
+    }
+    
+    @Override
+    public String toString() {
+        return "CambiosContactos{" +
+                "contactos=" + (contactos != null ? contactos.size() : 0) +
+                ", eliminados=" + (eliminados != null ? eliminados.size() : 0) +
+                ", siguiente='" + siguiente + '\'' +
+                ", hayMas=" + hayMas +
+                '}';
+    }
+}
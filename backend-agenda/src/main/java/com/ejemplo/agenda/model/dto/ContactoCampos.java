@@ -0,0 +1,63 @@
+package com.ejemplo.agenda.model.dto;
+
+import com.ejemplo.agenda.model.enums.CampoContacto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import javax.persistence.Tuple;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Contacto reducido a los campos pedidos con {@code fields=}. Se serializa directamente desde la fila
+ * de la consulta, sin pasar por {@link ContactoResponse}.
+ */
+public class ContactoCampos implements JsonSerializable {
+    private final List<CampoContacto> campos;
+    private final Tuple fila;
+    
+    // Constructores (las columnas de la fila siguen el orden de campos)
+    public ContactoCampos(List<CampoContacto> campos, Tuple fila) {
+        this.campos = campos;
+        this.fila = fila;
+    }
+    
+    // Getters
+    public Long getId() {
+        return (Long) valor(CampoContacto.ID);
+    }
+    
+    public String getNombre() {
+        return (String) valor(CampoContacto.NOMBRE);
+    }
+    
+    public Object valor(CampoContacto campo) {
+        int posicion = campos.indexOf(campo);
+        return posicion < 0 ? null : fila.get(posicion);
+    }
+    
+    @Override
+    public void serialize(JsonGenerator generador, SerializerProvider proveedor) throws IOException {
+        generador.writeStartObject(this);
+        for (int i = 0; i < campos.size(); i++) {
+            proveedor.defaultSerializeField(campos.get(i).getNombre(), fila.get(i), generador);
+        }
+        generador.writeEndObject();
+    }
+    
+    @Override
+    public void serializeWithType(JsonGenerator generador, SerializerProvider proveedor, TypeSerializer tipo)
+            throws IOException {
+        serialize(generador, proveedor);
+    }
+    
+    @Override
+    public String toString() {
+        return "ContactoCampos{" +
+                "campos=" + campos +
+                ", id=" + getId() +
+                '}';
+    }
+}
@@ -29,7 +29,8 @@ public class ContactoRequest {
     @Size(max = 500, message = "Las notas no pueden exceder 500 caracteres")
     private String notas;
     
-    private boolean favorito;
+    // Sin el campo, un alta lo deja en false y una actualización no lo cambia
+    private Boolean favorito;
     
     private Long categoriaId;
     
@@ -98,11 +99,11 @@ public class ContactoRequest {
         this.notas = notas;
     }
     
-    public boolean isFavorito() {
+    public Boolean getFavorito() {
         return favorito;
     }
     
-    public void setFavorito(boolean favorito) {
+    public void setFavorito(Boolean favorito) {
         this.favorito = favorito;
     }
     
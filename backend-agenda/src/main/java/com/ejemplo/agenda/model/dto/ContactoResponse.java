@@ -26,6 +26,24 @@ public class ContactoResponse {
         this.telefono = telefono;
     }
     
+    // Usado por las proyecciones JPQL (SELECT new ...) de ContactoRepository
+    public ContactoResponse(Long id, String nombre, String apellido, String telefono, String email,
+                            String direccion, LocalDate fechaNacimiento, String notas, boolean favorito,
+                            String categoria, LocalDateTime fechaCreacion, LocalDateTime fechaActualizacion) {
+        this.id = id;
+        this.nombre = nombre;
+        this.apellido = apellido;
+        this.telefono = telefono;
+        this.email = email;
+        this.direccion = direccion;
+        this.fechaNacimiento = fechaNacimiento;
+        this.notas = notas;
+        this.favorito = favorito;
+        this.categoria = categoria;
+        this.fechaCreacion = fechaCreacion;
+        this.fechaActualizacion = fechaActualizacion;
+    }
+    
     // Getters y Setters
     public Long getId() {
         return id;
@@ -0,0 +1,65 @@
+package com.ejemplo.agenda.model.dto;
+
+import java.time.LocalDate;
+
+// Próximo cumpleaños de un contacto: fecha en que se celebra (el 28 de febrero en años no bisiestos para los
+// nacidos un 29), días que faltan y edad que cumple
+public class Cumpleanos {
+    private ContactoResponse contacto;
+    private LocalDate fecha;
+    private long dias;
+    private int edad;
+    
+    // Constructores
+    public Cumpleanos() {}
+    
+    public Cumpleanos(ContactoResponse contacto, LocalDate fecha, long dias, int edad) {
+        this.contacto = contacto;
+        this.fecha = fecha;
+        this.dias = dias;
+        this.edad = edad;
+    }
+    
+    // Getters y Setters
+    public ContactoResponse getContacto() {
+        return contacto;
+    }
+    
+    public void setContacto(ContactoResponse contacto) {
+        this.contacto = contacto;
+    }
+    
+    public LocalDate getFecha() {
+        return fecha;
+    }
+    
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+    
+    public long getDias() {
+        return dias;
+    }
+    
+    public void setDias(long dias) {
+        this.dias = dias;
+    }
+    
+    public int getEdad() {
+        return edad;
+    }
+    
+    public void setEdad(int edad) {
+        this.edad = edad;
+    }
+    
+    @Override
+    public String toString() {
+        return "Cumpleanos{" +
+                "contacto=" + contacto +
+                ", fecha=" + fecha +
+                ", dias=" + dias +
+                ", edad=" + edad +
+                '}';
+    }
+}
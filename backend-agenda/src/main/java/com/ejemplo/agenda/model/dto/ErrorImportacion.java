@@ -0,0 +1,39 @@
+package com.ejemplo.agenda.model.dto;
+
+public class ErrorImportacion {
+    private long fila;
+    private String mensaje;
+    
+    // Constructores
+    public ErrorImportacion() {}
+    
+    public ErrorImportacion(long fila, String mensaje) {
+        this.fila = fila;
+        this.mensaje = mensaje;
+    }
+    
+    // Getters y Setters
+    public long getFila() {
+        return fila;
+    }
+    
+    public void setFila(long fila) {
+        this.fila = fila;
+    }
+    
+    public String getMensaje() {
+        return mensaje;
+    }
+    
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+    
+    @Override
+    public String toString() {
+        return "ErrorImportacion{" +
+                "fila=" + fila +
+                ", mensaje='" + mensaje + '\'' +
+                '}';
+    }
+}
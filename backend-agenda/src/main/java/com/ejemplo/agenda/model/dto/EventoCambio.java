@@ -0,0 +1,83 @@
+package com.ejemplo.agenda.model.dto;
+
+import com.ejemplo.agenda.model.enums.TipoCambio;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cambio confirmado de un contacto o una categoría, tal como se envía por el canal de eventos. Solo identifica
+ * el recurso: el cliente pide los datos nuevos si los necesita.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventoCambio {
+    public static final String CONTACTO = "contacto";
+    public static final String CATEGORIA = "categoria";
+    
+    private final String recurso;
+    private final TipoCambio tipo;
+    private final Long id;
+    private final Boolean favorito;
+    private final LocalDateTime fecha;
+    
+    // Constructores
+    public EventoCambio(String recurso, TipoCambio tipo, Long id, Boolean favorito) {
+        this.recurso = recurso;
+        this.tipo = tipo;
+        this.id = id;
+        this.favorito = favorito;
+        this.fecha = LocalDateTime.now();
+    }
+    
+    public static EventoCambio contacto(TipoCambio tipo, Long id) {
+        return new EventoCambio(CONTACTO, tipo, id, null);
+    }
+    
+    public static EventoCambio favorito(Long id, boolean favorito) {
+        return new EventoCambio(CONTACTO, TipoCambio.FAVORITO, id, favorito);
+    }
+    
+    public static EventoCambio categoria(TipoCambio tipo, Long id) {
+        return new EventoCambio(CATEGORIA, tipo, id, null);
+    }
+    
+    public static EventoCambio recarga(String recurso) {
+        return new EventoCambio(recurso, TipoCambio.RECARGA, null, null);
+    }
+    
+    // Getters
+    public String getRecurso() {
+        return recurso;
+    }
+    
+    @JsonIgnore
+    public TipoCambio getTipoCambio() {
+        return tipo;
+    }
+    
+    public String getTipo() {
+        return tipo.getNombre();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Boolean getFavorito() {
+        return favorito;
+    }
+    
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+    
+    @Override
+    public String toString() {
+        return "EventoCambio{" +
+                "recurso='" + recurso + '\'' +
+                ", tipo=" + tipo +
+                ", id=" + id +
+                '}';
+    }
+}
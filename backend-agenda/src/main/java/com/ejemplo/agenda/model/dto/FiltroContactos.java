@@ -0,0 +1,43 @@
+package com.ejemplo.agenda.model.dto;
+
+public class FiltroContactos {
+    private String categoria;
+    private Boolean favorito;
+    
+    // Constructores
+    public FiltroContactos() {}
+    
+    public FiltroContactos(String categoria, Boolean favorito) {
+        this.categoria = categoria;
+        this.favorito = favorito;
+    }
+    
+    // Getters y Setters
+    public String getCategoria() {
+        return categoria;
+    }
+    
+    public void setCategoria(String categoria) {
+        this.categoria = categoria;
+    }
+    
+    public Boolean getFavorito() {
+        return favorito;
+    }
+    
+    public void setFavorito(Boolean favorito) {
+        this.favorito = favorito;
+    }
+    
+    public boolean estaVacio() {
+        return (categoria == null || categoria.isBlank()) && favorito == null;
+    }
+    
+    @Override
+    public String toString() {
+        return "FiltroContactos{" +
+                "categoria='" + categoria + '\'' +
+                ", favorito=" + favorito +
+                '}';
+    }
+}
@@ -0,0 +1,60 @@
+package com.ejemplo.agenda.model.dto;
+
+import java.util.List;
+
+/**
+ * Selección de contactos para una operación masiva: una lista de ids o un filtro, nunca ambos.
+ * {@code favorito} y {@code categoriaId} son el valor a aplicar según la operación.
+ */
+public class OperacionLoteRequest {
+    private List<Long> ids;
+    private FiltroContactos filtro;
+    private Boolean favorito;
+    private Long categoriaId;
+    
+    // Constructores
+    public OperacionLoteRequest() {}
+    
+    // Getters y Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public FiltroContactos getFiltro() {
+        return filtro;
+    }
+    
+    public void setFiltro(FiltroContactos filtro) {
+        this.filtro = filtro;
+    }
+    
+    public Boolean getFavorito() {
+        return favorito;
+    }
+    
+    public void setFavorito(Boolean favorito) {
+        this.favorito = favorito;
+    }
+    
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+    
+    public void setCategoriaId(Long categoriaId) {
+        this.categoriaId = categoriaId;
+    }
+    
+    @Override
+    public String toString() {
+        return "OperacionLoteRequest{" +
+                "ids=" + (ids != null ? ids.size() + " ids" : null) +
+                ", filtro=" + filtro +
+                ", favorito=" + favorito +
+                ", categoriaId=" + categoriaId +
+                '}';
+    }
+}
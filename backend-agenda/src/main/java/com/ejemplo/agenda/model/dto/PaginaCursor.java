@@ -0,0 +1,67 @@
+package com.ejemplo.agenda.model.dto;
+
+import java.util.List;
+
+public class PaginaCursor<T> {
+    private List<T> contenido;
+    private String siguiente;
+    private int tamaño;
+    private Long total;
+    
+    // Constructores
+    public PaginaCursor() {}
+    
+    public PaginaCursor(List<T> contenido, String siguiente, int tamaño, Long total) {
+        this.contenido = contenido;
+        this.siguiente = siguiente;
+        this.tamaño = tamaño;
+        this.total = total;
+    }
+    
+    // Getters y Setters
+    public List<T> getContenido() {
+        return contenido;
+    }
+    
+    public void setContenido(List<T> contenido) {
+        this.contenido = contenido;
+    }
+    
+    public String getSiguiente() {
+        return siguiente;
+    }
+    
+    public void setSiguiente(String siguiente) {
+        this.siguiente = siguiente;
+    }
+    
+    public int getTamaño() {
+        return tamaño;
+    }
+    
+    public void setTamaño(int tamaño) {
+        this.tamaño = tamaño;
+    }
+    
+    public Long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+    
+    public boolean isUltima() {
+        return siguiente == null;
+    }
+    
+    @Override
+    public String toString() {
+        return "PaginaCursor{" +
+                "elementos=" + (contenido != null ? contenido.size() : 0) +
+                ", siguiente='" + siguiente + '\'' +
+                ", tamaño=" + tamaño +
+                ", total=" + total +
+                '}';
+    }
+}
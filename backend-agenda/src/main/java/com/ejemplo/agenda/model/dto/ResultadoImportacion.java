@@ -0,0 +1,79 @@
+package com.ejemplo.agenda.model.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResultadoImportacion {
+    private long procesadas;
+    private long importadas;
+    private long rechazadas;
+    private long duracionMs;
+    private boolean erroresTruncados;
+    private List<ErrorImportacion> errores = new ArrayList<>();
+    
+    // Constructores
+    public ResultadoImportacion() {}
+    
+    // Getters y Setters
+    public long getProcesadas() {
+        return procesadas;
+    }
+    
+    public void setProcesadas(long procesadas) {
+        this.procesadas = procesadas;
+    }
+    
+    public long getImportadas() {
+        return importadas;
+    }
+    
+    public void setImportadas(long importadas) {
+        this.importadas = importadas;
+    }
+    
+    public long getRechazadas() {
+        return rechazadas;
+    }
+    
+    public void setRechazadas(long rechazadas) {
+        this.rechazadas = rechazadas;
+    }
+    
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+    
+    public void setDuracionMs(long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+    
+    public boolean isErroresTruncados() {
+        return erroresTruncados;
+    }
+    
+    public void setErroresTruncados(boolean erroresTruncados) {
+        this.erroresTruncados = erroresTruncados;
+    }
+    
+    public List<ErrorImportacion> getErrores() {
+        return errores;
+    }
+    
+    public void setErrores(List<ErrorImportacion> errores) {
+        this.errores = errores;
+    }
+    
+    public long getFilasPorSegundo() {
+        return duracionMs > 0 ? importadas * 1000 / duracionMs : importadas;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResultadoImportacion{" +
+                "procesadas=" + procesadas +
+                ", importadas=" + importadas +
+                ", rechazadas=" + rechazadas +
+                ", duracionMs=" + duracionMs +
+                '}';
+    }
+}
@@ -0,0 +1,61 @@
+package com.ejemplo.agenda.model.dto;
+
+public class ResultadoLote {
+    private String operacion;
+    private long seleccionados;
+    private long afectados;
+    private long duracionMs;
+    
+    // Constructores
+    public ResultadoLote() {}
+    
+    public ResultadoLote(String operacion, long seleccionados, long afectados, long duracionMs) {
+        this.operacion = operacion;
+        this.seleccionados = seleccionados;
+        this.afectados = afectados;
+        this.duracionMs = duracionMs;
+    }
+    
+    // Getters y Setters
+    public String getOperacion() {
+        return operacion;
+    }
+    
+    public void setOperacion(String operacion) {
+        this.operacion = operacion;
+    }
+    
+    public long getSeleccionados() {
+        return seleccionados;
+    }
+    
+    public void setSeleccionados(long seleccionados) {
+        this.seleccionados = seleccionados;
+    }
+    
+    public long getAfectados() {
+        return afectados;
+    }
+    
+    public void setAfectados(long afectados) {
+        this.afectados = afectados;
+    }
+    
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+    
+    public void setDuracionMs(long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResultadoLote{" +
+                "operacion='" + operacion + '\'' +
+                ", seleccionados=" + seleccionados +
+                ", afectados=" + afectados +
+                ", duracionMs=" + duracionMs +
+                '}';
+    }
+}
@@ -0,0 +1,59 @@
+package com.ejemplo.agenda.model.enums;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Campos de {@link com.ejemplo.agenda.model.dto.ContactoResponse} que se pueden pedir con {@code fields=}.
+ * El orden es el de la respuesta completa.
+ */
+public enum CampoContacto {
+    ID("id"),
+    NOMBRE("nombre"),
+    APELLIDO("apellido"),
+    TELEFONO("telefono"),
+    EMAIL("email"),
+    DIRECCION("direccion"),
+    FECHA_NACIMIENTO("fechaNacimiento"),
+    NOTAS("notas"),
+    FAVORITO("favorito"),
+    CATEGORIA("categoria"),
+    FECHA_CREACION("fechaCreacion"),
+    FECHA_ACTUALIZACION("fechaActualizacion");
+    
+    private final String nombre;
+    
+    CampoContacto(String nombre) {
+        this.nombre = nombre;
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+    
+    /**
+     * Interpreta {@code fields=nombre,telefono,...}. El id se incluye siempre: lo necesitan los cursores y
+     * la hidratación de búsquedas.
+     */
+    public static Set<CampoContacto> resolver(String campos) {
+        Set<CampoContacto> seleccion = EnumSet.of(ID);
+        for (String campo : campos.split(",")) {
+            String recortado = campo.trim();
+            if (recortado.isEmpty()) {
+                continue;
+            }
+            seleccion.add(porNombre(recortado));
+        }
+        return seleccion;
+    }
+    
+    private static CampoContacto porNombre(String nombre) {
+        for (CampoContacto candidato : values()) {
+            if (candidato.nombre.equalsIgnoreCase(nombre)) {
+                return candidato;
+            }
+        }
+        throw new IllegalArgumentException("Campo no soportado: " + nombre + " (id, nombre, apellido, telefono, email, "
+                + "direccion, fechaNacimiento, notas, favorito, categoria, fechaCreacion, fechaActualizacion)");
+    }
+}
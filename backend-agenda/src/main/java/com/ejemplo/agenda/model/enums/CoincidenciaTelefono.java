@@ -0,0 +1,16 @@
+package com.ejemplo.agenda.model.enums;
+
+public enum CoincidenciaTelefono {
+    EXACTA,
+    PREFIJO,
+    SUFIJO;
+    
+    public static CoincidenciaTelefono resolver(String coincidencia) {
+        for (CoincidenciaTelefono candidato : values()) {
+            if (candidato.name().equalsIgnoreCase(coincidencia)) {
+                return candidato;
+            }
+        }
+        throw new IllegalArgumentException("Coincidencia no soportada: " + coincidencia + " (exacta, prefijo, sufijo)");
+    }
+}
@@ -0,0 +1,52 @@
+package com.ejemplo.agenda.model.enums;
+
+import java.util.Locale;
+
+public enum FormatoContactos {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson"),
+    VCARD("text/vcard", "vcf");
+    
+    private final String tipoMime;
+    private final String extension;
+    
+    FormatoContactos(String tipoMime, String extension) {
+        this.tipoMime = tipoMime;
+        this.extension = extension;
+    }
+    
+    public String getTipoMime() {
+        return tipoMime;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    /**
+     * Resuelve el formato a partir del parámetro explícito o, si no se indica, del Content-Type.
+     */
+    public static FormatoContactos resolver(String formato, String tipoContenido) {
+        if (formato != null && !formato.isBlank()) {
+            for (FormatoContactos candidato : values()) {
+                if (candidato.name().equalsIgnoreCase(formato) || candidato.extension.equalsIgnoreCase(formato)) {
+                    return candidato;
+                }
+            }
+            throw new IllegalArgumentException("Formato no soportado: " + formato);
+        }
+        if (tipoContenido != null) {
+            String tipo = tipoContenido.toLowerCase(Locale.ROOT);
+            if (tipo.startsWith("text/csv")) {
+                return CSV;
+            }
+            if (tipo.startsWith("application/x-ndjson") || tipo.startsWith("application/jsonl")) {
+                return NDJSON;
+            }
+            if (tipo.startsWith("text/vcard") || tipo.startsWith("text/x-vcard")) {
+                return VCARD;
+            }
+        }
+        throw new IllegalArgumentException("No se pudo determinar el formato; use el parámetro 'formato' (csv, ndjson, vcf)");
+    }
+}
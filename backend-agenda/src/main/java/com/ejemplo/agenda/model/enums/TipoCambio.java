@@ -0,0 +1,24 @@
+package com.ejemplo.agenda.model.enums;
+
+/**
+ * Tipos de evento del canal de cambios ({@code GET /api/eventos}).
+ */
+public enum TipoCambio {
+    CREADO("creado"),
+    ACTUALIZADO("actualizado"),
+    ELIMINADO("eliminado"),
+    // Solo ha cambiado el favorito; el evento lleva el valor nuevo
+    FAVORITO("favorito"),
+    // Operación masiva o eventos perdidos: el cliente debe volver a cargar el recurso completo
+    RECARGA("recarga");
+    
+    private final String nombre;
+    
+    TipoCambio(String nombre) {
+        this.nombre = nombre;
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+}
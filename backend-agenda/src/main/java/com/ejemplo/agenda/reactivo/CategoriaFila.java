@@ -0,0 +1,50 @@
+package com.ejemplo.agenda.reactivo;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Fila de la tabla {@code categorias} para R2DBC; se serializa igual que
+ * {@link com.ejemplo.agenda.model.Categoria}.
+ */
+@Table("categorias")
+public class CategoriaFila {
+    @Id
+    private Long id;
+    private String nombre;
+    private String color;
+    private String descripcion;
+    
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+    
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+    
+    public String getColor() {
+        return color;
+    }
+    
+    public void setColor(String color) {
+        this.color = color;
+    }
+    
+    public String getDescripcion() {
+        return descripcion;
+    }
+    
+    public void setDescripcion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+}
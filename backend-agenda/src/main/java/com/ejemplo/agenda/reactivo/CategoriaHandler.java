@@ -0,0 +1,162 @@
+package com.ejemplo.agenda.reactivo;
+
+import com.ejemplo.agenda.config.CacheConfig;
+import com.ejemplo.agenda.eventos.CanalCambios;
+import com.ejemplo.agenda.model.Categoria;
+import com.ejemplo.agenda.model.dto.EventoCambio;
+import com.ejemplo.agenda.model.enums.TipoCambio;
+import com.ejemplo.agenda.service.EstadisticasService;
+import com.ejemplo.agenda.service.VersionesDatos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Validator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Versión WebFlux de {@link com.ejemplo.agenda.controller.CategoriaController}, con los mismos códigos
+ * de respuesta. Tras cada escritura se vacían las cachés de categorías que usan los servicios JPA y se publica
+ * el cambio en {@link CanalCambios}.
+ */
+@Component
+@Profile("reactivo")
+public class CategoriaHandler {
+    
+    private static final List<String> CACHES = List.of(CacheConfig.CATEGORIAS, CacheConfig.CATEGORIA_POR_ID,
+            CacheConfig.CATEGORIA_POR_NOMBRE, CacheConfig.CATEGORIA_EXISTE);
+    
+    @Autowired
+    private CategoriaReactivoRepository categoriaRepository;
+    
+    @Autowired
+    private ContactoReactivoRepository contactoRepository;
+    
+    @Autowired
+    private EstadisticasService estadisticasService;
+    
+    @Autowired
+    private VersionesDatos versionesDatos;
+    
+    @Autowired
+    private CanalCambios canalCambios;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private Validator validator;
+    
+    public Mono<ServerResponse> obtenerTodasLasCategorias(ServerRequest request) {
+        return ServerResponse.ok().body(categoriaRepository.findAllOrderByNombre(), CategoriaFila.class);
+    }
+    
+    public Mono<ServerResponse> obtenerCategoriaPorId(ServerRequest request) {
+        return ContactoHandler.id(request)
+                .flatMap(categoriaRepository::findById)
+                .flatMap(categoria -> ServerResponse.ok().bodyValue(categoria))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+    
+    public Mono<ServerResponse> obtenerCategoriaPorNombre(ServerRequest request) {
+        return categoriaRepository.findByNombre(request.pathVariable("nombre"))
+                .flatMap(categoria -> ServerResponse.ok().bodyValue(categoria))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+    
+    public Mono<ServerResponse> crearCategoria(ServerRequest request) {
+        return leerValida(request)
+                .flatMap(categoria -> categoriaRepository.existsByNombre(categoria.getNombre())
+                        .flatMap(existe -> existe ? Mono.<CategoriaFila>empty() : categoriaRepository.save(fila(categoria))))
+                .doOnNext(guardada -> modificadas(EventoCambio.categoria(TipoCambio.CREADO, guardada.getId())))
+                .flatMap(guardada -> ServerResponse.ok().bodyValue(guardada))
+                .switchIfEmpty(ServerResponse.badRequest().build())
+                .onErrorResume(IllegalArgumentException.class, e -> ServerResponse.badRequest().build());
+    }
+    
+    public Mono<ServerResponse> actualizarCategoria(ServerRequest request) {
+        return ContactoHandler.id(request).flatMap(id -> actualizarCategoria(request, id));
+    }
+    
+    private Mono<ServerResponse> actualizarCategoria(ServerRequest request, Long id) {
+        return leerValida(request)
+                .zipWith(categoriaRepository.findById(id))
+                .filterWhen(t -> t.getT2().getNombre().equals(t.getT1().getNombre())
+                        ? Mono.just(true)
+                        : categoriaRepository.existsByNombre(t.getT1().getNombre()).map(existe -> !existe))
+                .flatMap(t -> {
+                    CategoriaFila existente = t.getT2();
+                    // Los contadores por categoría se indexan por nombre
+                    if (!existente.getNombre().equals(t.getT1().getNombre())) {
+                        estadisticasService.invalidar();
+                    }
+                    existente.setNombre(t.getT1().getNombre());
+                    existente.setColor(t.getT1().getColor());
+                    existente.setDescripcion(t.getT1().getDescripcion());
+                    return categoriaRepository.save(existente);
+                })
+                .doOnNext(guardada -> modificadas(EventoCambio.categoria(TipoCambio.ACTUALIZADO, id)))
+                .flatMap(guardada -> ServerResponse.ok().bodyValue(guardada))
+                .switchIfEmpty(ServerResponse.badRequest().build())
+                .onErrorResume(IllegalArgumentException.class, e -> ServerResponse.badRequest().build());
+    }
+    
+    public Mono<ServerResponse> eliminarCategoria(ServerRequest request) {
+        return ContactoHandler.id(request).flatMap(id -> eliminarCategoria(id));
+    }
+    
+    private Mono<ServerResponse> eliminarCategoria(Long id) {
+        return categoriaRepository.existsById(id)
+                .flatMap(existe -> {
+                    if (!existe) {
+                        return ServerResponse.notFound().build();
+                    }
+                    return contactoRepository.countByCategoriaId(id).flatMap(contactos -> contactos > 0
+                            ? ServerResponse.badRequest().build()
+                            : categoriaRepository.deleteById(id)
+                                    .then(Mono.fromRunnable(() -> modificadas(
+                                            EventoCambio.categoria(TipoCambio.ELIMINADO, id))))
+                                    .then(ServerResponse.noContent().build()));
+                });
+    }
+    
+    public Mono<ServerResponse> buscarCategorias(ServerRequest request) {
+        return ServerResponse.ok().body(categoriaRepository.findByNombreContainingIgnoreCase(
+                ContactoHandler.obligatorio(request, "termino")), CategoriaFila.class);
+    }
+    
+    public Mono<ServerResponse> existeCategoriaPorNombre(ServerRequest request) {
+        return categoriaRepository.existsByNombre(request.pathVariable("nombre"))
+                .flatMap(existe -> ServerResponse.ok().bodyValue(existe));
+    }
+    
+    private Mono<Categoria> leerValida(ServerRequest request) {
+        return request.bodyToMono(Categoria.class)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("El cuerpo de la petición es obligatorio")))
+                .doOnNext(categoria -> {
+                    if (!validator.validate(categoria).isEmpty()) {
+                        throw new IllegalArgumentException("Categoría no válida");
+                    }
+                });
+    }
+    
+    private void modificadas(EventoCambio evento) {
+        CACHES.stream().map(cacheManager::getCache).filter(Objects::nonNull).forEach(Cache::clear);
+        versionesDatos.categoriasModificadas();
+        canalCambios.publicar(evento);
+    }
+    
+    private static CategoriaFila fila(Categoria categoria) {
+        CategoriaFila fila = new CategoriaFila();
+        fila.setNombre(categoria.getNombre());
+        fila.setColor(categoria.getColor());
+        fila.setDescripcion(categoria.getDescripcion());
+        return fila;
+    }
+}
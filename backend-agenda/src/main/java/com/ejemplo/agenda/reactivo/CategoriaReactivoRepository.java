@@ -0,0 +1,25 @@
+package com.ejemplo.agenda.reactivo;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Equivalente R2DBC de {@link com.ejemplo.agenda.repository.CategoriaRepository}.
+ */
+@Repository
+public interface CategoriaReactivoRepository extends R2dbcRepository<CategoriaFila, Long> {
+    
+    Mono<CategoriaFila> findByNombre(String nombre);
+    
+    Mono<Boolean> existsByNombre(String nombre);
+    
+    @Query("SELECT * FROM categorias WHERE LOWER(nombre) LIKE LOWER(CONCAT('%', :nombre, '%'))")
+    Flux<CategoriaFila> findByNombreContainingIgnoreCase(@Param("nombre") String nombre);
+    
+    @Query("SELECT * FROM categorias ORDER BY nombre ASC")
+    Flux<CategoriaFila> findAllOrderByNombre();
+}
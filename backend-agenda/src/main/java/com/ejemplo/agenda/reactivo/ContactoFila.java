@@ -0,0 +1,163 @@
+package com.ejemplo.agenda.reactivo;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fila de la tabla {@code contactos} para R2DBC. Refleja las columnas de la entidad JPA
+ * {@link com.ejemplo.agenda.model.Contacto}, con la categoría como clave ajena.
+ */
+@Table("contactos")
+public class ContactoFila {
+    @Id
+    private Long id;
+    private String nombre;
+    private String apellido;
+    private String telefono;
+    private String telefonoNormalizado;
+    private String telefonoInvertido;
+    private String email;
+    private String direccion;
+    private LocalDate fechaNacimiento;
+    private String notas;
+    private boolean favorito;
+    private Long categoriaId;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaActualizacion;
+    private long secuenciaCambio;
+    @Version
+    private Long version;
+    
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+    
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+    
+    public String getApellido() {
+        return apellido;
+    }
+    
+    public void setApellido(String apellido) {
+        this.apellido = apellido;
+    }
+    
+    public String getTelefono() {
+        return telefono;
+    }
+    
+    public void setTelefono(String telefono) {
+        this.telefono = telefono;
+    }
+    
+    public String getTelefonoNormalizado() {
+        return telefonoNormalizado;
+    }
+    
+    public void setTelefonoNormalizado(String telefonoNormalizado) {
+        this.telefonoNormalizado = telefonoNormalizado;
+    }
+    
+    public String getTelefonoInvertido() {
+        return telefonoInvertido;
+    }
+    
+    public void setTelefonoInvertido(String telefonoInvertido) {
+        this.telefonoInvertido = telefonoInvertido;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public String getDireccion() {
+        return direccion;
+    }
+    
+    public void setDireccion(String direccion) {
+        this.direccion = direccion;
+    }
+    
+    public LocalDate getFechaNacimiento() {
+        return fechaNacimiento;
+    }
+    
+    public void setFechaNacimiento(LocalDate fechaNacimiento) {
+        this.fechaNacimiento = fechaNacimiento;
+    }
+    
+    public String getNotas() {
+        return notas;
+    }
+    
+    public void setNotas(String notas) {
+        this.notas = notas;
+    }
+    
+    public boolean isFavorito() {
+        return favorito;
+    }
+    
+    public void setFavorito(boolean favorito) {
+        this.favorito = favorito;
+    }
+    
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+    
+    public void setCategoriaId(Long categoriaId) {
+        this.categoriaId = categoriaId;
+    }
+    
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+    
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+    
+    public LocalDateTime getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+    
+    public void setFechaActualizacion(LocalDateTime fechaActualizacion) {
+        this.fechaActualizacion = fechaActualizacion;
+    }
+    
+    public long getSecuenciaCambio() {
+        return secuenciaCambio;
+    }
+    
+    public void setSecuenciaCambio(long secuenciaCambio) {
+        this.secuenciaCambio = secuenciaCambio;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,492 @@
+package com.ejemplo.agenda.reactivo;
+
+import com.ejemplo.agenda.busqueda.Coincidencia;
+import com.ejemplo.agenda.busqueda.IndiceContactos;
+import com.ejemplo.agenda.eventos.CanalCambios;
+import com.ejemplo.agenda.model.Contacto;
+import com.ejemplo.agenda.model.dto.ContactoRequest;
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+import com.ejemplo.agenda.model.dto.EventoCambio;
+import com.ejemplo.agenda.model.dto.OperacionLoteRequest;
+import com.ejemplo.agenda.model.dto.PaginaCursor;
+import com.ejemplo.agenda.model.dto.ResultadoLote;
+import com.ejemplo.agenda.model.enums.CoincidenciaTelefono;
+import com.ejemplo.agenda.model.enums.TipoCambio;
+import com.ejemplo.agenda.service.ContactoService;
+import com.ejemplo.agenda.service.CumpleanosService;
+import com.ejemplo.agenda.service.Cursor;
+import com.ejemplo.agenda.service.EstadisticasService;
+import com.ejemplo.agenda.service.HuellaContacto;
+import com.ejemplo.agenda.service.OperacionLoteService;
+import com.ejemplo.agenda.service.SecuenciaCambios;
+import com.ejemplo.agenda.service.VersionesDatos;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.persistence.EntityNotFoundException;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Versión WebFlux de {@link com.ejemplo.agenda.controller.ContactoController}: mismas rutas, parámetros
+ * y respuestas, con las lecturas y escrituras sobre R2DBC. Los listados se emiten como {@link Flux}
+ * (array JSON, o NDJSON si el cliente acepta {@code application/x-ndjson}).
+ *
+ * <p>Las operaciones masivas, las estadísticas, los cambios y los cumpleaños reutilizan los servicios JPA en el
+ * scheduler {@code boundedElastic}; la importación y la exportación solo existen en el modo servlet.</p>
+ */
+@Component
+@Profile("reactivo")
+public class ContactoHandler {
+    
+    private static final String ORDEN_ID = "id";
+    private static final String ORDEN_NOMBRE = "nombre";
+    
+    @Autowired
+    private ContactoReactivoRepository contactoRepository;
+    
+    @Autowired
+    private CategoriaReactivoRepository categoriaRepository;
+    
+    @Autowired
+    private IndiceContactos indiceContactos;
+    
+    @Autowired
+    private EstadisticasService estadisticasService;
+    
+    @Autowired
+    private OperacionLoteService operacionLoteService;
+    
+    @Autowired
+    private ContactoService contactoService;
+    
+    @Autowired
+    private CumpleanosService cumpleanosService;
+    
+    @Autowired
+    private VersionesDatos versionesDatos;
+    
+    @Autowired
+    private SecuenciaCambios secuenciaCambios;
+    
+    @Autowired
+    private CanalCambios canalCambios;
+    
+    @Autowired
+    private Validator validator;
+    
+    private final TransactionalOperator transaccion;
+    
+    // Gestor propio y no un bean: un ReactiveTransactionManager en el contexto anularía el JpaTransactionManager
+    public ContactoHandler(ConnectionFactory connectionFactory) {
+        this.transaccion = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+    
+    public Mono<ServerResponse> obtenerTodosContactos(ServerRequest request) {
+        if (request.queryParam("after").isPresent()) {
+            return obtenerContactosDespuesDe(request);
+        }
+        int pagina = entero(request, "pagina", 0);
+        int tamaño = entero(request, "tamaño", 10);
+        PageRequest pageable = PageRequest.of(pagina, tamaño);
+        return Mono.zip(contactoRepository.findResponses(tamaño, pageable.getOffset()).collectList(),
+                        contactoRepository.count())
+                .map(t -> new PageImpl<>(t.getT1(), pageable, t.getT2()))
+                .flatMap(page -> ServerResponse.ok().bodyValue(page));
+    }
+    
+    private Mono<ServerResponse> obtenerContactosDespuesDe(ServerRequest request) {
+        Cursor cursor = Cursor.decodificar(request.queryParam("after").orElse(null));
+        int tamaño = entero(request, "tamaño", 10);
+        String orden = request.queryParam("orden").orElse(ORDEN_ID);
+        boolean contar = Boolean.parseBoolean(request.queryParam("contar").orElse("false"));
+        Mono<Long> total = contar ? contactoRepository.count() : Mono.empty();
+        if (ORDEN_NOMBRE.equals(orden)) {
+            return paginaCursor(contactoRepository.findResponsesPorNombreDespuesDe(cursor.getClave(), cursor.getId(), tamaño + 1),
+                    tamaño, c -> new Cursor(c.getNombre(), c.getId()), total);
+        }
+        if (!ORDEN_ID.equals(orden)) {
+            return Mono.error(new IllegalArgumentException("Orden no soportado: " + orden));
+        }
+        return paginaCursor(contactoRepository.findResponsesDespuesDe(cursor.getId(), tamaño + 1),
+                tamaño, c -> new Cursor(null, c.getId()), total);
+    }
+    
+    // Cambios desde un cursor de sincronización; las bajas salen de contactos_eliminados
+    public Mono<ServerResponse> obtenerCambios(ServerRequest request) {
+        String desde = request.queryParam("desde").orElse(null);
+        return Mono.fromCallable(() -> contactoService.obtenerCambios(desde, entero(request, "tamaño", 500)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(cambios -> ServerResponse.ok().bodyValue(cambios));
+    }
+    
+    public Mono<ServerResponse> obtenerProximosCumpleanos(ServerRequest request) {
+        return Mono.fromCallable(() -> cumpleanosService.obtenerProximos(entero(request, "dias", 30)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(cumpleanos -> ServerResponse.ok().bodyValue(cumpleanos));
+    }
+    
+    public Mono<ServerResponse> obtenerContactoPorId(ServerRequest request) {
+        // El ETag sale de la versión: un 304 no necesita cargar ni serializar el contacto
+        return id(request).flatMap(id -> contactoRepository.findVersionById(id)
+                .switchIfEmpty(Mono.error(() -> noEncontrado(id)))
+                .flatMap(version -> {
+                    String etag = versionesDatos.etagContacto(id, version);
+                    if (request.exchange().checkNotModified(etag)) {
+                        return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                    }
+                    return contactoRepository.findResponseById(id)
+                            .switchIfEmpty(Mono.error(() -> noEncontrado(id)))
+                            .flatMap(contacto -> ServerResponse.ok()
+                                    .eTag(etag)
+                                    .cacheControl(CacheControl.noCache())
+                                    .bodyValue(contacto));
+                }));
+    }
+    
+    public Mono<ServerResponse> crearContacto(ServerRequest request) {
+        return request.bodyToMono(ContactoRequest.class)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("El cuerpo de la petición es obligatorio")))
+                .doOnNext(this::validar)
+                .flatMap(contactoRequest -> conSecuencia(secuencia -> comprobarCategoria(contactoRequest.getCategoriaId())
+                        .then(Mono.fromSupplier(() -> nuevaFila(contactoRequest, secuencia)))
+                        .flatMap(contactoRepository::save)
+                        .flatMap(fila -> contactoRepository.findResponseById(fila.getId()))))
+                .flatMap(contacto -> {
+                    estadisticasService.registrarAlta(HuellaContacto.de(contacto));
+                    versionesDatos.contactosModificados();
+                    canalCambios.publicar(EventoCambio.contacto(TipoCambio.CREADO, contacto.getId()));
+                    return indexar(contacto).thenReturn(contacto);
+                })
+                .flatMap(contacto -> ServerResponse.ok().bodyValue(contacto));
+    }
+    
+    public Mono<ServerResponse> actualizarContacto(ServerRequest request) {
+        return id(request).flatMap(id -> request.bodyToMono(ContactoRequest.class)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("El cuerpo de la petición es obligatorio")))
+                .doOnNext(this::validar)
+                .flatMap(contactoRequest -> actualizar(id, fila -> actualizarFilaDesdeRequest(fila, contactoRequest),
+                        comprobarCategoria(contactoRequest.getCategoriaId()),
+                        EventoCambio.contacto(TipoCambio.ACTUALIZADO, id))))
+                .flatMap(contacto -> indexar(contacto).thenReturn(contacto))
+                .flatMap(contacto -> ServerResponse.ok().bodyValue(contacto));
+    }
+    
+    public Mono<ServerResponse> eliminarContacto(ServerRequest request) {
+        return id(request).flatMap(id -> conSecuencia(secuencia -> contactoRepository.findResponseById(id)
+                        .switchIfEmpty(Mono.error(() -> noEncontrado(id)))
+                        .flatMap(contacto -> contactoRepository.deleteById(id)
+                                .then(contactoRepository.registrarBaja(id, secuencia, LocalDateTime.now()))
+                                .thenReturn(contacto)))
+                .flatMap(contacto -> {
+                    estadisticasService.registrarBaja(HuellaContacto.de(contacto));
+                    versionesDatos.contactosModificados();
+                    canalCambios.publicar(EventoCambio.contacto(TipoCambio.ELIMINADO, id));
+                    return Mono.fromRunnable(() -> indiceContactos.eliminar(id)).subscribeOn(Schedulers.boundedElastic());
+                }))
+                .then(ServerResponse.noContent().build());
+    }
+    
+    public Mono<ServerResponse> toggleFavorito(ServerRequest request) {
+        return id(request).flatMap(id -> request.bodyToMono(new ParameterizedTypeReference<Map<String, Boolean>>() {})
+                .map(cuerpo -> {
+                    Boolean favorito = cuerpo.get("favorito");
+                    if (favorito == null) {
+                        throw new IllegalArgumentException("El campo favorito es obligatorio");
+                    }
+                    return favorito;
+                })
+                .flatMap(favorito -> actualizar(id, fila -> fila.setFavorito(favorito), Mono.empty(),
+                        EventoCambio.favorito(id, favorito))))
+                .flatMap(contacto -> ServerResponse.ok().bodyValue(contacto));
+    }
+    
+    public Mono<ServerResponse> buscarContactos(ServerRequest request) {
+        String termino = obligatorio(request, "termino");
+        if (request.queryParam("after").isPresent()) {
+            return buscarContactosDespuesDe(request, termino);
+        }
+        List<Long> ids = indiceContactos.buscar(termino, entero(request, "pagina", 0), entero(request, "tamaño", 20));
+        return lista(request, hidratar(ids));
+    }
+    
+    private Mono<ServerResponse> buscarContactosDespuesDe(ServerRequest request, String termino) {
+        Cursor cursor = Cursor.decodificar(request.queryParam("after").orElse(null));
+        int tamaño = entero(request, "tamaño", 20);
+        Coincidencia ultima = cursor.getClave().isEmpty() ? null
+                : new Coincidencia(cursor.getId(), Double.longBitsToDouble(Long.parseUnsignedLong(cursor.getClave(), 16)));
+        List<Coincidencia> coincidencias = indiceContactos.buscarDespuesDe(termino, ultima, tamaño + 1);
+        
+        boolean hayMas = coincidencias.size() > tamaño;
+        List<Coincidencia> pagina = hayMas ? coincidencias.subList(0, tamaño) : coincidencias;
+        String siguiente = null;
+        if (hayMas) {
+            Coincidencia ultimaDevuelta = pagina.get(pagina.size() - 1);
+            String puntuacion = Long.toHexString(Double.doubleToLongBits(ultimaDevuelta.getPuntuacion()));
+            siguiente = new Cursor(puntuacion, ultimaDevuelta.getId()).codificar();
+        }
+        String cursorSiguiente = siguiente;
+        return hidratar(pagina.stream().map(Coincidencia::getId).collect(Collectors.toList()))
+                .collectList()
+                .flatMap(contenido -> ServerResponse.ok()
+                        .bodyValue(new PaginaCursor<>(contenido, cursorSiguiente, tamaño, null)));
+    }
+    
+    public Mono<ServerResponse> obtenerContactosPorCategoria(ServerRequest request) {
+        String categoria = request.pathVariable("categoria");
+        if (request.queryParam("after").isPresent()) {
+            Cursor cursor = Cursor.decodificar(request.queryParam("after").get());
+            int tamaño = entero(request, "tamaño", 20);
+            boolean contar = Boolean.parseBoolean(request.queryParam("contar").orElse("false"));
+            return paginaCursor(contactoRepository.findResponsesByCategoriaNombreDespuesDe(categoria, cursor.getId(), tamaño + 1),
+                    tamaño, c -> new Cursor(null, c.getId()),
+                    contar ? contactoRepository.countByCategoriaNombre(categoria) : Mono.empty());
+        }
+        return lista(request, contactoRepository.findResponsesByCategoriaNombre(categoria));
+    }
+    
+    public Mono<ServerResponse> buscarPorTelefono(ServerRequest request) {
+        String digitos = Contacto.normalizarTelefono(request.pathVariable("telefono"));
+        if (digitos == null || digitos.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("El teléfono debe contener al menos un dígito"));
+        }
+        CoincidenciaTelefono coincidencia = CoincidenciaTelefono.resolver(request.queryParam("coincidencia").orElse("sufijo"));
+        int limite = entero(request, "limite", 20);
+        switch (coincidencia) {
+            case EXACTA:
+                return lista(request, contactoRepository.findResponsesByTelefonoNormalizado(digitos, limite));
+            case PREFIJO:
+                return lista(request, contactoRepository.findResponsesByTelefonoNormalizadoEntre(digitos, digitos + ':', limite));
+            default:
+                String invertido = Contacto.invertir(digitos);
+                return lista(request, contactoRepository.findResponsesByTelefonoInvertidoEntre(invertido, invertido + ':', limite));
+        }
+    }
+    
+    public Mono<ServerResponse> obtenerContactosFavoritos(ServerRequest request) {
+        if (request.queryParam("after").isPresent()) {
+            Cursor cursor = Cursor.decodificar(request.queryParam("after").get());
+            int tamaño = entero(request, "tamaño", 20);
+            boolean contar = Boolean.parseBoolean(request.queryParam("contar").orElse("false"));
+            return paginaCursor(contactoRepository.findResponsesByFavoritoDespuesDe(true, cursor.getId(), tamaño + 1),
+                    tamaño, c -> new Cursor(null, c.getId()),
+                    contar ? contactoRepository.countByFavorito(true) : Mono.empty());
+        }
+        return lista(request, contactoRepository.findResponsesByFavorito(true));
+    }
+    
+    // Operaciones masivas: sentencias por conjunto de OperacionLoteService, fuera del event loop
+    public Mono<ServerResponse> marcarFavoritos(ServerRequest request) {
+        return lote(request, operacionLoteService::marcarFavoritos);
+    }
+    
+    public Mono<ServerResponse> moverACategoria(ServerRequest request) {
+        return lote(request, operacionLoteService::moverACategoria);
+    }
+    
+    public Mono<ServerResponse> eliminarContactos(ServerRequest request) {
+        return lote(request, operacionLoteService::eliminarContactos);
+    }
+    
+    public Mono<ServerResponse> obtenerEstadisticas(ServerRequest request) {
+        // Los contadores se cargan con consultas JPA la primera vez
+        return Mono.fromCallable(estadisticasService::obtenerContadores)
+                .subscribeOn(Schedulers.boundedElastic())
+                .zipWith(contactoRepository.findRecientes(5).collectList(), (estadisticas, recientes) -> {
+                    estadisticas.put("contactosRecientes", recientes);
+                    return estadisticas;
+                })
+                .flatMap(estadisticas -> ServerResponse.ok().bodyValue(estadisticas))
+                .onErrorResume(e -> ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .bodyValue(Map.of("error", "Error al obtener estadísticas: " + e.getMessage())));
+    }
+    
+    /**
+     * Lee, modifica y guarda la fila en una transacción R2DBC; contadores, versión y {@code evento} se actualizan
+     * y publican tras el commit.
+     */
+    private Mono<ContactoResponse> actualizar(Long id, Consumer<ContactoFila> cambios,
+                                              Mono<Void> comprobaciones, EventoCambio evento) {
+        return conSecuencia(secuencia -> comprobaciones
+                .then(Mono.zip(contactoRepository.findResponseById(id), contactoRepository.findById(id)))
+                .switchIfEmpty(Mono.error(() -> noEncontrado(id)))
+                .flatMap(t -> {
+                    ContactoFila fila = t.getT2();
+                    cambios.accept(fila);
+                    fila.setFechaActualizacion(LocalDateTime.now());
+                    fila.setSecuenciaCambio(secuencia);
+                    return contactoRepository.save(fila)
+                            .then(contactoRepository.findResponseById(id))
+                            .map(despues -> new ContactoResponse[] {t.getT1(), despues});
+                }))
+                .map(par -> {
+                    estadisticasService.registrarCambio(HuellaContacto.de(par[0]), HuellaContacto.de(par[1]));
+                    versionesDatos.contactosModificados();
+                    canalCambios.publicar(evento);
+                    return par[1];
+                });
+    }
+    
+    /**
+     * Ejecuta {@code escritura} en una transacción R2DBC con un valor de {@link SecuenciaCambios} para
+     * {@code secuencia_cambio} o la baja; el valor cuenta como pendiente hasta que la transacción termina.
+     */
+    private <T> Mono<T> conSecuencia(Function<Long, Mono<T>> escritura) {
+        return Mono.using(secuenciaCambios::reservar,
+                secuencia -> transaccion.transactional(escritura.apply(secuencia)),
+                secuenciaCambios::liberar);
+    }
+    
+    private Mono<ServerResponse> lote(ServerRequest request, Function<OperacionLoteRequest, ResultadoLote> operacion) {
+        return request.bodyToMono(OperacionLoteRequest.class)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("El cuerpo de la petición es obligatorio")))
+                .publishOn(Schedulers.boundedElastic())
+                .map(operacion)
+                .flatMap(resultado -> ServerResponse.ok().bodyValue(resultado));
+    }
+    
+    // Se pide un elemento de más para saber si existe una página siguiente sin contar
+    private Mono<ServerResponse> paginaCursor(Flux<ContactoResponse> filas, int tamaño,
+                                              Function<ContactoResponse, Cursor> cursorDe, Mono<Long> total) {
+        return Mono.zip(filas.collectList(), total.map(Optional::of).defaultIfEmpty(Optional.empty()))
+                .map(t -> {
+                    List<ContactoResponse> lista = t.getT1();
+                    boolean hayMas = lista.size() > tamaño;
+                    List<ContactoResponse> contenido = new ArrayList<>(hayMas ? lista.subList(0, tamaño) : lista);
+                    String siguiente = hayMas ? cursorDe.apply(contenido.get(contenido.size() - 1)).codificar() : null;
+                    return new PaginaCursor<>(contenido, siguiente, tamaño, t.getT2().orElse(null));
+                })
+                .flatMap(pagina -> ServerResponse.ok().bodyValue(pagina));
+    }
+    
+    // Una sola consulta para hidratar los ids, manteniendo el orden recibido
+    private Flux<ContactoResponse> hidratar(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return contactoRepository.findResponsesByIdIn(ids)
+                .collectMap(ContactoResponse::getId)
+                .flatMapIterable(porId -> ids.stream()
+                        .map(porId::get)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
+    }
+    
+    private Mono<ServerResponse> lista(ServerRequest request, Flux<ContactoResponse> contactos) {
+        MediaType tipo = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(tipo).body(contactos, ContactoResponse.class);
+    }
+    
+    // El diario del índice escribe en disco: fuera del event loop
+    private Mono<Void> indexar(ContactoResponse contacto) {
+        return Mono.<Void>fromRunnable(() -> indiceContactos.indexar(contacto)).subscribeOn(Schedulers.boundedElastic());
+    }
+    
+    private Mono<Void> comprobarCategoria(Long categoriaId) {
+        if (categoriaId == null) {
+            return Mono.empty();
+        }
+        return categoriaRepository.existsById(categoriaId)
+                .flatMap(existe -> existe ? Mono.<Void>empty()
+                        : Mono.error(new EntityNotFoundException("Categoría no encontrada con ID: " + categoriaId)));
+    }
+    
+    private void validar(ContactoRequest request) {
+        Set<ConstraintViolation<ContactoRequest>> violaciones = validator.validate(request);
+        if (!violaciones.isEmpty()) {
+            throw new IllegalArgumentException(violaciones.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+    
+    private ContactoFila nuevaFila(ContactoRequest request, long secuencia) {
+        ContactoFila fila = new ContactoFila();
+        actualizarFilaDesdeRequest(fila, request);
+        LocalDateTime ahora = LocalDateTime.now();
+        fila.setFechaCreacion(ahora);
+        fila.setFechaActualizacion(ahora);
+        fila.setSecuenciaCambio(secuencia);
+        return fila;
+    }
+    
+    // Misma semántica que ContactoServiceImpl: los campos nulos no se modifican; una fila nueva sin favorito queda en false
+    private void actualizarFilaDesdeRequest(ContactoFila fila, ContactoRequest request) {
+        if (request.getNombre() != null) {
+            fila.setNombre(request.getNombre());
+        }
+        if (request.getApellido() != null) {
+            fila.setApellido(request.getApellido());
+        }
+        if (request.getTelefono() != null) {
+            fila.setTelefono(request.getTelefono());
+            fila.setTelefonoNormalizado(Contacto.normalizarTelefono(request.getTelefono()));
+            fila.setTelefonoInvertido(Contacto.invertir(fila.getTelefonoNormalizado()));
+        }
+        if (request.getEmail() != null) {
+            fila.setEmail(request.getEmail());
+        }
+        if (request.getDireccion() != null) {
+            fila.setDireccion(request.getDireccion());
+        }
+        if (request.getFechaNacimiento() != null) {
+            fila.setFechaNacimiento(request.getFechaNacimiento());
+        }
+        if (request.getNotas() != null) {
+            fila.setNotas(request.getNotas());
+        }
+        if (request.getFavorito() != null) {
+            fila.setFavorito(request.getFavorito());
+        }
+        if (request.getCategoriaId() != null) {
+            fila.setCategoriaId(request.getCategoriaId());
+        }
+    }
+    
+    private static EntityNotFoundException noEncontrado(Long id) {
+        return new EntityNotFoundException("Contacto no encontrado con ID: " + id);
+    }
+    
+    // Dentro de la cadena: un identificador no numérico llega a onError como IllegalArgumentException (400)
+    static Mono<Long> id(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return Mono.fromCallable(() -> Long.valueOf(id))
+                .onErrorMap(NumberFormatException.class, e -> new IllegalArgumentException("Identificador no válido: " + id));
+    }
+    
+    static int entero(ServerRequest request, String parametro, int porDefecto) {
+        return request.queryParam(parametro).map(Integer::parseInt).orElse(porDefecto);
+    }
+    
+    static String obligatorio(ServerRequest request, String parametro) {
+        return request.queryParam(parametro)
+                .orElseThrow(() -> new IllegalArgumentException("Falta el parámetro obligatorio: " + parametro));
+    }
+}
@@ -0,0 +1,104 @@
+package com.ejemplo.agenda.reactivo;
+
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Equivalente R2DBC de las lecturas de {@link com.ejemplo.agenda.repository.ContactoRepository}:
+ * las mismas proyecciones a {@link ContactoResponse}, en SQL y con el límite como parámetro.
+ */
+@Repository
+public interface ContactoReactivoRepository extends R2dbcRepository<ContactoFila, Long> {
+    
+    String SELECT_RESPONSE = "SELECT c.id, c.nombre, c.apellido, c.telefono, c.email, c.direccion, " +
+           "c.fecha_nacimiento, c.notas, c.favorito, cat.nombre AS categoria, c.fecha_creacion, " +
+           "c.fecha_actualizacion FROM contactos c LEFT JOIN categorias cat ON cat.id = c.categoria_id";
+    
+    // Como ContactoRepository.DE_CATEGORIA: por id para no recorrer contactos a través del LEFT JOIN
+    String DE_CATEGORIA = "c.categoria_id = (SELECT k.id FROM categorias k WHERE k.nombre = :categoria)";
+    
+    @Query(SELECT_RESPONSE + " ORDER BY c.id LIMIT :limite OFFSET :desplazamiento")
+    Flux<ContactoResponse> findResponses(@Param("limite") int limite, @Param("desplazamiento") long desplazamiento);
+    
+    @Query(SELECT_RESPONSE + " WHERE c.id = :id")
+    Mono<ContactoResponse> findResponseById(@Param("id") Long id);
+    
+    @Query(SELECT_RESPONSE + " WHERE c.id IN (:ids)")
+    Flux<ContactoResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT version FROM contactos WHERE id = :id")
+    Mono<Long> findVersionById(@Param("id") Long id);
+    
+    @Query(SELECT_RESPONSE + " ORDER BY c.fecha_creacion DESC, c.id DESC LIMIT :limite")
+    Flux<ContactoResponse> findRecientes(@Param("limite") int limite);
+    
+    @Query(SELECT_RESPONSE + " WHERE " + DE_CATEGORIA + " ORDER BY c.categoria_id, c.id")
+    Flux<ContactoResponse> findResponsesByCategoriaNombre(@Param("categoria") String categoria);
+    
+    @Query(SELECT_RESPONSE + " WHERE c.favorito = :favorito ORDER BY c.favorito, c.id")
+    Flux<ContactoResponse> findResponsesByFavorito(@Param("favorito") boolean favorito);
+    
+    // Teléfonos normalizados: el rango [desde, hasta) equivale a "empieza por"
+    @Query(SELECT_RESPONSE + " WHERE c.telefono_normalizado = :digitos ORDER BY c.id LIMIT :limite")
+    Flux<ContactoResponse> findResponsesByTelefonoNormalizado(@Param("digitos") String digitos,
+                                                              @Param("limite") int limite);
+    
+    @Query(SELECT_RESPONSE + " WHERE c.telefono_normalizado >= :desde AND c.telefono_normalizado < :hasta " +
+           "ORDER BY c.id LIMIT :limite")
+    Flux<ContactoResponse> findResponsesByTelefonoNormalizadoEntre(@Param("desde") String desde,
+                                                                   @Param("hasta") String hasta,
+                                                                   @Param("limite") int limite);
+    
+    @Query(SELECT_RESPONSE + " WHERE c.telefono_invertido >= :desde AND c.telefono_invertido < :hasta " +
+           "ORDER BY c.id LIMIT :limite")
+    Flux<ContactoResponse> findResponsesByTelefonoInvertidoEntre(@Param("desde") String desde,
+                                                                 @Param("hasta") String hasta,
+                                                                 @Param("limite") int limite);
+    
+    // Paginación por clave (keyset), con los mismos límites y órdenes que ContactoRepository
+    @Query(SELECT_RESPONSE + " WHERE c.id > :despuesDe ORDER BY c.id LIMIT :limite")
+    Flux<ContactoResponse> findResponsesDespuesDe(@Param("despuesDe") long despuesDe, @Param("limite") int limite);
+    
+    @Query(SELECT_RESPONSE + " WHERE c.nombre >= :nombre AND (c.nombre > :nombre OR c.id > :despuesDe) " +
+           "ORDER BY c.nombre, c.id LIMIT :limite")
+    Flux<ContactoResponse> findResponsesPorNombreDespuesDe(@Param("nombre") String nombre,
+                                                           @Param("despuesDe") long despuesDe,
+                                                           @Param("limite") int limite);
+    
+    @Query(SELECT_RESPONSE + " WHERE " + DE_CATEGORIA + " AND c.id > :despuesDe " +
+           "ORDER BY c.categoria_id, c.id LIMIT :limite")
+    Flux<ContactoResponse> findResponsesByCategoriaNombreDespuesDe(@Param("categoria") String categoria,
+                                                                   @Param("despuesDe") long despuesDe,
+                                                                   @Param("limite") int limite);
+    
+    @Query(SELECT_RESPONSE + " WHERE c.favorito = :favorito AND c.id > :despuesDe " +
+           "ORDER BY c.favorito, c.id LIMIT :limite")
+    Flux<ContactoResponse> findResponsesByFavoritoDespuesDe(@Param("favorito") boolean favorito,
+                                                            @Param("despuesDe") long despuesDe,
+                                                            @Param("limite") int limite);
+    
+    @Query("SELECT COUNT(*) FROM contactos WHERE favorito = :favorito")
+    Mono<Long> countByFavorito(@Param("favorito") boolean favorito);
+    
+    @Query("SELECT COUNT(*) FROM contactos c JOIN categorias cat ON cat.id = c.categoria_id WHERE cat.nombre = :categoria")
+    Mono<Long> countByCategoriaNombre(@Param("categoria") String categoria);
+    
+    @Query("SELECT COUNT(*) FROM contactos WHERE categoria_id = :categoriaId")
+    Mono<Long> countByCategoriaId(@Param("categoriaId") Long categoriaId);
+    
+    // Baja para la sincronización incremental, en la misma transacción que el DELETE
+    @Modifying
+    @Query("INSERT INTO contactos_eliminados (contacto_id, secuencia_cambio, fecha_eliminacion) " +
+           "VALUES (:id, :secuencia, :ahora)")
+    Mono<Integer> registrarBaja(@Param("id") Long id, @Param("secuencia") long secuencia,
+                                @Param("ahora") LocalDateTime ahora);
+}
@@ -0,0 +1,44 @@
+package com.ejemplo.agenda.reactivo;
+
+import com.ejemplo.agenda.eventos.CanalCambios;
+import com.ejemplo.agenda.model.dto.EventoCambio;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Versión WebFlux de {@link com.ejemplo.agenda.controller.EventoController}, sobre el mismo {@link CanalCambios}.
+ */
+@Component
+@Profile("reactivo")
+public class EventoHandler {
+    
+    @Autowired
+    private CanalCambios canalCambios;
+    
+    public Mono<ServerResponse> suscribir(ServerRequest request) {
+        Flux<ServerSentEvent<EventoCambio>> eventos =
+                canalCambios.suscribirFlujo(request.headers().firstHeader("Last-Event-ID"));
+        if (eventos == null) {
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "10")
+                    .build();
+        }
+        // X-Accel-Buffering: que nginx no retenga los eventos
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no")
+                .body(BodyInserters.fromServerSentEvents(eventos));
+    }
+}
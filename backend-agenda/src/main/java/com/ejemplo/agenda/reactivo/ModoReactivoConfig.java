@@ -0,0 +1,35 @@
+package com.ejemplo.agenda.reactivo;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Infraestructura del perfil "reactivo" que Spring Boot no crea por sí solo cuando conviven los dos stacks.
+ */
+@Configuration
+@Profile("reactivo")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ModoReactivoConfig {
+    
+    /**
+     * Con un {@code ConnectionFactory} de R2DBC, Spring Boot no crea el {@code DataSource}; JPA lo sigue
+     * necesitando para el esquema, el índice de búsqueda y las operaciones masivas.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    // Tomcat también está en el classpath y Spring Boot lo preferiría a Netty
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
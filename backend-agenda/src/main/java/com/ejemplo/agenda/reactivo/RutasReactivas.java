@@ -0,0 +1,88 @@
+package com.ejemplo.agenda.reactivo;
+
+import com.ejemplo.agenda.model.dto.ErrorResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import javax.persistence.EntityNotFoundException;
+
+/**
+ * Rutas del modo reactivo. Los errores se traducen como en
+ * {@link com.ejemplo.agenda.controller.GlobalExceptionHandler}; también los que un handler lanza al leer sus
+ * parámetros antes de devolver el {@link Mono}.
+ */
+@Configuration
+@Profile("reactivo")
+public class RutasReactivas {
+    
+    private static final String SOLO_SERVLET = "La importación y la exportación solo existen en el modo servlet";
+    
+    @Bean
+    public RouterFunction<ServerResponse> rutasContactos(ContactoHandler handler) {
+        return RouterFunctions.route()
+                .path("/api/contactos", rutas -> rutas
+                        .GET("/buscar", handler::buscarContactos)
+                        .GET("/categoria/{categoria}", handler::obtenerContactosPorCategoria)
+                        .GET("/telefono/{telefono}", handler::buscarPorTelefono)
+                        .GET("/favoritos", handler::obtenerContactosFavoritos)
+                        .GET("/estadisticas", handler::obtenerEstadisticas)
+                        .GET("/cambios", handler::obtenerCambios)
+                        .GET("/cumpleanos", handler::obtenerProximosCumpleanos)
+                        .GET("/exportar", request -> error(HttpStatus.NOT_FOUND, SOLO_SERVLET))
+                        .POST("/importar", request -> error(HttpStatus.NOT_FOUND, SOLO_SERVLET))
+                        .PATCH("/lote/favorito", handler::marcarFavoritos)
+                        .PATCH("/lote/categoria", handler::moverACategoria)
+                        .POST("/lote/eliminar", handler::eliminarContactos)
+                        .GET("/{id}", handler::obtenerContactoPorId)
+                        .PUT("/{id}", handler::actualizarContacto)
+                        .DELETE("/{id}", handler::eliminarContacto)
+                        .PATCH("/{id}/favorito", handler::toggleFavorito)
+                        .GET(handler::obtenerTodosContactos)
+                        .POST(handler::crearContacto)
+                        .filter(RutasReactivas::diferido))
+                .onError(EntityNotFoundException.class, (e, request) -> error(HttpStatus.NOT_FOUND, e.getMessage()))
+                .onError(IllegalArgumentException.class, (e, request) -> error(HttpStatus.BAD_REQUEST, e.getMessage()))
+                .build();
+    }
+    
+    @Bean
+    public RouterFunction<ServerResponse> rutasCategorias(CategoriaHandler handler) {
+        return RouterFunctions.route()
+                .path("/api/categorias", rutas -> rutas
+                        .GET("/nombre/{nombre}", handler::obtenerCategoriaPorNombre)
+                        .GET("/buscar", handler::buscarCategorias)
+                        .GET("/existe/{nombre}", handler::existeCategoriaPorNombre)
+                        .GET("/{id}", handler::obtenerCategoriaPorId)
+                        .PUT("/{id}", handler::actualizarCategoria)
+                        .DELETE("/{id}", handler::eliminarCategoria)
+                        .GET(handler::obtenerTodasLasCategorias)
+                        .POST(handler::crearCategoria)
+                        .filter(RutasReactivas::diferido))
+                .onError(IllegalArgumentException.class, (e, request) -> error(HttpStatus.BAD_REQUEST, e.getMessage()))
+                .build();
+    }
+    
+    @Bean
+    public RouterFunction<ServerResponse> rutasEventos(EventoHandler handler) {
+        return RouterFunctions.route()
+                .GET("/api/eventos", handler::suscribir)
+                .build();
+    }
+    
+    // Dentro de cada path, por debajo de onError: una excepción al leer un parámetro llega como error del Mono
+    private static Mono<ServerResponse> diferido(ServerRequest request, HandlerFunction<ServerResponse> handler) {
+        return Mono.defer(() -> handler.handle(request));
+    }
+    
+    private static Mono<ServerResponse> error(HttpStatus estado, String mensaje) {
+        return ServerResponse.status(estado).bodyValue(new ErrorResponse(estado.value(), mensaje));
+    }
+}
@@ -0,0 +1,48 @@
+package com.ejemplo.agenda.reactivo;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import java.util.List;
+
+/**
+ * Equivalente de {@link com.ejemplo.agenda.config.SecurityConfig} y {@link com.ejemplo.agenda.config.WebConfig}
+ * para WebFlux.
+ */
+@Configuration
+@Profile("reactivo")
+@EnableWebFluxSecurity
+public class SeguridadReactivaConfig {
+    
+    @Bean
+    public SecurityWebFilterChain cadenaSeguridad(ServerHttpSecurity http) {
+        return http
+                .csrf().disable()
+                .cors().and()
+                .authorizeExchange()
+                    .pathMatchers("/api/**").permitAll()
+                    .pathMatchers("/actuator/**").permitAll()
+                    .anyExchange().authenticated()
+                .and()
+                .build();
+    }
+    
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuracion = new CorsConfiguration();
+        configuracion.setAllowedOrigins(List.of("*"));
+        configuracion.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
+        configuracion.setAllowedHeaders(List.of("*"));
+        configuracion.setMaxAge(3600L);
+        UrlBasedCorsConfigurationSource origen = new UrlBasedCorsConfigurationSource();
+        origen.registerCorsConfiguration("/api/**", configuracion);
+        return origen;
+    }
+}
@@ -12,16 +12,22 @@ import java.util.Optional;
 @Repository
 public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
     
+    // Solo leen categorías, una tabla pequeña: @PlanEsperado sin índices declara que no tocan contactos
+    @PlanEsperado
     Optional<Categoria> findByNombre(String nombre);
     
+    @PlanEsperado
     boolean existsByNombre(String nombre);
     
+    @PlanEsperado
     List<Categoria> findByNombreContainingIgnoreCase(String nombre);
     
+    @PlanEsperado
     @Query("SELECT c FROM Categoria c WHERE LOWER(c.nombre) LIKE LOWER(CONCAT('%', :termino, '%')) OR " +
            "LOWER(c.descripcion) LIKE LOWER(CONCAT('%', :termino, '%'))")
     List<Categoria> buscarPorTermino(@Param("termino") String termino);
     
+    @PlanEsperado
     @Query("SELECT c FROM Categoria c ORDER BY c.nombre ASC")
     List<Categoria> findAllOrderByNombre();
 }
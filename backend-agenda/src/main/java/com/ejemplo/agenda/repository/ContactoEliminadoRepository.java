@@ -0,0 +1,41 @@
+package com.ejemplo.agenda.repository;
+
+import com.ejemplo.agenda.model.ContactoEliminado;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ContactoEliminadoRepository extends JpaRepository<ContactoEliminado, Long> {
+    
+    // Bajas posteriores a (secuencia, id), en los mismos dos tramos que ContactoRepository.findClavesCambios
+    @PlanEsperado(indices = "IDX_CONTACTOS_ELIMINADOS_SECUENCIA", maximoFilas = 60)
+    @Query("SELECT e FROM ContactoEliminado e WHERE e.secuenciaCambio = :secuencia AND e.contactoId > :despuesDe " +
+           "ORDER BY e.secuenciaCambio, e.contactoId")
+    List<ContactoEliminado> findCambiosEnSecuencia(@Param("secuencia") long secuencia,
+                                                   @Param("despuesDe") long despuesDe, Pageable limite);
+    
+    @PlanEsperado(indices = "IDX_CONTACTOS_ELIMINADOS_SECUENCIA", maximoFilas = 60)
+    @Query("SELECT e FROM ContactoEliminado e WHERE e.secuenciaCambio >= :desde AND e.secuenciaCambio <= :hasta " +
+           "ORDER BY e.secuenciaCambio, e.contactoId")
+    List<ContactoEliminado> findCambios(@Param("desde") long desde, @Param("hasta") long hasta, Pageable limite);
+    
+    // Antes de un borrado masivo: una baja por cada id que existe de verdad
+    @PlanEsperado(indices = "PRIMARY_KEY")
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO contactos_eliminados (contacto_id, secuencia_cambio, fecha_eliminacion) " +
+                   "SELECT id, :secuencia, :ahora FROM contactos WHERE id IN :ids", nativeQuery = true)
+    int registrarBajas(@Param("ids") Collection<Long> ids, @Param("secuencia") long secuencia,
+                       @Param("ahora") LocalDateTime ahora);
+    
+    @PlanEsperado(indices = "IDX_CONTACTOS_ELIMINADOS_SECUENCIA")
+    @Query("SELECT COALESCE(MAX(e.secuenciaCambio), 0) FROM ContactoEliminado e")
+    long findMaxSecuenciaCambio();
+}
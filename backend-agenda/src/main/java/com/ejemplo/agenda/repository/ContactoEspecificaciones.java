@@ -0,0 +1,84 @@
+package com.ejemplo.agenda.repository;
+
+import com.ejemplo.agenda.model.Categoria;
+import com.ejemplo.agenda.model.Contacto;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.util.Collection;
+
+/**
+ * Filtros de las consultas por campos ({@link ContactoRepositoryCustom#findCampos}); equivalen a los
+ * WHERE de las consultas JPQL de {@link ContactoRepository}.
+ */
+public final class ContactoEspecificaciones {
+    
+    private ContactoEspecificaciones() {}
+    
+    public static Specification<Contacto> porId(Long id) {
+        return (c, consulta, cb) -> cb.equal(c.get("id"), id);
+    }
+    
+    public static Specification<Contacto> porIds(Collection<Long> ids) {
+        return (c, consulta, cb) -> c.get("id").in(ids);
+    }
+    
+    public static Specification<Contacto> idMayorQue(long despuesDe) {
+        return (c, consulta, cb) -> cb.greaterThan(c.get("id"), despuesDe);
+    }
+    
+    public static Specification<Contacto> nombreDespuesDe(String nombre, long despuesDe) {
+        // Como ContactoRepository.findResponsesPorNombreDespuesDe, con el límite inferior que acota el índice
+        return (c, consulta, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(c.get("nombre"), nombre),
+                cb.or(cb.greaterThan(c.get("nombre"), nombre), cb.greaterThan(c.get("id"), despuesDe)));
+    }
+    
+    // Como ContactoRepository.DE_CATEGORIA: por id de categoría y no a través del LEFT JOIN de la selección
+    public static Specification<Contacto> deCategoria(String categoria) {
+        return (c, consulta, cb) -> {
+            Subquery<Long> id = consulta.subquery(Long.class);
+            Root<Categoria> k = id.from(Categoria.class);
+            id.select(k.get("id")).where(cb.equal(k.get("nombre"), categoria));
+            return cb.equal(c.get("categoria").get("id"), id);
+        };
+    }
+    
+    public static Specification<Contacto> favorito(boolean favorito) {
+        return (c, consulta, cb) -> cb.equal(c.get("favorito"), favorito);
+    }
+    
+    public static Specification<Contacto> telefonoNormalizado(String digitos) {
+        return (c, consulta, cb) -> cb.equal(c.get("telefonoNormalizado"), digitos);
+    }
+    
+    // [desde, hasta): ver ContactoRepository.findResponsesByTelefonoNormalizadoEntre
+    public static Specification<Contacto> telefonoNormalizadoEntre(String desde, String hasta) {
+        return (c, consulta, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(c.get("telefonoNormalizado"), desde),
+                cb.lessThan(c.get("telefonoNormalizado"), hasta));
+    }
+    
+    public static Specification<Contacto> telefonoInvertidoEntre(String desde, String hasta) {
+        return (c, consulta, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(c.get("telefonoInvertido"), desde),
+                cb.lessThan(c.get("telefonoInvertido"), hasta));
+    }
+    
+    /**
+     * LEFT JOIN con categorías para seleccionar su nombre, reutilizado si la consulta ya lo tiene.
+     */
+    @SuppressWarnings("unchecked")
+    static Join<Contacto, Categoria> categoria(Root<Contacto> contacto) {
+        for (Join<Contacto, ?> join : contacto.getJoins()) {
+            if ("categoria".equals(join.getAttribute().getName())) {
+                return (Join<Contacto, Categoria>) join;
+            }
+        }
+        return contacto.join("categoria", JoinType.LEFT);
+    }
+}
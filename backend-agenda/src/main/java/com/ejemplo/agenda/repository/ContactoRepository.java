@@ -1,34 +1,237 @@
 package com.ejemplo.agenda.repository;
 
+import com.ejemplo.agenda.model.Categoria;
 import com.ejemplo.agenda.model.Contacto;
+import com.ejemplo.agenda.model.dto.ContactoResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ContactoRepository extends JpaRepository<Contacto, Long> {
+public interface ContactoRepository extends JpaRepository<Contacto, Long>, ContactoRepositoryCustom {
+    
+    // Proyección de lectura: construye el DTO con el nombre de la categoría en la misma sentencia
+    String SELECT_RESPONSE = "SELECT new com.ejemplo.agenda.model.dto.ContactoResponse(" +
+           "c.id, c.nombre, c.apellido, c.telefono, c.email, c.direccion, c.fechaNacimiento, " +
+           "c.notas, c.favorito, cat.nombre, c.fechaCreacion, c.fechaActualizacion) " +
+           "FROM Contacto c LEFT JOIN c.categoria cat";
+    
+    // Filtro por nombre de categoría: con el LEFT JOIN no se puede empezar por categorías y se recorrería toda la
+    // tabla de contactos; la subconsulta se resuelve una vez y el resto va por idx_contactos_categoria
+    String DE_CATEGORIA = "c.categoria.id = (SELECT k.id FROM Categoria k WHERE k.nombre = :categoria)";
+    
+    @PlanEsperado(recorrido = true, maximoFilas = 200)
     Page<Contacto> findAll(Pageable pageable);
     
+    @PlanEsperado(recorrido = true)
     List<Contacto> findByNombreContainingIgnoreCase(String nombre);
     
+    @PlanEsperado(recorrido = true)
     List<Contacto> findByApellidoContainingIgnoreCase(String apellido);
     
+    @PlanEsperado(recorrido = true)
     List<Contacto> findByTelefonoContaining(String telefono);
     
+    @PlanEsperado(recorrido = true)
     List<Contacto> findByEmailContainingIgnoreCase(String email);
     
-    List<Contacto> findByCategoriaNombre(String categoria);
+    @PlanEsperado(indices = {"IDX_CONTACTOS_CATEGORIA", "FK_CONTACTOS_CATEGORIA"})
+    @Query("SELECT c FROM Contacto c WHERE " + DE_CATEGORIA)
+    List<Contacto> findByCategoriaNombre(@Param("categoria") String categoria);
     
+    @PlanEsperado(indices = "IDX_CONTACTOS_FAVORITO")
     List<Contacto> findByFavorito(boolean favorito);
     
+    @PlanEsperado(recorrido = true)
     @Query("SELECT c FROM Contacto c WHERE LOWER(c.nombre) LIKE LOWER(CONCAT('%', :termino, '%')) OR " +
            "LOWER(c.apellido) LIKE LOWER(CONCAT('%', :termino, '%')) OR " +
            "c.telefono LIKE CONCAT('%', :termino, '%') OR " +
            "LOWER(c.email) LIKE LOWER(CONCAT('%', :termino, '%'))")
     List<Contacto> buscarPorTermino(@Param("termino") String termino);
-}
\ No newline at end of file
+    
+    // Consultas agregadas para estadísticas
+    @PlanEsperado(indices = "IDX_CONTACTOS_FAVORITO")
+    long countByFavorito(boolean favorito);
+    
+    // Todos los contadores de las estadísticas en una sentencia, para que salgan de la misma foto de los datos:
+    // por categoría, total, favoritos, con email y con teléfono
+    @PlanEsperado(recorrido = true)
+    @Query("SELECT cat.nombre, COUNT(c), " +
+           "SUM(CASE WHEN c.favorito = true THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN c.email IS NOT NULL AND c.email <> '' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN c.telefono IS NOT NULL AND c.telefono <> '' THEN 1 ELSE 0 END) " +
+           "FROM Contacto c LEFT JOIN c.categoria cat GROUP BY cat.nombre")
+    List<Object[]> contarEstadisticas();
+    
+    @PlanEsperado(indices = "IDX_CONTACTOS_FECHA_CREACION", maximoFilas = 100)
+    @Query(SELECT_RESPONSE + " ORDER BY c.fechaCreacion DESC, c.id DESC")
+    List<ContactoResponse> findRecientes(Pageable pageable);
+    
+    // Lecturas proyectadas a ContactoResponse
+    @PlanEsperado(recorrido = true, maximoFilas = 200)
+    @Query(value = SELECT_RESPONSE, countQuery = "SELECT COUNT(c) FROM Contacto c")
+    Page<ContactoResponse> findAllResponses(Pageable pageable);
+    
+    @PlanEsperado(indices = "PRIMARY_KEY", maximoFilas = 5)
+    @Query(SELECT_RESPONSE + " WHERE c.id = :id")
+    Optional<ContactoResponse> findResponseById(@Param("id") Long id);
+    
+    // Teléfonos normalizados: el rango [desde, hasta) equivale a "empieza por" y siempre se resuelve con el índice
+    @PlanEsperado(indices = "IDX_CONTACTOS_TELEFONO_NORMALIZADO", maximoFilas = 200)
+    @Query(SELECT_RESPONSE + " WHERE c.telefonoNormalizado = :digitos ORDER BY c.id")
+    List<ContactoResponse> findResponsesByTelefonoNormalizado(@Param("digitos") String digitos, Pageable pageable);
+    
+    @PlanEsperado(indices = "IDX_CONTACTOS_TELEFONO_NORMALIZADO")
+    @Query(SELECT_RESPONSE + " WHERE c.telefonoNormalizado >= :desde AND c.telefonoNormalizado < :hasta ORDER BY c.id")
+    List<ContactoResponse> findResponsesByTelefonoNormalizadoEntre(@Param("desde") String desde,
+                                                                   @Param("hasta") String hasta, Pageable pageable);
+    
+    @PlanEsperado(indices = "IDX_CONTACTOS_TELEFONO_INVERTIDO")
+    @Query(SELECT_RESPONSE + " WHERE c.telefonoInvertido >= :desde AND c.telefonoInvertido < :hasta ORDER BY c.id")
+    List<ContactoResponse> findResponsesByTelefonoInvertidoEntre(@Param("desde") String desde,
+                                                                 @Param("hasta") String hasta, Pageable pageable);
+    
+    // Operaciones masivas: sentencias por conjunto que no pasan por el contexto de persistencia
+    // Una consulta por combinación de filtros: con (:x IS NULL OR ...) ningún índice sirve
+    @PlanEsperado(indices = {"IDX_CONTACTOS_CATEGORIA", "FK_CONTACTOS_CATEGORIA"})
+    @Query("SELECT c.id FROM Contacto c WHERE c.categoria.id = :categoriaId ORDER BY c.id")
+    List<Long> findIdsPorCategoria(@Param("categoriaId") Long categoriaId);
+    
+    @PlanEsperado(indices = "IDX_CONTACTOS_FAVORITO")
+    @Query("SELECT c.id FROM Contacto c WHERE c.favorito = :favorito ORDER BY c.id")
+    List<Long> findIdsPorFavorito(@Param("favorito") boolean favorito);
+    
+    @PlanEsperado(indices = {"IDX_CONTACTOS_CATEGORIA", "FK_CONTACTOS_CATEGORIA", "IDX_CONTACTOS_FAVORITO"})
+    @Query("SELECT c.id FROM Contacto c WHERE c.categoria.id = :categoriaId AND c.favorito = :favorito ORDER BY c.id")
+    List<Long> findIdsPorCategoriaYFavorito(@Param("categoriaId") Long categoriaId,
+                                            @Param("favorito") boolean favorito);
+    
+    @PlanEsperado(indices = "PRIMARY_KEY")
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Contacto c SET c.favorito = :favorito, c.fechaActualizacion = :ahora, " +
+           "c.version = c.version + 1, c.secuenciaCambio = :secuencia WHERE c.id IN :ids AND c.favorito <> :favorito")
+    int actualizarFavorito(@Param("ids") Collection<Long> ids, @Param("favorito") boolean favorito,
+                           @Param("ahora") LocalDateTime ahora, @Param("secuencia") long secuencia);
+    
+    @PlanEsperado(indices = "PRIMARY_KEY")
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Contacto c SET c.categoria = :categoria, c.fechaActualizacion = :ahora, " +
+           "c.version = c.version + 1, c.secuenciaCambio = :secuencia WHERE c.id IN :ids")
+    int actualizarCategoria(@Param("ids") Collection<Long> ids, @Param("categoria") Categoria categoria,
+                            @Param("ahora") LocalDateTime ahora, @Param("secuencia") long secuencia);
+    
+    @PlanEsperado(indices = "PRIMARY_KEY")
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Contacto c SET c.categoria = NULL, c.fechaActualizacion = :ahora, " +
+           "c.version = c.version + 1, c.secuenciaCambio = :secuencia WHERE c.id IN :ids")
+    int quitarCategoria(@Param("ids") Collection<Long> ids, @Param("ahora") LocalDateTime ahora,
+                        @Param("secuencia") long secuencia);
+    
+    // Al renombrar una categoría cambia la representación de sus contactos, aunque no sus filas
+    @PlanEsperado(indices = {"IDX_CONTACTOS_CATEGORIA", "FK_CONTACTOS_CATEGORIA"})
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Contacto c SET c.secuenciaCambio = :secuencia WHERE c.categoria.id = :categoriaId")
+    int marcarCambioPorCategoria(@Param("categoriaId") Long categoriaId, @Param("secuencia") long secuencia);
+    
+    // Claves (secuencia, id) de los contactos cambiados después de (secuencia, id), en dos tramos: el resto de la
+    // secuencia del cursor y las secuencias desde..hasta. Con un OR en una sola consulta el índice solo acota por
+    // arriba y cada página recorrería todo lo anterior (todos los contactos sin cambios comparten la secuencia 0);
+    // por lo mismo el segundo tramo empieza en desde = secuencia + 1 y no en secuencia > :secuencia
+    @PlanEsperado(indices = "IDX_CONTACTOS_SECUENCIA_CAMBIO", maximoFilas = 60)
+    @Query("SELECT c.secuenciaCambio, c.id FROM Contacto c WHERE c.secuenciaCambio = :secuencia " +
+           "AND c.id > :despuesDe ORDER BY c.secuenciaCambio, c.id")
+    List<Object[]> findClavesCambiosEnSecuencia(@Param("secuencia") long secuencia, @Param("despuesDe") long despuesDe,
+                                                Pageable limite);
+    
+    @PlanEsperado(indices = "IDX_CONTACTOS_SECUENCIA_CAMBIO", maximoFilas = 60)
+    @Query("SELECT c.secuenciaCambio, c.id FROM Contacto c WHERE c.secuenciaCambio >= :desde " +
+           "AND c.secuenciaCambio <= :hasta ORDER BY c.secuenciaCambio, c.id")
+    List<Object[]> findClavesCambios(@Param("desde") long desde, @Param("hasta") long hasta, Pageable limite);
+    
+    @PlanEsperado(indices = "IDX_CONTACTOS_SECUENCIA_CAMBIO")
+    @Query("SELECT COALESCE(MAX(c.secuenciaCambio), 0) FROM Contacto c")
+    long findMaxSecuenciaCambio();
+    
+    @PlanEsperado(indices = "PRIMARY_KEY")
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Contacto c WHERE c.id IN :ids")
+    int eliminarPorIds(@Param("ids") Collection<Long> ids);
+    
+    // Basta para validar un If-None-Match o un If-Match sin cargar el contacto
+    @PlanEsperado(indices = "PRIMARY_KEY", maximoFilas = 5)
+    @Query("SELECT c.version FROM Contacto c WHERE c.id = :id")
+    List<Long> findVersionById(@Param("id") Long id);
+    
+    @PlanEsperado(recorrido = true)
+    @Query(SELECT_RESPONSE + " WHERE LOWER(c.nombre) LIKE LOWER(CONCAT('%', :nombre, '%'))")
+    List<ContactoResponse> findResponsesByNombre(@Param("nombre") String nombre);
+    
+    @PlanEsperado(indices = "PRIMARY_KEY", maximoFilas = 50)
+    @Query(SELECT_RESPONSE + " WHERE c.id IN :ids")
+    List<ContactoResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @PlanEsperado(indices = {"IDX_CONTACTOS_CATEGORIA", "FK_CONTACTOS_CATEGORIA"})
+    @Query(SELECT_RESPONSE + " WHERE " + DE_CATEGORIA + " ORDER BY c.categoria.id, c.id")
+    List<ContactoResponse> findResponsesByCategoriaNombre(@Param("categoria") String categoria);
+    
+    @PlanEsperado(indices = "IDX_CONTACTOS_FAVORITO")
+    @Query(SELECT_RESPONSE + " WHERE c.favorito = :favorito ORDER BY c.favorito, c.id")
+    List<ContactoResponse> findResponsesByFavorito(@Param("favorito") boolean favorito);
+    
+    // Cumpleaños entre dos claves MMDD de dia_cumpleanos; un periodo que pasa por el 31 de diciembre son dos llamadas
+    @PlanEsperado(indices = "IDX_CONTACTOS_DIA_CUMPLEANOS", maximoFilas = 2500)
+    @Query(SELECT_RESPONSE + " WHERE c.diaCumpleanos BETWEEN :desde AND :hasta ORDER BY c.diaCumpleanos, c.id")
+    List<ContactoResponse> findResponsesPorCumpleanos(@Param("desde") int desde, @Param("hasta") int hasta);
+    
+    // Paginación por clave (keyset): la página N cuesta lo mismo que la primera. El límite inferior redundante
+    // (nombre >= :nombre) es el que acota el índice; con un filtro de igualdad, el orden empieza por esa columna
+    // para que el índice ya lo dé ordenado
+    @PlanEsperado(indices = "PRIMARY_KEY", maximoFilas = 200)
+    @Query(SELECT_RESPONSE + " WHERE c.id > :despuesDe ORDER BY c.id")
+    List<ContactoResponse> findResponsesDespuesDe(@Param("despuesDe") long despuesDe, Pageable limite);
+    
+    // Dentro de un mismo nombre se recorren las filas anteriores al cursor: pocos cientos con los datos generados
+    @PlanEsperado(indices = "IDX_CONTACTOS_NOMBRE", maximoFilas = 1500)
+    @Query(SELECT_RESPONSE + " WHERE c.nombre >= :nombre AND (c.nombre > :nombre OR c.id > :despuesDe) " +
+           "ORDER BY c.nombre, c.id")
+    List<ContactoResponse> findResponsesPorNombreDespuesDe(@Param("nombre") String nombre,
+                                                           @Param("despuesDe") long despuesDe,
+                                                           Pageable limite);
+    
+    @PlanEsperado(indices = {"IDX_CONTACTOS_CATEGORIA", "FK_CONTACTOS_CATEGORIA"}, maximoFilas = 200)
+    @Query(SELECT_RESPONSE + " WHERE " + DE_CATEGORIA + " AND c.id > :despuesDe ORDER BY c.categoria.id, c.id")
+    List<ContactoResponse> findResponsesByCategoriaNombreDespuesDe(@Param("categoria") String categoria,
+                                                                   @Param("despuesDe") long despuesDe,
+                                                                   Pageable limite);
+    
+    @PlanEsperado(indices = "IDX_CONTACTOS_FAVORITO", maximoFilas = 200)
+    @Query(SELECT_RESPONSE + " WHERE c.favorito = :favorito AND c.id > :despuesDe ORDER BY c.favorito, c.id")
+    List<ContactoResponse> findResponsesByFavoritoDespuesDe(@Param("favorito") boolean favorito,
+                                                            @Param("despuesDe") long despuesDe,
+                                                            Pageable limite);
+    
+    @PlanEsperado(indices = {"IDX_CONTACTOS_CATEGORIA", "FK_CONTACTOS_CATEGORIA"})
+    @Query("SELECT COUNT(c) FROM Contacto c WHERE " + DE_CATEGORIA)
+    long countByCategoriaNombre(@Param("categoria") String categoria);
+    
+    // Recorrido completo con cursor JDBC para exportaciones (requiere transacción abierta)
+    @PlanEsperado(recorrido = true)
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+        @QueryHint(name = "org.hibernate.cacheable", value = "false")
+    })
+    @Query(SELECT_RESPONSE + " ORDER BY c.id")
+    Stream<ContactoResponse> streamAllResponses();
+}
@@ -0,0 +1,44 @@
+package com.ejemplo.agenda.repository;
+
+import com.ejemplo.agenda.model.Contacto;
+import com.ejemplo.agenda.model.dto.ContactoCampos;
+import com.ejemplo.agenda.model.enums.CampoContacto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface ContactoRepositoryCustom {
+    
+    /**
+     * Proyección a los campos pedidos: solo se seleccionan esas columnas y solo se une con categorías si
+     * se pide {@code categoria} o el filtro la necesita. El orden y el límite salen de {@code pageable}.
+     */
+    @PlanEsperado(caso = "pagina", recorrido = true, maximoFilas = 200)
+    @PlanEsperado(caso = "id", indices = "PRIMARY_KEY", maximoFilas = 5)
+    @PlanEsperado(caso = "ids", indices = "PRIMARY_KEY", maximoFilas = 50)
+    @PlanEsperado(caso = "telefono", indices = "IDX_CONTACTOS_TELEFONO_NORMALIZADO", maximoFilas = 200)
+    @PlanEsperado(caso = "prefijo", indices = "IDX_CONTACTOS_TELEFONO_NORMALIZADO")
+    @PlanEsperado(caso = "sufijo", indices = "IDX_CONTACTOS_TELEFONO_INVERTIDO")
+    @PlanEsperado(caso = "despues-de", indices = "PRIMARY_KEY", maximoFilas = 200)
+    @PlanEsperado(caso = "nombre-despues-de", indices = "IDX_CONTACTOS_NOMBRE", maximoFilas = 1500)
+    @PlanEsperado(caso = "categoria", indices = {"IDX_CONTACTOS_CATEGORIA", "FK_CONTACTOS_CATEGORIA"})
+    @PlanEsperado(caso = "categoria-despues-de", indices = {"IDX_CONTACTOS_CATEGORIA", "FK_CONTACTOS_CATEGORIA"},
+                  maximoFilas = 200)
+    @PlanEsperado(caso = "favorito", indices = "IDX_CONTACTOS_FAVORITO")
+    @PlanEsperado(caso = "favorito-despues-de", indices = "IDX_CONTACTOS_FAVORITO", maximoFilas = 200)
+    List<ContactoCampos> findCampos(Set<CampoContacto> campos, Specification<Contacto> filtro, Pageable pageable);
+    
+    /**
+     * Un único UPDATE de los atributos indicados, sin cargar el contacto. Fija {@code fechaActualizacion} y
+     * {@code secuenciaCambio} e incrementa la versión. Con {@code versionEsperada} solo actualiza la fila si la
+     * versión coincide; con {@code soloSiCambia}, solo si algún valor (ninguno nulo) es distinto del actual.
+     * Devuelve las filas afectadas.
+     */
+    @PlanEsperado(indices = "PRIMARY_KEY")
+    int actualizarCampos(Long id, Map<String, Object> valores, Long versionEsperada, boolean soloSiCambia,
+                         LocalDateTime ahora, long secuencia);
+}
@@ -0,0 +1,109 @@
+package com.ejemplo.agenda.repository;
+
+import com.ejemplo.agenda.model.Contacto;
+import com.ejemplo.agenda.model.dto.ContactoCampos;
+import com.ejemplo.agenda.model.enums.CampoContacto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+class ContactoRepositoryImpl implements ContactoRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<ContactoCampos> findCampos(Set<CampoContacto> campos, Specification<Contacto> filtro, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> consulta = cb.createTupleQuery();
+        Root<Contacto> contacto = consulta.from(Contacto.class);
+        
+        List<CampoContacto> orden = List.copyOf(campos);
+        List<Selection<?>> columnas = new ArrayList<>(orden.size());
+        for (CampoContacto campo : orden) {
+            columnas.add(campo == CampoContacto.CATEGORIA
+                    ? ContactoEspecificaciones.categoria(contacto).get("nombre")
+                    : contacto.get(campo.getNombre()));
+        }
+        consulta.multiselect(columnas);
+        if (filtro != null) {
+            consulta.where(filtro.toPredicate(contacto, consulta, cb));
+        }
+        consulta.orderBy(QueryUtils.toOrders(pageable.getSort(), contacto, cb));
+        
+        TypedQuery<Tuple> query = entityManager.createQuery(consulta);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList().stream()
+                .map(fila -> new ContactoCampos(orden, fila))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public int actualizarCampos(Long id, Map<String, Object> valores, Long versionEsperada, boolean soloSiCambia,
+                                LocalDateTime ahora, long secuencia) {
+        // Los nombres de atributo los fija el servicio; los valores siempre van como parámetros
+        StringBuilder jpql = new StringBuilder("UPDATE Contacto c SET ");
+        StringJoiner distintos = new StringJoiner(" OR ", " AND (", ")");
+        int n = 0;
+        for (Map.Entry<String, Object> valor : valores.entrySet()) {
+            if (valor.getValue() == null) {
+                if (soloSiCambia) {
+                    throw new IllegalArgumentException("soloSiCambia no admite valores nulos: " + valor.getKey());
+                }
+                jpql.append("c.").append(valor.getKey()).append(" = NULL, ");
+            } else {
+                jpql.append("c.").append(valor.getKey()).append(" = :v").append(n).append(", ");
+                distintos.add("c." + valor.getKey() + " <> :v" + n);
+            }
+            n++;
+        }
+        jpql.append("c.fechaActualizacion = :ahora, c.version = c.version + 1, c.secuenciaCambio = :secuencia "
+                + "WHERE c.id = :id");
+        if (versionEsperada != null) {
+            jpql.append(" AND c.version = :version");
+        }
+        if (soloSiCambia) {
+            jpql.append(distintos);
+        }
+        
+        // Igual que @Modifying(flushAutomatically = true, clearAutomatically = true)
+        entityManager.flush();
+        Query update = entityManager.createQuery(jpql.toString());
+        n = 0;
+        for (Object valor : valores.values()) {
+            if (valor != null) {
+                update.setParameter("v" + n, valor);
+            }
+            n++;
+        }
+        update.setParameter("ahora", ahora);
+        update.setParameter("secuencia", secuencia);
+        update.setParameter("id", id);
+        if (versionEsperada != null) {
+            update.setParameter("version", versionEsperada);
+        }
+        int filas = update.executeUpdate();
+        entityManager.clear();
+        return filas;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ejemplo.agenda.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Plan de ejecución que se espera de una consulta de repositorio sobre {@code contactos} y
+ * {@code contactos_eliminados}. El comando {@code planes} de la herramienta de carga (README-Carga.md) ejecuta cada
+ * consulta sobre una base de datos H2 poblada, le pasa {@code EXPLAIN ANALYZE} y falla si el acceso no coincide;
+ * los pipelines de CI lo ejecutan en la etapa de tests.
+ *
+ * <p>Un método cuyo SQL depende de los argumentos (por ejemplo, de una {@code Specification}) declara un plan por
+ * {@link #caso()}.</p>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(PlanEsperado.Lista.class)
+public @interface PlanEsperado {
+    
+    String caso() default "";
+    
+    // Índices admitidos; PRIMARY_KEY es la clave primaria. Cualquier otro acceso a esas tablas es una regresión
+    String[] indices() default {};
+    
+    // Recorrido completo aceptado: LIKE '%...%', agregados sobre toda la tabla o exportación
+    boolean recorrido() default false;
+    
+    // Filas leídas como máximo (scanCount) con los datos de la verificación; -1 sin comprobar
+    long maximoFilas() default -1;
+    
+    @Documented
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Lista {
+        PlanEsperado[] value();
+    }
+}
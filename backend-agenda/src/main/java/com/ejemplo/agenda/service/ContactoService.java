@@ -1,21 +1,55 @@
 package com.ejemplo.agenda.service;
 
 import com.ejemplo.agenda.model.Contacto;
+import com.ejemplo.agenda.model.dto.CambiosContactos;
+import com.ejemplo.agenda.model.dto.ContactoCampos;
 import com.ejemplo.agenda.model.dto.ContactoRequest;
 import com.ejemplo.agenda.model.dto.ContactoResponse;
+import com.ejemplo.agenda.model.dto.PaginaCursor;
+import com.ejemplo.agenda.model.enums.CampoContacto;
+import com.ejemplo.agenda.model.enums.CoincidenciaTelefono;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface ContactoService {
     Page<ContactoResponse> obtenerTodosContactos(int pagina, int tamaño);
     ContactoResponse obtenerContactoPorId(Long id);
+    String obtenerEtagContacto(Long id);
     ContactoResponse crearContacto(ContactoRequest contactoRequest);
     ContactoResponse actualizarContacto(Long id, ContactoRequest contactoRequest);
     void eliminarContacto(Long id);
     List<ContactoResponse> buscarPorNombre(String nombre);
-    List<ContactoResponse> buscarPorTermino(String termino);
+    List<ContactoResponse> buscarPorTermino(String termino, int pagina, int tamaño);
     List<ContactoResponse> obtenerContactosPorCategoria(String categoria);
     List<ContactoResponse> obtenerContactosFavoritos();
     ContactoResponse toggleFavorito(Long id, boolean favorito);
+    List<ContactoResponse> obtenerContactosRecientes(int limite);
+    List<ContactoResponse> buscarPorTelefono(String telefono, CoincidenciaTelefono coincidencia, int limite);
+    
+    // JSON Merge Patch en un solo UPDATE; devuelve el ETag resultante si se conoce sin consultarlo (con If-Match)
+    String parchearContacto(Long id, Map<String, Object> parche, String ifMatch);
+    
+    // Paginación por cursor
+    PaginaCursor<ContactoResponse> obtenerContactosDespuesDe(String after, int tamaño, String orden, boolean contar);
+    PaginaCursor<ContactoResponse> buscarPorTerminoDespuesDe(String termino, String after, int tamaño);
+    PaginaCursor<ContactoResponse> obtenerContactosPorCategoriaDespuesDe(String categoria, String after, int tamaño, boolean contar);
+    PaginaCursor<ContactoResponse> obtenerContactosFavoritosDespuesDe(String after, int tamaño, boolean contar);
+    
+    // Sincronización incremental: contactos cambiados y eliminados después del token desde
+    CambiosContactos obtenerCambios(String desde, int tamaño);
+    
+    // Las mismas lecturas proyectadas a los campos pedidos (fields=)
+    Page<ContactoCampos> obtenerTodosContactos(int pagina, int tamaño, Set<CampoContacto> campos);
+    ContactoCampos obtenerContactoPorId(Long id, Set<CampoContacto> campos);
+    List<ContactoCampos> buscarPorTermino(String termino, int pagina, int tamaño, Set<CampoContacto> campos);
+    List<ContactoCampos> obtenerContactosPorCategoria(String categoria, Set<CampoContacto> campos);
+    List<ContactoCampos> obtenerContactosFavoritos(Set<CampoContacto> campos);
+    List<ContactoCampos> buscarPorTelefono(String telefono, CoincidenciaTelefono coincidencia, int limite, Set<CampoContacto> campos);
+    PaginaCursor<ContactoCampos> obtenerContactosDespuesDe(String after, int tamaño, String orden, boolean contar, Set<CampoContacto> campos);
+    PaginaCursor<ContactoCampos> buscarPorTerminoDespuesDe(String termino, String after, int tamaño, Set<CampoContacto> campos);
+    PaginaCursor<ContactoCampos> obtenerContactosPorCategoriaDespuesDe(String categoria, String after, int tamaño, boolean contar, Set<CampoContacto> campos);
+    PaginaCursor<ContactoCampos> obtenerContactosFavoritosDespuesDe(String after, int tamaño, boolean contar, Set<CampoContacto> campos);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.ejemplo.agenda.service;
+
+import com.ejemplo.agenda.model.dto.Cumpleanos;
+
+import java.util.List;
+
+public interface CumpleanosService {
+    List<Cumpleanos> obtenerProximos(int dias);
+}
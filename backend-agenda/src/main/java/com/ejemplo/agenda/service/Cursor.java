@@ -0,0 +1,49 @@
+package com.ejemplo.agenda.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición opaca de paginación por clave: valor de la clave de ordenación más el id
+ * del último elemento devuelto. El cliente solo ve el token codificado.
+ */
+public final class Cursor {
+    private static final char SEPARADOR = '\u001f';
+    
+    private final String clave;
+    private final long id;
+    
+    public Cursor(String clave, long id) {
+        this.clave = clave != null ? clave : "";
+        this.id = id;
+    }
+    
+    /**
+     * Decodifica un token; un token vacío o nulo representa el inicio de la colección.
+     */
+    public static Cursor decodificar(String token) {
+        if (token == null || token.isBlank()) {
+            return new Cursor("", 0L);
+        }
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = texto.lastIndexOf(SEPARADOR);
+            return new Cursor(texto.substring(0, separador), Long.parseLong(texto.substring(separador + 1)));
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor de paginación no válido: " + token, e);
+        }
+    }
+    
+    public String codificar() {
+        String texto = clave + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public String getClave() {
+        return clave;
+    }
+    
+    public long getId() {
+        return id;
+    }
+}
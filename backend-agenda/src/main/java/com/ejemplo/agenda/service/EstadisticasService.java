@@ -0,0 +1,12 @@
+package com.ejemplo.agenda.service;
+
+import java.util.Map;
+
+public interface EstadisticasService {
+    Map<String, Object> obtenerContadores();
+    void registrarAlta(HuellaContacto huella);
+    void registrarBaja(HuellaContacto huella);
+    void registrarCambio(HuellaContacto antes, HuellaContacto despues);
+    void registrarFavorito(boolean favorito);
+    void invalidar();
+}
@@ -0,0 +1,10 @@
+package com.ejemplo.agenda.service;
+
+import com.ejemplo.agenda.model.enums.FormatoContactos;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportacionService {
+    long exportarContactos(FormatoContactos formato, OutputStream salida) throws IOException;
+}
@@ -0,0 +1,56 @@
+package com.ejemplo.agenda.service;
+
+import com.ejemplo.agenda.model.Contacto;
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+
+/**
+ * Resumen inmutable de los atributos de un contacto que afectan a las estadísticas.
+ * Se captura antes de modificar la entidad para poder calcular el delta de los contadores.
+ */
+public final class HuellaContacto {
+    public static final String SIN_CATEGORIA = "Sin categoría";
+    
+    private final boolean favorito;
+    private final boolean conEmail;
+    private final boolean conTelefono;
+    private final String categoria;
+    
+    private HuellaContacto(boolean favorito, boolean conEmail, boolean conTelefono, String categoria) {
+        this.favorito = favorito;
+        this.conEmail = conEmail;
+        this.conTelefono = conTelefono;
+        this.categoria = categoria;
+    }
+    
+    public static HuellaContacto de(Contacto contacto) {
+        return new HuellaContacto(
+                contacto.isFavorito(),
+                contacto.getEmail() != null && !contacto.getEmail().isEmpty(),
+                contacto.getTelefono() != null && !contacto.getTelefono().isEmpty(),
+                contacto.getCategoria() != null ? contacto.getCategoria().getNombre() : SIN_CATEGORIA);
+    }
+    
+    public static HuellaContacto de(ContactoResponse contacto) {
+        return new HuellaContacto(
+                contacto.isFavorito(),
+                contacto.getEmail() != null && !contacto.getEmail().isEmpty(),
+                contacto.getTelefono() != null && !contacto.getTelefono().isEmpty(),
+                contacto.getCategoria() != null ? contacto.getCategoria() : SIN_CATEGORIA);
+    }
+    
+    public boolean isFavorito() {
+        return favorito;
+    }
+    
+    public boolean isConEmail() {
+        return conEmail;
+    }
+    
+    public boolean isConTelefono() {
+        return conTelefono;
+    }
+    
+    public String getCategoria() {
+        return categoria;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ejemplo.agenda.service;
+
+import com.ejemplo.agenda.model.dto.ResultadoImportacion;
+import com.ejemplo.agenda.model.enums.FormatoContactos;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImportacionService {
+    ResultadoImportacion importarContactos(InputStream entrada, FormatoContactos formato) throws IOException;
+}
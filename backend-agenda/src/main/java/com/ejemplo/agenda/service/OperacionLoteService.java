@@ -0,0 +1,10 @@
+package com.ejemplo.agenda.service;
+
+import com.ejemplo.agenda.model.dto.OperacionLoteRequest;
+import com.ejemplo.agenda.model.dto.ResultadoLote;
+
+public interface OperacionLoteService {
+    ResultadoLote marcarFavoritos(OperacionLoteRequest request);
+    ResultadoLote moverACategoria(OperacionLoteRequest request);
+    ResultadoLote eliminarContactos(OperacionLoteRequest request);
+}
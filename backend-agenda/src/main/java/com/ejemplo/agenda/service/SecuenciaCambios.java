@@ -0,0 +1,100 @@
+package com.ejemplo.agenda.service;
+
+import com.ejemplo.agenda.repository.ContactoEliminadoRepository;
+import com.ejemplo.agenda.repository.ContactoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.TreeSet;
+
+/**
+ * Secuencia de cambios de contactos para la sincronización incremental ({@code GET /api/contactos/cambios}).
+ *
+ * <p>Cada escritura toma un valor con {@link #asignar()} y lo guarda en {@code secuencia_cambio} de las filas que
+ * modifica, o en {@code contactos_eliminados} si las borra. Los valores se reparten en orden, pero las transacciones
+ * pueden confirmarse en otro: una lectura podría ver el cambio 11 antes de que se confirme el 10. Por eso se lleva
+ * la cuenta de los valores aún sin confirmar y las consultas no pasan de {@link #estable()}, el último valor sin
+ * ningún cambio pendiente por detrás.</p>
+ *
+ * <p>Las transacciones R2DBC del modo reactivo no usan la sincronización de Spring: toman el valor con
+ * {@link #reservar()} y lo devuelven con {@link #liberar(long)} cuando terminan.</p>
+ *
+ * <p>Como los contadores de {@link VersionesDatos}, esa cuenta es local a la instancia. Al arrancar continúa desde
+ * el mayor valor guardado, que se lee durante el arranque para no cargárselo a la primera escritura.</p>
+ */
+@Component
+public class SecuenciaCambios implements ApplicationRunner {
+    
+    @Autowired
+    private ContactoRepository contactoRepository;
+    
+    @Autowired
+    private ContactoEliminadoRepository contactoEliminadoRepository;
+    
+    // Valores asignados cuya transacción no ha terminado; ultima == -1 hasta leerla de la base de datos
+    private final TreeSet<Long> enCurso = new TreeSet<>();
+    private long ultima = -1;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        estable();
+    }
+    
+    /**
+     * Siguiente valor para los cambios de la transacción en curso. Cuenta como pendiente hasta que la
+     * transacción termina, se confirme o se deshaga.
+     */
+    public long asignar() {
+        long valor = reservar();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            terminar(valor);
+            return valor;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int estado) {
+                terminar(valor);
+            }
+        });
+        return valor;
+    }
+    
+    /**
+     * Siguiente valor, pendiente hasta que se llame a {@link #liberar(long)} al terminar la transacción que lo usa.
+     */
+    public synchronized long reservar() {
+        if (ultima < 0) {
+            ultima = valorGuardado();
+        }
+        long valor = ++ultima;
+        enCurso.add(valor);
+        return valor;
+    }
+    
+    public void liberar(long valor) {
+        terminar(valor);
+    }
+    
+    /**
+     * Mayor valor tal que todos los anteriores y él mismo están confirmados o descartados.
+     */
+    public synchronized long estable() {
+        if (ultima < 0) {
+            ultima = valorGuardado();
+        }
+        return enCurso.isEmpty() ? ultima : enCurso.first() - 1;
+    }
+    
+    private synchronized void terminar(long valor) {
+        enCurso.remove(valor);
+    }
+    
+    private long valorGuardado() {
+        return Math.max(contactoRepository.findMaxSecuenciaCambio(),
+                contactoEliminadoRepository.findMaxSecuenciaCambio());
+    }
+}
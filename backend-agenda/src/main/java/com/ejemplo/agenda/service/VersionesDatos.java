@@ -0,0 +1,90 @@
+package com.ejemplo.agenda.service;
+
+import com.ejemplo.agenda.datos.LecturaPropia;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de versión por tabla. Los servicios los incrementan tras confirmar cada escritura
+ * y a partir de ellos se derivan los ETag de los listados, sin consultar la base de datos.
+ *
+ * <p>La época (instante de arranque) forma parte del ETag para que un reinicio nunca reutilice
+ * una versión antigua. Los contadores son locales a la instancia.</p>
+ */
+@Component
+public class VersionesDatos {
+    
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong contactos = new AtomicLong();
+    private final AtomicLong categorias = new AtomicLong();
+    
+    // Solo existe con réplicas de lectura configuradas (DatosConfig)
+    @Autowired(required = false)
+    private LecturaPropia lecturaPropia;
+    
+    public void contactosModificados() {
+        contactos.incrementAndGet();
+        escrituraConfirmada();
+    }
+    
+    public void categoriasModificadas() {
+        categorias.incrementAndGet();
+        escrituraConfirmada();
+    }
+    
+    /**
+     * ETag de los recursos de contactos: incluyen el nombre de la categoría, así que dependen de ambas tablas.
+     */
+    public String etagContactos() {
+        return "\"" + epoca + "-" + contactos.get() + "-" + categorias.get() + "\"";
+    }
+    
+    /**
+     * Versión conjunta de ambas tablas: cambia con cualquier escritura confirmada desde el arranque.
+     */
+    public String versionDatos() {
+        return contactos.get() + "-" + categorias.get();
+    }
+    
+    public String etagCategorias() {
+        return "\"" + epoca + "-k" + categorias.get() + "\"";
+    }
+    
+    /**
+     * ETag de un contacto: su columna de versión y, por el nombre de la categoría, el contador de categorías.
+     */
+    public String etagContacto(Long id, long version) {
+        return "\"" + id + "-" + Long.toString(version, 36) + "-" + categorias.get() + "\"";
+    }
+    
+    /**
+     * Versión del contacto contenida en un ETag de {@link #etagContacto}, o {@code null} si el ETag no es de
+     * ese contacto. Para un If-Match solo cuenta la versión: renombrar una categoría no invalida el ETag.
+     */
+    public Long versionDeEtag(Long id, String etag) {
+        String valor = etag.trim();
+        if (valor.startsWith("W/")) {
+            valor = valor.substring(2);
+        }
+        if (valor.length() < 2 || valor.charAt(0) != '"' || valor.charAt(valor.length() - 1) != '"') {
+            return null;
+        }
+        String[] partes = valor.substring(1, valor.length() - 1).split("-");
+        if (partes.length != 3 || !partes[0].equals(String.valueOf(id))) {
+            return null;
+        }
+        try {
+            return Long.parseLong(partes[1], 36);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private void escrituraConfirmada() {
+        if (lecturaPropia != null) {
+            lecturaPropia.registrarEscritura();
+        }
+    }
+}
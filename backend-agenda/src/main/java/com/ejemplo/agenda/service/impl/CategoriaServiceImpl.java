@@ -1,9 +1,20 @@
 package com.ejemplo.agenda.service.impl;
 
+import com.ejemplo.agenda.agrupacion.LecturaAgrupada;
+import com.ejemplo.agenda.config.CacheConfig;
+import com.ejemplo.agenda.eventos.CanalCambios;
 import com.ejemplo.agenda.model.Categoria;
+import com.ejemplo.agenda.model.dto.EventoCambio;
+import com.ejemplo.agenda.model.enums.TipoCambio;
 import com.ejemplo.agenda.repository.CategoriaRepository;
+import com.ejemplo.agenda.repository.ContactoRepository;
 import com.ejemplo.agenda.service.CategoriaService;
+import com.ejemplo.agenda.service.EstadisticasService;
+import com.ejemplo.agenda.service.SecuenciaCambios;
+import com.ejemplo.agenda.service.VersionesDatos;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,31 +29,62 @@ public class CategoriaServiceImpl implements CategoriaService {
     @Autowired
     private CategoriaRepository categoriaRepository;
     
+    @Autowired
+    private ContactoRepository contactoRepository;
+    
+    @Autowired
+    private EstadisticasService estadisticasService;
+    
+    @Autowired
+    private VersionesDatos versionesDatos;
+    
+    @Autowired
+    private SecuenciaCambios secuenciaCambios;
+    
+    @Autowired
+    private CanalCambios canalCambios;
+    
+    // Las lecturas cacheadas van a la primaria: una réplica atrasada dejaría en caché datos viejos más allá
+    // de la ventana de lectura propia
     @Override
+    @LecturaAgrupada
+    @Cacheable(cacheNames = CacheConfig.CATEGORIAS, key = "'todas'")
     public List<Categoria> obtenerTodasLasCategorias() {
-        return categoriaRepository.findAll();
+        return categoriaRepository.findAllOrderByNombre();
     }
     
     @Override
+    @LecturaAgrupada
+    @Cacheable(CacheConfig.CATEGORIA_POR_ID)
     public Optional<Categoria> obtenerCategoriaPorId(Long id) {
         return categoriaRepository.findById(id);
     }
     
     @Override
+    @LecturaAgrupada
+    @Cacheable(CacheConfig.CATEGORIA_POR_NOMBRE)
     public Categoria obtenerCategoriaPorNombre(String nombre) {
         return categoriaRepository.findByNombre(nombre)
                 .orElseThrow(() -> new EntityNotFoundException("Categoría no encontrada: " + nombre));
     }
     
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.CATEGORIAS, CacheConfig.CATEGORIA_POR_ID,
+            CacheConfig.CATEGORIA_POR_NOMBRE, CacheConfig.CATEGORIA_EXISTE}, allEntries = true)
     public Categoria crearCategoria(Categoria categoria) {
         if (existeCategoriaPorNombre(categoria.getNombre())) {
             throw new IllegalArgumentException("Ya existe una categoría con el nombre: " + categoria.getNombre());
         }
-        return categoriaRepository.save(categoria);
+        Categoria nuevaCategoria = categoriaRepository.save(categoria);
+        Transacciones.despuesDelCommit(versionesDatos::categoriasModificadas);
+        Transacciones.despuesDelCommit(() -> canalCambios.publicar(
+                EventoCambio.categoria(TipoCambio.CREADO, nuevaCategoria.getId())));
+        return nuevaCategoria;
     }
     
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.CATEGORIAS, CacheConfig.CATEGORIA_POR_ID,
+            CacheConfig.CATEGORIA_POR_NOMBRE, CacheConfig.CATEGORIA_EXISTE}, allEntries = true)
     public Categoria actualizarCategoria(Long id, Categoria categoria) {
         Categoria categoriaExistente = categoriaRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Categoría no encontrada con ID: " + id));
@@ -53,14 +95,30 @@ public class CategoriaServiceImpl implements CategoriaService {
             throw new IllegalArgumentException("Ya existe una categoría con el nombre: " + categoria.getNombre());
         }
         
+        // Los contadores por categoría se indexan por nombre
+        boolean renombrada = !categoriaExistente.getNombre().equals(categoria.getNombre());
+        if (renombrada) {
+            estadisticasService.invalidar();
+        }
+        
         categoriaExistente.setNombre(categoria.getNombre());
         categoriaExistente.setColor(categoria.getColor());
         categoriaExistente.setDescripcion(categoria.getDescripcion());
+        Categoria categoriaActualizada = categoriaRepository.save(categoriaExistente);
+        
+        // Los contactos muestran el nombre de su categoría: la sincronización incremental debe reenviarlos
+        if (renombrada) {
+            contactoRepository.marcarCambioPorCategoria(id, secuenciaCambios.asignar());
+        }
         
-        return categoriaRepository.save(categoriaExistente);
+        Transacciones.despuesDelCommit(versionesDatos::categoriasModificadas);
+        Transacciones.despuesDelCommit(() -> canalCambios.publicar(EventoCambio.categoria(TipoCambio.ACTUALIZADO, id)));
+        return categoriaActualizada;
     }
     
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.CATEGORIAS, CacheConfig.CATEGORIA_POR_ID,
+            CacheConfig.CATEGORIA_POR_NOMBRE, CacheConfig.CATEGORIA_EXISTE}, allEntries = true)
     public void eliminarCategoria(Long id) {
         Categoria categoria = categoriaRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Categoría no encontrada con ID: " + id));
@@ -71,14 +129,20 @@ public class CategoriaServiceImpl implements CategoriaService {
         }
         
         categoriaRepository.deleteById(id);
+        Transacciones.despuesDelCommit(versionesDatos::categoriasModificadas);
+        Transacciones.despuesDelCommit(() -> canalCambios.publicar(EventoCambio.categoria(TipoCambio.ELIMINADO, id)));
     }
     
     @Override
+    @LecturaAgrupada
+    @Cacheable(CacheConfig.CATEGORIA_EXISTE)
     public boolean existeCategoriaPorNombre(String nombre) {
         return categoriaRepository.existsByNombre(nombre);
     }
     
     @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
     public List<Categoria> buscarCategoriasPorTermino(String termino) {
         return categoriaRepository.findByNombreContainingIgnoreCase(termino);
     }
@@ -1,50 +1,143 @@
 package com.ejemplo.agenda.service.impl;
 
+import com.ejemplo.agenda.agrupacion.LecturaAgrupada;
+import com.ejemplo.agenda.busqueda.Coincidencia;
+import com.ejemplo.agenda.busqueda.IndiceContactos;
+import com.ejemplo.agenda.eventos.CanalCambios;
 import com.ejemplo.agenda.model.Categoria;
 import com.ejemplo.agenda.model.Contacto;
+import com.ejemplo.agenda.model.ContactoEliminado;
+import com.ejemplo.agenda.model.dto.CambiosContactos;
+import com.ejemplo.agenda.model.dto.ContactoCampos;
 import com.ejemplo.agenda.model.dto.ContactoRequest;
 import com.ejemplo.agenda.model.dto.ContactoResponse;
-import com.ejemplo.agenda.repository.CategoriaRepository;
+import com.ejemplo.agenda.model.dto.EventoCambio;
+import com.ejemplo.agenda.model.dto.PaginaCursor;
+import com.ejemplo.agenda.model.enums.CampoContacto;
+import com.ejemplo.agenda.model.enums.CoincidenciaTelefono;
+import com.ejemplo.agenda.model.enums.TipoCambio;
+import com.ejemplo.agenda.repository.ContactoEliminadoRepository;
+import com.ejemplo.agenda.repository.ContactoEspecificaciones;
 import com.ejemplo.agenda.repository.ContactoRepository;
+import com.ejemplo.agenda.service.CategoriaService;
 import com.ejemplo.agenda.service.ContactoService;
+import com.ejemplo.agenda.service.Cursor;
+import com.ejemplo.agenda.service.EstadisticasService;
+import com.ejemplo.agenda.service.HuellaContacto;
+import com.ejemplo.agenda.service.SecuenciaCambios;
+import com.ejemplo.agenda.service.VersionesDatos;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ContactoServiceImpl implements ContactoService {
     
+    private static final String ORDEN_ID = "id";
+    private static final String ORDEN_NOMBRE = "nombre";
+    // Con un filtro de igualdad, ordenar antes por su columna deja que el índice dé las filas ya ordenadas.
+    // "categoria" ordena por la clave ajena; "categoria.id" añadiría un join con categorías
+    private static final String ORDEN_CATEGORIA = "categoria";
+    private static final String ORDEN_FAVORITO = "favorito";
+    private static final int MAXIMO_CAMBIOS = 1000;
+    
+    // Orden de los listados por desplazamiento, con o sin fields=: sin él las páginas podrían repetir o saltar filas.
+    // Categoría y favoritos ordenan antes por su columna de filtro, como sus versiones por cursor
+    private static final Sort ORDEN_LISTADO = Sort.by(ORDEN_ID);
+    private static final Sort ORDEN_LISTADO_CATEGORIA = Sort.by(ORDEN_CATEGORIA, ORDEN_ID);
+    private static final Sort ORDEN_LISTADO_FAVORITOS = Sort.by(ORDEN_FAVORITO, ORDEN_ID);
+    
+    // Campos de un parche que cambian el documento del índice de búsqueda o los contadores de estadísticas
+    private static final Set<String> CAMPOS_INDEXADOS =
+            Set.of("nombre", "apellido", "telefono", "email", "direccion", "notas");
+    private static final Set<String> CAMPOS_ESTADISTICAS = Set.of("email", "favorito", "categoriaId");
+    
     @Autowired
     private ContactoRepository contactoRepository;
     
     @Autowired
-    private CategoriaRepository categoriaRepository;
+    private ContactoEliminadoRepository contactoEliminadoRepository;
+    
+    @Autowired
+    private CategoriaService categoriaService;
+    
+    @Autowired
+    private EstadisticasService estadisticasService;
+    
+    @Autowired
+    private IndiceContactos indiceContactos;
+    
+    @Autowired
+    private VersionesDatos versionesDatos;
+    
+    @Autowired
+    private SecuenciaCambios secuenciaCambios;
+    
+    @Autowired
+    private CanalCambios canalCambios;
+    
+    @Autowired
+    private Validator validator;
     
     @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
     public Page<ContactoResponse> obtenerTodosContactos(int pagina, int tamaño) {
-        Pageable pageable = PageRequest.of(pagina, tamaño);
-        return contactoRepository.findAll(pageable).map(this::convertirAResponse);
+        Pageable pageable = PageRequest.of(pagina, tamaño, ORDEN_LISTADO);
+        return contactoRepository.findAllResponses(pageable);
     }
     
     @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
     public ContactoResponse obtenerContactoPorId(Long id) {
-        Contacto contacto = contactoRepository.findById(id)
+        return contactoRepository.findResponseById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Contacto no encontrado con ID: " + id));
-        return convertirAResponse(contacto);
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public String obtenerEtagContacto(Long id) {
+        return versionesDatos.etagContacto(id, versionActual(id));
     }
     
     @Override
     public ContactoResponse crearContacto(ContactoRequest contactoRequest) {
         Contacto contacto = convertirAEntity(contactoRequest);
+        contacto.setSecuenciaCambio(secuenciaCambios.asignar());
         Contacto contactoGuardado = contactoRepository.save(contacto);
+        estadisticasService.registrarAlta(HuellaContacto.de(contactoGuardado));
+        Transacciones.despuesDelCommit(() -> indiceContactos.indexar(contactoGuardado));
+        Transacciones.despuesDelCommit(versionesDatos::contactosModificados);
+        Transacciones.despuesDelCommit(() -> canalCambios.publicar(
+                EventoCambio.contacto(TipoCambio.CREADO, contactoGuardado.getId())));
         return convertirAResponse(contactoGuardado);
     }
     
@@ -53,63 +146,554 @@ public class ContactoServiceImpl implements ContactoService {
         Contacto contactoExistente = contactoRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Contacto no encontrado con ID: " + id));
         
+        HuellaContacto antes = HuellaContacto.de(contactoExistente);
         actualizarContactoDesdeRequest(contactoExistente, contactoRequest);
+        contactoExistente.setSecuenciaCambio(secuenciaCambios.asignar());
         Contacto contactoActualizado = contactoRepository.save(contactoExistente);
+        estadisticasService.registrarCambio(antes, HuellaContacto.de(contactoActualizado));
+        Transacciones.despuesDelCommit(() -> indiceContactos.indexar(contactoActualizado));
+        Transacciones.despuesDelCommit(versionesDatos::contactosModificados);
+        Transacciones.despuesDelCommit(() -> canalCambios.publicar(EventoCambio.contacto(TipoCambio.ACTUALIZADO, id)));
         return convertirAResponse(contactoActualizado);
     }
     
     @Override
     public void eliminarContacto(Long id) {
-        if (!contactoRepository.existsById(id)) {
-            throw new EntityNotFoundException("Contacto no encontrado con ID: " + id);
-        }
-        contactoRepository.deleteById(id);
+        Contacto contacto = contactoRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Contacto no encontrado con ID: " + id));
+        HuellaContacto huella = HuellaContacto.de(contacto);
+        contactoRepository.delete(contacto);
+        contactoEliminadoRepository.save(new ContactoEliminado(id, secuenciaCambios.asignar(), LocalDateTime.now()));
+        estadisticasService.registrarBaja(huella);
+        Transacciones.despuesDelCommit(() -> indiceContactos.eliminar(id));
+        Transacciones.despuesDelCommit(versionesDatos::contactosModificados);
+        Transacciones.despuesDelCommit(() -> canalCambios.publicar(EventoCambio.contacto(TipoCambio.ELIMINADO, id)));
     }
     
     @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
     public List<ContactoResponse> buscarPorNombre(String nombre) {
-        return contactoRepository.findByNombreContainingIgnoreCase(nombre)
-                .stream()
-                .map(this::convertirAResponse)
-                .collect(Collectors.toList());
+        return contactoRepository.findResponsesByNombre(nombre);
     }
     
     @Override
-    public List<ContactoResponse> buscarPorTermino(String termino) {
-        return contactoRepository.buscarPorTermino(termino)
-                .stream()
-                .map(this::convertirAResponse)
-                .collect(Collectors.toList());
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public List<ContactoResponse> buscarPorTermino(String termino, int pagina, int tamaño) {
+        return hidratar(indiceContactos.buscar(termino, pagina, tamaño));
     }
     
     @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
     public List<ContactoResponse> obtenerContactosPorCategoria(String categoria) {
-        return contactoRepository.findByCategoriaNombre(categoria)
-                .stream()
-                .map(this::convertirAResponse)
-                .collect(Collectors.toList());
+        return contactoRepository.findResponsesByCategoriaNombre(categoria);
     }
     
     @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
     public List<ContactoResponse> obtenerContactosFavoritos() {
-        return contactoRepository.findByFavorito(true)
-                .stream()
-                .map(this::convertirAResponse)
-                .collect(Collectors.toList());
+        return contactoRepository.findResponsesByFavorito(true);
     }
     
+    // Primero el UPDATE condicionado, sin leer antes: solo escribe si el favorito cambia. La respuesta es la fila
+    // leída después, en la misma transacción; con 0 filas esa lectura distingue el 404 del favorito que ya lo era
     @Override
     public ContactoResponse toggleFavorito(Long id, boolean favorito) {
-        Contacto contacto = contactoRepository.findById(id)
+        aplicarParche(id, Map.of("favorito", favorito), Set.of("favorito"), null, LocalDateTime.now());
+        return contactoRepository.findResponseById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Contacto no encontrado con ID: " + id));
+    }
+    
+    @Override
+    public String parchearContacto(Long id, Map<String, Object> parche, String ifMatch) {
+        Long versionEsperada = versionEsperada(id, ifMatch);
+        Map<String, Object> valores = new LinkedHashMap<>();
+        parche.forEach((campo, valor) -> añadirValor(valores, campo, valor));
         
-        contacto.setFavorito(favorito);
-        Contacto contactoActualizado = contactoRepository.save(contacto);
-        return convertirAResponse(contactoActualizado);
+        // Un parche vacío no cambia nada: solo se comprueba la precondición
+        if (valores.isEmpty()) {
+            return versionesDatos.etagContacto(id, comprobarVersion(id, versionEsperada));
+        }
+        
+        if (aplicarParche(id, valores, parche.keySet(), versionEsperada, LocalDateTime.now()) == 0) {
+            // No existe, la versión no coincide o el favorito ya tenía ese valor
+            return versionesDatos.etagContacto(id, comprobarVersion(id, versionEsperada));
+        }
+        return versionEsperada != null ? versionesDatos.etagContacto(id, versionEsperada + 1) : null;
+    }
+    
+    // UPDATE de los valores ya traducidos y, si cambia la fila, estadísticas, índice, versión y evento tras el commit.
+    // campos son los nombres del parche, antes de traducirlos
+    private int aplicarParche(Long id, Map<String, Object> valores, Set<String> campos, Long versionEsperada,
+                              LocalDateTime ahora) {
+        // Solo el favorito: el UPDATE exige que cambie y el número de filas da el delta de las estadísticas
+        boolean soloFavorito = valores.size() == 1 && valores.containsKey("favorito");
+        int filas = contactoRepository.actualizarCampos(id, valores, versionEsperada, soloFavorito, ahora,
+                secuenciaCambios.asignar());
+        if (filas == 0) {
+            return 0;
+        }
+        
+        if (soloFavorito) {
+            estadisticasService.registrarFavorito((Boolean) valores.get("favorito"));
+        } else if (campos.stream().anyMatch(CAMPOS_ESTADISTICAS::contains)) {
+            estadisticasService.invalidar();
+        }
+        if (campos.stream().anyMatch(CAMPOS_INDEXADOS::contains)) {
+            ContactoResponse actualizado = obtenerContactoPorId(id);
+            Transacciones.despuesDelCommit(() -> indiceContactos.indexar(actualizado));
+        }
+        Transacciones.despuesDelCommit(versionesDatos::contactosModificados);
+        EventoCambio evento = soloFavorito
+                ? EventoCambio.favorito(id, (Boolean) valores.get("favorito"))
+                : EventoCambio.contacto(TipoCambio.ACTUALIZADO, id);
+        Transacciones.despuesDelCommit(() -> canalCambios.publicar(evento));
+        return filas;
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public List<ContactoResponse> obtenerContactosRecientes(int limite) {
+        return contactoRepository.findRecientes(PageRequest.of(0, limite));
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public List<ContactoResponse> buscarPorTelefono(String telefono, CoincidenciaTelefono coincidencia, int limite) {
+        String digitos = digitosTelefono(telefono);
+        Pageable pageable = PageRequest.of(0, limite);
+        switch (coincidencia) {
+            case EXACTA:
+                return contactoRepository.findResponsesByTelefonoNormalizado(digitos, pageable);
+            case PREFIJO:
+                // ':' es el carácter siguiente a '9': [digitos, digitos + ':') contiene todo lo que empieza por digitos
+                return contactoRepository.findResponsesByTelefonoNormalizadoEntre(digitos, digitos + ':', pageable);
+            default:
+                // "Termina en" es un prefijo sobre los dígitos invertidos
+                String invertido = Contacto.invertir(digitos);
+                return contactoRepository.findResponsesByTelefonoInvertidoEntre(invertido, invertido + ':', pageable);
+        }
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public PaginaCursor<ContactoResponse> obtenerContactosDespuesDe(String after, int tamaño, String orden, boolean contar) {
+        Cursor cursor = Cursor.decodificar(after);
+        Pageable limite = PageRequest.of(0, tamaño + 1);
+        if (ORDEN_NOMBRE.equals(orden)) {
+            List<ContactoResponse> filas = contactoRepository.findResponsesPorNombreDespuesDe(
+                    cursor.getClave(), cursor.getId(), limite);
+            return paginaCursor(filas, tamaño, c -> new Cursor(c.getNombre(), c.getId()),
+                    contar ? contactoRepository.count() : null);
+        }
+        if (!ORDEN_ID.equals(orden)) {
+            throw new IllegalArgumentException("Orden no soportado: " + orden);
+        }
+        List<ContactoResponse> filas = contactoRepository.findResponsesDespuesDe(cursor.getId(), limite);
+        return paginaCursor(filas, tamaño, c -> new Cursor(null, c.getId()),
+                contar ? contactoRepository.count() : null);
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public PaginaCursor<ContactoResponse> buscarPorTerminoDespuesDe(String termino, String after, int tamaño) {
+        return coincidenciasDespuesDe(termino, after, tamaño, this::hidratar);
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public PaginaCursor<ContactoResponse> obtenerContactosPorCategoriaDespuesDe(String categoria, String after, int tamaño, boolean contar) {
+        Cursor cursor = Cursor.decodificar(after);
+        List<ContactoResponse> filas = contactoRepository.findResponsesByCategoriaNombreDespuesDe(
+                categoria, cursor.getId(), PageRequest.of(0, tamaño + 1));
+        return paginaCursor(filas, tamaño, c -> new Cursor(null, c.getId()),
+                contar ? contactoRepository.countByCategoriaNombre(categoria) : null);
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public PaginaCursor<ContactoResponse> obtenerContactosFavoritosDespuesDe(String after, int tamaño, boolean contar) {
+        Cursor cursor = Cursor.decodificar(after);
+        List<ContactoResponse> filas = contactoRepository.findResponsesByFavoritoDespuesDe(
+                true, cursor.getId(), PageRequest.of(0, tamaño + 1));
+        return paginaCursor(filas, tamaño, c -> new Cursor(null, c.getId()),
+                contar ? contactoRepository.countByFavorito(true) : null);
+    }
+    
+    // Transacción de escritura para leer de la primaria: una réplica atrasada podría no tener aún todos los
+    // cambios hasta estable() y el token los saltaría para siempre
+    @Override
+    public CambiosContactos obtenerCambios(String desde, int tamaño) {
+        if (tamaño < 1) {
+            throw new IllegalArgumentException("El tamaño debe ser mayor que cero");
+        }
+        int limite = Math.min(tamaño, MAXIMO_CAMBIOS);
+        Cursor cursor = Cursor.decodificar(desde);
+        long secuencia = secuenciaDeCursor(cursor, desde);
+        long hasta = secuenciaCambios.estable();
+        if (secuencia > hasta) {
+            throw new IllegalArgumentException("El token de cambios no corresponde a estos datos; sincronice desde el principio");
+        }
+        
+        // Altas/modificaciones y bajas van por separado; se mezclan por (secuencia, id), que no se repite entre ambas
+        Pageable pagina = PageRequest.of(0, limite + 1);
+        List<Object[]> claves = tramos(
+                contactoRepository.findClavesCambiosEnSecuencia(secuencia, cursor.getId(), pagina),
+                () -> contactoRepository.findClavesCambios(secuencia + 1, hasta, pagina), limite + 1);
+        List<ContactoEliminado> bajas = tramos(
+                contactoEliminadoRepository.findCambiosEnSecuencia(secuencia, cursor.getId(), pagina),
+                () -> contactoEliminadoRepository.findCambios(secuencia + 1, hasta, pagina), limite + 1);
+        List<Long> ids = new ArrayList<>();
+        List<Long> eliminados = new ArrayList<>();
+        long ultimaSecuencia = secuencia;
+        long ultimoId = cursor.getId();
+        int c = 0;
+        int b = 0;
+        while (ids.size() + eliminados.size() < limite && (c < claves.size() || b < bajas.size())) {
+            long secuenciaContacto = c < claves.size() ? ((Number) claves.get(c)[0]).longValue() : Long.MAX_VALUE;
+            long idContacto = c < claves.size() ? ((Number) claves.get(c)[1]).longValue() : Long.MAX_VALUE;
+            ContactoEliminado baja = b < bajas.size() ? bajas.get(b) : null;
+            if (baja == null || secuenciaContacto < baja.getSecuenciaCambio()
+                    || (secuenciaContacto == baja.getSecuenciaCambio() && idContacto < baja.getContactoId())) {
+                ids.add(idContacto);
+                ultimaSecuencia = secuenciaContacto;
+                ultimoId = idContacto;
+                c++;
+            } else {
+                eliminados.add(baja.getContactoId());
+                ultimaSecuencia = baja.getSecuenciaCambio();
+                ultimoId = baja.getContactoId();
+                b++;
+            }
+        }
+        
+        // Sin más cambios el token apunta al final de hasta: lo siguiente tendrá una secuencia mayor
+        boolean hayMas = c < claves.size() || b < bajas.size();
+        Cursor siguiente = hayMas
+                ? new Cursor(Long.toString(ultimaSecuencia), ultimoId)
+                : new Cursor(Long.toString(hasta), Long.MAX_VALUE);
+        return new CambiosContactos(hidratar(ids), eliminados, siguiente.codificar(), hayMas);
+    }
+    
+    // El resto de la secuencia del cursor y, si no llena la página, las secuencias siguientes
+    private static <T> List<T> tramos(List<T> primero, Supplier<List<T>> siguientes, int maximo) {
+        if (primero.size() >= maximo) {
+            return primero;
+        }
+        List<T> todos = new ArrayList<>(primero);
+        todos.addAll(siguientes.get());
+        return todos.size() > maximo ? todos.subList(0, maximo) : todos;
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public Page<ContactoCampos> obtenerTodosContactos(int pagina, int tamaño, Set<CampoContacto> campos) {
+        Pageable pageable = PageRequest.of(pagina, tamaño, ORDEN_LISTADO);
+        return new PageImpl<>(contactoRepository.findCampos(campos, null, pageable), pageable, contactoRepository.count());
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public ContactoCampos obtenerContactoPorId(Long id, Set<CampoContacto> campos) {
+        return contactoRepository.findCampos(campos, ContactoEspecificaciones.porId(id), Pageable.unpaged())
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Contacto no encontrado con ID: " + id));
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public List<ContactoCampos> buscarPorTermino(String termino, int pagina, int tamaño, Set<CampoContacto> campos) {
+        return hidratar(indiceContactos.buscar(termino, pagina, tamaño), campos);
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public List<ContactoCampos> obtenerContactosPorCategoria(String categoria, Set<CampoContacto> campos) {
+        return contactoRepository.findCampos(campos, ContactoEspecificaciones.deCategoria(categoria),
+                sinLimite(ORDEN_LISTADO_CATEGORIA));
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public List<ContactoCampos> obtenerContactosFavoritos(Set<CampoContacto> campos) {
+        return contactoRepository.findCampos(campos, ContactoEspecificaciones.favorito(true),
+                sinLimite(ORDEN_LISTADO_FAVORITOS));
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public List<ContactoCampos> buscarPorTelefono(String telefono, CoincidenciaTelefono coincidencia, int limite,
+                                                  Set<CampoContacto> campos) {
+        String digitos = digitosTelefono(telefono);
+        Specification<Contacto> filtro;
+        switch (coincidencia) {
+            case EXACTA:
+                filtro = ContactoEspecificaciones.telefonoNormalizado(digitos);
+                break;
+            case PREFIJO:
+                filtro = ContactoEspecificaciones.telefonoNormalizadoEntre(digitos, digitos + ':');
+                break;
+            default:
+                String invertido = Contacto.invertir(digitos);
+                filtro = ContactoEspecificaciones.telefonoInvertidoEntre(invertido, invertido + ':');
+        }
+        return contactoRepository.findCampos(campos, filtro, PageRequest.of(0, limite, Sort.by(ORDEN_ID)));
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public PaginaCursor<ContactoCampos> obtenerContactosDespuesDe(String after, int tamaño, String orden, boolean contar,
+                                                                  Set<CampoContacto> campos) {
+        Cursor cursor = Cursor.decodificar(after);
+        if (ORDEN_NOMBRE.equals(orden)) {
+            // El cursor necesita el nombre de la última fila
+            Set<CampoContacto> conNombre = EnumSet.copyOf(campos);
+            conNombre.add(CampoContacto.NOMBRE);
+            List<ContactoCampos> filas = contactoRepository.findCampos(conNombre,
+                    ContactoEspecificaciones.nombreDespuesDe(cursor.getClave(), cursor.getId()),
+                    PageRequest.of(0, tamaño + 1, Sort.by(ORDEN_NOMBRE, ORDEN_ID)));
+            return paginaCursor(filas, tamaño, c -> new Cursor(c.getNombre(), c.getId()),
+                    contar ? contactoRepository.count() : null);
+        }
+        if (!ORDEN_ID.equals(orden)) {
+            throw new IllegalArgumentException("Orden no soportado: " + orden);
+        }
+        List<ContactoCampos> filas = contactoRepository.findCampos(campos,
+                ContactoEspecificaciones.idMayorQue(cursor.getId()), PageRequest.of(0, tamaño + 1, Sort.by(ORDEN_ID)));
+        return paginaCursor(filas, tamaño, c -> new Cursor(null, c.getId()),
+                contar ? contactoRepository.count() : null);
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public PaginaCursor<ContactoCampos> buscarPorTerminoDespuesDe(String termino, String after, int tamaño,
+                                                                  Set<CampoContacto> campos) {
+        return coincidenciasDespuesDe(termino, after, tamaño, ids -> hidratar(ids, campos));
     }
     
-    // Métodos privados de conversión
-    private ContactoResponse convertirAResponse(Contacto contacto) {
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public PaginaCursor<ContactoCampos> obtenerContactosPorCategoriaDespuesDe(String categoria, String after, int tamaño,
+                                                                              boolean contar, Set<CampoContacto> campos) {
+        Cursor cursor = Cursor.decodificar(after);
+        List<ContactoCampos> filas = contactoRepository.findCampos(campos,
+                ContactoEspecificaciones.deCategoria(categoria).and(ContactoEspecificaciones.idMayorQue(cursor.getId())),
+                PageRequest.of(0, tamaño + 1, Sort.by(ORDEN_CATEGORIA, ORDEN_ID)));
+        return paginaCursor(filas, tamaño, c -> new Cursor(null, c.getId()),
+                contar ? contactoRepository.countByCategoriaNombre(categoria) : null);
+    }
+    
+    @Override
+    @LecturaAgrupada
+    @Transactional(readOnly = true)
+    public PaginaCursor<ContactoCampos> obtenerContactosFavoritosDespuesDe(String after, int tamaño, boolean contar,
+                                                                           Set<CampoContacto> campos) {
+        Cursor cursor = Cursor.decodificar(after);
+        List<ContactoCampos> filas = contactoRepository.findCampos(campos,
+                ContactoEspecificaciones.favorito(true).and(ContactoEspecificaciones.idMayorQue(cursor.getId())),
+                PageRequest.of(0, tamaño + 1, Sort.by(ORDEN_FAVORITO, ORDEN_ID)));
+        return paginaCursor(filas, tamaño, c -> new Cursor(null, c.getId()),
+                contar ? contactoRepository.countByFavorito(true) : null);
+    }
+    
+    // findCampos solo ordena con el Sort de un Pageable y Pageable.unpaged() no lleva ninguno
+    private static Pageable sinLimite(Sort orden) {
+        return PageRequest.of(0, Integer.MAX_VALUE, orden);
+    }
+    
+    private long versionActual(Long id) {
+        List<Long> versiones = contactoRepository.findVersionById(id);
+        if (versiones.isEmpty()) {
+            throw new EntityNotFoundException("Contacto no encontrado con ID: " + id);
+        }
+        return versiones.get(0);
+    }
+    
+    // If-Match: null o "*" solo exigen que el contacto exista
+    private Long versionEsperada(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Long version = versionesDatos.versionDeEtag(id, ifMatch);
+        if (version == null) {
+            throw new OptimisticLockingFailureException("If-Match no corresponde al contacto " + id + ": " + ifMatch);
+        }
+        return version;
+    }
+    
+    private long comprobarVersion(Long id, Long versionEsperada) {
+        long actual = versionActual(id);
+        if (versionEsperada != null && actual != versionEsperada) {
+            throw new OptimisticLockingFailureException("El contacto " + id + " ha cambiado: If-Match no coincide");
+        }
+        return actual;
+    }
+    
+    // Traduce un campo del parche a los atributos de la entidad, con las validaciones de ContactoRequest
+    private void añadirValor(Map<String, Object> valores, String campo, Object valor) {
+        switch (campo) {
+            case "nombre":
+            case "apellido":
+            case "email":
+            case "direccion":
+            case "notas":
+                valores.put(campo, validar(campo, texto(campo, valor)));
+                break;
+            case "telefono":
+                String telefono = validar(campo, texto(campo, valor));
+                String normalizado = Contacto.normalizarTelefono(telefono);
+                valores.put("telefono", telefono);
+                valores.put("telefonoNormalizado", normalizado);
+                valores.put("telefonoInvertido", Contacto.invertir(normalizado));
+                break;
+            case "fechaNacimiento":
+                valores.put(campo, validar(campo, fecha(valor)));
+                break;
+            case "favorito":
+                if (!(valor instanceof Boolean)) {
+                    throw new IllegalArgumentException("favorito: debe ser true o false");
+                }
+                valores.put(campo, valor);
+                break;
+            case "categoriaId":
+                // null deja el contacto sin categoría
+                valores.put("categoria", valor == null ? null : categoria(valor));
+                break;
+            default:
+                throw new IllegalArgumentException("Campo no modificable: " + campo + " (nombre, apellido, telefono, "
+                        + "email, direccion, fechaNacimiento, notas, favorito, categoriaId)");
+        }
+    }
+    
+    private <T> T validar(String campo, T valor) {
+        Set<ConstraintViolation<ContactoRequest>> violaciones =
+                validator.validateValue(ContactoRequest.class, campo, valor);
+        if (!violaciones.isEmpty()) {
+            throw new IllegalArgumentException(campo + ": " + violaciones.iterator().next().getMessage());
+        }
+        return valor;
+    }
+    
+    private static String texto(String campo, Object valor) {
+        if (valor != null && !(valor instanceof String)) {
+            throw new IllegalArgumentException(campo + ": debe ser un texto");
+        }
+        return (String) valor;
+    }
+    
+    private static LocalDate fecha(Object valor) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(texto("fechaNacimiento", valor));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("fechaNacimiento: use el formato AAAA-MM-DD");
+        }
+    }
+    
+    private Categoria categoria(Object valor) {
+        if (!(valor instanceof Number)) {
+            throw new IllegalArgumentException("categoriaId: debe ser un número");
+        }
+        Long categoriaId = ((Number) valor).longValue();
+        return categoriaService.obtenerCategoriaPorId(categoriaId)
+                .orElseThrow(() -> new EntityNotFoundException("Categoría no encontrada con ID: " + categoriaId));
+    }
+    
+    private static String digitosTelefono(String telefono) {
+        String digitos = Contacto.normalizarTelefono(telefono);
+        if (digitos == null || digitos.isEmpty()) {
+            throw new IllegalArgumentException("El teléfono debe contener al menos un dígito");
+        }
+        return digitos;
+    }
+    
+    // Las coincidencias salen del índice; solo se consulta la base de datos para hidratar la página
+    private <T> PaginaCursor<T> coincidenciasDespuesDe(String termino, String after, int tamaño,
+                                                       Function<List<Long>, List<T>> hidratar) {
+        Cursor cursor = Cursor.decodificar(after);
+        Coincidencia ultima = cursor.getClave().isEmpty() ? null
+                : new Coincidencia(cursor.getId(), Double.longBitsToDouble(Long.parseUnsignedLong(cursor.getClave(), 16)));
+        List<Coincidencia> coincidencias = indiceContactos.buscarDespuesDe(termino, ultima, tamaño + 1);
+        
+        boolean hayMas = coincidencias.size() > tamaño;
+        List<Coincidencia> pagina = hayMas ? coincidencias.subList(0, tamaño) : coincidencias;
+        List<T> contenido = hidratar.apply(pagina.stream()
+                .map(Coincidencia::getId)
+                .collect(Collectors.toList()));
+        String siguiente = null;
+        if (hayMas) {
+            Coincidencia ultimaDevuelta = pagina.get(pagina.size() - 1);
+            String puntuacion = Long.toHexString(Double.doubleToLongBits(ultimaDevuelta.getPuntuacion()));
+            siguiente = new Cursor(puntuacion, ultimaDevuelta.getId()).codificar();
+        }
+        return new PaginaCursor<>(contenido, siguiente, tamaño, null);
+    }
+    
+    // Se pide un elemento de más para saber si existe una página siguiente sin contar
+    private long secuenciaDeCursor(Cursor cursor, String token) {
+        if (cursor.getClave().isEmpty()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cursor.getClave());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Token de cambios no válido: " + token, e);
+        }
+    }
+    
+    private <T> PaginaCursor<T> paginaCursor(List<T> filas, int tamaño, Function<T, Cursor> cursorDe, Long total) {
+        boolean hayMas = filas.size() > tamaño;
+        List<T> contenido = new ArrayList<>(hayMas ? filas.subList(0, tamaño) : filas);
+        String siguiente = hayMas ? cursorDe.apply(contenido.get(contenido.size() - 1)).codificar() : null;
+        return new PaginaCursor<>(contenido, siguiente, tamaño, total);
+    }
+    
+    private List<ContactoResponse> hidratar(List<Long> ids) {
+        return ordenarPorIds(ids, contactoRepository::findResponsesByIdIn, ContactoResponse::getId);
+    }
+    
+    private List<ContactoCampos> hidratar(List<Long> ids, Set<CampoContacto> campos) {
+        return ordenarPorIds(ids, lote -> contactoRepository.findCampos(campos, ContactoEspecificaciones.porIds(lote),
+                Pageable.unpaged()), ContactoCampos::getId);
+    }
+    
+    // Una sola consulta para hidratar los ids, manteniendo el orden recibido
+    private <T> List<T> ordenarPorIds(List<Long> ids, Function<Collection<Long>, List<T>> cargar, Function<T, Long> idDe) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, T> porId = cargar.apply(ids)
+                .stream()
+                .collect(Collectors.toMap(idDe, Function.identity()));
+        return ids.stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    // Métodos de conversión (solo para el camino de escritura); visible en el paquete para ConversionBenchmark
+    ContactoResponse convertirAResponse(Contacto contacto) {
         ContactoResponse response = new ContactoResponse();
         response.setId(contacto.getId());
         response.setNombre(contacto.getNombre());
@@ -135,11 +719,11 @@ public class ContactoServiceImpl implements ContactoService {
         contacto.setDireccion(request.getDireccion());
         contacto.setFechaNacimiento(request.getFechaNacimiento());
         contacto.setNotas(request.getNotas());
-        contacto.setFavorito(request.isFavorito());
+        contacto.setFavorito(Boolean.TRUE.equals(request.getFavorito()));
         
         // Asignar categoría si se proporciona
         if (request.getCategoriaId() != null) {
-            Categoria categoria = categoriaRepository.findById(request.getCategoriaId())
+            Categoria categoria = categoriaService.obtenerCategoriaPorId(request.getCategoriaId())
                     .orElseThrow(() -> new EntityNotFoundException("Categoría no encontrada con ID: " + request.getCategoriaId()));
             contacto.setCategoria(categoria);
         }
@@ -169,11 +753,13 @@ public class ContactoServiceImpl implements ContactoService {
         if (request.getNotas() != null) {
             contacto.setNotas(request.getNotas());
         }
-        contacto.setFavorito(request.isFavorito());
+        if (request.getFavorito() != null) {
+            contacto.setFavorito(request.getFavorito());
+        }
         
         // Actualizar categoría si se proporciona
         if (request.getCategoriaId() != null) {
-            Categoria categoria = categoriaRepository.findById(request.getCategoriaId())
+            Categoria categoria = categoriaService.obtenerCategoriaPorId(request.getCategoriaId())
                     .orElseThrow(() -> new EntityNotFoundException("Categoría no encontrada con ID: " + request.getCategoriaId()));
             contacto.setCategoria(categoria);
         }
@@ -0,0 +1,116 @@
+package com.ejemplo.agenda.service.impl;
+
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+import com.ejemplo.agenda.model.dto.Cumpleanos;
+import com.ejemplo.agenda.repository.ContactoRepository;
+import com.ejemplo.agenda.service.CumpleanosService;
+import com.ejemplo.agenda.service.VersionesDatos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Próximos cumpleaños con la columna {@code dia_cumpleanos} (MMDD). El periodo [hoy, hoy + dias] se traduce a uno
+ * o dos rangos de esa clave: dos cuando pasa por el 31 de diciembre. En un año no bisiesto los nacidos un 29 de
+ * febrero lo celebran el 28, así que un periodo que termina el 28 de febrero incluye también la clave 229.
+ *
+ * <p>El resultado de cada {@code dias} se guarda en memoria para el día en curso y la versión de datos de
+ * {@link VersionesDatos}: cualquier escritura confirmada de contactos o categorías, o el cambio de fecha, lo
+ * descarta.</p>
+ */
+@Service
+public class CumpleanosServiceImpl implements CumpleanosService {
+    
+    // Un año completo: cualquier periodo mayor repetiría cumpleaños
+    private static final int MAXIMO_DIAS = 365;
+    
+    @Autowired
+    private ContactoRepository contactoRepository;
+    
+    @Autowired
+    private VersionesDatos versionesDatos;
+    
+    @Autowired
+    private Clock reloj;
+    
+    private volatile CumpleanosDelDia calculados;
+    
+    // Como las estadísticas, lo que se guarda en memoria se lee de la primaria y no de una réplica
+    @Override
+    @Transactional
+    public List<Cumpleanos> obtenerProximos(int dias) {
+        if (dias < 0 || dias > MAXIMO_DIAS) {
+            throw new IllegalArgumentException("dias debe estar entre 0 y " + MAXIMO_DIAS);
+        }
+        // La versión se lee antes de consultar: si cambia durante la consulta, la siguiente petición recalcula
+        LocalDate hoy = LocalDate.now(reloj);
+        String version = versionesDatos.versionDatos();
+        CumpleanosDelDia actuales = calculados;
+        if (actuales == null || !actuales.hoy.equals(hoy) || !actuales.version.equals(version)) {
+            actuales = new CumpleanosDelDia(hoy, version);
+            calculados = actuales;
+        }
+        return actuales.porDias.computeIfAbsent(dias, d -> calcular(hoy, d));
+    }
+    
+    private List<Cumpleanos> calcular(LocalDate hoy, int dias) {
+        LocalDate fin = hoy.plusDays(dias);
+        int desde = clave(hoy);
+        int hasta = clave(fin);
+        if (hasta == 228 && !fin.isLeapYear()) {
+            hasta = 229;
+        }
+        
+        List<ContactoResponse> contactos;
+        if (fin.getYear() == hoy.getYear()) {
+            contactos = contactoRepository.findResponsesPorCumpleanos(desde, hasta);
+        } else {
+            // Hasta fin de año y desde el 1 de enero; si el periodo da la vuelta completa, el resto del año
+            contactos = new ArrayList<>(contactoRepository.findResponsesPorCumpleanos(desde, 1231));
+            contactos.addAll(contactoRepository.findResponsesPorCumpleanos(101, Math.min(hasta, desde - 1)));
+        }
+        
+        List<Cumpleanos> cumpleanos = new ArrayList<>(contactos.size());
+        for (ContactoResponse contacto : contactos) {
+            LocalDate fecha = proximo(contacto.getFechaNacimiento(), hoy);
+            if (!fecha.isAfter(fin)) {
+                cumpleanos.add(new Cumpleanos(contacto, fecha, ChronoUnit.DAYS.between(hoy, fecha),
+                        fecha.getYear() - contacto.getFechaNacimiento().getYear()));
+            }
+        }
+        return Collections.unmodifiableList(cumpleanos);
+    }
+    
+    // Misma fórmula que la columna calculada de V4__dia_cumpleanos.sql
+    private static int clave(LocalDate fecha) {
+        return fecha.getMonthValue() * 100 + fecha.getDayOfMonth();
+    }
+    
+    // MonthDay.atYear pasa el 29 de febrero al 28 en los años no bisiestos
+    private static LocalDate proximo(LocalDate nacimiento, LocalDate hoy) {
+        MonthDay dia = MonthDay.from(nacimiento);
+        LocalDate fecha = dia.atYear(hoy.getYear());
+        return fecha.isBefore(hoy) ? dia.atYear(hoy.getYear() + 1) : fecha;
+    }
+    
+    private static final class CumpleanosDelDia {
+        private final LocalDate hoy;
+        private final String version;
+        private final Map<Integer, List<Cumpleanos>> porDias = new ConcurrentHashMap<>();
+        
+        private CumpleanosDelDia(LocalDate hoy, String version) {
+            this.hoy = hoy;
+            this.version = version;
+        }
+    }
+}
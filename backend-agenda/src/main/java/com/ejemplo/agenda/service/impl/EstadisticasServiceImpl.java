@@ -0,0 +1,191 @@
+package com.ejemplo.agenda.service.impl;
+
+import com.ejemplo.agenda.repository.ContactoRepository;
+import com.ejemplo.agenda.service.EstadisticasService;
+import com.ejemplo.agenda.service.HuellaContacto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantiene en memoria los contadores de la agenda. La primera lectura los carga con
+ * una consulta agregada; a partir de ahí las escrituras de contactos los actualizan
+ * tras el commit, de modo que cada consulta de estadísticas cuesta O(1).
+ *
+ * <p>La carga solo se queda si ninguna escritura con delta se ha confirmado mientras se hacía la consulta:
+ * de esa escritura no se sabría si la consulta ya la contó, y su delta la sumaría dos veces o la perdería.
+ * Si hay escrituras en curso, se repite; si no hay un hueco sin ellas, se responde con la consulta sin guardarla.</p>
+ */
+@Service
+public class EstadisticasServiceImpl implements EstadisticasService {
+    
+    private static final int INTENTOS_CARGA = 3;
+    
+    @Autowired
+    private ContactoRepository contactoRepository;
+    
+    private final Object lock = new Object();
+    
+    private boolean cargado;
+    private Contadores contadores;
+    
+    // Escrituras entre su beforeCommit y su afterCompletion, y escrituras confirmadas desde el arranque
+    private int confirmando;
+    private long confirmadas;
+    
+    // Los contadores se cargan una vez y luego se mantienen con deltas: deben partir de la primaria, no de una réplica
+    @Override
+    @Transactional
+    public Map<String, Object> obtenerContadores() {
+        Contadores consultados = null;
+        for (int intento = 0; intento < INTENTOS_CARGA; intento++) {
+            long generacion;
+            boolean sinEscrituras;
+            synchronized (lock) {
+                if (cargado) {
+                    return contadores.comoMapa();
+                }
+                generacion = confirmadas;
+                sinEscrituras = confirmando == 0;
+            }
+            consultados = consultar();
+            synchronized (lock) {
+                if (cargado) {
+                    return contadores.comoMapa();
+                }
+                if (sinEscrituras && confirmando == 0 && confirmadas == generacion) {
+                    contadores = consultados;
+                    cargado = true;
+                    return contadores.comoMapa();
+                }
+            }
+        }
+        return consultados.comoMapa();
+    }
+    
+    @Override
+    public void registrarAlta(HuellaContacto huella) {
+        alConfirmar(() -> contadores.aplicar(huella, 1));
+    }
+    
+    @Override
+    public void registrarBaja(HuellaContacto huella) {
+        alConfirmar(() -> contadores.aplicar(huella, -1));
+    }
+    
+    @Override
+    public void registrarCambio(HuellaContacto antes, HuellaContacto despues) {
+        alConfirmar(() -> {
+            contadores.aplicar(antes, -1);
+            contadores.aplicar(despues, 1);
+        });
+    }
+    
+    // Cambio de solo el favorito, hecho con un UPDATE condicional sin leer el resto de la huella
+    @Override
+    public void registrarFavorito(boolean favorito) {
+        alConfirmar(() -> contadores.totalFavoritos += favorito ? 1 : -1);
+    }
+    
+    @Override
+    public void invalidar() {
+        alConfirmar(() -> cargado = false);
+    }
+    
+    /**
+     * Aplica {@code delta} con el lock tomado cuando la transacción se confirma, si los contadores están cargados;
+     * si aún no lo están, la primera lectura ya verá el estado confirmado.
+     */
+    private void alConfirmar(Runnable delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Sin transacción de Spring (modo reactivo) el aviso llega después del commit: la carga actual pudo
+            // verlo o no, así que se descarta y la siguiente lectura vuelve a contar
+            synchronized (lock) {
+                confirmadas++;
+                cargado = false;
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean confirmandoEsta;
+            
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                synchronized (lock) {
+                    confirmando++;
+                    confirmandoEsta = true;
+                }
+            }
+            
+            @Override
+            public void afterCompletion(int estado) {
+                synchronized (lock) {
+                    if (confirmandoEsta) {
+                        confirmando--;
+                    }
+                    if (estado == STATUS_COMMITTED) {
+                        confirmadas++;
+                        if (cargado) {
+                            delta.run();
+                        }
+                    }
+                }
+            }
+        });
+    }
+    
+    // Una sola sentencia: todos los contadores salen de la misma foto de los datos
+    private Contadores consultar() {
+        Contadores consultados = new Contadores();
+        List<Object[]> filas = contactoRepository.contarEstadisticas();
+        for (Object[] fila : filas) {
+            String categoria = fila[0] != null ? (String) fila[0] : HuellaContacto.SIN_CATEGORIA;
+            long total = ((Number) fila[1]).longValue();
+            consultados.totalContactos += total;
+            consultados.totalFavoritos += ((Number) fila[2]).longValue();
+            consultados.contactosConEmail += ((Number) fila[3]).longValue();
+            consultados.contactosConTelefono += ((Number) fila[4]).longValue();
+            consultados.porCategoria.merge(categoria, total, Long::sum);
+        }
+        return consultados;
+    }
+    
+    private static final class Contadores {
+        private long totalContactos;
+        private long totalFavoritos;
+        private long contactosConEmail;
+        private long contactosConTelefono;
+        private final Map<String, Long> porCategoria = new HashMap<>();
+        
+        private void aplicar(HuellaContacto huella, int delta) {
+            totalContactos += delta;
+            if (huella.isFavorito()) {
+                totalFavoritos += delta;
+            }
+            if (huella.isConEmail()) {
+                contactosConEmail += delta;
+            }
+            if (huella.isConTelefono()) {
+                contactosConTelefono += delta;
+            }
+            porCategoria.merge(huella.getCategoria(), (long) delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+        
+        private Map<String, Object> comoMapa() {
+            Map<String, Object> estadisticas = new HashMap<>();
+            estadisticas.put("totalContactos", totalContactos);
+            estadisticas.put("totalFavoritos", totalFavoritos);
+            estadisticas.put("contactosConEmail", contactosConEmail);
+            estadisticas.put("contactosConTelefono", contactosConTelefono);
+            estadisticas.put("porCategoria", new TreeMap<>(porCategoria));
+            return estadisticas;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.ejemplo.agenda.service.impl;
+
+import com.ejemplo.agenda.formatos.EscritorContactos;
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+import com.ejemplo.agenda.model.enums.FormatoContactos;
+import com.ejemplo.agenda.repository.ContactoRepository;
+import com.ejemplo.agenda.service.ExportacionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportación de toda la agenda recorriendo un cursor JDBC: cada fila se proyecta, se escribe
+ * y se descarta, así que la memoria usada no depende del tamaño de la tabla.
+ */
+@Service
+public class ExportacionServiceImpl implements ExportacionService {
+    
+    @Autowired
+    private ContactoRepository contactoRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Override
+    public long exportarContactos(FormatoContactos formato, OutputStream salida) throws IOException {
+        EscritorContactos escritor = EscritorContactos.para(formato, salida, objectMapper);
+        
+        // El Stream del repositorio necesita una transacción abierta mientras se consume
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(true);
+        Long exportados = transaccion.execute(estado -> {
+            long total = 0;
+            try (Stream<ContactoResponse> contactos = contactoRepository.streamAllResponses()) {
+                Iterator<ContactoResponse> iterador = contactos.iterator();
+                while (iterador.hasNext()) {
+                    escritor.escribir(iterador.next());
+                    total++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return total;
+        });
+        escritor.terminar();
+        return exportados != null ? exportados : 0;
+    }
+}
@@ -0,0 +1,286 @@
+package com.ejemplo.agenda.service.impl;
+
+import com.ejemplo.agenda.busqueda.IndiceContactos;
+import com.ejemplo.agenda.eventos.CanalCambios;
+import com.ejemplo.agenda.formatos.FilaLeida;
+import com.ejemplo.agenda.formatos.LectorContactos;
+import com.ejemplo.agenda.model.Categoria;
+import com.ejemplo.agenda.model.Contacto;
+import com.ejemplo.agenda.model.dto.ContactoRequest;
+import com.ejemplo.agenda.model.dto.EventoCambio;
+import com.ejemplo.agenda.model.dto.ErrorImportacion;
+import com.ejemplo.agenda.model.dto.ResultadoImportacion;
+import com.ejemplo.agenda.model.enums.FormatoContactos;
+import com.ejemplo.agenda.service.CategoriaService;
+import com.ejemplo.agenda.service.EstadisticasService;
+import com.ejemplo.agenda.service.ImportacionService;
+import com.ejemplo.agenda.service.SecuenciaCambios;
+import com.ejemplo.agenda.service.VersionesDatos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importación masiva de contactos. La entrada se procesa fila a fila y se inserta con
+ * batches JDBC confirmados por separado; Hibernate no puede agrupar inserciones con ids
+ * {@code IDENTITY}, JDBC sí (y devuelve los ids generados del lote).
+ */
+@Service
+public class ImportacionServiceImpl implements ImportacionService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ImportacionServiceImpl.class);
+    
+    private static final String INSERTAR_CONTACTO = "INSERT INTO contactos (nombre, apellido, telefono, " +
+            "telefono_normalizado, telefono_invertido, email, direccion, fecha_nacimiento, notas, favorito, " +
+            "categoria_id, fecha_creacion, fecha_actualizacion, secuencia_cambio) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int MAX_ERRORES = 1000;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private CategoriaService categoriaService;
+    
+    @Autowired
+    private EstadisticasService estadisticasService;
+    
+    @Autowired
+    private IndiceContactos indiceContactos;
+    
+    @Autowired
+    private VersionesDatos versionesDatos;
+    
+    @Autowired
+    private SecuenciaCambios secuenciaCambios;
+    
+    @Autowired
+    private CanalCambios canalCambios;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${agenda.importacion.tamano-lote:1000}")
+    private int tamañoLote;
+    
+    @Override
+    public ResultadoImportacion importarContactos(InputStream entrada, FormatoContactos formato) throws IOException {
+        long inicio = System.currentTimeMillis();
+        ResultadoImportacion resultado = new ResultadoImportacion();
+        
+        // Las categorías se resuelven en memoria en lugar de un findById por fila
+        Map<String, Long> categoriasPorNombre = new HashMap<>();
+        for (Categoria categoria : categoriaService.obtenerTodasLasCategorias()) {
+            categoriasPorNombre.put(categoria.getNombre().toLowerCase(), categoria.getId());
+        }
+        Set<Long> idsCategoria = Set.copyOf(categoriasPorNombre.values());
+        
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        List<ContactoRequest> lote = new ArrayList<>(tamañoLote);
+        List<Long> filasLote = new ArrayList<>(tamañoLote);
+        
+        try (LectorContactos lector = LectorContactos.para(formato,
+                new InputStreamReader(entrada, StandardCharsets.UTF_8), objectMapper)) {
+            FilaLeida fila;
+            while ((fila = lector.leer()) != null) {
+                resultado.setProcesadas(resultado.getProcesadas() + 1);
+                if (fila.getError() != null) {
+                    rechazar(resultado, fila.getNumero(), fila.getError());
+                    continue;
+                }
+                ContactoRequest request = fila.getRequest();
+                String error = validar(request);
+                if (error == null) {
+                    error = resolverCategoria(request, fila.getCategoria(), categoriasPorNombre, idsCategoria);
+                }
+                if (error != null) {
+                    rechazar(resultado, fila.getNumero(), error);
+                    continue;
+                }
+                lote.add(request);
+                filasLote.add(fila.getNumero());
+                if (lote.size() >= tamañoLote) {
+                    insertarLote(transaccion, lote, filasLote, resultado);
+                }
+            }
+            if (!lote.isEmpty()) {
+                insertarLote(transaccion, lote, filasLote, resultado);
+            }
+        } finally {
+            resultado.setDuracionMs(System.currentTimeMillis() - inicio);
+            if (resultado.getImportadas() > 0) {
+                estadisticasService.invalidar();
+                // Un solo aviso al terminar: cada lote ya está confirmado
+                canalCambios.publicar(EventoCambio.recarga(EventoCambio.CONTACTO));
+            }
+        }
+        log.info("Importación {} terminada: {}", formato, resultado);
+        return resultado;
+    }
+    
+    private void insertarLote(TransactionTemplate transaccion, List<ContactoRequest> lote, List<Long> filasLote,
+                              ResultadoImportacion resultado) {
+        try {
+            insertarEnTransaccion(transaccion, lote, resultado);
+        } catch (DataAccessException e) {
+            if (lote.size() == 1) {
+                rechazar(resultado, filasLote.get(0), errorInsercion(e));
+            } else {
+                // El lote completo se ha deshecho: se repite fila a fila para rechazar solo las que fallan
+                log.warn("Lote de {} filas rechazado ({}); se inserta fila a fila", lote.size(),
+                        e.getMostSpecificCause().getMessage());
+                for (int i = 0; i < lote.size(); i++) {
+                    try {
+                        insertarEnTransaccion(transaccion, lote.subList(i, i + 1), resultado);
+                    } catch (DataAccessException errorFila) {
+                        rechazar(resultado, filasLote.get(i), errorInsercion(errorFila));
+                    }
+                }
+            }
+        } finally {
+            lote.clear();
+            filasLote.clear();
+        }
+    }
+    
+    private void insertarEnTransaccion(TransactionTemplate transaccion, List<ContactoRequest> contactos,
+                                       ResultadoImportacion resultado) {
+        // Cada lote ocupa una posición de la secuencia de cambios, reservada dentro de su transacción
+        List<Long> ids = transaccion.execute(estado -> {
+            long secuencia = secuenciaCambios.asignar();
+            return jdbcTemplate.execute(
+                    (ConnectionCallback<List<Long>>) conexion -> insertar(conexion, contactos, secuencia));
+        });
+        resultado.setImportadas(resultado.getImportadas() + contactos.size());
+        versionesDatos.contactosModificados();
+        if (ids != null && ids.size() == contactos.size()) {
+            Map<Long, ContactoRequest> nuevos = new LinkedHashMap<>();
+            for (int i = 0; i < ids.size(); i++) {
+                nuevos.put(ids.get(i), contactos.get(i));
+            }
+            indiceContactos.indexarLote(nuevos);
+        } else {
+            log.warn("El driver no devolvió los ids generados; el índice se reconstruirá en el próximo arranque");
+        }
+    }
+    
+    // Un único executeBatch por lote; los ids IDENTITY se recuperan con getGeneratedKeys
+    private List<Long> insertar(Connection conexion, List<ContactoRequest> lote, long secuencia) throws SQLException {
+        try (PreparedStatement sentencia = conexion.prepareStatement(INSERTAR_CONTACTO, Statement.RETURN_GENERATED_KEYS)) {
+            Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+            for (ContactoRequest request : lote) {
+                Object[] valores = parametros(request, ahora, secuencia);
+                for (int i = 0; i < valores.length; i++) {
+                    StatementCreatorUtils.setParameterValue(sentencia, i + 1, SqlTypeValue.TYPE_UNKNOWN, valores[i]);
+                }
+                sentencia.addBatch();
+            }
+            sentencia.executeBatch();
+            List<Long> ids = new ArrayList<>(lote.size());
+            try (ResultSet claves = sentencia.getGeneratedKeys()) {
+                while (claves.next()) {
+                    ids.add(claves.getLong(1));
+                }
+            }
+            return ids;
+        }
+    }
+    
+    private String validar(ContactoRequest request) {
+        Set<ConstraintViolation<ContactoRequest>> violaciones = validator.validate(request);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+    
+    private String resolverCategoria(ContactoRequest request, String nombreCategoria,
+                                     Map<String, Long> categoriasPorNombre, Set<Long> idsCategoria) {
+        if (request.getCategoriaId() != null) {
+            return idsCategoria.contains(request.getCategoriaId()) ? null
+                    : "Categoría no encontrada con ID: " + request.getCategoriaId();
+        }
+        if (nombreCategoria != null) {
+            Long id = categoriasPorNombre.get(nombreCategoria.toLowerCase());
+            if (id == null) {
+                return "Categoría no encontrada: " + nombreCategoria;
+            }
+            request.setCategoriaId(id);
+        }
+        return null;
+    }
+    
+    private Object[] parametros(ContactoRequest request, Timestamp ahora, long secuencia) {
+        String telefonoNormalizado = Contacto.normalizarTelefono(request.getTelefono());
+        return new Object[] {
+            request.getNombre(),
+            request.getApellido(),
+            request.getTelefono(),
+            telefonoNormalizado,
+            Contacto.invertir(telefonoNormalizado),
+            request.getEmail(),
+            request.getDireccion(),
+            request.getFechaNacimiento() != null ? Date.valueOf(request.getFechaNacimiento()) : null,
+            request.getNotas(),
+            Boolean.TRUE.equals(request.getFavorito()),
+            request.getCategoriaId(),
+            ahora,
+            ahora,
+            secuencia
+        };
+    }
+    
+    private static String errorInsercion(DataAccessException e) {
+        return "Error al insertar la fila: " + e.getMostSpecificCause().getMessage();
+    }
+    
+    private void rechazar(ResultadoImportacion resultado, long fila, String mensaje) {
+        resultado.setRechazadas(resultado.getRechazadas() + 1);
+        if (resultado.getErrores().size() < MAX_ERRORES) {
+            resultado.getErrores().add(new ErrorImportacion(fila, mensaje));
+        } else {
+            resultado.setErroresTruncados(true);
+        }
+    }
+}
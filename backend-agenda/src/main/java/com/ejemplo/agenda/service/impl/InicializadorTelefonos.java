@@ -0,0 +1,54 @@
+package com.ejemplo.agenda.service.impl;
+
+import com.ejemplo.agenda.model.Contacto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rellena las columnas de teléfono normalizado de las filas creadas antes de que existieran
+ * (bases persistentes anteriores a {@code V1_1__telefono_normalizado.sql}). No toca {@code fecha_actualizacion}.
+ */
+@Component
+public class InicializadorTelefonos implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(InicializadorTelefonos.class);
+    private static final int LOTE = 1000;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        int total = 0;
+        while (true) {
+            List<Object[]> filas = new ArrayList<>();
+            jdbcTemplate.query("SELECT id, telefono FROM contactos WHERE telefono_normalizado IS NULL",
+                    sentencia -> sentencia.setMaxRows(LOTE),
+                    fila -> {
+                        String normalizado = Contacto.normalizarTelefono(fila.getString("telefono"));
+                        filas.add(new Object[] {
+                            normalizado != null ? normalizado : "",
+                            normalizado != null ? Contacto.invertir(normalizado) : "",
+                            fila.getLong("id")
+                        });
+                    });
+            if (filas.isEmpty()) {
+                break;
+            }
+            jdbcTemplate.batchUpdate(
+                    "UPDATE contactos SET telefono_normalizado = ?, telefono_invertido = ? WHERE id = ?", filas);
+            total += filas.size();
+        }
+        if (total > 0) {
+            log.info("Normalizados {} teléfonos existentes", total);
+        }
+    }
+}
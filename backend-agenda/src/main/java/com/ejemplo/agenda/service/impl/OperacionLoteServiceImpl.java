@@ -0,0 +1,145 @@
+package com.ejemplo.agenda.service.impl;
+
+import com.ejemplo.agenda.busqueda.IndiceContactos;
+import com.ejemplo.agenda.eventos.CanalCambios;
+import com.ejemplo.agenda.model.Categoria;
+import com.ejemplo.agenda.model.dto.EventoCambio;
+import com.ejemplo.agenda.model.dto.FiltroContactos;
+import com.ejemplo.agenda.model.dto.OperacionLoteRequest;
+import com.ejemplo.agenda.model.dto.ResultadoLote;
+import com.ejemplo.agenda.repository.ContactoEliminadoRepository;
+import com.ejemplo.agenda.repository.ContactoRepository;
+import com.ejemplo.agenda.service.CategoriaService;
+import com.ejemplo.agenda.service.EstadisticasService;
+import com.ejemplo.agenda.service.OperacionLoteService;
+import com.ejemplo.agenda.service.SecuenciaCambios;
+import com.ejemplo.agenda.service.VersionesDatos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityNotFoundException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Operaciones masivas sobre contactos. Cada una se resuelve con una consulta de ids (si se usa un filtro)
+ * y una sentencia UPDATE/DELETE por cada trozo de ids, todo en una única transacción. Todos los contactos de
+ * una operación comparten la misma posición en la secuencia de cambios.
+ */
+@Service
+@Transactional
+public class OperacionLoteServiceImpl implements OperacionLoteService {
+    
+    // Limita el número de parámetros de cada cláusula IN
+    private static final int TAMANO_TROZO = 1000;
+    
+    @Autowired
+    private ContactoRepository contactoRepository;
+    
+    @Autowired
+    private ContactoEliminadoRepository contactoEliminadoRepository;
+    
+    @Autowired
+    private CategoriaService categoriaService;
+    
+    @Autowired
+    private EstadisticasService estadisticasService;
+    
+    @Autowired
+    private IndiceContactos indiceContactos;
+    
+    @Autowired
+    private VersionesDatos versionesDatos;
+    
+    @Autowired
+    private SecuenciaCambios secuenciaCambios;
+    
+    @Autowired
+    private CanalCambios canalCambios;
+    
+    @Override
+    public ResultadoLote marcarFavoritos(OperacionLoteRequest request) {
+        if (request.getFavorito() == null) {
+            throw new IllegalArgumentException("Indique el valor de 'favorito'");
+        }
+        boolean favorito = request.getFavorito();
+        LocalDateTime ahora = LocalDateTime.now();
+        long secuencia = secuenciaCambios.asignar();
+        return ejecutar("favorito", seleccionar(request),
+                trozo -> contactoRepository.actualizarFavorito(trozo, favorito, ahora, secuencia));
+    }
+    
+    @Override
+    public ResultadoLote moverACategoria(OperacionLoteRequest request) {
+        LocalDateTime ahora = LocalDateTime.now();
+        long secuencia = secuenciaCambios.asignar();
+        // Sin categoriaId los contactos quedan sin categoría
+        if (request.getCategoriaId() == null) {
+            return ejecutar("categoria", seleccionar(request),
+                    trozo -> contactoRepository.quitarCategoria(trozo, ahora, secuencia));
+        }
+        Categoria categoria = categoriaService.obtenerCategoriaPorId(request.getCategoriaId())
+                .orElseThrow(() -> new EntityNotFoundException("Categoría no encontrada con ID: " + request.getCategoriaId()));
+        return ejecutar("categoria", seleccionar(request),
+                trozo -> contactoRepository.actualizarCategoria(trozo, categoria, ahora, secuencia));
+    }
+    
+    @Override
+    public ResultadoLote eliminarContactos(OperacionLoteRequest request) {
+        List<Long> ids = seleccionar(request);
+        LocalDateTime ahora = LocalDateTime.now();
+        long secuencia = secuenciaCambios.asignar();
+        // Las bajas se registran antes del DELETE, que es el que da el número de afectados
+        ResultadoLote resultado = ejecutar("eliminar", ids, trozo -> {
+            contactoEliminadoRepository.registrarBajas(trozo, secuencia, ahora);
+            return contactoRepository.eliminarPorIds(trozo);
+        });
+        if (resultado.getAfectados() > 0) {
+            Transacciones.despuesDelCommit(() -> indiceContactos.eliminarLote(ids));
+        }
+        return resultado;
+    }
+    
+    private List<Long> seleccionar(OperacionLoteRequest request) {
+        FiltroContactos filtro = request.getFiltro();
+        boolean hayIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean hayFiltro = filtro != null && !filtro.estaVacio();
+        if (hayIds == hayFiltro) {
+            throw new IllegalArgumentException("Indique una lista de 'ids' o un 'filtro', pero no ambos");
+        }
+        if (hayIds) {
+            return request.getIds().stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .collect(Collectors.toList());
+        }
+        Long categoriaId = filtro.getCategoria() == null || filtro.getCategoria().isBlank()
+                ? null
+                : categoriaService.obtenerCategoriaPorNombre(filtro.getCategoria()).getId();
+        if (categoriaId == null) {
+            return contactoRepository.findIdsPorFavorito(filtro.getFavorito());
+        }
+        return filtro.getFavorito() == null
+                ? contactoRepository.findIdsPorCategoria(categoriaId)
+                : contactoRepository.findIdsPorCategoriaYFavorito(categoriaId, filtro.getFavorito());
+    }
+    
+    private ResultadoLote ejecutar(String operacion, List<Long> ids, ToIntFunction<List<Long>> sentencia) {
+        long inicio = System.currentTimeMillis();
+        long afectados = 0;
+        for (int i = 0; i < ids.size(); i += TAMANO_TROZO) {
+            afectados += sentencia.applyAsInt(ids.subList(i, Math.min(i + TAMANO_TROZO, ids.size())));
+        }
+        if (afectados > 0) {
+            estadisticasService.invalidar();
+            Transacciones.despuesDelCommit(versionesDatos::contactosModificados);
+            // Los clientes recargan en lugar de recibir un evento por contacto
+            Transacciones.despuesDelCommit(() -> canalCambios.publicar(EventoCambio.recarga(EventoCambio.CONTACTO)));
+        }
+        return new ResultadoLote(operacion, ids.size(), afectados, System.currentTimeMillis() - inicio);
+    }
+}
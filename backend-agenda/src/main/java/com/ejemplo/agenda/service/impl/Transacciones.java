@@ -0,0 +1,26 @@
+package com.ejemplo.agenda.service.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilidades para ejecutar efectos secundarios (contadores, índices) solo cuando
+ * la transacción de escritura se ha confirmado.
+ */
+final class Transacciones {
+    
+    private Transacciones() {}
+    
+    static void despuesDelCommit(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package com.ejemplo.agenda.web;
+
+import com.ejemplo.agenda.admision.ClasePeticion;
+import com.ejemplo.agenda.admision.ControlAdmision;
+import com.ejemplo.agenda.config.AdmisionProperties;
+import com.ejemplo.agenda.model.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Control de admisión de {@code /api/contactos} y {@code /api/categorias} con {@link ControlAdmision}.
+ *
+ * <p>Va detrás de la seguridad y de {@link RespuestasCondicionalesFilter}: los 304 y las respuestas cacheadas
+ * no ocupan plaza. Lo que no se admite se responde enseguida con 503 y {@code Retry-After}, en lugar de esperar
+ * los 30 s de {@code connection-timeout} del pool. Las exportaciones ocupan su plaza hasta terminar de escribirse.</p>
+ */
+@Component
+@Profile("!reactivo")
+@ConditionalOnProperty(prefix = "agenda.admision", name = "habilitada", matchIfMissing = true)
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class AdmisionFilter extends OncePerRequestFilter {
+    
+    private final ControlAdmision controlAdmision;
+    private final ObjectMapper objectMapper;
+    private final String reintentarTras;
+    
+    public AdmisionFilter(ControlAdmision controlAdmision, ObjectMapper objectMapper, AdmisionProperties propiedades) {
+        this.controlAdmision = controlAdmision;
+        this.objectMapper = objectMapper;
+        this.reintentarTras = String.valueOf(Math.max(1, (propiedades.getReintentarTras().toMillis() + 999) / 1000));
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String ruta = request.getRequestURI();
+        return "OPTIONS".equals(request.getMethod())
+                || !(ruta.startsWith("/api/contactos") || ruta.startsWith("/api/categorias"));
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ClasePeticion clase = ClasePeticion.de(request.getMethod(), request.getRequestURI());
+        ControlAdmision.Permiso permiso;
+        try {
+            permiso = controlAdmision.adquirir(clase);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permiso = null;
+        }
+        if (permiso == null) {
+            rechazar(request, response, clase);
+            return;
+        }
+        
+        boolean error = true;
+        try {
+            chain.doFilter(request, response);
+            error = response.getStatus() >= 500;
+        } finally {
+            if (request.isAsyncStarted()) {
+                liberarAlTerminar(request, permiso);
+            } else {
+                permiso.liberar(error);
+            }
+        }
+    }
+    
+    private void liberarAlTerminar(HttpServletRequest request, ControlAdmision.Permiso permiso) {
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+                permiso.liberar(response.getStatus() >= 500);
+            }
+            
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                permiso.liberar(true);
+            }
+            
+            @Override
+            public void onError(AsyncEvent event) {
+                permiso.liberar(true);
+            }
+            
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+    
+    private void rechazar(HttpServletRequest request, HttpServletResponse response, ClasePeticion clase)
+            throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, reintentarTras);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ErrorResponse error = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Servidor saturado (peticiones de tipo " + clase.getNombre() + "): reintente más tarde",
+                request.getRequestURI());
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -0,0 +1,220 @@
+package com.ejemplo.agenda.web;
+
+import com.ejemplo.agenda.config.MetricasConfig;
+import com.ejemplo.agenda.config.MetricasProperties;
+import com.ejemplo.agenda.metricas.ContadorSentencias;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTags;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Tamaño del cuerpo de cada respuesta y número de sentencias SQL de Hibernate por petición, etiquetados
+ * por {@code uri} y {@code method} como {@code http.server.requests}.
+ *
+ * <p>Va por delante de la seguridad y de {@link RespuestasCondicionalesFilter}, así que también cuenta
+ * las respuestas servidas desde caché. Las descargas en streaming se miden al terminar la petición
+ * asíncrona, con las sentencias del hilo que escribe el cuerpo ({@link SentenciasAsincronasInterceptor}).</p>
+ *
+ * <p>Si el método de controlador declara un {@link com.ejemplo.agenda.metricas.PresupuestoSentencias} y la petición
+ * lo supera, se avisa en el log y en {@code agenda.sql.presupuesto.excedido}. Con
+ * {@code agenda.metricas.presupuestos.cabecera=true} la respuesta lleva las sentencias en {@code X-Sentencias-Sql}:
+ * las contadas hasta empezar a escribir el cuerpo, o todas si no había cuerpo que escribir. En las peticiones
+ * asíncronas la fija {@link SentenciasAsincronasInterceptor} antes de que empiece el hilo que escribe.</p>
+ */
+@Component
+@Profile("!reactivo")
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class MetricasPeticionFilter extends OncePerRequestFilter {
+    
+    public static final String CABECERA_SENTENCIAS = "X-Sentencias-Sql";
+    
+    private static final Logger log = LoggerFactory.getLogger(MetricasPeticionFilter.class);
+    
+    private final MeterRegistry registry;
+    private final boolean cabecera;
+    
+    public MetricasPeticionFilter(MeterRegistry registry, MetricasProperties propiedades) {
+        this.registry = registry;
+        this.cabecera = propiedades.getPresupuestos().isCabecera();
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContadorBytes envoltorio = new ContadorBytes(response, cabecera);
+        ContadorSentencias.iniciar();
+        ContadorSentencias.Medicion medicion = ContadorSentencias.actual();
+        try {
+            chain.doFilter(request, envoltorio);
+        } finally {
+            int sentencias = ContadorSentencias.terminar();
+            // Con la petición asíncrona en marcha la respuesta es del otro hilo, que puede seguir contando
+            if (cabecera && !request.isAsyncStarted() && !response.isCommitted()) {
+                response.setHeader(CABECERA_SENTENCIAS, Integer.toString(sentencias));
+            }
+            if (request.isAsyncStarted()) {
+                // El hilo asíncrono sigue sumando en la misma medición hasta que la petición termina
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        cerrar(request, envoltorio, medicion.getSentencias(), medicion.getMaximo());
+                    }
+                    
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+                    
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+                    
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                envoltorio.vaciarEscritor();
+                cerrar(request, envoltorio, sentencias, medicion.getMaximo());
+            }
+        }
+    }
+    
+    private void cerrar(HttpServletRequest request, ContadorBytes response, int sentencias, int presupuesto) {
+        if (presupuesto >= 0 && sentencias > presupuesto) {
+            excedido(request, response, sentencias, presupuesto);
+        }
+        registrar(request, response, sentencias);
+    }
+    
+    private void registrar(HttpServletRequest request, ContadorBytes response, int sentencias) {
+        Tags tags = Tags.of(WebMvcTags.uri(request, response), WebMvcTags.method(request));
+        DistributionSummary.builder(MetricasConfig.RESPUESTA_BYTES)
+                .description("Tamaño del cuerpo de las respuestas HTTP")
+                .baseUnit("bytes")
+                .tags(tags.and(WebMvcTags.status(response)))
+                .register(registry)
+                .record(response.bytes);
+        DistributionSummary.builder(MetricasConfig.SENTENCIAS_SQL)
+                .description("Sentencias SQL preparadas por Hibernate en cada petición")
+                .tags(tags)
+                .register(registry)
+                .record(sentencias);
+    }
+    
+    private void excedido(HttpServletRequest request, HttpServletResponse response, int sentencias, int presupuesto) {
+        String uri = WebMvcTags.uri(request, response).getValue();
+        log.warn("{} {}: {} sentencias SQL con un presupuesto de {}", request.getMethod(), uri, sentencias, presupuesto);
+        Counter.builder("agenda.sql.presupuesto.excedido")
+                .description("Peticiones que superan el presupuesto de sentencias SQL de su método de controlador")
+                .tags(Tags.of(WebMvcTags.uri(request, response), WebMvcTags.method(request)))
+                .register(registry)
+                .increment();
+    }
+    
+    /** Cuenta los bytes escritos en el cuerpo sin almacenarlos (las exportaciones pueden ocupar cientos de MB). */
+    private static final class ContadorBytes extends HttpServletResponseWrapper {
+        
+        private final boolean cabecera;
+        private long bytes;
+        private ServletOutputStream salida;
+        private PrintWriter escritor;
+        
+        private ContadorBytes(HttpServletResponse response, boolean cabecera) {
+            super(response);
+            this.cabecera = cabecera;
+        }
+        
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (salida == null) {
+                // Lo que se cuente después ya no cabe en la cabecera si el cuerpo no entra en el buffer
+                if (cabecera && !isCommitted()) {
+                    setHeader(CABECERA_SENTENCIAS, Integer.toString(ContadorSentencias.actuales()));
+                }
+                ServletOutputStream original = super.getOutputStream();
+                salida = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        original.write(b);
+                        bytes++;
+                    }
+                    
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        original.write(b, off, len);
+                        bytes += len;
+                    }
+                    
+                    @Override
+                    public void flush() throws IOException {
+                        original.flush();
+                    }
+                    
+                    @Override
+                    public void close() throws IOException {
+                        original.close();
+                    }
+                    
+                    @Override
+                    public boolean isReady() {
+                        return original.isReady();
+                    }
+                    
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        original.setWriteListener(listener);
+                    }
+                };
+            }
+            return salida;
+        }
+        
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (escritor == null) {
+                escritor = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return escritor;
+        }
+        
+        @Override
+        public void flushBuffer() throws IOException {
+            vaciarEscritor();
+            super.flushBuffer();
+        }
+        
+        // El contenedor solo vacía su propio writer al terminar, no este
+        private void vaciarEscritor() {
+            if (escritor != null) {
+                escritor.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ejemplo.agenda.web;
+
+import com.ejemplo.agenda.config.MetricasProperties;
+import com.ejemplo.agenda.metricas.ContadorSentencias;
+import com.ejemplo.agenda.metricas.PresupuestoSentencias;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Pasa a la medición de {@link MetricasPeticionFilter} el {@link PresupuestoSentencias} del método de controlador.
+ * Lo que se haya contado antes de llegar aquí (seguridad, filtros) también cuenta para el presupuesto.
+ */
+public class PresupuestoSentenciasInterceptor implements HandlerInterceptor {
+    
+    private final MetricasProperties.Presupuestos propiedades;
+    
+    public PresupuestoSentenciasInterceptor(MetricasProperties.Presupuestos propiedades) {
+        this.propiedades = propiedades;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            PresupuestoSentencias presupuesto = ((HandlerMethod) handler).getMethodAnnotation(PresupuestoSentencias.class);
+            if (presupuesto != null) {
+                ContadorSentencias.presupuesto(presupuesto.value(), propiedades.isEstricto());
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,148 @@
+package com.ejemplo.agenda.web;
+
+import com.ejemplo.agenda.datos.LecturaPropia;
+import com.ejemplo.agenda.service.VersionesDatos;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * GET condicionales y caché de respuestas ya serializadas para los listados de la API.
+ *
+ * <p>El ETag se calcula con {@link VersionesDatos}, así que un {@code If-None-Match} vigente
+ * se responde con 304 sin llegar al controlador. Si no, se sirven los bytes guardados para
+ * esa URL cuando su versión coincide, o se ejecuta la petición y se guarda el resultado.</p>
+ */
+@Component
+@Profile("!reactivo")
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class RespuestasCondicionalesFilter extends OncePerRequestFilter {
+    
+    private static final String CONTACTOS = "/api/contactos";
+    private static final String CATEGORIAS = "/api/categorias";
+    
+    // Los contactos individuales usan su columna de versión (ContactoController); la exportación es streaming;
+    // los cambios dependen de la secuencia de cambios, que no sigue a VersionesDatos (p. ej. al renombrar categorías);
+    // los cumpleaños dependen también de la fecha y tienen su propia caché diaria (CumpleanosServiceImpl)
+    private static final Pattern EXCLUIDAS = Pattern.compile("^/api/contactos/(\\d+|exportar|cambios|cumpleanos)$");
+    
+    private final VersionesDatos versionesDatos;
+    private final Cache<String, RespuestaCacheada> cache;
+    private final int maximoEntrada;
+    
+    public RespuestasCondicionalesFilter(
+            VersionesDatos versionesDatos,
+            @Value("${agenda.respuestas.cache.maximo-bytes:33554432}") long maximoBytes,
+            @Value("${agenda.respuestas.cache.maximo-entrada:1048576}") int maximoEntrada) {
+        this.versionesDatos = versionesDatos;
+        this.maximoEntrada = maximoEntrada;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximoBytes)
+                .weigher((String clave, RespuestaCacheada respuesta) -> clave.length() + respuesta.cuerpo.length)
+                .build();
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String ruta = request.getRequestURI();
+        return !"GET".equals(request.getMethod())
+                || !(ruta.startsWith(CONTACTOS) || ruta.startsWith(CATEGORIAS))
+                || EXCLUIDAS.matcher(ruta).matches();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // La versión se lee antes de ejecutar la consulta: si hay una escritura en medio, la entrada nace caducada
+        String etag = request.getRequestURI().startsWith(CATEGORIAS)
+                ? versionesDatos.etagCategorias()
+                : versionesDatos.etagContactos();
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        
+        String clave = request.getQueryString() != null
+                ? request.getRequestURI() + "?" + request.getQueryString()
+                : request.getRequestURI();
+        RespuestaCacheada cacheada = cache.getIfPresent(clave);
+        if (cacheada != null) {
+            // Sin pasar por MVC no hay patrón: se reutiliza el de la respuesta guardada para la etiqueta uri de las métricas
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, cacheada.patron);
+        }
+        
+        if (coincide(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        
+        if (cacheada != null && cacheada.etag.equals(etag)) {
+            response.setContentType(cacheada.tipoContenido);
+            response.setContentLength(cacheada.cuerpo.length);
+            response.getOutputStream().write(cacheada.cuerpo);
+            return;
+        }
+        
+        ContentCachingResponseWrapper envoltorio = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, envoltorio);
+            if (request.getAttribute(LecturaPropia.POSIBLEMENTE_ATRASADA) != null) {
+                // Leída de una réplica justo tras una escritura: no se guarda, y el ETag no debe validarla
+                // como si fuera la versión vigente
+                envoltorio.setHeader(HttpHeaders.ETAG, etag.substring(0, etag.length() - 1) + "-r\"");
+                return;
+            }
+            if (envoltorio.getStatus() == HttpStatus.OK.value() && envoltorio.getContentSize() <= maximoEntrada
+                    && etag.equals(envoltorio.getHeader(HttpHeaders.ETAG))) {
+                cache.put(clave, new RespuestaCacheada(etag, envoltorio.getContentType(), envoltorio.getContentAsByteArray(),
+                        (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)));
+            }
+        } finally {
+            envoltorio.copyBodyToResponse();
+        }
+    }
+    
+    private static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals(etag) || valor.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static final class RespuestaCacheada {
+        private final String etag;
+        private final String tipoContenido;
+        private final byte[] cuerpo;
+        private final String patron;
+        
+        private RespuestaCacheada(String etag, String tipoContenido, byte[] cuerpo, String patron) {
+            this.etag = etag;
+            this.tipoContenido = tipoContenido;
+            this.cuerpo = cuerpo;
+            this.patron = patron;
+        }
+    }
+}
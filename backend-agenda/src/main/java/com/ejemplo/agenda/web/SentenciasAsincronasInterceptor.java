@@ -0,0 +1,54 @@
+package com.ejemplo.agenda.web;
+
+import com.ejemplo.agenda.metricas.ContadorSentencias;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.Callable;
+
+/**
+ * Continúa la medición de {@link MetricasPeticionFilter} en el hilo que ejecuta el {@link Callable} de una petición
+ * asíncrona. Spring MVC escribe así los {@code StreamingResponseBody}: sin esto, las sentencias de la exportación
+ * no contarían para la métrica ni para el presupuesto.
+ *
+ * <p>La cabecera {@code X-Sentencias-Sql} de estas peticiones se fija aquí, en el hilo de la petición y antes de que
+ * empiece el otro: lleva las sentencias previas al cuerpo y no depende de cuánto haya avanzado la escritura.</p>
+ */
+public class SentenciasAsincronasInterceptor implements CallableProcessingInterceptor {
+    
+    private static final String MEDICION = SentenciasAsincronasInterceptor.class.getName() + ".MEDICION";
+    
+    private final boolean cabecera;
+    
+    public SentenciasAsincronasInterceptor(boolean cabecera) {
+        this.cabecera = cabecera;
+    }
+    
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        ContadorSentencias.Medicion medicion = ContadorSentencias.actual();
+        if (medicion == null) {
+            return;
+        }
+        request.setAttribute(MEDICION, medicion, RequestAttributes.SCOPE_REQUEST);
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        if (cabecera && response != null && !response.isCommitted()) {
+            response.setHeader(MetricasPeticionFilter.CABECERA_SENTENCIAS, Integer.toString(medicion.getSentencias()));
+        }
+    }
+    
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        Object medicion = request.getAttribute(MEDICION, RequestAttributes.SCOPE_REQUEST);
+        if (medicion != null) {
+            ContadorSentencias.continuar((ContadorSentencias.Medicion) medicion);
+        }
+    }
+    
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        ContadorSentencias.soltar();
+    }
+}
@@ -0,0 +1,33 @@
+-- Datos de ejemplo para desarrollo (H2). Sustituye a data.sql: se aplica una sola vez y solo sobre tablas vacías,
+-- así que no toca una base de datos ya poblada (por ejemplo, con el generador de README-Carga.md).
+
+INSERT INTO categorias (nombre, color, descripcion)
+SELECT nombre, color, descripcion FROM (VALUES
+    ('Familia', '#FF6B6B', 'Contactos de familiares cercanos'),
+    ('Trabajo', '#4ECDC4', 'Compañeros de trabajo y jefes'),
+    ('Amigos', '#45B7D1', 'Amigos personales'),
+    ('Médicos', '#96CEB4', 'Profesionales de la salud'),
+    ('Servicios', '#FFEAA7', 'Servicios varios y emergencias')
+) AS ejemplo (nombre, color, descripcion)
+WHERE NOT EXISTS (SELECT 1 FROM categorias);
+
+INSERT INTO contactos (nombre, apellido, telefono, telefono_normalizado, telefono_invertido, email, direccion,
+                       fecha_nacimiento, notas, favorito, categoria_id, fecha_creacion, fecha_actualizacion)
+SELECT e.nombre, e.apellido, e.telefono, e.telefono_normalizado, e.telefono_invertido, e.email, e.direccion,
+       e.fecha_nacimiento, e.notas, e.favorito, c.id, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM (VALUES
+    ('Juan', 'Pérez', '555-0101', '5550101', '1010555', 'juan.perez@email.com', 'Calle Principal 123',
+     DATE '1985-03-15', 'Hermano mayor', TRUE, 'Familia'),
+    ('María', 'García', '555-0102', '5550102', '2010555', 'maria.garcia@trabajo.com', 'Oficina Central 456',
+     DATE '1990-07-22', 'Jefa de proyecto', FALSE, 'Trabajo'),
+    ('Carlos', 'López', '555-0103', '5550103', '3010555', 'carlos.lopez@email.com', 'Avenida Norte 789',
+     DATE '1988-11-08', 'Amigo de la universidad', TRUE, 'Amigos'),
+    ('Dr. Ana', 'Martínez', '555-0104', '5550104', '4010555', 'ana.martinez@clinica.com', 'Centro Médico 321',
+     DATE '1975-05-12', 'Cardióloga', FALSE, 'Médicos'),
+    ('Bomberos', '', '911', '911', '119', '', 'Estación Central',
+     CAST(NULL AS DATE), 'Emergencias', FALSE, 'Servicios')
+) AS e (nombre, apellido, telefono, telefono_normalizado, telefono_invertido, email, direccion, fecha_nacimiento,
+        notas, favorito, categoria)
+LEFT JOIN categorias c ON c.nombre = e.categoria
+WHERE NOT EXISTS (SELECT 1 FROM contactos)
+ORDER BY e.telefono_normalizado;
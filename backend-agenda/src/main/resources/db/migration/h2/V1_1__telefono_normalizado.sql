@@ -0,0 +1,7 @@
+-- Teléfono solo con dígitos, y al revés, para GET /api/contactos/telefono/{telefono}
+
+ALTER TABLE contactos ADD COLUMN telefono_normalizado VARCHAR(15);
+ALTER TABLE contactos ADD COLUMN telefono_invertido VARCHAR(15);
+
+CREATE INDEX idx_contactos_telefono_normalizado ON contactos (telefono_normalizado);
+CREATE INDEX idx_contactos_telefono_invertido ON contactos (telefono_invertido);
@@ -0,0 +1,3 @@
+-- Versión de cada contacto para el bloqueo optimista de PUT/PATCH con If-Match
+
+ALTER TABLE contactos ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,13 @@
+-- Secuencia de cambios y marcas de borrado para GET /api/contactos/cambios
+
+ALTER TABLE contactos ADD COLUMN secuencia_cambio BIGINT DEFAULT 0 NOT NULL;
+
+CREATE TABLE contactos_eliminados (
+    contacto_id BIGINT NOT NULL,
+    secuencia_cambio BIGINT NOT NULL,
+    fecha_eliminacion TIMESTAMP NOT NULL,
+    PRIMARY KEY (contacto_id)
+);
+
+CREATE INDEX idx_contactos_secuencia_cambio ON contactos (secuencia_cambio, id);
+CREATE INDEX idx_contactos_eliminados_secuencia ON contactos_eliminados (secuencia_cambio, contacto_id);
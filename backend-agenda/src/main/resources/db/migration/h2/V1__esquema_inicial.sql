@@ -0,0 +1,27 @@
+-- Esquema de partida: el que generaba Hibernate (ddl-auto) a partir de las entidades
+
+CREATE TABLE categorias (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nombre VARCHAR(50) NOT NULL,
+    color VARCHAR(7),
+    descripcion VARCHAR(200),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_categorias_nombre UNIQUE (nombre)
+);
+
+CREATE TABLE contactos (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nombre VARCHAR(50) NOT NULL,
+    apellido VARCHAR(50),
+    telefono VARCHAR(15) NOT NULL,
+    email VARCHAR(100),
+    direccion VARCHAR(200),
+    fecha_nacimiento DATE,
+    notas VARCHAR(500),
+    favorito BOOLEAN NOT NULL,
+    categoria_id BIGINT,
+    fecha_creacion TIMESTAMP,
+    fecha_actualizacion TIMESTAMP,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_contactos_categoria FOREIGN KEY (categoria_id) REFERENCES categorias (id)
+);
@@ -0,0 +1,14 @@
+-- Un índice por patrón de consulta de ContactoRepository. Todos terminan en id, que es el desempate del orden
+-- y la clave de los cursores, para que la página se lea del índice sin ordenar.
+
+-- Listados por categoría (por nombre de categoría se llega con la unique de categorias) y la clave ajena
+CREATE INDEX idx_contactos_categoria ON contactos (categoria_id, id);
+
+-- /favoritos, countByFavorito y el filtro de las operaciones masivas
+CREATE INDEX idx_contactos_favorito ON contactos (favorito, id);
+
+-- /recientes: ORDER BY fecha_creacion DESC, id DESC
+CREATE INDEX idx_contactos_fecha_creacion ON contactos (fecha_creacion DESC, id DESC);
+
+-- Cursor con orden=nombre: WHERE nombre > ? OR (nombre = ? AND id > ?) ORDER BY nombre, id
+CREATE INDEX idx_contactos_nombre ON contactos (nombre, id);
@@ -0,0 +1,8 @@
+-- Clave mes-día del cumpleaños (MMDD, 229 para el 29 de febrero) para GET /api/contactos/cumpleanos. La calcula la
+-- base de datos en cada escritura, así que vale igual para los INSERT por lotes de la importación, las operaciones
+-- masivas y el modo reactivo. Las filas existentes se rellenan al añadir la columna.
+ALTER TABLE contactos ADD COLUMN dia_cumpleanos INT
+    GENERATED ALWAYS AS (EXTRACT(MONTH FROM fecha_nacimiento) * 100 + EXTRACT(DAY FROM fecha_nacimiento));
+
+-- Próximos cumpleaños: WHERE dia_cumpleanos BETWEEN ? AND ? ORDER BY dia_cumpleanos, id
+CREATE INDEX idx_contactos_dia_cumpleanos ON contactos (dia_cumpleanos, id);
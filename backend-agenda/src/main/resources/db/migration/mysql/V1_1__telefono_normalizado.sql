@@ -0,0 +1,12 @@
+-- Teléfono solo con dígitos, y al revés, para GET /api/contactos/telefono/{telefono}: el primero resuelve la
+-- búsqueda exacta y el prefijo, el segundo la búsqueda por los últimos dígitos. Las filas que ya existían las
+-- rellena InicializadorTelefonos al arrancar.
+ALTER TABLE contactos
+    ADD COLUMN telefono_normalizado VARCHAR(15),
+    ADD COLUMN telefono_invertido VARCHAR(15),
+    ALGORITHM = INPLACE, LOCK = NONE;
+
+ALTER TABLE contactos ADD INDEX idx_contactos_telefono_normalizado (telefono_normalizado),
+    ALGORITHM = INPLACE, LOCK = NONE;
+ALTER TABLE contactos ADD INDEX idx_contactos_telefono_invertido (telefono_invertido),
+    ALGORITHM = INPLACE, LOCK = NONE;
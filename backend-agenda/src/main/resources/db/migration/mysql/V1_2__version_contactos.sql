@@ -0,0 +1,2 @@
+-- Versión de cada contacto para el bloqueo optimista de PUT/PATCH con If-Match. Las filas existentes empiezan en 0.
+ALTER TABLE contactos ADD COLUMN version BIGINT DEFAULT 0 NOT NULL, ALGORITHM = INPLACE, LOCK = NONE;
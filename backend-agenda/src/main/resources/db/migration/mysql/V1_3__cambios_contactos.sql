@@ -0,0 +1,16 @@
+-- GET /api/contactos/cambios: cada escritura deja en secuencia_cambio el siguiente valor de la secuencia de cambios,
+-- y cada borrado una marca en contactos_eliminados. Las filas existentes quedan con 0: la primera sincronización
+-- las recibe todas.
+ALTER TABLE contactos ADD COLUMN secuencia_cambio BIGINT DEFAULT 0 NOT NULL, ALGORITHM = INPLACE, LOCK = NONE;
+
+-- Cursor de cambios: WHERE secuencia_cambio > ? ORDER BY secuencia_cambio, id
+ALTER TABLE contactos ADD INDEX idx_contactos_secuencia_cambio (secuencia_cambio, id), ALGORITHM = INPLACE, LOCK = NONE;
+
+CREATE TABLE contactos_eliminados (
+    contacto_id BIGINT NOT NULL,
+    secuencia_cambio BIGINT NOT NULL,
+    fecha_eliminacion DATETIME(6) NOT NULL,
+    PRIMARY KEY (contacto_id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_contactos_eliminados_secuencia ON contactos_eliminados (secuencia_cambio, contacto_id);
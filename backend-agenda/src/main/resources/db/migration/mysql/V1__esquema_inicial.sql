@@ -0,0 +1,29 @@
+-- Esquema de partida: el que generaba Hibernate (ddl-auto=update) a partir de las entidades.
+-- En una base de datos ya creada así, Flyway la toma como versión 1 (baseline-on-migrate) y no ejecuta este script.
+-- Por eso aquí solo está lo que ya existía en producción: todo lo que se añada después va en su propia migración.
+
+CREATE TABLE categorias (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nombre VARCHAR(50) NOT NULL,
+    color VARCHAR(7),
+    descripcion VARCHAR(200),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_categorias_nombre UNIQUE (nombre)
+) ENGINE = InnoDB;
+
+CREATE TABLE contactos (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nombre VARCHAR(50) NOT NULL,
+    apellido VARCHAR(50),
+    telefono VARCHAR(15) NOT NULL,
+    email VARCHAR(100),
+    direccion VARCHAR(200),
+    fecha_nacimiento DATE,
+    notas VARCHAR(500),
+    favorito BIT NOT NULL,
+    categoria_id BIGINT,
+    fecha_creacion DATETIME(6),
+    fecha_actualizacion DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_contactos_categoria FOREIGN KEY (categoria_id) REFERENCES categorias (id)
+) ENGINE = InnoDB;
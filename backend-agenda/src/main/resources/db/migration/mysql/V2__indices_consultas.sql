@@ -0,0 +1,19 @@
+-- Un índice por patrón de consulta de ContactoRepository. Todos terminan en id, que es el desempate del orden
+-- y la clave de los cursores, para que la página se lea del índice sin ordenar.
+--
+-- ALGORITHM=INPLACE, LOCK=NONE: InnoDB construye el índice sin bloquear lecturas ni escrituras sobre contactos,
+-- y si no pudiera hacerlo así la sentencia falla en lugar de copiar la tabla con un bloqueo.
+
+-- Listados por categoría (por nombre de categoría se llega con la unique de categorias). InnoDB ya creó un
+-- índice para la clave ajena con el nombre de la restricción; el compuesto lo sustituye.
+ALTER TABLE contactos ADD INDEX idx_contactos_categoria (categoria_id, id), ALGORITHM = INPLACE, LOCK = NONE;
+
+-- /favoritos, countByFavorito y el filtro de las operaciones masivas
+ALTER TABLE contactos ADD INDEX idx_contactos_favorito (favorito, id), ALGORITHM = INPLACE, LOCK = NONE;
+
+-- /recientes: ORDER BY fecha_creacion DESC, id DESC
+ALTER TABLE contactos ADD INDEX idx_contactos_fecha_creacion (fecha_creacion DESC, id DESC),
+    ALGORITHM = INPLACE, LOCK = NONE;
+
+-- Cursor con orden=nombre: WHERE nombre > ? OR (nombre = ? AND id > ?) ORDER BY nombre, id
+ALTER TABLE contactos ADD INDEX idx_contactos_nombre (nombre, id), ALGORITHM = INPLACE, LOCK = NONE;
@@ -0,0 +1,11 @@
+-- Clave mes-día del cumpleaños (MMDD, 229 para el 29 de febrero) para GET /api/contactos/cumpleanos. La calcula la
+-- base de datos en cada escritura, así que vale igual para los INSERT por lotes de la importación, las operaciones
+-- masivas y el modo reactivo.
+--
+-- Columna VIRTUAL: añadirla no reescribe la tabla, y el índice guarda el valor calculado de cada fila. Ambas
+-- sentencias se aplican en línea como las de V2.
+ALTER TABLE contactos ADD COLUMN dia_cumpleanos INT
+    AS (MONTH(fecha_nacimiento) * 100 + DAYOFMONTH(fecha_nacimiento)) VIRTUAL, ALGORITHM = INPLACE, LOCK = NONE;
+
+-- Próximos cumpleaños: WHERE dia_cumpleanos BETWEEN ? AND ? ORDER BY dia_cumpleanos, id
+ALTER TABLE contactos ADD INDEX idx_contactos_dia_cumpleanos (dia_cumpleanos, id), ALGORITHM = INPLACE, LOCK = NONE;
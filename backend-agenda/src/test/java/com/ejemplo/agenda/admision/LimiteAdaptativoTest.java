@@ -0,0 +1,129 @@
+package com.ejemplo.agenda.admision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimiteAdaptativoTest {
+    
+    private static final long DURACION_VENTANA = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int MUESTRAS_POR_VENTANA = 10;
+    
+    private final AtomicLong reloj = new AtomicLong();
+    
+    @Test
+    void creceMientrasLaLatenciaSeMantiene() {
+        LimiteAdaptativo limite = nuevo(20, 1, 100);
+        
+        for (int i = 0; i < 20; i++) {
+            ventana(limite, 1, limite.getLimite(), false);
+        }
+        
+        assertThat(limite.getLimite()).isGreaterThan(20).isLessThanOrEqualTo(100);
+    }
+    
+    @Test
+    void noPasaDelMaximo() {
+        LimiteAdaptativo limite = nuevo(90, 1, 100);
+        
+        for (int i = 0; i < 100; i++) {
+            ventana(limite, 1, 100, false);
+        }
+        
+        assertThat(limite.getLimite()).isEqualTo(100);
+    }
+    
+    @Test
+    void sinConcurrenciaSuficienteNoSeToca() {
+        LimiteAdaptativo limite = nuevo(40, 1, 100);
+        
+        for (int i = 0; i < 20; i++) {
+            assertThat(ventana(limite, 1, 19, false)).isFalse();
+        }
+        
+        assertThat(limite.getLimite()).isEqualTo(40);
+    }
+    
+    @Test
+    void seReduceCuandoLaLatenciaSuperaLaTolerancia() {
+        LimiteAdaptativo limite = nuevo(100, 5, 200);
+        for (int i = 0; i < 10; i++) {
+            ventana(limite, 1, limite.getLimite(), false);
+        }
+        int antes = limite.getLimite();
+        
+        assertThat(ventana(limite, 10, antes, false)).isTrue();
+        
+        // Como mucho la mitad por ventana, suavizado
+        assertThat(limite.getLimite()).isLessThan(antes).isGreaterThanOrEqualTo(antes / 2);
+    }
+    
+    @Test
+    void losErroresReducenSinMirarLaLatenciaNiLaConcurrencia() {
+        LimiteAdaptativo limite = nuevo(50, 5, 100);
+        
+        assertThat(ventana(limite, 1, 1, true)).isTrue();
+        
+        assertThat(limite.getLimite()).isEqualTo(45);
+    }
+    
+    @Test
+    void noBajaDelMinimo() {
+        LimiteAdaptativo limite = nuevo(6, 5, 100);
+        
+        for (int i = 0; i < 10; i++) {
+            ventana(limite, 1, 1, true);
+        }
+        
+        assertThat(limite.getLimite()).isEqualTo(5);
+    }
+    
+    @Test
+    void laVentanaEsperaSuDuracionMinima() {
+        LimiteAdaptativo limite = nuevo(50, 5, 100);
+        
+        for (int i = 0; i < 3 * MUESTRAS_POR_VENTANA; i++) {
+            assertThat(limite.muestra(TimeUnit.MILLISECONDS.toNanos(1), 1, true)).isFalse();
+        }
+        assertThat(limite.getLimite()).isEqualTo(50);
+        
+        reloj.addAndGet(DURACION_VENTANA);
+        assertThat(limite.muestra(TimeUnit.MILLISECONDS.toNanos(1), 1, false)).isTrue();
+        assertThat(limite.getLimite()).isEqualTo(45);
+    }
+    
+    @Test
+    void laVentanaEsperaSusMuestras() {
+        LimiteAdaptativo limite = nuevo(50, 5, 100);
+        reloj.addAndGet(10 * DURACION_VENTANA);
+        
+        for (int i = 0; i < MUESTRAS_POR_VENTANA - 1; i++) {
+            assertThat(limite.muestra(TimeUnit.MILLISECONDS.toNanos(1), 1, true)).isFalse();
+        }
+        
+        assertThat(limite.getLimite()).isEqualTo(50);
+    }
+    
+    @Test
+    void elInicialSeAjustaAlRango() {
+        assertThat(nuevo(500, 5, 100).getLimite()).isEqualTo(100);
+        assertThat(nuevo(1, 5, 100).getLimite()).isEqualTo(5);
+    }
+    
+    private LimiteAdaptativo nuevo(int inicial, int minimo, int maximo) {
+        return new LimiteAdaptativo(inicial, minimo, maximo, reloj::get);
+    }
+    
+    // Una ventana completa de muestras iguales; devuelve si el límite ha cambiado al cerrarla
+    private boolean ventana(LimiteAdaptativo limite, long rttMillis, int enCurso, boolean error) {
+        reloj.addAndGet(DURACION_VENTANA);
+        boolean cambiado = false;
+        for (int i = 0; i < MUESTRAS_POR_VENTANA; i++) {
+            cambiado = limite.muestra(TimeUnit.MILLISECONDS.toNanos(rttMillis), enCurso, error);
+        }
+        return cambiado;
+    }
+}
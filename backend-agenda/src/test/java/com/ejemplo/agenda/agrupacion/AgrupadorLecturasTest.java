@@ -0,0 +1,202 @@
+package com.ejemplo.agenda.agrupacion;
+
+import com.ejemplo.agenda.service.VersionesDatos;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AgrupadorLecturasTest {
+    
+    private final VersionesDatos versionesDatos = new VersionesDatos();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService hilos = Executors.newCachedThreadPool();
+    
+    @AfterEach
+    void cerrar() {
+        hilos.shutdownNow();
+    }
+    
+    @Test
+    void lasLlamadasSimultaneasIdenticasCompartenUnaLectura() throws Exception {
+        Lecturas lecturas = new Lecturas();
+        Lecturas proxy = agrupadas(lecturas, Duration.ZERO);
+        
+        Future<String> primera = hilos.submit(() -> proxy.leer("a"));
+        assertThat(lecturas.empezadas.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> segunda = hilos.submit(() -> proxy.leer("a"));
+        esperarCompartidas(1);
+        lecturas.liberar.countDown();
+        
+        assertThat(primera.get(5, TimeUnit.SECONDS)).isEqualTo("a-1");
+        assertThat(segunda.get(5, TimeUnit.SECONDS)).isEqualTo("a-1");
+        assertThat(lecturas.ejecuciones.get()).isEqualTo(1);
+    }
+    
+    @Test
+    void otrosArgumentosNoSeAgrupan() throws Exception {
+        Lecturas lecturas = new Lecturas();
+        Lecturas proxy = agrupadas(lecturas, Duration.ZERO);
+        
+        Future<String> primera = hilos.submit(() -> proxy.leer("a"));
+        assertThat(lecturas.empezadas.await(5, TimeUnit.SECONDS)).isTrue();
+        lecturas.bloquear = false;
+        String segunda = proxy.leer("b");
+        lecturas.liberar.countDown();
+        
+        assertThat(segunda).isEqualTo("b-2");
+        assertThat(primera.get(5, TimeUnit.SECONDS)).isEqualTo("a-1");
+    }
+    
+    @Test
+    void trasUnaEscrituraNoSeUneALaLecturaAnterior() throws Exception {
+        Lecturas lecturas = new Lecturas();
+        Lecturas proxy = agrupadas(lecturas, Duration.ZERO);
+        
+        Future<String> anterior = hilos.submit(() -> proxy.leer("a"));
+        assertThat(lecturas.empezadas.await(5, TimeUnit.SECONDS)).isTrue();
+        versionesDatos.contactosModificados();
+        // La lectura en curso sigue bloqueada: si esta se le uniera, no terminaría
+        lecturas.bloquear = false;
+        String posterior = proxy.leer("a");
+        lecturas.liberar.countDown();
+        
+        assertThat(posterior).isEqualTo("a-2");
+        assertThat(anterior.get(5, TimeUnit.SECONDS)).isEqualTo("a-1");
+        assertThat(compartidas()).isZero();
+    }
+    
+    @Test
+    void laExcepcionSeCompartePeroNoSeGuarda() throws Exception {
+        Lecturas lecturas = new Lecturas();
+        lecturas.fallar = true;
+        Lecturas proxy = agrupadas(lecturas, Duration.ofMinutes(1));
+        
+        Future<String> primera = hilos.submit(() -> proxy.leer("a"));
+        assertThat(lecturas.empezadas.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> segunda = hilos.submit(() -> proxy.leer("a"));
+        esperarCompartidas(1);
+        lecturas.liberar.countDown();
+        
+        assertThatThrownBy(() -> primera.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> segunda.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        
+        lecturas.fallar = false;
+        assertThat(proxy.leer("a")).isEqualTo("a-2");
+    }
+    
+    @Test
+    void sinVentanaSoloSeCompartenLasLecturasEnCurso() {
+        Lecturas lecturas = new Lecturas();
+        lecturas.bloquear = false;
+        Lecturas proxy = agrupadas(lecturas, Duration.ZERO);
+        
+        assertThat(proxy.leer("a")).isEqualTo("a-1");
+        assertThat(proxy.leer("a")).isEqualTo("a-2");
+    }
+    
+    @Test
+    void conVentanaElResultadoTerminadoSeReutilizaHastaQueCaduca() throws Exception {
+        Lecturas lecturas = new Lecturas();
+        lecturas.bloquear = false;
+        Lecturas proxy = agrupadas(lecturas, Duration.ofMillis(200));
+        
+        assertThat(proxy.leer("a")).isEqualTo("a-1");
+        assertThat(proxy.leer("a")).isEqualTo("a-1");
+        
+        Thread.sleep(400);
+        assertThat(proxy.leer("a")).isEqualTo("a-2");
+    }
+    
+    @Test
+    void unaEscrituraInvalidaLaVentana() {
+        Lecturas lecturas = new Lecturas();
+        lecturas.bloquear = false;
+        Lecturas proxy = agrupadas(lecturas, Duration.ofMinutes(1));
+        
+        assertThat(proxy.leer("a")).isEqualTo("a-1");
+        versionesDatos.categoriasModificadas();
+        
+        assertThat(proxy.leer("a")).isEqualTo("a-2");
+        assertThat(proxy.leer("a")).isEqualTo("a-2");
+    }
+    
+    @Test
+    void dentroDeUnaTransaccionNoSeAgrupa() {
+        Lecturas lecturas = new Lecturas();
+        lecturas.bloquear = false;
+        Lecturas proxy = agrupadas(lecturas, Duration.ofMinutes(1));
+        
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThat(proxy.leer("a")).isEqualTo("a-1");
+            assertThat(proxy.leer("a")).isEqualTo("a-2");
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+    
+    private Lecturas agrupadas(Lecturas lecturas, Duration ventana) {
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(lecturas);
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAspect(new AgrupadorLecturas(versionesDatos, registry, ventana));
+        return fabrica.getProxy();
+    }
+    
+    private double compartidas() {
+        return registry.find("agenda.agrupacion.lecturas").tag("resultado", "compartida").counters().stream()
+                .mapToDouble(c -> c.count())
+                .sum();
+    }
+    
+    // La segunda llamada se cuenta como compartida justo antes de esperar el resultado de la primera
+    private void esperarCompartidas(int esperadas) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (compartidas() < esperadas && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertThat(compartidas()).isEqualTo(esperadas);
+    }
+    
+    static class Lecturas {
+        final AtomicInteger ejecuciones = new AtomicInteger();
+        final CountDownLatch empezadas = new CountDownLatch(1);
+        final CountDownLatch liberar = new CountDownLatch(1);
+        volatile boolean bloquear = true;
+        volatile boolean fallar;
+        
+        @LecturaAgrupada
+        public String leer(String clave) {
+            int ejecucion = ejecuciones.incrementAndGet();
+            if (bloquear) {
+                empezadas.countDown();
+                esperar(liberar);
+            }
+            if (fallar) {
+                throw new IllegalStateException("Lectura fallida");
+            }
+            return clave + "-" + ejecucion;
+        }
+        
+        private static void esperar(CountDownLatch latch) {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.ejemplo.agenda.busqueda;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceContactosTest {
+    
+    // Orden de referencia: todas las coincidencias ordenadas, como antes del montículo
+    private static final Comparator<Coincidencia> ORDEN = Comparator
+            .comparingDouble(Coincidencia::getPuntuacion).reversed()
+            .thenComparingLong(Coincidencia::getId);
+    
+    @TempDir
+    Path directorio;
+    
+    private IndiceContactos indice;
+    
+    @BeforeEach
+    void abrir() throws Exception {
+        indice = new IndiceContactos();
+        ReflectionTestUtils.setField(indice, "directorio", directorio.toString());
+        ReflectionTestUtils.setField(indice, "umbralCompactacion", 100);
+        indice.abrir();
+        // "garcia" aparece en todos con frecuencias distintas; muchos empatan en puntuación
+        for (long id = 1; id <= 500; id++) {
+            Map<String, Integer> frecuencias = new HashMap<>();
+            frecuencias.put("garcia", 1 + (int) (id % 7));
+            frecuencias.put("n" + id, 3);
+            indice.indexar(id, frecuencias);
+        }
+    }
+    
+    @AfterEach
+    void cerrar() throws Exception {
+        indice.cerrar();
+    }
+    
+    @Test
+    void mejoresCoincideConOrdenarTodasLasCoincidencias() {
+        Random aleatorio = new Random(42);
+        Map<Long, Double> puntuaciones = new HashMap<>();
+        for (long id = 0; id < 2000; id++) {
+            // Pocas puntuaciones distintas para que haya muchos empates resueltos por id
+            puntuaciones.put(id, (double) aleatorio.nextInt(20));
+        }
+        List<Coincidencia> todas = ordenadas(puntuaciones);
+        
+        assertThat(IndiceContactos.mejores(puntuaciones, null, 25)).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(todas.subList(0, 25));
+        assertThat(IndiceContactos.mejores(puntuaciones, todas.get(99), 25)).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(todas.subList(100, 125));
+        assertThat(IndiceContactos.mejores(puntuaciones, null, 5000)).hasSize(2000);
+        assertThat(IndiceContactos.mejores(puntuaciones, null, 0)).isEmpty();
+    }
+    
+    @Test
+    void lasPaginasDeBuscarRecorrenTodasLasCoincidenciasSinRepetir() {
+        List<Long> recorridos = new ArrayList<>();
+        for (int pagina = 0; pagina < 30; pagina++) {
+            recorridos.addAll(indice.buscar("garcia", pagina, 20));
+        }
+        
+        assertThat(recorridos).hasSize(500).doesNotHaveDuplicates();
+        assertThat(recorridos.subList(0, 20)).isEqualTo(indice.buscar("garcia", 0, 20));
+        // Más frecuencia del término, más puntuación: los primeros son los de id % 7 == 6
+        assertThat(recorridos.subList(0, 71)).allMatch(id -> id % 7 == 6);
+    }
+    
+    @Test
+    void buscarDespuesDeContinuaDondeTerminaLaPaginaAnterior() {
+        List<Coincidencia> primera = indice.buscarDespuesDe("garcia", null, 30);
+        List<Coincidencia> segunda = indice.buscarDespuesDe("garcia", primera.get(primera.size() - 1), 30);
+        
+        List<Long> esperados = indice.buscar("garcia", 0, 60);
+        List<Long> obtenidos = new ArrayList<>();
+        primera.forEach(c -> obtenidos.add(c.getId()));
+        segunda.forEach(c -> obtenidos.add(c.getId()));
+        assertThat(obtenidos).isEqualTo(esperados);
+    }
+    
+    @Test
+    void elUltimoTerminoSeBuscaComoPrefijo() {
+        assertThat(indice.buscar("garc", 0, 1000)).hasSize(500);
+        assertThat(indice.buscar("n25", 0, 100)).contains(25L, 250L, 251L);
+        assertThat(indice.buscar("sinresultados", 0, 10)).isEmpty();
+    }
+    
+    private static List<Coincidencia> ordenadas(Map<Long, Double> puntuaciones) {
+        return puntuaciones.entrySet().stream()
+                .map(e -> new Coincidencia(e.getKey(), e.getValue()))
+                .sorted(ORDEN)
+                .collect(Collectors.toList());
+    }
+}
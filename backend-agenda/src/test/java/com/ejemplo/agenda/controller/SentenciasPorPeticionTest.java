@@ -0,0 +1,130 @@
+package com.ejemplo.agenda.controller;
+
+import com.ejemplo.agenda.config.MetricasConfig;
+import com.ejemplo.agenda.model.dto.ContactoRequest;
+import com.ejemplo.agenda.service.ContactoService;
+import com.ejemplo.agenda.service.VersionesDatos;
+import com.ejemplo.agenda.web.MetricasPeticionFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sentencias exactas de las peticiones con {@link com.ejemplo.agenda.metricas.PresupuestoSentencias}, con las
+ * cachés frías. Una sentencia de más es un N+1 nuevo; una de menos, un presupuesto que se puede ajustar.
+ */
+@SpringBootTest(properties = {
+        "agenda.metricas.presupuestos.cabecera=true",
+        "agenda.metricas.presupuestos.estricto=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SentenciasPorPeticionTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private VersionesDatos versionesDatos;
+    
+    @Autowired
+    private ContactoService contactoService;
+    
+    @Autowired
+    private MeterRegistry registry;
+    
+    private Long id;
+    
+    // Nueva versión de los datos: las respuestas serializadas guardadas dejan de valer
+    @BeforeEach
+    void cachesFrias() {
+        id = contactoService.crearContacto(new ContactoRequest("Medido", "6200000001")).getId();
+        cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(Cache::clear);
+        versionesDatos.contactosModificados();
+        versionesDatos.categoriasModificadas();
+    }
+    
+    @Test
+    void listadoDeContactos() throws Exception {
+        assertThat(sentencias("/api/contactos")).isEqualTo(2);
+        assertThat(sentencias("/api/contactos?fields=nombre,categoria")).isEqualTo(2);
+    }
+    
+    @Test
+    void contactoPorId() throws Exception {
+        assertThat(sentencias("/api/contactos/" + id)).isEqualTo(2);
+    }
+    
+    @Test
+    void favoritos() throws Exception {
+        assertThat(sentencias("/api/contactos/favoritos")).isEqualTo(1);
+    }
+    
+    @Test
+    void categorias() throws Exception {
+        assertThat(sentencias("/api/categorias")).isEqualTo(1);
+        assertThat(sentencias("/api/categorias/1")).isEqualTo(1);
+    }
+    
+    // Una consulta por tramo del año: dos si el periodo pasa del 31 de diciembre
+    @Test
+    void cumpleanos() throws Exception {
+        assertThat(sentencias("/api/contactos/cumpleanos")).isEqualTo(tramosHasta(30));
+        assertThat(sentencias("/api/contactos/cumpleanos?dias=365")).isEqualTo(tramosHasta(365));
+    }
+    
+    // La cabecera sale antes del cuerpo; la métrica incluye también las sentencias del hilo que lo escribe
+    @Test
+    void exportacionCuentaElHiloAsincrono() throws Exception {
+        MvcResult inicio = mockMvc.perform(get("/api/contactos/exportar"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string(MetricasPeticionFilter.CABECERA_SENTENCIAS, "0"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(inicio)).andExpect(status().isOk());
+        
+        DistributionSummary resumen = registry.get(MetricasConfig.SENTENCIAS_SQL)
+                .tag("uri", "/api/contactos/exportar")
+                .summary();
+        assertThat(resumen.count()).isEqualTo(1);
+        assertThat(resumen.totalAmount()).isEqualTo(1);
+    }
+    
+    private static int tramosHasta(int dias) {
+        LocalDate hoy = LocalDate.now();
+        return hoy.plusDays(dias).getYear() == hoy.getYear() ? 1 : 2;
+    }
+    
+    private int sentencias(String url) throws Exception {
+        String cabecera = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(MetricasPeticionFilter.CABECERA_SENTENCIAS);
+        return Integer.parseInt(Objects.requireNonNull(cabecera));
+    }
+}
@@ -0,0 +1,141 @@
+package com.ejemplo.agenda.datos;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DataSourceEnrutadoTest {
+    
+    private final DataSource primaria = mock(DataSource.class);
+    private final DataSource replica1 = mock(DataSource.class);
+    private final DataSource replica2 = mock(DataSource.class);
+    private final Connection conexionPrimaria = mock(Connection.class);
+    private final Connection conexionReplica1 = mock(Connection.class);
+    private final Connection conexionReplica2 = mock(Connection.class);
+    
+    private DataSourceEnrutado enrutado;
+    
+    @BeforeEach
+    void crear() throws SQLException {
+        when(primaria.getConnection()).thenReturn(conexionPrimaria);
+        when(replica1.getConnection()).thenReturn(conexionReplica1);
+        when(replica2.getConnection()).thenReturn(conexionReplica2);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica1);
+        replicas.put("replica-2", replica2);
+        enrutado = new DataSourceEnrutado(primaria, replicas, new LecturaPropia(Duration.ofSeconds(5)), Duration.ofMinutes(1));
+    }
+    
+    @AfterEach
+    void limpiar() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        RequestContextHolder.resetRequestAttributes();
+    }
+    
+    @Test
+    void fueraDeUnaTransaccionDeSoloLecturaSeUsaLaPrimaria() throws SQLException {
+        assertThat(enrutado.getConnection()).isSameAs(conexionPrimaria);
+        verify(replica1, never()).getConnection();
+        verify(replica2, never()).getConnection();
+    }
+    
+    @Test
+    void lasLecturasSeRepartenPorTurnosEntreLasReplicas() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        List<Connection> conexiones = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            conexiones.add(enrutado.getConnection());
+        }
+        
+        assertThat(conexiones).containsExactly(conexionReplica1, conexionReplica2, conexionReplica1, conexionReplica2);
+    }
+    
+    @Test
+    void detrasDelProxyPerezosoLaTransaccionYaEstaMarcadaAlPedirLaConexion() throws SQLException {
+        // Como DatosConfig: el gestor de transacciones abre la conexión antes de marcarla de solo lectura
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(enrutado);
+        TransactionTemplate transaccion = new TransactionTemplate(new DataSourceTransactionManager(proxy));
+        
+        transaccion.setReadOnly(true);
+        transaccion.executeWithoutResult(estado -> usar(proxy));
+        verify(conexionReplica1).createStatement();
+        verify(conexionPrimaria, never()).createStatement();
+        
+        transaccion.setReadOnly(false);
+        transaccion.executeWithoutResult(estado -> usar(proxy));
+        verify(conexionPrimaria).createStatement();
+    }
+    
+    @Test
+    void unClienteQueAcabaDeEscribirLeeSusEscriturasDeLaPrimaria() throws SQLException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(LecturaPropia.COOKIE, Long.toString(System.currentTimeMillis())));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, new MockHttpServletResponse()));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        assertThat(enrutado.getConnection()).isSameAs(conexionPrimaria);
+        verify(replica1, never()).getConnection();
+    }
+    
+    @Test
+    void unaReplicaCaidaSeSustituyePorLaPrimariaYQuedaFueraDelReparto() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLTransientConnectionException("sin conexiones"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        // Le toca a la réplica 1: falla y esa lectura va a la primaria
+        assertThat(enrutado.getConnection()).isSameAs(conexionPrimaria);
+        // Durante la espera tras el fallo solo queda la réplica 2
+        assertThat(enrutado.getConnection()).isSameAs(conexionReplica2);
+        assertThat(enrutado.getConnection()).isSameAs(conexionReplica2);
+        verify(replica1).getConnection();
+    }
+    
+    @Test
+    void sinReplicasDisponiblesTodoVaALaPrimaria() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLTransientConnectionException("caída"));
+        when(replica2.getConnection()).thenThrow(new IllegalStateException("pool sin arrancar"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        for (int i = 0; i < 4; i++) {
+            assertThat(enrutado.getConnection()).isSameAs(conexionPrimaria);
+        }
+        verify(replica1).getConnection();
+        verify(replica2).getConnection();
+    }
+    
+    // La conexión real solo se pide al usarla
+    private static void usar(DataSource dataSource) {
+        try {
+            DataSourceUtils.getConnection(dataSource).createStatement();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
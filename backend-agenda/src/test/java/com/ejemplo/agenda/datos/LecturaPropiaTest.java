@@ -0,0 +1,99 @@
+package com.ejemplo.agenda.datos;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.Cookie;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LecturaPropiaTest {
+    
+    private final LecturaPropia lecturaPropia = new LecturaPropia(Duration.ofMillis(2500));
+    
+    @AfterEach
+    void limpiar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+    
+    @Test
+    void laEscrituraEnviaLaCookieYLaMismaPeticionLeeDeLaPrimaria() {
+        MockHttpServletResponse response = peticion(new MockHttpServletRequest());
+        assertThat(lecturaPropia.requierePrimaria()).isFalse();
+        
+        lecturaPropia.registrarEscritura();
+        
+        Cookie cookie = response.getCookie(LecturaPropia.COOKIE);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getPath()).isEqualTo("/");
+        assertThat(cookie.isHttpOnly()).isTrue();
+        // La ventana se redondea hacia arriba a segundos
+        assertThat(cookie.getMaxAge()).isEqualTo(3);
+        assertThat(Long.parseLong(cookie.getValue())).isCloseTo(System.currentTimeMillis(), within(1000L));
+        assertThat(lecturaPropia.requierePrimaria()).isTrue();
+    }
+    
+    @Test
+    void laCookieDeUnaEscrituraRecienteLlevaLaSiguientePeticionALaPrimaria() {
+        peticion(conCookie(Long.toString(System.currentTimeMillis() - 1000)));
+        
+        assertThat(lecturaPropia.requierePrimaria()).isTrue();
+    }
+    
+    @Test
+    void pasadaLaVentanaSeVuelveALeerDeLasReplicas() {
+        peticion(conCookie(Long.toString(System.currentTimeMillis() - 2600)));
+        
+        assertThat(lecturaPropia.requierePrimaria()).isFalse();
+    }
+    
+    @Test
+    void unaCookieManipuladaSeIgnora() {
+        peticion(conCookie("mañana"));
+        
+        assertThat(lecturaPropia.requierePrimaria()).isFalse();
+    }
+    
+    @Test
+    void fueraDeUnaPeticionNoHayClienteAlQueGarantizarNada() {
+        lecturaPropia.registrarEscritura();
+        
+        assertThat(lecturaPropia.requierePrimaria()).isFalse();
+    }
+    
+    @Test
+    void unaLecturaEnReplicaTrasUnaEscrituraDeOtroClienteSeMarcaPosiblementeAtrasada() {
+        MockHttpServletRequest sinEscrituras = new MockHttpServletRequest();
+        peticion(sinEscrituras);
+        lecturaPropia.lecturaEnReplica();
+        assertThat(sinEscrituras.getAttribute(LecturaPropia.POSIBLEMENTE_ATRASADA)).isNull();
+        
+        // Escritura de otro cliente: fuera de esta petición
+        RequestContextHolder.resetRequestAttributes();
+        lecturaPropia.registrarEscritura();
+        
+        MockHttpServletRequest lectura = new MockHttpServletRequest();
+        peticion(lectura);
+        assertThat(lecturaPropia.requierePrimaria()).isFalse();
+        lecturaPropia.lecturaEnReplica();
+        assertThat(lectura.getAttribute(LecturaPropia.POSIBLEMENTE_ATRASADA)).isEqualTo(Boolean.TRUE);
+    }
+    
+    private static MockHttpServletRequest conCookie(String valor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(LecturaPropia.COOKIE, valor));
+        return request;
+    }
+    
+    private static MockHttpServletResponse peticion(MockHttpServletRequest request) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return response;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ejemplo.agenda.datos;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Una base de datos que ya existía (el esquema de V1, sin historial de Flyway) se registra como versión 1 con
+ * {@code baseline-on-migrate}, igual que en {@code application-mysql.properties}, y recibe todo lo posterior. Se
+ * prueba con los scripts de H2, que siguen las mismas versiones que los de MySQL.
+ */
+class MigracionesTest {
+    
+    @Test
+    void unaBaseDeDatosAnteriorRecibeTodasLasMigraciones() throws Exception {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migraciones-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection conexion = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(conexion, new ClassPathResource("db/migration/h2/V1__esquema_inicial.sql"));
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO contactos (nombre, telefono, favorito, fecha_nacimiento) "
+                + "VALUES ('Previo', '600 000 001', FALSE, DATE '1990-03-15')");
+        
+        MigrateResult resultado = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+        
+        assertThat(resultado.migrations).extracting(migracion -> migracion.version)
+                .doesNotContain("1")
+                .contains("1.1", "1.2", "1.3", "2", "4");
+        assertThat(jdbc.queryForMap("SELECT telefono_normalizado, telefono_invertido, version, secuencia_cambio, "
+                + "dia_cumpleanos FROM contactos WHERE nombre = 'Previo'"))
+                .containsEntry("VERSION", 0L)
+                .containsEntry("SECUENCIA_CAMBIO", 0L)
+                .containsEntry("DIA_CUMPLEANOS", 315);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM contactos_eliminados", Integer.class)).isZero();
+    }
+}
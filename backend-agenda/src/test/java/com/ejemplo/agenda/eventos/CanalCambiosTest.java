@@ -0,0 +1,179 @@
+package com.ejemplo.agenda.eventos;
+
+import com.ejemplo.agenda.config.EventosProperties;
+import com.ejemplo.agenda.model.dto.EventoCambio;
+import com.ejemplo.agenda.model.enums.TipoCambio;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CanalCambiosTest {
+    
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private CanalCambios canal;
+    
+    @AfterEach
+    void cerrar() throws InterruptedException {
+        if (canal != null) {
+            canal.cerrar();
+        }
+    }
+    
+    @Test
+    void unaEscrituraBloqueadaNoFrenaALosDemas() throws Exception {
+        canal = canal(Duration.ofMillis(200));
+        EmisorDePrueba atascado = new EmisorDePrueba();
+        EmisorDePrueba sano = new EmisorDePrueba();
+        canal.suscribir(atascado, null);
+        canal.suscribir(sano, null);
+        atascado.bloquear = true;
+        
+        // Con un solo hilo de envío bloqueado, lo que llegue a sano después sale por el hilo que lo sustituye
+        canal.publicar(EventoCambio.contacto(TipoCambio.CREADO, 1L));
+        assertThat(atascado.bloqueado.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(sano.eventos.poll(2, TimeUnit.SECONDS)).extracting(EventoCambio::getId).isEqualTo(1L);
+        canal.publicar(EventoCambio.contacto(TipoCambio.CREADO, 2L));
+        assertThat(sano.eventos.poll(2, TimeUnit.SECONDS)).extracting(EventoCambio::getId).isEqualTo(2L);
+        
+        assertThat(registry.get("agenda.eventos.bloqueados").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("agenda.eventos.suscriptores").gauge().value()).isEqualTo(1);
+        atascado.liberar.countDown();
+    }
+    
+    @Test
+    void unaEscrituraLentaDentroDelLimiteNoDesconecta() throws Exception {
+        canal = canal(Duration.ofSeconds(2));
+        EmisorDePrueba lento = new EmisorDePrueba();
+        canal.suscribir(lento, null);
+        lento.retraso = 100;
+        
+        for (long id = 1; id <= 3; id++) {
+            canal.publicar(EventoCambio.contacto(TipoCambio.ACTUALIZADO, id));
+        }
+        for (long id = 1; id <= 3; id++) {
+            assertThat(lento.eventos.poll(2, TimeUnit.SECONDS)).extracting(EventoCambio::getId).isEqualTo(id);
+        }
+        
+        assertThat(registry.get("agenda.eventos.bloqueados").functionCounter().count()).isZero();
+        assertThat(registry.get("agenda.eventos.suscriptores").gauge().value()).isEqualTo(1);
+    }
+    
+    @Test
+    void elSuscriptorReactivoRecibeLosEventosPublicados() throws Exception {
+        canal = canal(Duration.ofSeconds(5));
+        ClienteReactivo cliente = new ClienteReactivo(Long.MAX_VALUE);
+        canal.suscribirFlujo(null).subscribe(cliente);
+        
+        canal.publicar(EventoCambio.contacto(TipoCambio.CREADO, 1L));
+        canal.publicar(EventoCambio.categoria(TipoCambio.ELIMINADO, 2L));
+        
+        assertThat(cliente.eventos.poll(2, TimeUnit.SECONDS).comment()).isEqualTo("conectado");
+        ServerSentEvent<EventoCambio> primero = cliente.eventos.poll(2, TimeUnit.SECONDS);
+        assertThat(primero.event()).isEqualTo(EventoCambio.CONTACTO);
+        assertThat(primero.data().getId()).isEqualTo(1L);
+        assertThat(cliente.eventos.poll(2, TimeUnit.SECONDS).event()).isEqualTo(EventoCambio.CATEGORIA);
+    }
+    
+    @Test
+    void elSuscriptorReactivoQueNoPideSeDesconectaSinFrenarALosDemas() throws Exception {
+        canal = canal(Duration.ofSeconds(5));
+        ClienteReactivo parado = new ClienteReactivo(1);
+        ClienteReactivo sano = new ClienteReactivo(Long.MAX_VALUE);
+        canal.suscribirFlujo(null).subscribe(parado);
+        canal.suscribirFlujo(null).subscribe(sano);
+        
+        // El parado solo pide el comentario inicial: sus eventos se quedan en la cola hasta llenarla
+        int eventos = new EventosProperties().getBufferPorSuscriptor() + 1;
+        for (long id = 1; id <= eventos; id++) {
+            canal.publicar(EventoCambio.contacto(TipoCambio.ACTUALIZADO, id));
+        }
+        
+        assertThat(sano.eventos.poll(2, TimeUnit.SECONDS).comment()).isEqualTo("conectado");
+        for (long id = 1; id <= eventos; id++) {
+            assertThat(sano.eventos.poll(2, TimeUnit.SECONDS).data().getId()).isEqualTo(id);
+        }
+        assertThat(parado.terminado.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(List.copyOf(parado.eventos)).extracting(ServerSentEvent::comment).containsExactly("conectado");
+        assertThat(registry.get("agenda.eventos.descartados").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("agenda.eventos.bloqueados").functionCounter().count()).isZero();
+        assertThat(registry.get("agenda.eventos.suscriptores").gauge().value()).isEqualTo(1);
+    }
+    
+    private CanalCambios canal(Duration limiteEnvio) {
+        EventosProperties propiedades = new EventosProperties();
+        propiedades.setHilosEnvio(1);
+        propiedades.setLimiteEnvio(limiteEnvio);
+        propiedades.setLatido(Duration.ofHours(1));
+        CanalCambios nuevo = new CanalCambios(propiedades);
+        nuevo.bindTo(registry);
+        return nuevo;
+    }
+    
+    // Cliente del modo reactivo que pide como mucho pedidos elementos
+    private static final class ClienteReactivo extends BaseSubscriber<ServerSentEvent<EventoCambio>> {
+        private final BlockingQueue<ServerSentEvent<EventoCambio>> eventos = new LinkedBlockingQueue<>();
+        private final CountDownLatch terminado = new CountDownLatch(1);
+        private final long pedidos;
+        
+        private ClienteReactivo(long pedidos) {
+            this.pedidos = pedidos;
+        }
+        
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(pedidos);
+        }
+        
+        @Override
+        protected void hookOnNext(ServerSentEvent<EventoCambio> evento) {
+            eventos.add(evento);
+        }
+        
+        @Override
+        protected void hookFinally(SignalType tipo) {
+            terminado.countDown();
+        }
+    }
+    
+    // Emisor sin conexión: guarda los eventos de cambio recibidos y puede bloquear o retrasar las escrituras
+    private static final class EmisorDePrueba extends SseEmitter {
+        private final BlockingQueue<EventoCambio> eventos = new LinkedBlockingQueue<>();
+        private final CountDownLatch bloqueado = new CountDownLatch(1);
+        private final CountDownLatch liberar = new CountDownLatch(1);
+        private volatile boolean bloquear;
+        private volatile long retraso;
+        
+        @Override
+        public void send(SseEventBuilder evento) {
+            try {
+                if (bloquear) {
+                    bloqueado.countDown();
+                    liberar.await(10, TimeUnit.SECONDS);
+                } else if (retraso > 0) {
+                    Thread.sleep(retraso);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            evento.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .filter(EventoCambio.class::isInstance)
+                    .forEach(datos -> eventos.add((EventoCambio) datos));
+        }
+    }
+}
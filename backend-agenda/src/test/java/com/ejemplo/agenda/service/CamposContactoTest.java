@@ -0,0 +1,77 @@
+package com.ejemplo.agenda.service;
+
+import com.ejemplo.agenda.model.dto.ContactoCampos;
+import com.ejemplo.agenda.model.dto.ContactoRequest;
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+import com.ejemplo.agenda.model.enums.CampoContacto;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@code fields=} solo reduce las columnas: el orden y las páginas son los del listado completo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CamposContactoTest {
+    
+    @Autowired
+    private ContactoService contactoService;
+    
+    @BeforeAll
+    void crearContactos() {
+        // Nombres en orden inverso al de alta: un listado sin ORDER BY explícito tiende a salir por nombre
+        for (int i = 0; i < 30; i++) {
+            ContactoRequest request = new ContactoRequest("Z" + (char) ('z' - i % 26) + i, "700000" + (100 + i));
+            request.setFavorito(i % 2 == 0);
+            request.setCategoriaId(1L + i % 3);
+            contactoService.crearContacto(request);
+        }
+    }
+    
+    @Test
+    void lasPaginasConCamposSiguenElOrdenDelListadoCompleto() {
+        Set<CampoContacto> nombre = CampoContacto.resolver("nombre");
+        List<Long> completos = new ArrayList<>();
+        List<Long> parciales = new ArrayList<>();
+        for (int pagina = 0; pagina < 5; pagina++) {
+            completos.addAll(ids(contactoService.obtenerTodosContactos(pagina, 7).getContent()));
+            parciales.addAll(idsCampos(contactoService.obtenerTodosContactos(pagina, 7, nombre).getContent()));
+        }
+        
+        assertThat(parciales).isEqualTo(completos).isSorted().doesNotHaveDuplicates().hasSize(35);
+    }
+    
+    @Test
+    void categoriaYFavoritosConCamposSiguenElMismoOrden() {
+        Set<CampoContacto> nombre = CampoContacto.resolver("nombre");
+        String categoria = contactoService.obtenerContactoPorId(ids(contactoService.obtenerTodosContactos(0, 1).getContent()).get(0))
+                .getCategoria();
+        
+        assertThat(idsCampos(contactoService.obtenerContactosPorCategoria(categoria, nombre)))
+                .isEqualTo(ids(contactoService.obtenerContactosPorCategoria(categoria)))
+                .isSorted();
+        assertThat(idsCampos(contactoService.obtenerContactosFavoritos(nombre)))
+                .isEqualTo(ids(contactoService.obtenerContactosFavoritos()))
+                .isSorted();
+    }
+    
+    private static List<Long> ids(List<ContactoResponse> contactos) {
+        return contactos.stream().map(ContactoResponse::getId).collect(Collectors.toList());
+    }
+    
+    private static List<Long> idsCampos(List<ContactoCampos> contactos) {
+        return contactos.stream().map(ContactoCampos::getId).collect(Collectors.toList());
+    }
+}
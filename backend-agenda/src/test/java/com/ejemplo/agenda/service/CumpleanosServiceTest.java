@@ -0,0 +1,146 @@
+package com.ejemplo.agenda.service;
+
+import com.ejemplo.agenda.model.dto.ContactoRequest;
+import com.ejemplo.agenda.model.dto.Cumpleanos;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.when;
+
+/**
+ * Próximos cumpleaños con el día fijado: periodos que cruzan el año nuevo, que empiezan un 29 de febrero, los nacidos
+ * un 29 de febrero en un año no bisiesto (lo celebran el 28) y el año completo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CumpleanosServiceTest {
+    
+    // Los datos de ejemplo también tienen cumpleaños: solo se miran los contactos de esta prueba
+    private static final String PREFIJO = "Cumple ";
+    
+    @Autowired
+    private CumpleanosService cumpleanosService;
+    
+    @Autowired
+    private ContactoService contactoService;
+    
+    @MockBean
+    private Clock reloj;
+    
+    @BeforeAll
+    void crearContactos() {
+        crear("Fin de año", "1990-12-30");
+        crear("Enero", "1985-01-02");
+        crear("Bisiesto", "2000-02-29");
+        crear("28 de febrero", "1970-02-28");
+        crear("1 de marzo", "1995-03-01");
+        crear("Junio", "1980-06-15");
+    }
+    
+    @Test
+    void unPeriodoQueCruzaElAñoNuevoSigueEnEnero() {
+        hoy("2026-12-28");
+        
+        List<Cumpleanos> proximos = proximos(10);
+        
+        assertThat(fechas(proximos)).containsExactly(
+                entry("Fin de año", LocalDate.parse("2026-12-30")),
+                entry("Enero", LocalDate.parse("2027-01-02")));
+        assertThat(proximos).extracting(Cumpleanos::getDias).containsExactly(2L, 5L);
+        assertThat(proximos).extracting(Cumpleanos::getEdad).containsExactly(36, 42);
+    }
+    
+    @Test
+    void unPeriodoQueEmpiezaEl29DeFebrero() {
+        hoy("2028-02-29");
+        
+        List<Cumpleanos> proximos = proximos(1);
+        
+        // El 28 de febrero ya ha pasado: el siguiente es en 2029, fuera del periodo
+        assertThat(fechas(proximos)).containsExactly(
+                entry("Bisiesto", LocalDate.parse("2028-02-29")),
+                entry("1 de marzo", LocalDate.parse("2028-03-01")));
+        assertThat(proximos.get(0).getDias()).isZero();
+        assertThat(proximos.get(0).getEdad()).isEqualTo(28);
+    }
+    
+    @Test
+    void enUnAñoNoBisiestoLosDel29DeFebreroLoCelebranEl28() {
+        hoy("2027-02-20");
+        
+        // Un periodo que termina el 28 de febrero los incluye aunque su clave sea 229
+        assertThat(fechas(proximos(8))).containsExactly(
+                entry("28 de febrero", LocalDate.parse("2027-02-28")),
+                entry("Bisiesto", LocalDate.parse("2027-02-28")));
+        assertThat(fechas(proximos(9))).containsExactly(
+                entry("28 de febrero", LocalDate.parse("2027-02-28")),
+                entry("Bisiesto", LocalDate.parse("2027-02-28")),
+                entry("1 de marzo", LocalDate.parse("2027-03-01")));
+    }
+    
+    @Test
+    void unPeriodoQueTerminaEl28DeFebreroDeUnAñoBisiestoNoIncluyeEl29() {
+        hoy("2027-12-01");
+        
+        assertThat(fechas(proximos(89))).containsExactly(
+                entry("Fin de año", LocalDate.parse("2027-12-30")),
+                entry("Enero", LocalDate.parse("2028-01-02")),
+                entry("28 de febrero", LocalDate.parse("2028-02-28")));
+    }
+    
+    @Test
+    void elAñoCompletoIncluyeCadaCumpleañosUnaVez() {
+        hoy("2026-06-15");
+        
+        // El de hoy vuelve a caer el último día del periodo, pero solo sale hoy
+        assertThat(fechas(proximos(365))).containsExactly(
+                entry("Junio", LocalDate.parse("2026-06-15")),
+                entry("Fin de año", LocalDate.parse("2026-12-30")),
+                entry("Enero", LocalDate.parse("2027-01-02")),
+                entry("28 de febrero", LocalDate.parse("2027-02-28")),
+                entry("Bisiesto", LocalDate.parse("2027-02-28")),
+                entry("1 de marzo", LocalDate.parse("2027-03-01")));
+        assertThatThrownBy(() -> cumpleanosService.obtenerProximos(366))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private void crear(String nombre, String fechaNacimiento) {
+        ContactoRequest request = new ContactoRequest(PREFIJO + nombre, "63" + fechaNacimiento.replace("-", ""));
+        request.setFechaNacimiento(LocalDate.parse(fechaNacimiento));
+        contactoService.crearContacto(request);
+    }
+    
+    private void hoy(String fecha) {
+        when(reloj.getZone()).thenReturn(ZoneOffset.UTC);
+        when(reloj.instant()).thenReturn(LocalDate.parse(fecha).atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+    
+    private List<Cumpleanos> proximos(int dias) {
+        return cumpleanosService.obtenerProximos(dias).stream()
+                .filter(cumpleanos -> cumpleanos.getContacto().getNombre().startsWith(PREFIJO))
+                .collect(Collectors.toList());
+    }
+    
+    // Nombre sin el prefijo y fecha del cumpleaños, en el orden del resultado y con los repetidos
+    private static List<Map.Entry<String, LocalDate>> fechas(List<Cumpleanos> cumpleanos) {
+        return cumpleanos.stream()
+                .map(c -> Map.entry(c.getContacto().getNombre().substring(PREFIJO.length()), c.getFecha()))
+                .collect(Collectors.toList());
+    }
+}
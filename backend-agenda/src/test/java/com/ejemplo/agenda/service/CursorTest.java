@@ -0,0 +1,68 @@
+package com.ejemplo.agenda.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorTest {
+    
+    @Test
+    void unTokenVacioEsElInicioDeLaColeccion() {
+        for (String token : new String[] {null, "", "  "}) {
+            Cursor cursor = Cursor.decodificar(token);
+            assertThat(cursor.getClave()).isEmpty();
+            assertThat(cursor.getId()).isZero();
+        }
+    }
+    
+    @Test
+    void ordenPorIdSoloGuardaElId() {
+        Cursor cursor = Cursor.decodificar(new Cursor(null, 1234567890123L).codificar());
+        
+        assertThat(cursor.getClave()).isEmpty();
+        assertThat(cursor.getId()).isEqualTo(1234567890123L);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"García", "Ñandú Pérez", "O'Brien/Smith?x=1&y=2", "con\u001fseparador", " ", "李"})
+    void ordenPorNombreConservaLaClaveExacta(String nombre) {
+        String token = new Cursor(nombre, 42L).codificar();
+        Cursor cursor = Cursor.decodificar(token);
+        
+        // El token va en la query string: solo caracteres del alfabeto base64url y sin relleno
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(cursor.getClave()).isEqualTo(nombre);
+        assertThat(cursor.getId()).isEqualTo(42L);
+    }
+    
+    @Test
+    void ordenPorPuntuacionConservaElDoubleBitABit() {
+        // Como ContactoServiceImpl: la puntuación viaja como los bits del double en hexadecimal
+        for (double puntuacion : new double[] {0.0, 1.0 / 3, 12.75, Double.MIN_VALUE, Double.MAX_VALUE}) {
+            String clave = Long.toHexString(Double.doubleToLongBits(puntuacion));
+            Cursor cursor = Cursor.decodificar(new Cursor(clave, 7L).codificar());
+            
+            assertThat(Double.longBitsToDouble(Long.parseUnsignedLong(cursor.getClave(), 16))).isEqualTo(puntuacion);
+        }
+    }
+    
+    @Test
+    void tokenDeCambiosConservaSecuenciaEIdMaximo() {
+        Cursor cursor = Cursor.decodificar(new Cursor(Long.toString(98765L), Long.MAX_VALUE).codificar());
+        
+        assertThat(Long.parseLong(cursor.getClave())).isEqualTo(98765L);
+        assertThat(cursor.getId()).isEqualTo(Long.MAX_VALUE);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"no es base64!", "c2luc2VwYXJhZG9y", "bm9tYnJlH2FiYw"})
+    void unTokenMalFormadoEsUnArgumentoNoValido(String token) {
+        // Caracteres fuera de base64url, sin separador, e id no numérico ("nombre\u001fabc")
+        assertThatThrownBy(() -> Cursor.decodificar(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cursor de paginación no válido");
+    }
+}
@@ -0,0 +1,82 @@
+package com.ejemplo.agenda.service;
+
+import com.ejemplo.agenda.metricas.ContadorSentencias;
+import com.ejemplo.agenda.model.dto.ContactoRequest;
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Un {@code favorito} ausente no cambia el contacto, y marcarlo es el UPDATE condicionado seguido de la lectura de
+ * la fila que se devuelve.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FavoritoContactoTest {
+    
+    @Autowired
+    private ContactoService contactoService;
+    
+    @Test
+    void crearSinFavoritoLoDejaEnFalse() {
+        ContactoResponse creado = contactoService.crearContacto(new ContactoRequest("Sin favorito", "6100000001"));
+        
+        assertThat(creado.isFavorito()).isFalse();
+    }
+    
+    @Test
+    void actualizarSinFavoritoLoConserva() {
+        ContactoRequest alta = new ContactoRequest("Favorito", "6100000002");
+        alta.setFavorito(true);
+        Long id = contactoService.crearContacto(alta).getId();
+        
+        ContactoRequest cambio = new ContactoRequest("Favorito renombrado", "6100000002");
+        ContactoResponse actualizado = contactoService.actualizarContacto(id, cambio);
+        
+        assertThat(actualizado.isFavorito()).isTrue();
+        assertThat(contactoService.obtenerContactoPorId(id).isFavorito()).isTrue();
+    }
+    
+    @Test
+    void marcarFavoritoEsUnUpdateYUnaLectura() {
+        Long id = contactoService.crearContacto(new ContactoRequest("Por marcar", "6100000003")).getId();
+        ContactoResponse antes = contactoService.obtenerContactoPorId(id);
+        AtomicReference<ContactoResponse> marcado = new AtomicReference<>();
+        
+        int sentencias = ContadorSentencias.contar(() -> marcado.set(contactoService.toggleFavorito(id, true)));
+        
+        assertThat(sentencias).isEqualTo(2);
+        assertThat(marcado.get().isFavorito()).isTrue();
+        assertThat(marcado.get().getFechaActualizacion()).isAfterOrEqualTo(antes.getFechaActualizacion());
+        assertThat(contactoService.obtenerContactoPorId(id).isFavorito()).isTrue();
+    }
+    
+    @Test
+    void marcarConElMismoValorNoEscribe() {
+        ContactoRequest alta = new ContactoRequest("Ya marcado", "6100000004");
+        alta.setFavorito(true);
+        Long id = contactoService.crearContacto(alta).getId();
+        ContactoResponse antes = contactoService.obtenerContactoPorId(id);
+        AtomicReference<ContactoResponse> marcado = new AtomicReference<>();
+        
+        int sentencias = ContadorSentencias.contar(() -> marcado.set(contactoService.toggleFavorito(id, true)));
+        
+        assertThat(sentencias).isEqualTo(2);
+        assertThat(marcado.get().isFavorito()).isTrue();
+        assertThat(marcado.get().getFechaActualizacion()).isEqualTo(antes.getFechaActualizacion());
+    }
+    
+    @Test
+    void marcarUnContactoQueNoExisteEsUn404() {
+        assertThatThrownBy(() -> contactoService.toggleFavorito(Long.MAX_VALUE, true))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+}
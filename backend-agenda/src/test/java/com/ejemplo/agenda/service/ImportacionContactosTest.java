@@ -0,0 +1,69 @@
+package com.ejemplo.agenda.service;
+
+import com.ejemplo.agenda.model.dto.ErrorImportacion;
+import com.ejemplo.agenda.model.dto.ResultadoImportacion;
+import com.ejemplo.agenda.model.enums.FormatoContactos;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Un lote con filas que la base de datos rechaza se repite fila a fila: solo esas filas salen como rechazadas y el
+ * resto del lote se importa.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportacionContactosTest {
+    
+    @Autowired
+    private ImportacionService importacionService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // Hace fallar en la base de datos filas que ya han pasado la validación
+    @BeforeEach
+    void restringir() {
+        jdbcTemplate.execute("ALTER TABLE contactos ADD CONSTRAINT ck_prueba_importacion "
+                + "CHECK (notas IS NULL OR notas <> 'rechazar')");
+    }
+    
+    @AfterEach
+    void quitarRestriccion() {
+        jdbcTemplate.execute("ALTER TABLE contactos DROP CONSTRAINT ck_prueba_importacion");
+    }
+    
+    @Test
+    void soloSeRechazanLasFilasDelLoteQueFallan() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"nombre\": \"Importado uno\", \"telefono\": \"6400000001\"}",
+                "{\"nombre\": \"Rechazado uno\", \"telefono\": \"6400000002\", \"notas\": \"rechazar\"}",
+                "{\"nombre\": \"Importado dos\", \"telefono\": \"6400000003\"}",
+                "{\"nombre\": \"R\", \"telefono\": \"6400000004\"}",
+                "{\"nombre\": \"Importado tres\", \"telefono\": \"6400000005\"}",
+                "{\"nombre\": \"Rechazado dos\", \"telefono\": \"6400000006\", \"notas\": \"rechazar\"}");
+        
+        ResultadoImportacion resultado = importacionService.importarContactos(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), FormatoContactos.NDJSON);
+        
+        assertThat(resultado.getProcesadas()).isEqualTo(6);
+        assertThat(resultado.getImportadas()).isEqualTo(3);
+        assertThat(resultado.getRechazadas()).isEqualTo(3);
+        // La fila 4 no pasa la validación y no llega al lote
+        assertThat(resultado.getErrores()).extracting(ErrorImportacion::getFila).containsExactly(4L, 2L, 6L);
+        assertThat(resultado.getErrores().subList(1, 3)).allSatisfy(error ->
+                assertThat(error.getMensaje()).startsWith("Error al insertar la fila: "));
+        assertThat(jdbcTemplate.queryForList("SELECT nombre FROM contactos "
+                + "WHERE nombre LIKE 'Importado %' OR nombre LIKE 'Rechazado %' ORDER BY id", String.class))
+                .containsExactly("Importado uno", "Importado dos", "Importado tres");
+    }
+}
@@ -0,0 +1,102 @@
+package com.ejemplo.agenda.service;
+
+import com.ejemplo.agenda.model.dto.ContactoCampos;
+import com.ejemplo.agenda.model.dto.ContactoRequest;
+import com.ejemplo.agenda.model.dto.ContactoResponse;
+import com.ejemplo.agenda.model.dto.PaginaCursor;
+import com.ejemplo.agenda.model.enums.CampoContacto;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recorre los listados por cursor página a página, con nombres repetidos para que el id tenga que desempatar.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PaginacionCursorTest {
+    
+    private static final String[] NOMBRES = {"Ana", "Bea", "Ana", "Álvaro", "Zoe", "Bea", "Ana", "Carlos"};
+    
+    @Autowired
+    private ContactoService contactoService;
+    
+    @BeforeAll
+    void crearContactos() {
+        for (int i = 0; i < 3 * NOMBRES.length; i++) {
+            ContactoRequest request = new ContactoRequest(NOMBRES[i % NOMBRES.length], "600000" + (100 + i));
+            request.setFavorito(i % 3 == 0);
+            contactoService.crearContacto(request);
+        }
+    }
+    
+    @Test
+    void ordenPorIdRecorreTodosLosContactosUnaVez() {
+        List<ContactoResponse> recorridos = recorrer(after -> contactoService.obtenerContactosDespuesDe(after, 5, "id", false));
+        List<ContactoResponse> todos = contactoService.obtenerTodosContactos(0, 1000).getContent();
+        
+        assertThat(ids(recorridos)).isSorted().doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(ids(todos));
+    }
+    
+    @Test
+    void ordenPorNombreDesempataPorIdEntreNombresRepetidos() {
+        List<ContactoResponse> recorridos = recorrer(after -> contactoService.obtenerContactosDespuesDe(after, 4, "nombre", false));
+        List<ContactoResponse> esperados = new ArrayList<>(contactoService.obtenerTodosContactos(0, 1000).getContent());
+        esperados.sort(Comparator.comparing(ContactoResponse::getNombre).thenComparing(ContactoResponse::getId));
+        
+        assertThat(ids(recorridos)).isEqualTo(ids(esperados));
+    }
+    
+    @Test
+    void losCamposParcialesSiguenElMismoOrdenPorNombre() {
+        List<ContactoResponse> completos = recorrer(after -> contactoService.obtenerContactosDespuesDe(after, 4, "nombre", false));
+        List<ContactoCampos> parciales = new ArrayList<>();
+        String after = null;
+        do {
+            PaginaCursor<ContactoCampos> pagina = contactoService.obtenerContactosDespuesDe(after, 3, "nombre", false,
+                    CampoContacto.resolver("telefono"));
+            parciales.addAll(pagina.getContenido());
+            after = pagina.getSiguiente();
+        } while (after != null);
+        
+        assertThat(parciales.stream().map(ContactoCampos::getId).collect(Collectors.toList())).isEqualTo(ids(completos));
+    }
+    
+    @Test
+    void favoritosPorCursorCuentaYRecorreSoloLosFavoritos() {
+        PaginaCursor<ContactoResponse> primera = contactoService.obtenerContactosFavoritosDespuesDe(null, 2, true);
+        List<ContactoResponse> recorridos = recorrer(after -> contactoService.obtenerContactosFavoritosDespuesDe(after, 2, false));
+        
+        assertThat(recorridos).allMatch(ContactoResponse::isFavorito);
+        assertThat(ids(recorridos)).isSorted().doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(ids(contactoService.obtenerContactosFavoritos()));
+        assertThat(primera.getTotal()).isEqualTo(recorridos.size());
+    }
+    
+    private static List<ContactoResponse> recorrer(Function<String, PaginaCursor<ContactoResponse>> pagina) {
+        List<ContactoResponse> recorridos = new ArrayList<>();
+        String after = null;
+        do {
+            PaginaCursor<ContactoResponse> actual = pagina.apply(after);
+            recorridos.addAll(actual.getContenido());
+            after = actual.getSiguiente();
+        } while (after != null);
+        return recorridos;
+    }
+    
+    private static List<Long> ids(List<ContactoResponse> contactos) {
+        return contactos.stream().map(ContactoResponse::getId).collect(Collectors.toList());
+    }
+}